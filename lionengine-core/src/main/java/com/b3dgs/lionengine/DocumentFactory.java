@@ -37,8 +37,10 @@ import org.xml.sax.SAXException;
  */
 final class DocumentFactory
 {
+    /** Load builder, one per thread as builders are not Thread-Safe. */
+    private static final ThreadLocal<DocumentBuilder> BUILDER = ThreadLocal.withInitial(DocumentFactory::createBuilder);
     /** Load factory. */
-    private static DocumentBuilder documentBuilder;
+    private static DocumentBuilderFactory documentBuilderFactory;
     /** Save factory. */
     private static TransformerFactory transformerFactory;
 
@@ -50,7 +52,7 @@ final class DocumentFactory
      */
     public static Document createDocument()
     {
-        return getDocumentFactory().newDocument();
+        return BUILDER.get().newDocument();
     }
 
     /**
@@ -67,7 +69,7 @@ final class DocumentFactory
 
         try
         {
-            return getDocumentFactory().parse(input);
+            return BUILDER.get().parse(input);
         }
         catch (final SAXException exception)
         {
@@ -87,16 +89,16 @@ final class DocumentFactory
     }
 
     /**
-     * Get the document factory.
+     * Create a document builder for the calling thread.
      * 
-     * @return The document factory.
+     * @return The document builder.
      * @throws LionEngineException If unable to create builder.
      */
-    private static synchronized DocumentBuilder getDocumentFactory()
+    private static synchronized DocumentBuilder createBuilder()
     {
-        if (documentBuilder == null)
+        if (documentBuilderFactory == null)
         {
-            final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory = DocumentBuilderFactory.newInstance();
             try
             {
                 documentBuilderFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_DTD, "");
@@ -114,17 +116,17 @@ final class DocumentFactory
                 Verbose.exception(exception);
             }
             documentBuilderFactory.setIgnoringElementContentWhitespace(true);
-            try
-            {
-                documentBuilder = documentBuilderFactory.newDocumentBuilder();
-                documentBuilder.setErrorHandler(null);
-            }
-            catch (final ParserConfigurationException exception)
-            {
-                throw new LionEngineException(exception);
-            }
         }
-        return documentBuilder;
+        try
+        {
+            final DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setErrorHandler(null);
+            return documentBuilder;
+        }
+        catch (final ParserConfigurationException exception)
+        {
+            throw new LionEngineException(exception);
+        }
     }
 
     /**
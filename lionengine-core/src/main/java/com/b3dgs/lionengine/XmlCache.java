@@ -0,0 +1,635 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Compiled XML cache. When enabled, each XML media read is stored in a compact binary form inside the cache directory,
+ * and memory mapped on next reading instead of parsing the XML.
+ * <p>
+ * A compiled form is used as is while the source file length and modification time are unchanged. Else the source is
+ * read and its checksum compared, so a touched but unchanged source is not compiled again. Sources without file, such
+ * as JAR resources, are always validated by checksum. Only documents with a single root element, containing elements,
+ * texts, CDATA and comments are compiled. Others are always parsed.
+ * </p>
+ * <p>
+ * Configurations imported from a media can also be shared with {@link #getImport(Media, Class, Supplier)}, so they are
+ * only imported again when their source changes.
+ * </p>
+ * <p>
+ * Disabled by default.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+public final class XmlCache
+{
+    /** Compiled file extension. */
+    public static final String EXTENSION = ".xmlc";
+    /** Compiled file magic. */
+    private static final int MAGIC = 0x4C584D43;
+    /** Compiled format version. */
+    private static final int VERSION = 2;
+    /** Compiled header size in bytes (magic, version, length, modified, checksum). */
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 3;
+    /** Unknown source length, when source has no file. */
+    private static final long NO_LENGTH = -1L;
+    /** End of element. */
+    private static final byte END = 0;
+    /** Element node. */
+    private static final byte ELEMENT = 1;
+    /** Text node. */
+    private static final byte TEXT = 2;
+    /** CDATA node. */
+    private static final byte CDATA = 3;
+    /** Comment node. */
+    private static final byte COMMENT = 4;
+    /** Read buffer size. */
+    private static final int BUFFER_SIZE = 4096;
+    /** File name characters replacement. */
+    private static final char REPLACEMENT = '_';
+    /** Temporary file extension. */
+    private static final String TEMP = ".tmp";
+
+    /** Shared imports, by media path and type. */
+    private static final Map<String, Imported> IMPORTS = new ConcurrentHashMap<>();
+    /** Cache directory, <code>null</code> if disabled. */
+    private static File directory;
+
+    /**
+     * Set the cache directory. Created if not existing. Shared imports are cleared.
+     * 
+     * @param directory The cache directory, <code>null</code> to disable cache.
+     */
+    public static synchronized void setDirectory(File directory)
+    {
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+        {
+            Verbose.warning(XmlCache.class, "setDirectory", "Unable to create cache directory: ", directory.getPath());
+        }
+        XmlCache.directory = directory;
+        IMPORTS.clear();
+    }
+
+    /**
+     * Get the cache directory.
+     * 
+     * @return The cache directory, <code>null</code> if disabled.
+     */
+    public static synchronized File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Get the compiled file of a media.
+     * 
+     * @param media The XML media (must not be <code>null</code>).
+     * @return The compiled file, <code>null</code> if cache is disabled.
+     * @throws LionEngineException If invalid argument.
+     */
+    public static File getFile(Media media)
+    {
+        Check.notNull(media);
+
+        final File folder = getDirectory();
+        if (folder == null)
+        {
+            return null;
+        }
+        final String path = media.getPath();
+        final StringBuilder name = new StringBuilder(path.length() + EXTENSION.length());
+        for (int i = 0; i < path.length(); i++)
+        {
+            final char c = path.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '.' || c == '-')
+            {
+                name.append(c);
+            }
+            else
+            {
+                name.append(REPLACEMENT);
+            }
+        }
+        return new File(folder, name.append(EXTENSION).toString());
+    }
+
+    /**
+     * Get a configuration imported from media, shared while cache is enabled and media file is unchanged (same length
+     * and modification time). Importer is called on each call if cache is disabled. Imported configuration is shared,
+     * so it must not be modified.
+     * 
+     * @param <T> The configuration type.
+     * @param media The source media (must not be <code>null</code>).
+     * @param type The configuration type (must not be <code>null</code>).
+     * @param importer The configuration importer (must not be <code>null</code>).
+     * @return The imported configuration.
+     * @throws LionEngineException If invalid arguments or error on import.
+     */
+    public static <T> T getImport(Media media, Class<T> type, Supplier<T> importer)
+    {
+        Check.notNull(media);
+        Check.notNull(type);
+        Check.notNull(importer);
+
+        if (getDirectory() == null)
+        {
+            return importer.get();
+        }
+        final File source = media.getFile();
+        final long length = getLength(source);
+        final long modified = source.lastModified();
+        final String key = media.getPath() + Constant.SPACE + type.getName();
+
+        final Imported imported = IMPORTS.get(key);
+        if (imported != null && imported.length == length && imported.modified == modified)
+        {
+            return type.cast(imported.value);
+        }
+        final T value = importer.get();
+        IMPORTS.put(key, new Imported(length, modified, value));
+        return value;
+    }
+
+    /**
+     * Read document from media, using compiled form if valid, and compile it else.
+     * 
+     * @param media The XML media.
+     * @return The document read.
+     * @throws IOException If malformed document.
+     * @throws LionEngineException If unable to open media.
+     */
+    static Document read(Media media) throws IOException
+    {
+        final File file = getFile(media);
+        if (file == null)
+        {
+            try (InputStream input = media.getInputStream())
+            {
+                return DocumentFactory.createDocument(input);
+            }
+        }
+
+        final File source = media.getFile();
+        final long length = getLength(source);
+        final long modified = source.lastModified();
+        final Header header = Header.read(file);
+        if (header != null && length != NO_LENGTH && header.length == length && header.modified == modified)
+        {
+            final Document compiled = load(file);
+            if (compiled != null)
+            {
+                return compiled;
+            }
+        }
+
+        final byte[] data;
+        try (InputStream input = media.getInputStream())
+        {
+            data = readAll(input);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+
+        if (header != null && header.length == data.length && header.checksum == crc.getValue())
+        {
+            if (header.modified != modified)
+            {
+                Header.updateModified(file, modified);
+            }
+            final Document compiled = load(file);
+            if (compiled != null)
+            {
+                return compiled;
+            }
+        }
+        final Document document = DocumentFactory.createDocument(new ByteArrayInputStream(data));
+        store(file, document, new Header(data.length, modified, crc.getValue()));
+        return document;
+    }
+
+    /**
+     * Get the source file length.
+     * 
+     * @param source The source file.
+     * @return The source length, {@link #NO_LENGTH} if not a file.
+     */
+    private static long getLength(File source)
+    {
+        if (source.isFile())
+        {
+            return source.length();
+        }
+        return NO_LENGTH;
+    }
+
+    /**
+     * Read all input bytes.
+     * 
+     * @param input The input stream.
+     * @return The read bytes.
+     * @throws IOException If error on reading.
+     */
+    private static byte[] readAll(InputStream input) throws IOException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(BUFFER_SIZE);
+        UtilStream.copy(input, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Load compiled document, its header being already validated.
+     * 
+     * @param file The compiled file.
+     * @return The loaded document, <code>null</code> if invalid.
+     */
+    private static Document load(File file)
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            buffer.position(HEADER_SIZE);
+            final boolean standalone = buffer.get() != 0;
+            final String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++)
+            {
+                final byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            final Document document = DocumentFactory.createDocument();
+            document.setStrictErrorChecking(false);
+            document.setXmlStandalone(standalone);
+            if (buffer.get() != ELEMENT)
+            {
+                return null;
+            }
+            document.appendChild(decode(document, buffer, strings));
+            document.setStrictErrorChecking(true);
+            return document;
+        }
+        catch (final IOException
+                     | IllegalArgumentException
+                     | BufferUnderflowException
+                     | IndexOutOfBoundsException
+                     | NegativeArraySizeException
+                     | DOMException exception)
+        {
+            Verbose.exception(exception);
+            return null;
+        }
+    }
+
+    /**
+     * Decode element and its children.
+     * 
+     * @param document The document owner.
+     * @param buffer The compiled buffer, positioned after element type.
+     * @param strings The strings table.
+     * @return The decoded element.
+     * @throws IOException If invalid node.
+     */
+    private static Element decode(Document document, ByteBuffer buffer, String[] strings) throws IOException
+    {
+        final Element element = document.createElement(strings[buffer.getInt()]);
+        final int attributes = buffer.getInt();
+        for (int i = 0; i < attributes; i++)
+        {
+            element.setAttribute(strings[buffer.getInt()], strings[buffer.getInt()]);
+        }
+        for (byte type = buffer.get(); type != END; type = buffer.get())
+        {
+            if (type == ELEMENT)
+            {
+                element.appendChild(decode(document, buffer, strings));
+            }
+            else if (type == TEXT)
+            {
+                element.appendChild(document.createTextNode(strings[buffer.getInt()]));
+            }
+            else if (type == CDATA)
+            {
+                element.appendChild(document.createCDATASection(strings[buffer.getInt()]));
+            }
+            else if (type == COMMENT)
+            {
+                element.appendChild(document.createComment(strings[buffer.getInt()]));
+            }
+            else
+            {
+                throw new IOException("Invalid node type: " + type);
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Store compiled document if supported. Errors are only logged.
+     * 
+     * @param file The compiled file.
+     * @param document The document to compile.
+     * @param header The source header.
+     */
+    private static void store(File file, Document document, Header header)
+    {
+        final NodeList children = document.getChildNodes();
+        if (children.getLength() != 1 || children.item(0).getNodeType() != Node.ELEMENT_NODE)
+        {
+            return;
+        }
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final ByteArrayOutputStream nodes = new ByteArrayOutputStream(BUFFER_SIZE);
+        try (DataOutputStream output = new DataOutputStream(nodes))
+        {
+            if (!encode(output, (Element) children.item(0), strings))
+            {
+                return;
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            return;
+        }
+
+        File temp = null;
+        try
+        {
+            temp = File.createTempFile(file.getName(), TEMP, file.getParentFile());
+            try (OutputStream stream = new FileOutputStream(temp);
+                 DataOutputStream output = new DataOutputStream(stream))
+            {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(header.length);
+                output.writeLong(header.modified);
+                output.writeLong(header.checksum);
+                output.writeByte(document.getXmlStandalone() ? 1 : 0);
+                output.writeInt(strings.size());
+                for (final String string : strings.keySet())
+                {
+                    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(bytes.length);
+                    output.write(bytes);
+                }
+                nodes.writeTo(output);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            if (temp != null && temp.isFile())
+            {
+                UtilFile.deleteFile(temp);
+            }
+        }
+    }
+
+    /**
+     * Encode element and its children.
+     * 
+     * @param output The nodes output.
+     * @param element The element to encode.
+     * @param strings The strings table.
+     * @return <code>true</code> if encoded, <code>false</code> if contains unsupported node.
+     * @throws IOException If error on writing.
+     */
+    private static boolean encode(DataOutputStream output, Element element, Map<String, Integer> strings)
+            throws IOException
+    {
+        output.writeByte(ELEMENT);
+        output.writeInt(getIndex(strings, element.getTagName()));
+        final NamedNodeMap attributes = element.getAttributes();
+        final int n = attributes.getLength();
+        output.writeInt(n);
+        for (int i = 0; i < n; i++)
+        {
+            final Node attribute = attributes.item(i);
+            output.writeInt(getIndex(strings, attribute.getNodeName()));
+            output.writeInt(getIndex(strings, attribute.getNodeValue()));
+        }
+        final NodeList children = element.getChildNodes();
+        final int count = children.getLength();
+        for (int i = 0; i < count; i++)
+        {
+            final Node child = children.item(i);
+            final short type = child.getNodeType();
+            if (type == Node.ELEMENT_NODE)
+            {
+                if (!encode(output, (Element) child, strings))
+                {
+                    return false;
+                }
+            }
+            else if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE || type == Node.COMMENT_NODE)
+            {
+                output.writeByte(getType(type));
+                output.writeInt(getIndex(strings, child.getNodeValue()));
+            }
+            else
+            {
+                return false;
+            }
+        }
+        output.writeByte(END);
+        return true;
+    }
+
+    /**
+     * Get compiled type of a text node type.
+     * 
+     * @param type The node type.
+     * @return The compiled type.
+     */
+    private static byte getType(short type)
+    {
+        if (type == Node.TEXT_NODE)
+        {
+            return TEXT;
+        }
+        else if (type == Node.CDATA_SECTION_NODE)
+        {
+            return CDATA;
+        }
+        return COMMENT;
+    }
+
+    /**
+     * Get string index in table, adding it if missing.
+     * 
+     * @param strings The strings table.
+     * @param string The string.
+     * @return The string index.
+     */
+    private static int getIndex(Map<String, Integer> strings, String string)
+    {
+        return strings.computeIfAbsent(string, s -> Integer.valueOf(strings.size())).intValue();
+    }
+
+    /**
+     * Private constructor.
+     */
+    private XmlCache()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+
+    /**
+     * Compiled file header, describing its source.
+     */
+    private static final class Header
+    {
+        /**
+         * Read header of compiled file. Header is read without mapping the file, so a stale file can be replaced.
+         * 
+         * @param file The compiled file.
+         * @return The header, <code>null</code> if file not existing or invalid.
+         */
+        static Header read(File file)
+        {
+            if (!file.isFile())
+            {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+                while (buffer.hasRemaining() && channel.read(buffer) > -1)
+                {
+                    continue;
+                }
+                if (buffer.hasRemaining())
+                {
+                    return null;
+                }
+                buffer.flip();
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                {
+                    return null;
+                }
+                return new Header(buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                return null;
+            }
+        }
+
+        /**
+         * Update compiled file source modification time, when source was touched without change.
+         * 
+         * @param file The compiled file.
+         * @param modified The source modification time.
+         */
+        static void updateModified(File file, long modified)
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+            {
+                final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                buffer.putLong(modified).flip();
+                channel.write(buffer, Integer.BYTES * 2L + Long.BYTES);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+
+        /** Source length. */
+        private final long length;
+        /** Source modification time. */
+        private final long modified;
+        /** Source checksum. */
+        private final long checksum;
+
+        /**
+         * Create header.
+         * 
+         * @param length The source length.
+         * @param modified The source modification time.
+         * @param checksum The source checksum.
+         */
+        Header(long length, long modified, long checksum)
+        {
+            super();
+
+            this.length = length;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Shared imported configuration, with its source stamp.
+     */
+    private static final class Imported
+    {
+        /** Source length. */
+        private final long length;
+        /** Source modification time. */
+        private final long modified;
+        /** Imported configuration. */
+        private final Object value;
+
+        /**
+         * Create imported configuration.
+         * 
+         * @param length The source length.
+         * @param modified The source modification time.
+         * @param value The imported configuration.
+         */
+        Imported(long length, long modified, Object value)
+        {
+            super();
+
+            this.length = length;
+            this.modified = modified;
+            this.value = value;
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package com.b3dgs.lionengine;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -57,7 +56,7 @@ public class XmlReader
     protected final Element root;
 
     /**
-     * Create node from media.
+     * Create node from media. Use the compiled form if {@link XmlCache} is enabled.
      * 
      * @param media The XML media path (must not be <code>null</code>).
      * @throws LionEngineException If invalid argument or error when loading media.
@@ -68,9 +67,9 @@ public class XmlReader
 
         Check.notNull(media);
 
-        try (InputStream input = media.getInputStream())
+        try
         {
-            document = DocumentFactory.createDocument(input);
+            document = XmlCache.read(media);
             root = document.getDocumentElement();
         }
         catch (final IOException exception)
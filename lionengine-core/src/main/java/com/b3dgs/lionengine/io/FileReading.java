@@ -147,6 +147,17 @@ public final class FileReading implements Closeable
         return in.readUTF();
     }
 
+    /**
+     * Read bytes until array is full.
+     * 
+     * @param bytes The bytes array to fill.
+     * @throws IOException If read failed.
+     */
+    public void readBytes(byte[] bytes) throws IOException
+    {
+        in.readFully(bytes);
+    }
+
     /*
      * Closeable
      */
@@ -147,6 +147,19 @@ public final class FileWriting implements Closeable
         out.writeUTF(s);
     }
 
+    /**
+     * Write a bytes array part.
+     * 
+     * @param bytes The bytes array.
+     * @param offset The first byte index.
+     * @param length The number of bytes to write.
+     * @throws IOException If write failed.
+     */
+    public void writeBytes(byte[] bytes, int offset, int length) throws IOException
+    {
+        out.write(bytes, offset, length);
+    }
+
     /*
      * Closeable
      */
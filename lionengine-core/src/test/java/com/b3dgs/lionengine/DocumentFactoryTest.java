@@ -25,6 +25,11 @@ import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -32,6 +37,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
 
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
 
 /**
  * Test {@link DocumentFactory}.
@@ -63,6 +69,35 @@ final class DocumentFactoryTest
         }
     }
 
+    /**
+     * Test create documents from different threads.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    void testCreateDocumentThreads() throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final Callable<Document> task = () ->
+        {
+            try (InputStream input = DocumentFactoryTest.class.getResourceAsStream("type.xml"))
+            {
+                return DocumentFactory.createDocument(input);
+            }
+        };
+        try
+        {
+            for (final Future<Document> document : executor.invokeAll(Arrays.asList(task, task, task, task)))
+            {
+                assertNotNull(document.get().getDocumentElement());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Test create document malformed.
      * 
@@ -109,10 +144,12 @@ final class DocumentFactoryTest
     @Test
     void testMissingFeature() throws Exception
     {
-        final Object old = UtilReflection.getField(DocumentFactory.class, "documentBuilder");
-        final Field field = DocumentFactory.class.getDeclaredField("documentBuilder");
+        final ThreadLocal<?> builder = UtilReflection.getField(DocumentFactory.class, "BUILDER");
+        final Object old = UtilReflection.getField(DocumentFactory.class, "documentBuilderFactory");
+        final Field field = DocumentFactory.class.getDeclaredField("documentBuilderFactory");
         UtilReflection.setAccessible(field, true);
         field.set(DocumentFactory.class, null);
+        builder.remove();
 
         final String oldFactory = System.getProperty(DocumentBuilderFactory.class.getName());
         System.setProperty(DocumentBuilderFactory.class.getName(), Factory.class.getName());
@@ -135,6 +172,7 @@ final class DocumentFactoryTest
             }
             field.set(DocumentFactory.class, old);
             UtilReflection.setAccessible(field, false);
+            builder.remove();
         }
     }
 
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link XmlCache}.
+ */
+final class XmlCacheTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Disable cache.
+     */
+    @AfterEach
+    void afterTest()
+    {
+        XmlCache.setDirectory(null);
+    }
+
+    /**
+     * Create test document.
+     * 
+     * @param media The media destination.
+     * @param value The attribute value.
+     */
+    private static void createXml(Media media, String value)
+    {
+        final Xml root = new Xml("lionengine:root");
+        root.writeString("value", value);
+        root.createChild("child").setText("text é");
+        root.createChild("child").writeInteger("index", 1);
+        root.save(media);
+    }
+
+    /**
+     * Test the constructor.
+     */
+    @Test
+    void testConstructorPrivate()
+    {
+        assertPrivateConstructor(XmlCache.class);
+    }
+
+    /**
+     * Test disabled cache.
+     */
+    @Test
+    void testDisabled()
+    {
+        assertNull(XmlCache.getDirectory());
+        assertNull(XmlCache.getFile(Medias.create("cache.xml")));
+    }
+
+    /**
+     * Test compiled document is used, and recompiled when source or compiled form change.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testCompiled() throws IOException
+    {
+        final File directory = new File(System.getProperty("java.io.tmpdir"), "xmlcache");
+        XmlCache.setDirectory(directory);
+
+        final Media media = Medias.create("cache.xml");
+        createXml(media, "first");
+        final File compiled = XmlCache.getFile(media);
+
+        try
+        {
+            assertEquals("first", new Xml(media).readString("value"));
+            assertTrue(compiled.isFile());
+
+            final Xml xml = new Xml(media);
+            assertEquals("lionengine:root", xml.getNodeName());
+            assertEquals("first", xml.readString("value"));
+            assertEquals(2, xml.getChildren("child").size());
+            assertEquals("text é", xml.getChildren("child").iterator().next().getText());
+            assertEquals(1, xml.getChildren("child").stream().skip(1L).findFirst().get().readInteger("index"));
+
+            createXml(media, "second");
+
+            assertEquals("second", new Xml(media).readString("value"));
+            assertEquals("second", new Xml(media).readString("value"));
+
+            Files.write(compiled.toPath(), new byte[]
+            {
+                1, 2, 3
+            });
+
+            assertEquals("second", new Xml(media).readString("value"));
+            assertEquals("second", new Xml(media).readString("value"));
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+            assertTrue(compiled.delete());
+            assertTrue(directory.delete());
+        }
+    }
+
+    /**
+     * Test compiled document is validated by source length and modification time before checksum.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testModified() throws IOException
+    {
+        final File directory = new File(System.getProperty("java.io.tmpdir"), "xmlcache");
+        XmlCache.setDirectory(directory);
+
+        final Media media = Medias.create("cache.xml");
+        createXml(media, "first");
+        final File source = media.getFile();
+        final File compiled = XmlCache.getFile(media);
+
+        try
+        {
+            assertEquals("first", new Xml(media).readString("value"));
+
+            final long modified = source.lastModified();
+            createXml(media, "other");
+            assertTrue(source.setLastModified(modified));
+
+            assertEquals("first", new Xml(media).readString("value"));
+
+            assertTrue(source.setLastModified(modified - 2000L));
+
+            assertEquals("other", new Xml(media).readString("value"));
+
+            final long length = compiled.length();
+            assertTrue(source.setLastModified(modified - 4000L));
+
+            assertEquals("other", new Xml(media).readString("value"));
+            assertEquals(length, compiled.length());
+        }
+        finally
+        {
+            assertTrue(source.delete());
+            assertTrue(compiled.delete());
+            assertTrue(directory.delete());
+        }
+    }
+
+    /**
+     * Test imported configuration is shared until source changes.
+     */
+    @Test
+    void testImport()
+    {
+        final Media media = Medias.create("cache.xml");
+        createXml(media, "first");
+        final File source = media.getFile();
+
+        try
+        {
+            final Object disabled = XmlCache.getImport(media, String.class, () -> new Xml(media).readString("value"));
+            assertEquals("first", disabled);
+            assertTrue(disabled != XmlCache.getImport(media, String.class, () -> new String("first")));
+
+            XmlCache.setDirectory(new File(System.getProperty("java.io.tmpdir"), "xmlcache"));
+
+            final String imported = XmlCache.getImport(media, String.class, () -> new String("first"));
+            assertTrue(imported == XmlCache.getImport(media, String.class, () -> new String("first")));
+
+            createXml(media, "second");
+            assertTrue(source.setLastModified(source.lastModified() - 2000L));
+
+            assertEquals("second", XmlCache.getImport(media, String.class, () -> new Xml(media).readString("value")));
+            assertTrue(XmlCache.getFile(media).delete());
+        }
+        finally
+        {
+            assertTrue(source.delete());
+            assertTrue(XmlCache.getDirectory().delete());
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package com.b3dgs.lionengine.io;
 
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 
 import java.io.IOException;
@@ -41,6 +42,10 @@ final class FileWritingReadingTest
     private static final long LONG_VALUE = 6L;
     private static final double DOUBLE_VALUE = 7.1;
     private static final String STRING_VALUE = "string";
+    private static final byte[] BYTES_VALUE = new byte[]
+    {
+        8, 9, 10
+    };
 
     /** Default test file data. */
     private Media fileData;
@@ -87,6 +92,7 @@ final class FileWritingReadingTest
             writing.writeLong(LONG_VALUE);
             writing.writeDouble(DOUBLE_VALUE);
             writing.writeString(STRING_VALUE);
+            writing.writeBytes(BYTES_VALUE, 1, 2);
         }
     }
 
@@ -108,6 +114,14 @@ final class FileWritingReadingTest
             assertEquals(LONG_VALUE, reading.readLong());
             assertEquals(DOUBLE_VALUE, reading.readDouble());
             assertEquals(STRING_VALUE, reading.readString());
+
+            final byte[] bytes = new byte[2];
+            reading.readBytes(bytes);
+
+            assertArrayEquals(new byte[]
+            {
+                9, 10
+            }, bytes);
         }
     }
 }
@@ -26,6 +26,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
@@ -33,6 +35,7 @@ import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.XmlCache;
 import com.b3dgs.lionengine.XmlReader;
 
 /**
@@ -67,6 +70,8 @@ public class Configurer
     private final String path;
     /** Root node. */
     private final Xml root;
+    /** Imported configurations. */
+    private final Map<Class<?>, Object> imports = new ConcurrentHashMap<>();
 
     /**
      * Load data from configuration media.
@@ -95,6 +100,25 @@ public class Configurer
         root.save(media);
     }
 
+    /**
+     * Get a configuration imported from this configurer, importing it only on first call. Imported configuration is
+     * shared, so it must not be modified, and further changes on configurer are not reflected. When {@link XmlCache} is
+     * enabled, it is also shared with other configurers of the same media until its file changes.
+     * 
+     * @param <T> The configuration type.
+     * @param type The configuration type (must not be <code>null</code>).
+     * @param importer The configuration importer (must not be <code>null</code>).
+     * @return The imported configuration.
+     * @throws LionEngineException If invalid arguments or error on import.
+     */
+    public final <T> T getImport(Class<T> type, Function<Configurer, T> importer)
+    {
+        Check.notNull(type);
+        Check.notNull(importer);
+
+        return type.cast(imports.computeIfAbsent(type, t -> XmlCache.getImport(media, type, () -> importer.apply(this))));
+    }
+
     /**
      * Get the data root container for raw access.
      * 
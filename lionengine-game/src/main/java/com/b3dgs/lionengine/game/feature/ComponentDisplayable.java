@@ -16,15 +16,13 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Set;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.graphic.Graphic;
 
@@ -32,11 +30,45 @@ import com.b3dgs.lionengine.graphic.Graphic;
  * Renderer component implementation which render {@link Displayable} elements with {@link Layerable} support to order
  * rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer value.
  * The lower layer index is handled first.
+ * <p>
+ * When created with a {@link Camera}, elements which are also {@link Transformable} are indexed in a grid kept up to
+ * date from {@link TransformableListener}, and only the ones intersecting the camera view (plus a margin) are
+ * rendered. Other elements are always rendered.
+ * </p>
+ * <p>
+ * Movements and layer changes raised by local refreshables updated in parallel are applied on the calling thread (see
+ * {@link ComponentRefreshable#defer(Runnable)}).
+ * </p>
+ * <p>
+ * Layers can be sorted by vertical location with {@link #setSorted(int, boolean)}, where higher elements are rendered
+ * first, for top-down or isometric depth.
+ * </p>
  */
-public class ComponentDisplayable implements ComponentRenderer, HandlerListener, LayerableListener
+public class ComponentDisplayable implements ComponentRenderer, HandlerListener, LayerableListener,
+                                  TransformableListener
 {
     /** Default layer value. */
-    private static final Integer LAYER_DEFAULT = Integer.valueOf(0);
+    private static final int LAYER_DEFAULT = 0;
+    /** Default culling cell size. */
+    private static final int CELL_SIZE = 128;
+    /** Initial visible capacity. */
+    private static final int INIT_VISIBLE = 64;
+    /** Vertical order, higher first. */
+    private static final Comparator<Entry> VERTICAL = (a, b) -> Double.compare(b.getY(), a.getY());
+    /** Culled order, by layer, depth and sequence. */
+    private static final Comparator<Entry> ORDER = (a, b) ->
+    {
+        int compare = Integer.compare(a.layer, b.layer);
+        if (compare == 0)
+        {
+            compare = Double.compare(a.depth, b.depth);
+        }
+        if (compare == 0)
+        {
+            compare = Integer.compare(a.sequence, b.sequence);
+        }
+        return compare;
+    };
 
     /**
      * Get the featurable layer.
@@ -44,108 +76,299 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
      * @param featurable The featurable reference.
      * @return The featurable layer if is {@link Layerable}, {@link #LAYER_DEFAULT} else.
      */
-    private static Integer getLayer(Featurable featurable)
+    private static int getLayer(FeatureProvider featurable)
     {
         if (featurable.hasFeature(Layerable.class))
         {
             final Layerable layerable = featurable.getFeature(Layerable.class);
-            return layerable.getLayerDisplay();
+            return layerable.getLayerDisplay().intValue();
         }
         return LAYER_DEFAULT;
     }
 
-    /** Sorted layers index. */
-    private final List<Integer> indexs = new ArrayList<>();
-    /** Sorted layers index. */
-    private final Set<Integer> indexsSet = new HashSet<>();
-    /** Layers to render. */
-    private final Map<Integer, List<Displayable>> layers = new HashMap<>();
-    /** Layer to update. */
-    private final List<LayerUpdate> toUpdate = new ArrayList<>();
-    /** Update flag. */
-    private boolean updateRequested;
+    /** Layers to render (all if not culled, not transformable only else). */
+    private final Layers<Entry> layers = new Layers<>();
+    /** Displayables entry. */
+    private final Map<Displayable, Entry> entries = new IdentityHashMap<>();
+    /** Camera reference (<code>null</code> if not culled). */
+    private final Camera camera;
+    /** Culling margin. */
+    private final int margin;
+    /** Transformable grid (<code>null</code> if not culled). */
+    private final SpatialGrid<Entry> grid;
+    /** Vertically sorted layers value. */
+    private int[] sorted = new int[0];
+    /** Visible entries. */
+    private Entry[] visible = new Entry[INIT_VISIBLE];
+    /** Entries sequence. */
+    private int sequence;
 
     /**
-     * Create component.
+     * Create component, rendering all elements.
      */
     public ComponentDisplayable()
     {
         super();
+
+        camera = null;
+        margin = 0;
+        grid = null;
+    }
+
+    /**
+     * Create component, rendering elements in camera view only, with default cell size.
+     * 
+     * @param camera The camera reference (must not be <code>null</code>).
+     * @param margin The view margin in real units (must be superior or equal to 0).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ComponentDisplayable(Camera camera, int margin)
+    {
+        this(camera, margin, CELL_SIZE);
+    }
+
+    /**
+     * Create component, rendering elements in camera view only.
+     * <p>
+     * Cell size should be around the size of the common displayable, or a fraction of the view size.
+     * </p>
+     * 
+     * @param camera The camera reference (must not be <code>null</code>).
+     * @param margin The view margin in real units (must be superior or equal to 0).
+     * @param cellSize The grid cell size in real units (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ComponentDisplayable(Camera camera, int margin, int cellSize)
+    {
+        super();
+
+        Check.notNull(camera);
+        Check.superiorOrEqual(margin, 0);
+        Check.superiorStrict(cellSize, 0);
+
+        this.camera = camera;
+        this.margin = margin;
+        grid = new SpatialGrid<>(cellSize);
     }
 
     /**
-     * Get the layer set at the specified index. Creates an empty set if no set already defined.
+     * Set layer vertical sorting. Elements with a higher vertical location are rendered first, elements which are not
+     * {@link Transformable} are considered at 0.
      * 
-     * @param layer The layer index.
-     * @return The layer set reference.
+     * @param layer The layer value.
+     * @param enabled <code>true</code> to sort layer, <code>false</code> to keep add order.
      */
-    private List<Displayable> getLayer(Integer layer)
+    public void setSorted(int layer, boolean enabled)
     {
-        final List<Displayable> displayables;
-        if (!layers.containsKey(layer))
+        final int index = Arrays.binarySearch(sorted, layer);
+        if (enabled && index < 0)
         {
-            displayables = new ArrayList<>();
-            layers.put(layer, displayables);
+            final int insert = -(index + 1);
+            final int[] values = new int[sorted.length + 1];
+            System.arraycopy(sorted, 0, values, 0, insert);
+            System.arraycopy(sorted, insert, values, insert + 1, sorted.length - insert);
+            values[insert] = layer;
+            sorted = values;
         }
-        else
+        else if (!enabled && index > -1)
         {
-            displayables = layers.get(layer);
+            final int[] values = new int[sorted.length - 1];
+            System.arraycopy(sorted, 0, values, 0, index);
+            System.arraycopy(sorted, index + 1, values, index, values.length - index);
+            sorted = values;
         }
-        return displayables;
     }
 
     /**
-     * Remove displayable and its layer.
+     * Check if layer is vertically sorted.
+     * 
+     * @param layer The layer value.
+     * @return <code>true</code> if sorted, <code>false</code> else.
+     */
+    private boolean isSorted(int layer)
+    {
+        return sorted.length > 0 && Arrays.binarySearch(sorted, layer) > -1;
+    }
+
+    /**
+     * Get the displayable entry. Creates it if not existing.
      * 
-     * @param layer The layer index.
-     * @param displayable The displayable to remove.
+     * @param provider The displayable provider.
+     * @return The entry reference.
      */
-    private void remove(Integer layer, Displayable displayable)
+    private Entry getEntry(FeatureProvider provider)
     {
-        final Collection<Displayable> displayables = getLayer(layer);
-        displayables.remove(displayable);
-        if (displayables.isEmpty())
+        final Displayable displayable = provider.getFeature(Displayable.class);
+        Entry entry = entries.get(displayable);
+        if (entry == null)
         {
-            indexs.remove(layer);
-            indexsSet.remove(layer);
-            Collections.sort(indexs);
+            final Transformable transformable;
+            if (provider.hasFeature(Transformable.class))
+            {
+                transformable = provider.getFeature(Transformable.class);
+            }
+            else
+            {
+                transformable = null;
+            }
+            entry = new Entry(displayable, transformable, sequence++);
+            entries.put(displayable, entry);
         }
+        return entry;
     }
 
-    /*
-     * ComponentRenderer
+    /**
+     * Check if entry is culled by grid.
+     * 
+     * @param entry The entry reference.
+     * @return <code>true</code> if in grid, <code>false</code> if in layers.
      */
+    private boolean isCulled(Entry entry)
+    {
+        return grid != null && entry.transformable != null;
+    }
 
-    @Override
-    public void render(Graphic g, Handlables featurables)
+    /**
+     * Update entry in grid.
+     * 
+     * @param entry The entry reference.
+     */
+    private void updateGrid(Entry entry)
+    {
+        final Transformable transformable = entry.transformable;
+        final double x = transformable.getX();
+        final double y = transformable.getY();
+        final int width = transformable.getWidth();
+        final int height = transformable.getHeight();
+        grid.move(entry, x - width, y - height, x + width, y + height);
+    }
+
+    /**
+     * Change entry layer.
+     * 
+     * @param provider The displayable provider.
+     * @param layer The new layer value.
+     */
+    private void changeLayer(FeatureProvider provider, int layer)
+    {
+        final Entry entry = getEntry(provider);
+        entry.layer = layer;
+        if (isCulled(entry))
+        {
+            updateGrid(entry);
+        }
+        else
+        {
+            layers.move(entry, entry.layer);
+        }
+    }
+
+    /**
+     * Add entry to visible ones.
+     * 
+     * @param entry The visible entry.
+     * @param count The current visible count.
+     */
+    private void addVisible(Entry entry, int count)
     {
-        for (int l = 0; l < indexs.size(); l++)
+        if (count == visible.length)
         {
-            final List<Displayable> displayables = layers.get(indexs.get(l));
-            final int count = displayables.size();
-            for (int i = 0; i < count; i++)
+            visible = Arrays.copyOf(visible, count * 2);
+        }
+        if (isSorted(entry.layer))
+        {
+            entry.depth = -entry.getY();
+        }
+        else
+        {
+            entry.depth = 0.0;
+        }
+        visible[count] = entry;
+    }
+
+    /**
+     * Render all elements by layer.
+     * 
+     * @param g The graphic output.
+     */
+    private void renderLayers(Graphic g)
+    {
+        final int count = layers.getCount();
+        for (int l = 0; l < count; l++)
+        {
+            if (isSorted(layers.getLayer(l)))
+            {
+                layers.sort(l, VERTICAL);
+            }
+            final int size = layers.getSize(l);
+            for (int i = 0; i < size; i++)
             {
-                displayables.get(i).render(g);
+                layers.get(l, i).displayable.render(g);
             }
         }
-        if (updateRequested)
+    }
+
+    /**
+     * Render elements in camera view.
+     * 
+     * @param g The graphic output.
+     */
+    private void renderCulled(Graphic g)
+    {
+        int count = 0;
+        final int layersCount = layers.getCount();
+        for (int l = 0; l < layersCount; l++)
         {
-            final int count = toUpdate.size();
-            for (int i = 0; i < count; i++)
+            final int size = layers.getSize(l);
+            for (int i = 0; i < size; i++)
             {
-                final LayerUpdate update = toUpdate.get(i);
+                addVisible(layers.get(l, i), count);
+                count++;
+            }
+        }
 
-                getLayer(update.layerOld).remove(update.displayable);
-                getLayer(update.layerNew).add(update.displayable);
-                indexs.add(update.layerNew);
-                indexsSet.add(update.layerNew);
+        final double minX = camera.getX() + camera.getViewX() - margin;
+        final double minY = camera.getY() - camera.getViewY() - margin;
+        final int found = grid.query(minX,
+                                     minY,
+                                     minX + camera.getWidth() + margin * 2.0,
+                                     minY + camera.getHeight() + margin * 2.0);
+        for (int i = 0; i < found; i++)
+        {
+            final Entry entry = grid.get(i);
+            if (camera.isViewable(entry.transformable, margin, margin))
+            {
+                addVisible(entry, count);
+                count++;
             }
-            Collections.sort(indexs);
-            toUpdate.clear();
-            updateRequested = false;
+        }
+
+        Arrays.sort(visible, 0, count, ORDER);
+        for (int i = 0; i < count; i++)
+        {
+            visible[i].displayable.render(g);
+            visible[i] = null;
         }
     }
 
+    /*
+     * ComponentRenderer
+     */
+
+    @Override
+    public void render(Graphic g, Handlables featurables)
+    {
+        if (grid == null)
+        {
+            renderLayers(g);
+        }
+        else
+        {
+            renderCulled(g);
+        }
+        layers.apply();
+    }
+
     /*
      * HandlerListener
      */
@@ -155,15 +378,16 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     {
         if (featurable.hasFeature(Displayable.class))
         {
-            final Displayable displayable = featurable.getFeature(Displayable.class);
-            final Integer layer = getLayer(featurable);
-            final Collection<Displayable> displayables = getLayer(layer);
-            displayables.add(displayable);
-            if (!indexsSet.contains(layer))
+            final Entry entry = getEntry(featurable);
+            entry.layer = getLayer(featurable);
+            if (isCulled(entry))
+            {
+                updateGrid(entry);
+                entry.transformable.addListener(this);
+            }
+            else
             {
-                indexs.add(layer);
-                indexsSet.add(layer);
-                Collections.sort(indexs);
+                layers.add(entry, entry.layer);
             }
         }
         if (featurable.hasFeature(Layerable.class))
@@ -177,9 +401,16 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     {
         if (featurable.hasFeature(Displayable.class))
         {
-            final Displayable displayable = featurable.getFeature(Displayable.class);
-            final Integer layer = getLayer(featurable);
-            remove(layer, displayable);
+            final Entry entry = entries.remove(featurable.getFeature(Displayable.class));
+            if (entry != null && isCulled(entry))
+            {
+                grid.remove(entry);
+                entry.transformable.removeListener(this);
+            }
+            else if (entry != null)
+            {
+                layers.remove(entry);
+            }
         }
         if (featurable.hasFeature(Layerable.class))
         {
@@ -200,38 +431,73 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     {
         if (provider.hasFeature(Displayable.class))
         {
-            final Displayable displayable = provider.getFeature(Displayable.class);
-            toUpdate.add(new LayerUpdate(displayable, layerDisplayOld, layerDisplayNew));
-            updateRequested = true;
+            ComponentRefreshable.defer(() -> changeLayer(provider, layerDisplayNew.intValue()));
+        }
+    }
+
+    /*
+     * TransformableListener
+     */
+
+    @Override
+    public void notifyTransformed(Transformable transformable)
+    {
+        if (ComponentRefreshable.isDeferred())
+        {
+            ComponentRefreshable.defer(() -> notifyTransformed(transformable));
+            return;
+        }
+        final Entry entry = entries.get(transformable.getFeature(Displayable.class));
+        if (entry != null)
+        {
+            updateGrid(entry);
         }
     }
 
     /**
-     * Layer update data.
+     * Displayable entry.
      */
-    private static final class LayerUpdate
+    private static final class Entry
     {
         /** Displayable reference. */
         private final Displayable displayable;
-        /** Old layer. */
-        private final Integer layerOld;
-        /** New layer. */
-        private final Integer layerNew;
+        /** Transformable reference (<code>null</code> if none). */
+        private final Transformable transformable;
+        /** Add sequence. */
+        private final int sequence;
+        /** Layer value. */
+        private int layer;
+        /** Culled render depth. */
+        private double depth;
 
         /**
-         * Create data.
+         * Create entry.
          * 
          * @param displayable The displayable reference.
-         * @param layerOld The old layer.
-         * @param layerNew The new layer.
+         * @param transformable The transformable reference (<code>null</code> if none).
+         * @param sequence The add sequence.
          */
-        private LayerUpdate(Displayable displayable, Integer layerOld, Integer layerNew)
+        private Entry(Displayable displayable, Transformable transformable, int sequence)
         {
             super();
 
             this.displayable = displayable;
-            this.layerOld = layerOld;
-            this.layerNew = layerNew;
+            this.transformable = transformable;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Get the vertical location.
+         * 
+         * @return The vertical location, 0 if not transformable.
+         */
+        private double getY()
+        {
+            if (transformable == null)
+            {
+                return 0.0;
+            }
+            return transformable.getY();
         }
     }
 }
@@ -17,25 +17,67 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.FeatureProvider;
 
 /**
  * Refresher component implementation which refreshes {@link Refreshable} elements with {@link Layerable} support to
  * order rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer
- * value. The lower layer index is handled first.
+ * value. The lower layer index is handled first. Elements of a same layer are refreshed in a deterministic order,
+ * depending only on add, remove and layer change sequence.
+ * <p>
+ * When created with a pool, {@link Refreshable#isLocal()} elements of a layer are first updated in parallel, then
+ * other elements of the layer are updated on the calling thread, before handling the next layer.
+ * </p>
+ * <p>
+ * Listeners raised by local refreshables and writing shared state (such as {@link TransformableListener} of other
+ * components) must go through {@link #defer(Runnable)}: their action is queued during the parallel update, and run on
+ * the calling thread just after, in the refreshables order.
+ * </p>
  */
 public class ComponentRefreshable implements ComponentUpdater, HandlerListener, LayerableListener
 {
     /** Default layer value. */
-    private static final Integer LAYER_DEFAULT = Integer.valueOf(0);
+    private static final int LAYER_DEFAULT = 0;
+    /** Actions deferred by the local refreshable updated by current thread, <code>null</code> if none. */
+    private static final ThreadLocal<List<Runnable>> DEFERRED = new ThreadLocal<>();
+
+    /**
+     * Check if current thread is updating a local refreshable in parallel.
+     * 
+     * @return <code>true</code> if actions on shared state are deferred, <code>false</code> else.
+     */
+    public static boolean isDeferred()
+    {
+        return DEFERRED.get() != null;
+    }
+
+    /**
+     * Run an action writing shared state. If current thread is updating a local refreshable in parallel, action is
+     * queued and run on the calling thread after the parallel update, in the refreshables order. Run immediately else.
+     * 
+     * @param action The action to run (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public static void defer(Runnable action)
+    {
+        Check.notNull(action);
+
+        final List<Runnable> deferred = DEFERRED.get();
+        if (deferred == null)
+        {
+            action.run();
+        }
+        else
+        {
+            deferred.add(action);
+        }
+    }
 
     /**
      * Get the featurable layer.
@@ -43,28 +85,32 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
      * @param featurable The featurable reference.
      * @return The featurable layer if is {@link Layerable}, {@link #LAYER_DEFAULT} else.
      */
-    private static Integer getLayer(Featurable featurable)
+    private static int getLayer(Featurable featurable)
     {
         if (featurable.hasFeature(Layerable.class))
         {
             final Layerable layerable = featurable.getFeature(Layerable.class);
-            return layerable.getLayerRefresh();
+            return layerable.getLayerRefresh().intValue();
         }
         return LAYER_DEFAULT;
     }
 
-    /** Sorted layers index. */
-    private final Set<Integer> indexs = new TreeSet<>();
-    /** Layers to render. */
-    private final Map<Integer, Collection<Refreshable>> layers = new HashMap<>();
-    /** Layer to backup. */
-    private final List<Transformable> toBackup = new ArrayList<>();
-    /** Layer to update. */
-    private final Collection<LayerUpdate> toUpdate = new ArrayList<>();
-    /** Update flag. */
-    private boolean updateRequested;
-    /** To backup size. */
-    private int backupCount;
+    /** Layers to refresh on calling thread. */
+    private final Layers<Refreshable> layers = new Layers<>();
+    /** Local layers to refresh in parallel. */
+    private final Layers<Refreshable> locals = new Layers<>();
+    /** Transformable to backup. */
+    private final Layers<Transformable> toBackup = new Layers<>();
+    /** Deferred actions, by local element index. */
+    private final List<List<Runnable>> deferred = new ArrayList<>();
+    /** Local update action. */
+    private final IntConsumer updateLocal = this::updateLocal;
+    /** Parallel pool (<code>null</code> if serial only). */
+    private final ForkJoinPool pool;
+    /** Current parallel extrapolation value. */
+    private double extrp;
+    /** Current parallel layer index. */
+    private int local;
 
     /**
      * Create component.
@@ -72,42 +118,111 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     public ComponentRefreshable()
     {
         super();
+
+        pool = null;
+    }
+
+    /**
+     * Create component with parallel update of local refreshables.
+     * <p>
+     * Local refreshables must not access other featurables, but may move, change their layer and destroy their
+     * featurable (see {@link Refreshable#isLocal()}).
+     * </p>
+     * 
+     * @param pool The pool used to update local refreshables (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ComponentRefreshable(ForkJoinPool pool)
+    {
+        super();
+
+        Check.notNull(pool);
+
+        this.pool = pool;
     }
 
     /**
-     * Get the layer set at the specified index. Creates an empty set if no set already defined.
+     * Get the refreshable layers.
      * 
-     * @param layer The layer index.
-     * @return The layer set reference.
+     * @param refreshable The refreshable reference.
+     * @return The layers where refreshable is stored.
      */
-    private Collection<Refreshable> getLayer(Integer layer)
+    private Layers<Refreshable> getLayers(Refreshable refreshable)
     {
-        final Collection<Refreshable> refreshables;
-        if (!layers.containsKey(layer))
+        if (pool != null && refreshable.isLocal())
         {
-            refreshables = new HashSet<>();
-            layers.put(layer, refreshables);
+            return locals;
+        }
+        return layers;
+    }
+
+    /**
+     * Update layer on calling thread.
+     * 
+     * @param refreshables The layers reference.
+     * @param index The layer index.
+     * @param extrp The extrapolation value.
+     */
+    private static void update(Layers<Refreshable> refreshables, int index, double extrp)
+    {
+        final int size = refreshables.getSize(index);
+        for (int i = 0; i < size; i++)
+        {
+            refreshables.get(index, i).update(extrp);
+        }
+    }
+
+    /**
+     * Update local layer, in parallel if enough elements.
+     * 
+     * @param index The local layer index.
+     * @param extrp The extrapolation value.
+     */
+    private void updateLocals(int index, double extrp)
+    {
+        final int size = locals.getSize(index);
+        if (size > RangeTask.SPLIT)
+        {
+            while (deferred.size() < size)
+            {
+                deferred.add(new ArrayList<>());
+            }
+            this.extrp = extrp;
+            local = index;
+            pool.invoke(new RangeTask(0, size, updateLocal));
+
+            for (int i = 0; i < size; i++)
+            {
+                final List<Runnable> actions = deferred.get(i);
+                final int count = actions.size();
+                for (int j = 0; j < count; j++)
+                {
+                    actions.get(j).run();
+                }
+                actions.clear();
+            }
         }
         else
         {
-            refreshables = layers.get(layer);
+            update(locals, index, extrp);
         }
-        return refreshables;
     }
 
     /**
-     * Remove refreshable and its layer.
+     * Update local element of current parallel layer, deferring its actions on shared state.
      * 
-     * @param layer The layer index.
-     * @param refreshable The refreshable to remove.
+     * @param i The element index.
      */
-    private void remove(Integer layer, Refreshable refreshable)
+    private void updateLocal(int i)
     {
-        final Collection<Refreshable> refreshables = getLayer(layer);
-        refreshables.remove(refreshable);
-        if (refreshables.isEmpty())
+        DEFERRED.set(deferred.get(i));
+        try
         {
-            indexs.remove(layer);
+            locals.get(local, i).update(extrp);
+        }
+        finally
+        {
+            DEFERRED.remove();
         }
     }
 
@@ -118,29 +233,41 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     @Override
     public void update(double extrp, Handlables featurables)
     {
-        for (int i = 0; i < backupCount; i++)
+        final int backups = toBackup.getCount();
+        for (int l = 0; l < backups; l++)
         {
-            toBackup.get(i).backup();
+            final int count = toBackup.getSize(l);
+            for (int i = 0; i < count; i++)
+            {
+                toBackup.get(l, i).backup();
+            }
         }
 
-        for (final Integer layer : indexs)
+        final int serialCount = layers.getCount();
+        final int localCount = locals.getCount();
+        int serial = 0;
+        int parallel = 0;
+        while (serial < serialCount || parallel < localCount)
         {
-            for (final Refreshable refreshable : layers.get(layer))
+            final int layer;
+            if (serial == serialCount || parallel < localCount && locals.getLayer(parallel) <= layers.getLayer(serial))
             {
-                refreshable.update(extrp);
+                layer = locals.getLayer(parallel);
+                updateLocals(parallel, extrp);
+                parallel++;
             }
-        }
-        if (updateRequested)
-        {
-            for (final LayerUpdate update : toUpdate)
+            else
+            {
+                layer = layers.getLayer(serial);
+            }
+            if (serial < serialCount && layers.getLayer(serial) == layer)
             {
-                getLayer(update.layerOld).remove(update.refreshable);
-                getLayer(update.layerNew).add(update.refreshable);
-                indexs.add(update.layerNew);
+                update(layers, serial, extrp);
+                serial++;
             }
-            toUpdate.clear();
-            updateRequested = false;
         }
+        layers.apply();
+        locals.apply();
     }
 
     /*
@@ -153,20 +280,13 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (featurable.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = featurable.getFeature(Refreshable.class);
-            final Integer layer = getLayer(featurable);
-            final Collection<Refreshable> refreshables = getLayer(layer);
-            refreshables.add(refreshable);
-            indexs.add(layer);
+            getLayers(refreshable).add(refreshable, getLayer(featurable));
         }
         if (featurable.hasFeature(Layerable.class))
         {
             featurable.getFeature(Layerable.class).addListener(this);
         }
-        featurable.ifIs(Transformable.class, t ->
-        {
-            toBackup.add(t);
-            backupCount++;
-        });
+        featurable.ifIs(Transformable.class, t -> toBackup.add(t, LAYER_DEFAULT));
     }
 
     @Override
@@ -175,18 +295,13 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (featurable.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = featurable.getFeature(Refreshable.class);
-            final Integer layer = getLayer(featurable);
-            remove(layer, refreshable);
+            getLayers(refreshable).remove(refreshable);
         }
         if (featurable.hasFeature(Layerable.class))
         {
             featurable.getFeature(Layerable.class).removeListener(this);
         }
-        featurable.ifIs(Transformable.class, t ->
-        {
-            toBackup.remove(t);
-            backupCount--;
-        });
+        featurable.ifIs(Transformable.class, toBackup::remove);
     }
 
     /*
@@ -203,37 +318,7 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         if (provider.hasFeature(Refreshable.class))
         {
             final Refreshable refreshable = provider.getFeature(Refreshable.class);
-            toUpdate.add(new LayerUpdate(refreshable, layerRefreshOld, layerRefreshNew));
-            updateRequested = true;
-        }
-    }
-
-    /**
-     * Layer update data.
-     */
-    private static final class LayerUpdate
-    {
-        /** Refreshable reference. */
-        private final Refreshable refreshable;
-        /** Old layer. */
-        private final Integer layerOld;
-        /** New layer. */
-        private final Integer layerNew;
-
-        /**
-         * Create data.
-         * 
-         * @param refreshable The refreshable reference.
-         * @param layerOld The old layer.
-         * @param layerNew The new layer.
-         */
-        private LayerUpdate(Refreshable refreshable, Integer layerOld, Integer layerNew)
-        {
-            super();
-
-            this.refreshable = refreshable;
-            this.layerOld = layerOld;
-            this.layerNew = layerNew;
+            defer(() -> getLayers(refreshable).move(refreshable, layerRefreshNew.intValue()));
         }
     }
 }
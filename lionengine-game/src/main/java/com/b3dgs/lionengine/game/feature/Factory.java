@@ -22,8 +22,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
@@ -45,6 +51,14 @@ import com.b3dgs.lionengine.game.Feature;
  * Destroyed {@link Featurable} can be cached to avoid {@link Featurable} creation if has {@link Recycler} and
  * {@link Recyclable} {@link Feature}s.
  * </p>
+ * <p>
+ * Constructors and features of each {@link Media} are resolved once, on first creation, and reused for next ones.
+ * </p>
+ * <p>
+ * Cache can be warmed asynchronously with {@link #createCache(Media, int, Executor)}, where setups are prepared on
+ * executor, and instances created by batch on calling thread with {@link #updateCache(int)}. Cache target of each
+ * {@link Media} follows its peak usage, and misses are refilled the same way.
+ * </p>
  */
 public class Factory implements HandlerListener
 {
@@ -63,10 +77,26 @@ public class Factory implements HandlerListener
     private final Map<Media, Setup> setups = new HashMap<>();
     /** Cached instances. */
     private final Map<Media, Deque<Featurable>> cache = new HashMap<>();
+    /** Compiled recipes, for the last featurable type created per media. */
+    private final Map<Media, FactoryRecipe> recipes = new HashMap<>();
+    /** Cache usage per media. */
+    private final Map<Media, Usage> usages = new HashMap<>();
+    /** Medias with cache under target. */
+    private final Set<Media> refill = new LinkedHashSet<>();
+    /** Setups prepared asynchronously. */
+    private final Queue<Prepared> prepared = new ConcurrentLinkedQueue<>();
+    /** Pending setups preparation. */
+    private final AtomicInteger pending = new AtomicInteger();
     /** Services reference. */
     private final Services services;
     /** Class loader. */
     private final ClassLoader classLoader;
+    /** Cache hits. */
+    private long hits;
+    /** Cache misses. */
+    private long misses;
+    /** Warming cache flag, creations are not counted as hits or misses. */
+    private boolean warming;
 
     /**
      * Create a factory.
@@ -101,22 +131,16 @@ public class Factory implements HandlerListener
     @SuppressWarnings("unchecked")
     public <O extends Featurable> O create(Media media)
     {
-        if (cache.containsKey(media) && !cache.get(media).isEmpty())
+        final Featurable cached = poll(media);
+        if (cached != null)
         {
-            final Featurable featurable = cache.get(media).poll();
-            featurable.getFeature(Recycler.class).recycle();
-            return (O) featurable;
+            return (O) cached;
         }
         final Setup setup = getSetup(media);
         final Class<O> type = setup.getConfigClass(classLoader);
-        try
-        {
-            return createFeaturable(type, setup);
-        }
-        catch (final NoSuchMethodException exception)
-        {
-            throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
-        }
+        final O featurable = createFeaturable(media, type, setup);
+        track(media, featurable, 0);
+        return featurable;
     }
 
     /**
@@ -140,25 +164,20 @@ public class Factory implements HandlerListener
     @SuppressWarnings("unchecked")
     public <O extends Featurable> O create(Media media, Class<O> type)
     {
-        if (cache.containsKey(media) && !cache.get(media).isEmpty())
+        final Featurable cached = poll(media);
+        if (cached != null)
         {
-            final Featurable featurable = cache.get(media).poll();
-            featurable.getFeature(Recycler.class).recycle();
-            return (O) featurable;
+            return (O) cached;
         }
         final Setup setup = getSetup(media, true);
-        try
-        {
-            return createFeaturable(type, setup);
-        }
-        catch (final NoSuchMethodException exception)
-        {
-            throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
-        }
+        final O featurable = createFeaturable(media, type, setup);
+        track(media, featurable, 0);
+        return featurable;
     }
 
     /**
-     * Create cached medias from folder.
+     * Create cached medias from folder. Spawned instances are not counted in {@link #getCacheHits()} and
+     * {@link #getCacheMisses()}.
      * 
      * @param spawner The spawner reference.
      * @param folder The root folder.
@@ -170,10 +189,20 @@ public class Factory implements HandlerListener
         {
             if (media.getName().endsWith(FILE_DATA_DOT_EXTENSION))
             {
+                request(media, count);
+
                 final Collection<Featurable> cached = new ArrayList<>();
-                for (int i = 0; i < count; i++)
+                warming = true;
+                try
+                {
+                    for (int i = 0; i < count; i++)
+                    {
+                        cached.add(spawner.spawn(media, 0, 0));
+                    }
+                }
+                finally
                 {
-                    cached.add(spawner.spawn(media, 0, 0));
+                    warming = false;
                 }
                 for (final Featurable featurable : cached)
                 {
@@ -185,6 +214,119 @@ public class Factory implements HandlerListener
         }
     }
 
+    /**
+     * Create cached medias from folder asynchronously. Setups are prepared on executor (parsing and surfaces loading),
+     * and instances are then created on calling thread by {@link #updateCache(int)}.
+     * 
+     * @param folder The root folder (must not be <code>null</code>).
+     * @param count The caches number (must be superior or equal to 0).
+     * @param executor The setups preparation executor (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void createCache(Media folder, int count, Executor executor)
+    {
+        Check.notNull(folder);
+        Check.superiorOrEqual(count, 0);
+        Check.notNull(executor);
+
+        for (final Media media : folder.getMedias())
+        {
+            if (media.getName().endsWith(FILE_DATA_DOT_EXTENSION))
+            {
+                request(media, count);
+                if (setups.containsKey(media))
+                {
+                    refill.add(media);
+                }
+                else
+                {
+                    pending.incrementAndGet();
+                    executor.execute(() -> prepare(media));
+                }
+            }
+        }
+    }
+
+    /**
+     * Update cache on calling thread. Register prepared setups, and create up to the specified number of instances for
+     * medias with cache under their target. A setup preparation error is thrown here, as it was raised on executor.
+     * 
+     * @param count The maximum number of instances to create (must be superior or equal to 0).
+     * @return <code>true</code> if cache is still warming, <code>false</code> if all targets are reached.
+     * @throws LionEngineException If invalid argument or setup preparation failed.
+     */
+    public boolean updateCache(int count)
+    {
+        Check.superiorOrEqual(count, 0);
+
+        for (Prepared current = prepared.poll(); current != null; current = prepared.poll())
+        {
+            setups.putIfAbsent(current.media, current.getSetup());
+            refill.add(current.media);
+        }
+
+        int created = 0;
+        final Iterator<Media> iterator = refill.iterator();
+        while (created < count && iterator.hasNext())
+        {
+            final Media media = iterator.next();
+            final Usage usage = usages.get(media);
+            final Deque<Featurable> cached = cache.computeIfAbsent(media, m -> new ArrayDeque<>());
+            while (created < count && usage.recyclable && cached.size() < usage.getMissing())
+            {
+                final Setup setup = getSetup(media);
+                final Featurable featurable = createFeaturable(media, setup.getConfigClass(classLoader), setup);
+                usage.recyclable = featurable.hasFeature(Recycler.class);
+                if (usage.recyclable)
+                {
+                    cached.offer(featurable);
+                }
+                created++;
+            }
+            if (!usage.recyclable || cached.size() >= usage.getMissing())
+            {
+                iterator.remove();
+            }
+        }
+        return pending.get() > 0 || !prepared.isEmpty() || !refill.isEmpty();
+    }
+
+    /**
+     * Get the number of creations served from cache.
+     * 
+     * @return The cache hits.
+     */
+    public long getCacheHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Get the number of creations not served from cache.
+     * 
+     * @return The cache misses.
+     */
+    public long getCacheMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Get the cache target of media, which is the maximum between requested cache and peak usage.
+     * 
+     * @param media The media reference.
+     * @return The cache target, <code>0</code> if media never created nor cached.
+     */
+    public int getCacheTarget(Media media)
+    {
+        final Usage usage = usages.get(media);
+        if (usage == null)
+        {
+            return 0;
+        }
+        return usage.getTarget();
+    }
+
     /**
      * Get a setup reference from its media.
      * 
@@ -264,52 +406,114 @@ public class Factory implements HandlerListener
     }
 
     /**
-     * Create the featurable.
+     * Prepare setup. Called by executor.
+     * 
+     * @param media The setup media.
+     */
+    private void prepare(Media media)
+    {
+        try
+        {
+            prepared.offer(new Prepared(media, createSetup(media, false), null));
+        }
+        catch (final RuntimeException exception)
+        {
+            prepared.offer(new Prepared(media, null, exception));
+        }
+        finally
+        {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Create the featurable from its recipe, compiled on first use.
      * 
      * @param <O> The featurable type.
+     * @param media The featurable media.
      * @param type The featurable type.
      * @param setup The associated setup.
      * @return The featurable instance.
-     * @throws NoSuchMethodException If missing constructor.
+     * @throws LionEngineException If missing constructor.
      */
-    private <O extends Featurable> O createFeaturable(Class<O> type, Setup setup) throws NoSuchMethodException
+    @SuppressWarnings("unchecked")
+    private <O extends Featurable> O createFeaturable(Media media, Class<O> type, Setup setup)
     {
-        final O featurable = UtilReflection.createReduce(type, services, setup);
-        if (featurable.isLoadFeaturesEnabled())
+        FactoryRecipe recipe = recipes.get(media);
+        if (recipe == null || recipe.getType() != type)
         {
-            addFeatures(featurable, services, setup);
+            try
+            {
+                recipe = new FactoryRecipe(classLoader, type, services, setup);
+            }
+            catch (final NoSuchMethodException exception)
+            {
+                throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
+            }
+            recipes.put(media, recipe);
         }
-        for (final Feature feature : featurable.getFeatures())
+        return (O) recipe.create(services, setup);
+    }
+
+    /**
+     * Poll featurable from cache if available, and recycle it.
+     * 
+     * @param media The featurable media.
+     * @return The cached featurable, <code>null</code> if none.
+     * @throws LionEngineException If {@link Media} is <code>null</code>.
+     */
+    private Featurable poll(Media media)
+    {
+        Check.notNull(media);
+
+        final Deque<Featurable> cached = cache.get(media);
+        if (cached != null && !cached.isEmpty())
         {
-            featurable.checkListener(feature);
-            for (final Feature other : featurable.getFeatures())
+            if (!warming)
             {
-                if (feature != other)
-                {
-                    other.checkListener(feature);
-                }
+                hits++;
             }
+            final Featurable featurable = cached.poll();
+            featurable.getFeature(Recycler.class).recycle();
+            track(media, featurable, cached.size());
+            return featurable;
         }
-        return featurable;
+        if (!warming)
+        {
+            misses++;
+        }
+        return null;
     }
 
     /**
-     * Add all features declared in configuration.
+     * Track featurable usage, and schedule refill if cache is under target.
      * 
-     * @param featurable The featurable to handle.
-     * @param services The services reference.
-     * @param setup The setup reference.
+     * @param media The featurable media.
+     * @param featurable The created featurable.
+     * @param cached The remaining cached featurables.
      */
-    private void addFeatures(Featurable featurable, Services services, Setup setup)
+    private void track(Media media, Featurable featurable, int cached)
     {
-        final List<Feature> rawFeatures = FeaturableConfig.getFeatures(classLoader, services, setup);
-        final int length = rawFeatures.size();
-        for (int i = 0; i < length; i++)
+        final Usage usage = usages.computeIfAbsent(media, m -> new Usage());
+        usage.live++;
+        usage.peak = Math.max(usage.peak, usage.live);
+        usage.recyclable = featurable.hasFeature(Recycler.class);
+        if (usage.recyclable && cached < usage.getMissing())
         {
-            final Feature feature = rawFeatures.get(i);
-            featurable.addFeature(feature);
+            refill.add(media);
         }
-        featurable.addAfter(services, setup);
+    }
+
+    /**
+     * Request cache size for media, keeping the highest.
+     * 
+     * @param media The featurable media.
+     * @param count The requested cache size.
+     */
+    private void request(Media media, int count)
+    {
+        final Usage usage = usages.computeIfAbsent(media, m -> new Usage());
+        usage.requested = Math.max(usage.requested, count);
     }
 
     /*
@@ -326,6 +530,11 @@ public class Factory implements HandlerListener
     public void notifyHandlableRemoved(Featurable featurable)
     {
         final Media media = featurable.getMedia();
+        final Usage usage = usages.get(media);
+        if (usage != null && usage.live > 0)
+        {
+            usage.live--;
+        }
         if (media != null && featurable.hasFeature(Recycler.class))
         {
             if (!cache.containsKey(media))
@@ -335,4 +544,91 @@ public class Factory implements HandlerListener
             cache.get(media).offer(featurable);
         }
     }
+
+    /**
+     * Media cache usage.
+     */
+    private static final class Usage
+    {
+        /** Requested cache size. */
+        private int requested;
+        /** Instances currently in use. */
+        private int live;
+        /** Peak instances in use. */
+        private int peak;
+        /** Recyclable flag. */
+        private boolean recyclable = true;
+
+        /**
+         * Create usage.
+         */
+        private Usage()
+        {
+            super();
+        }
+
+        /**
+         * Get cache target.
+         * 
+         * @return The maximum between requested size and peak usage.
+         */
+        private int getTarget()
+        {
+            return Math.max(requested, peak);
+        }
+
+        /**
+         * Get the number of instances to keep in cache to reach target.
+         * 
+         * @return The missing instances.
+         */
+        private int getMissing()
+        {
+            return getTarget() - live;
+        }
+    }
+
+    /**
+     * Setup prepared asynchronously.
+     */
+    private static final class Prepared
+    {
+        /** Setup media. */
+        private final Media media;
+        /** Setup prepared (<code>null</code> if failed). */
+        private final Setup setup;
+        /** Preparation error (<code>null</code> if succeed). */
+        private final RuntimeException exception;
+
+        /**
+         * Create prepared.
+         * 
+         * @param media The setup media.
+         * @param setup The setup prepared (<code>null</code> if failed).
+         * @param exception The preparation error (<code>null</code> if succeed).
+         */
+        private Prepared(Media media, Setup setup, RuntimeException exception)
+        {
+            super();
+
+            this.media = media;
+            this.setup = setup;
+            this.exception = exception;
+        }
+
+        /**
+         * Get prepared setup.
+         * 
+         * @return The setup.
+         * @throws LionEngineException If preparation failed, or the unexpected preparation error.
+         */
+        private Setup getSetup()
+        {
+            if (exception != null)
+            {
+                throw exception;
+            }
+            return setup;
+        }
+    }
 }
@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.game.Feature;
+
+/**
+ * Featurable creation recipe, compiled once per {@link Setup} and featurable type.
+ * <p>
+ * Resolves the featurable and features constructors as {@link MethodHandle}, so the {@link Setup} is not walked
+ * anymore, and records the listener wiring plan on first instance, so only features that override
+ * {@link Feature#checkListener(Object)} are called. Any instance which does not match the recorded features layout
+ * is wired the standard way.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+final class FactoryRecipe
+{
+    /** Construction error. */
+    static final String ERROR_CONSTRUCTOR = "Unable to create the following type: ";
+    /** Maximum constructor parameters, in reduce order. */
+    private static final Class<?>[] PARAMS =
+    {
+        Services.class, Setup.class
+    };
+    /** Creator handle type. */
+    private static final MethodType CREATOR = MethodType.methodType(Object.class, Services.class, Setup.class);
+    /** Featurable receiver index. */
+    private static final int FEATURABLE = -1;
+
+    /**
+     * Resolve the creator handle, reducing parameters as {@link UtilReflection#createReduce(Class, Object...)}.
+     * 
+     * @param type The type to create.
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The creator handle, typed as {@link #CREATOR}.
+     * @throws NoSuchMethodException If no compatible constructor found.
+     * @throws LionEngineException If constructor is not accessible.
+     */
+    private static MethodHandle resolve(Class<?> type, Services services, Setup setup) throws NoSuchMethodException
+    {
+        final Class<?>[] types = UtilReflection.getParamTypes(services, setup);
+        NoSuchMethodException error = null;
+        for (int i = 0; i <= types.length; i++)
+        {
+            final Constructor<?> constructor;
+            try
+            {
+                constructor = UtilReflection.getCompatibleConstructor(type, Arrays.copyOfRange(types, i, types.length));
+            }
+            catch (final NoSuchMethodException exception)
+            {
+                if (error == null)
+                {
+                    error = exception;
+                }
+                continue;
+            }
+            UtilReflection.setAccessible(constructor, true);
+            try
+            {
+                final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+                return MethodHandles.dropArguments(handle, 0, Arrays.copyOf(PARAMS, i)).asType(CREATOR);
+            }
+            catch (final IllegalAccessException exception)
+            {
+                throw new LionEngineException(exception, ERROR_CONSTRUCTOR + type);
+            }
+        }
+        throw error;
+    }
+
+    /**
+     * Invoke creator handle.
+     * 
+     * @param creator The creator handle.
+     * @param type The created type.
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The created instance.
+     * @throws LionEngineException If error on construction.
+     */
+    private static Object invoke(MethodHandle creator, Class<?> type, Services services, Setup setup)
+    {
+        try
+        {
+            return (Object) creator.invokeExact(services, setup);
+        }
+        // CHECKSTYLE IGNORE LINE: IllegalCatch
+        catch (final Throwable throwable)
+        {
+            throw new LionEngineException(throwable, ERROR_CONSTRUCTOR + type);
+        }
+    }
+
+    /**
+     * Check if listener check is overridden by type, and so must be called.
+     * 
+     * @param type The receiver type.
+     * @return <code>true</code> if overridden, <code>false</code> if default implementation.
+     */
+    private static boolean isListenerChecked(Class<?> type)
+    {
+        try
+        {
+            final Class<?> owner = type.getMethod("checkListener", Object.class).getDeclaringClass();
+            return owner != FeatureAbstract.class && owner != FeaturableAbstract.class;
+        }
+        catch (final NoSuchMethodException exception)
+        {
+            return true;
+        }
+    }
+
+    /**
+     * Check all listeners the standard way.
+     * 
+     * @param featurable The featurable reference.
+     * @param features The featurable features.
+     */
+    private static void checkListeners(Featurable featurable, List<Feature> features)
+    {
+        final int n = features.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Feature feature = features.get(i);
+            featurable.checkListener(feature);
+            for (int j = 0; j < n; j++)
+            {
+                if (i != j)
+                {
+                    features.get(j).checkListener(feature);
+                }
+            }
+        }
+    }
+
+    /** Featurable type. */
+    private final Class<? extends Featurable> type;
+    /** Featurable creator. */
+    private final MethodHandle creator;
+    /** Class loader. */
+    private final ClassLoader loader;
+    /** Features creators, resolved on first loading (<code>null</code> if not resolved). */
+    private volatile Creator[] features;
+    /** Listener wiring plan, recorded on first instance (<code>null</code> if not recorded). */
+    private volatile Wiring wiring;
+
+    /**
+     * Create recipe.
+     * 
+     * @param loader The class loader.
+     * @param type The featurable type.
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @throws NoSuchMethodException If no compatible featurable constructor found.
+     * @throws LionEngineException If constructor is not accessible.
+     */
+    FactoryRecipe(ClassLoader loader, Class<? extends Featurable> type, Services services, Setup setup)
+            throws NoSuchMethodException
+    {
+        super();
+
+        this.loader = loader;
+        this.type = type;
+        creator = resolve(type, services, setup);
+    }
+
+    /**
+     * Create the featurable, with its configured features, and wire listeners.
+     * 
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The featurable instance.
+     * @throws LionEngineException If error on creation.
+     */
+    Featurable create(Services services, Setup setup)
+    {
+        final Featurable featurable = (Featurable) invoke(creator, type, services, setup);
+        if (featurable.isLoadFeaturesEnabled())
+        {
+            for (final Creator feature : getFeatures(services, setup))
+            {
+                featurable.addFeature(feature.create(services, setup));
+            }
+            featurable.addAfter(services, setup);
+        }
+
+        final List<Feature> current = new ArrayList<>();
+        for (final Feature feature : featurable.getFeatures())
+        {
+            current.add(feature);
+        }
+        if (wiring == null)
+        {
+            wiring = new Wiring(featurable, current);
+        }
+        if (wiring.matches(featurable, current))
+        {
+            wiring.apply(featurable, current);
+        }
+        else
+        {
+            checkListeners(featurable, current);
+        }
+        return featurable;
+    }
+
+    /**
+     * Get the featurable type.
+     * 
+     * @return The featurable type.
+     */
+    Class<? extends Featurable> getType()
+    {
+        return type;
+    }
+
+    /**
+     * Get the features creators, resolve them if needed.
+     * 
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The features creators.
+     * @throws LionEngineException If invalid feature.
+     */
+    private Creator[] getFeatures(Services services, Setup setup)
+    {
+        Creator[] creators = features;
+        if (creators == null)
+        {
+            final List<Class<? extends Feature>> classes = FeaturableConfig.getFeatureClasses(loader, setup);
+            final int n = classes.size();
+            creators = new Creator[n];
+            for (int i = 0; i < n; i++)
+            {
+                try
+                {
+                    creators[i] = new Creator(classes.get(i), services, setup);
+                }
+                catch (final NoSuchMethodException | LionEngineException exception)
+                {
+                    throw new LionEngineException(exception, setup.getMedia());
+                }
+            }
+            features = creators;
+        }
+        return creators;
+    }
+
+    /**
+     * Feature creator.
+     */
+    private static final class Creator
+    {
+        /** Feature type. */
+        private final Class<? extends Feature> type;
+        /** Feature creator. */
+        private final MethodHandle creator;
+
+        /**
+         * Create creator.
+         * 
+         * @param type The feature type.
+         * @param services The services reference.
+         * @param setup The setup reference.
+         * @throws NoSuchMethodException If no compatible constructor found.
+         * @throws LionEngineException If constructor is not accessible.
+         */
+        private Creator(Class<? extends Feature> type, Services services, Setup setup) throws NoSuchMethodException
+        {
+            super();
+
+            this.type = type;
+            creator = resolve(type, services, setup);
+        }
+
+        /**
+         * Create feature.
+         * 
+         * @param services The services reference.
+         * @param setup The setup reference.
+         * @return The feature instance.
+         * @throws LionEngineException If error on creation.
+         */
+        private Feature create(Services services, Setup setup)
+        {
+            try
+            {
+                return (Feature) invoke(creator, type, services, setup);
+            }
+            catch (final LionEngineException exception)
+            {
+                throw new LionEngineException(exception, setup.getMedia());
+            }
+        }
+    }
+
+    /**
+     * Listener wiring plan, as ordered pairs of receiver and listener feature indexes, keeping only receivers that
+     * override {@link Feature#checkListener(Object)}.
+     */
+    private static final class Wiring
+    {
+        /** Featurable type. */
+        private final Class<?> featurable;
+        /** Features layout. */
+        private final Class<?>[] layout;
+        /** Receivers indexes ({@link #FEATURABLE} for featurable). */
+        private final int[] receivers;
+        /** Listeners indexes. */
+        private final int[] listeners;
+
+        /**
+         * Record plan.
+         * 
+         * @param featurable The featurable reference.
+         * @param features The featurable features.
+         */
+        private Wiring(Featurable featurable, List<Feature> features)
+        {
+            super();
+
+            this.featurable = featurable.getClass();
+
+            final int n = features.size();
+            layout = new Class<?>[n];
+            final boolean[] checked = new boolean[n];
+            for (int i = 0; i < n; i++)
+            {
+                layout[i] = features.get(i).getClass();
+                checked[i] = isListenerChecked(layout[i]);
+            }
+
+            final boolean self = isListenerChecked(this.featurable);
+            final List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < n; i++)
+            {
+                if (self)
+                {
+                    pairs.add(new int[]
+                    {
+                        FEATURABLE, i
+                    });
+                }
+                for (int j = 0; j < n; j++)
+                {
+                    if (i != j && checked[j])
+                    {
+                        pairs.add(new int[]
+                        {
+                            j, i
+                        });
+                    }
+                }
+            }
+            receivers = new int[pairs.size()];
+            listeners = new int[pairs.size()];
+            for (int i = 0; i < receivers.length; i++)
+            {
+                receivers[i] = pairs.get(i)[0];
+                listeners[i] = pairs.get(i)[1];
+            }
+        }
+
+        /**
+         * Check if instance matches recorded layout.
+         * 
+         * @param featurable The featurable reference.
+         * @param features The featurable features.
+         * @return <code>true</code> if plan can be applied, <code>false</code> else.
+         */
+        private boolean matches(Featurable featurable, List<Feature> features)
+        {
+            if (featurable.getClass() != this.featurable || features.size() != layout.length)
+            {
+                return false;
+            }
+            for (int i = 0; i < layout.length; i++)
+            {
+                if (features.get(i).getClass() != layout[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Apply plan.
+         * 
+         * @param featurable The featurable reference.
+         * @param features The featurable features.
+         */
+        private void apply(Featurable featurable, List<Feature> features)
+        {
+            for (int i = 0; i < receivers.length; i++)
+            {
+                final Feature listener = features.get(listeners[i]);
+                if (receivers[i] == FEATURABLE)
+                {
+                    featurable.checkListener(listener);
+                }
+                else
+                {
+                    features.get(receivers[i]).checkListener(listener);
+                }
+            }
+        }
+    }
+}
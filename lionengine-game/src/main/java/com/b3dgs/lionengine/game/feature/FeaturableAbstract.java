@@ -16,6 +16,9 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,16 +40,33 @@ public abstract class FeaturableAbstract implements Featurable
     /** Inject service error. */
     private static final String ERROR_INJECT = "Error during service injection !";
 
+    /** Fields injection plan per class. */
+    private static final ClassValue<Injection[]> INJECTIONS = new ClassValue<Injection[]>()
+    {
+        @Override
+        protected Injection[] computeValue(Class<?> type)
+        {
+            final List<Field> fields = getServiceFields(type);
+            final int length = fields.size();
+            final Injection[] injections = new Injection[length];
+            for (int i = 0; i < length; i++)
+            {
+                injections[i] = new Injection(fields.get(i));
+            }
+            return injections;
+        }
+    };
+
     /**
      * Get all with that require an injected service.
      * 
-     * @param object The object which requires injected services.
+     * @param type The class which requires injected services.
      * @return The field requiring injected services.
      */
-    private static List<Field> getServiceFields(Object object)
+    private static List<Field> getServiceFields(Class<?> type)
     {
         final List<Field> toInject = new ArrayList<>();
-        Class<?> clazz = object.getClass();
+        Class<?> clazz = type;
         while (clazz != null)
         {
             final Field[] fields = clazz.getDeclaredFields();
@@ -101,48 +121,11 @@ public abstract class FeaturableAbstract implements Featurable
      */
     private void fillServices(Object object)
     {
-        final List<Field> fields = getServiceFields(object);
-        final int length = fields.size();
+        final Injection[] injections = INJECTIONS.get(object.getClass());
+        final int length = injections.length;
         for (int i = 0; i < length; i++)
         {
-            final Field field = fields.get(i);
-            UtilReflection.setAccessible(field, true);
-
-            final Class<?> type = field.getType();
-            setField(field, object, type);
-        }
-    }
-
-    /**
-     * Set the field service only if currently <code>null</code>.
-     * 
-     * @param field The field to set.
-     * @param object The object to update.
-     * @param type The service type.
-     * @throws LionEngineException If error on setting service.
-     */
-    private void setField(Field field, Object object, Class<?> type)
-    {
-        try
-        {
-            if (field.get(object) == null)
-            {
-                final Class<? extends Feature> clazz;
-                // CHECKSTYLE IGNORE LINE: InnerAssignment
-                if (Feature.class.isAssignableFrom(type) && hasFeature(clazz = type.asSubclass(Feature.class)))
-                {
-                    field.set(object, getFeature(clazz));
-                }
-                else
-                {
-                    throw new LionEngineException(ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
-                }
-            }
-        }
-        catch (final IllegalAccessException exception)
-        {
-            throw new LionEngineException(exception,
-                                          ERROR_INJECT + type.getSimpleName() + Constant.SLASH + field.getName());
+            injections[i].inject(this, object);
         }
     }
 
@@ -205,4 +188,110 @@ public abstract class FeaturableAbstract implements Featurable
     {
         return features.contains(feature);
     }
+
+    /**
+     * Cached injection of a field annotated by {@link FeatureGet}.
+     */
+    private static final class Injection
+    {
+        /** Field type. */
+        private final Class<?> type;
+        /** Field name. */
+        private final String name;
+        /** Field getter. */
+        private final MethodHandle getter;
+        /** Field setter. */
+        private final MethodHandle setter;
+
+        /**
+         * Create injection.
+         * 
+         * @param field The field to inject.
+         * @throws LionEngineException If field is not accessible.
+         */
+        private Injection(Field field)
+        {
+            super();
+
+            type = field.getType();
+            name = field.getName();
+            UtilReflection.setAccessible(field, true);
+            try
+            {
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                setter = lookup.unreflectSetter(field)
+                               .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+            catch (final IllegalAccessException exception)
+            {
+                throw new LionEngineException(exception, ERROR_INJECT + type.getSimpleName() + Constant.SLASH + name);
+            }
+        }
+
+        /**
+         * Set the field service only if currently <code>null</code>.
+         * 
+         * @param featurable The featurable owner.
+         * @param object The object to update.
+         * @throws LionEngineException If error on setting service.
+         */
+        private void inject(Featurable featurable, Object object)
+        {
+            if (get(object) == null)
+            {
+                final Class<? extends Feature> clazz;
+                // CHECKSTYLE IGNORE LINE: InnerAssignment
+                if (Feature.class.isAssignableFrom(type)
+                    && featurable.hasFeature(clazz = type.asSubclass(Feature.class)))
+                {
+                    set(object, featurable.getFeature(clazz));
+                }
+                else
+                {
+                    throw new LionEngineException(ERROR_CLASS_PRESENCE + String.valueOf(type) + IN + object);
+                }
+            }
+        }
+
+        /**
+         * Get field value.
+         * 
+         * @param object The object owner.
+         * @return The field value.
+         * @throws LionEngineException If error on getting value.
+         */
+        private Object get(Object object)
+        {
+            try
+            {
+                return (Object) getter.invokeExact(object);
+            }
+            // CHECKSTYLE IGNORE LINE: IllegalCatch
+            catch (final Throwable throwable)
+            {
+                throw new LionEngineException(throwable, ERROR_INJECT + type.getSimpleName() + Constant.SLASH + name);
+            }
+        }
+
+        /**
+         * Set field value.
+         * 
+         * @param object The object owner.
+         * @param value The field value.
+         * @throws LionEngineException If error on setting value.
+         */
+        private void set(Object object, Object value)
+        {
+            try
+            {
+                setter.invokeExact(object, value);
+            }
+            // CHECKSTYLE IGNORE LINE: IllegalCatch
+            catch (final Throwable throwable)
+            {
+                throw new LionEngineException(throwable, ERROR_INJECT + type.getSimpleName() + Constant.SLASH + name);
+            }
+        }
+    }
 }
@@ -161,6 +161,36 @@ public final class FeaturableConfig
      * @throws LionEngineException If invalid class.
      */
     public static List<Feature> getFeatures(ClassLoader loader, Services services, Setup setup)
+    {
+        final List<Class<? extends Feature>> classes = getFeatureClasses(loader, setup);
+        final List<Feature> features = new ArrayList<>(classes.size());
+
+        for (final Class<? extends Feature> clazz : classes)
+        {
+            final Feature feature;
+            try
+            {
+                feature = UtilReflection.createReduce(clazz, services, setup);
+            }
+            catch (final NoSuchMethodException | LionEngineException exception)
+            {
+                throw new LionEngineException(exception, setup.getMedia());
+            }
+            features.add(feature);
+        }
+
+        return features;
+    }
+
+    /**
+     * Get all declared feature classes, in declaration order.
+     * 
+     * @param loader The class loader reference.
+     * @param setup The setup reference.
+     * @return The feature classes.
+     * @throws LionEngineException If invalid class.
+     */
+    static List<Class<? extends Feature>> getFeatureClasses(ClassLoader loader, Setup setup)
     {
         final Collection<Xml> children;
         final Xml root = setup.getRoot();
@@ -174,26 +204,23 @@ public final class FeaturableConfig
         {
             children = Collections.emptyList();
         }
-        final List<Feature> features = new ArrayList<>(children.size());
+        final List<Class<? extends Feature>> classes = new ArrayList<>(children.size());
 
         for (final Xml featureNode : children)
         {
             final String className = featureNode.getText();
-            final Feature feature;
             try
             {
-                final Class<? extends Feature> clazz = getClass(loader, className);
-                feature = UtilReflection.createReduce(clazz, services, setup);
+                classes.add(getClass(loader, className));
             }
-            catch (final NoSuchMethodException | LionEngineException exception)
+            catch (final LionEngineException exception)
             {
                 throw new LionEngineException(exception, setup.getMedia());
             }
-            features.add(feature);
         }
         children.clear();
 
-        return features;
+        return classes;
     }
 
     /**
@@ -17,9 +17,9 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.Feature;
@@ -27,6 +27,11 @@ import com.b3dgs.lionengine.game.Feature;
 /**
  * Features handler representation. Store features by type (must be annotated by {@link FeatureInterface}), allowing
  * quick access from an interface.
+ * <p>
+ * Each annotated type is given a global slot once, and features are stored in an array indexed by their type slot,
+ * sized by the highest slot used by the added features. Feature classes themselves are not annotated, and are found
+ * among the added features. Annotated parents of each feature class are resolved once.
+ * </p>
  */
 public class Features
 {
@@ -41,28 +46,110 @@ public class Features
     /** Feature exists with error. */
     static final String WITH = " with: ";
 
+    /** No slot for not annotated types. */
+    private static final int NO_SLOT = -1;
+    /** Next type slot. */
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    /** Annotated types slot, {@link #NO_SLOT} for others. */
+    private static final ClassValue<Integer> SLOTS = new ClassValue<Integer>()
+    {
+        @Override
+        protected Integer computeValue(Class<?> type)
+        {
+            if (type.isAnnotationPresent(FeatureInterface.class))
+            {
+                return Integer.valueOf(NEXT_SLOT.getAndIncrement());
+            }
+            return Integer.valueOf(NO_SLOT);
+        }
+    };
+
+    /** Annotated parents types, in lookup order. */
+    private static final ClassValue<Class<?>[]> PARENTS = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final List<Class<?>> parents = new ArrayList<>();
+            addParents(parents, type);
+            return parents.toArray(new Class<?>[parents.size()]);
+        }
+    };
+    /** Slots length needed by feature class and its annotated parents. */
+    private static final ClassValue<Integer> LENGTH = new ClassValue<Integer>()
+    {
+        @Override
+        protected Integer computeValue(Class<?> type)
+        {
+            int length = getSlot(type) + 1;
+            for (final Class<?> parent : PARENTS.get(type))
+            {
+                length = Math.max(length, getSlot(parent) + 1);
+            }
+            return Integer.valueOf(length);
+        }
+    };
+    /** Annotated types in direct parents. */
+    private static final ClassValue<Boolean> ANNOTATED = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            for (final Class<?> current : type.getInterfaces())
+            {
+                if (current.isAnnotationPresent(FeatureInterface.class))
+                {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.valueOf(type.isAnnotationPresent(FeatureInterface.class));
+        }
+    };
+
     /**
-     * Check if feature is annotated in its direct parents.
+     * Get the type slot, assigned on first call.
      * 
-     * @param feature The feature to check.
-     * @return <code>true</code> if annotated, <code>false</code> else.
+     * @param type The type reference.
+     * @return The type slot, {@link #NO_SLOT} if not annotated.
      */
-    private static boolean isAnnotated(Feature feature)
+    private static int getSlot(Class<?> type)
     {
-        for (final Class<?> current : feature.getClass().getInterfaces())
+        return SLOTS.get(type).intValue();
+    }
+
+    /**
+     * Add annotated features parent recursively.
+     * 
+     * @param parents The found parents.
+     * @param current The current parent.
+     */
+    private static void addParents(List<Class<?>> parents, Class<?> current)
+    {
+        for (final Class<?> type : current.getInterfaces())
         {
-            if (current.isAnnotationPresent(FeatureInterface.class))
+            if (type.isAnnotationPresent(FeatureInterface.class))
+            {
+                parents.add(type);
+                addParents(parents, type);
+            }
+        }
+        final Class<?> parent = current.getSuperclass();
+        if (parent != null)
+        {
+            if (parent.isAnnotationPresent(FeatureInterface.class))
             {
-                return true;
+                parents.add(parent);
             }
+            addParents(parents, parent);
         }
-        return feature.getClass().isAnnotationPresent(FeatureInterface.class);
     }
 
-    /** Features handled. */
-    private final Map<Class<? extends Feature>, Feature> typeToFeature = new HashMap<>();
+    /** Features handled, indexed by type slot. */
+    private Feature[] typeToFeature = new Feature[0];
+    /** Features type handled. */
+    private final List<Class<? extends Feature>> types = new ArrayList<>();
     /** Unique features. */
-    private final Collection<Feature> features = new ArrayList<>();
+    private final List<Feature> features = new ArrayList<>();
 
     /**
      * Create features handler.
@@ -94,17 +181,25 @@ public class Features
      */
     public void add(Feature feature, boolean overwrite)
     {
-        if (!isAnnotated(feature))
+        if (!ANNOTATED.get(feature.getClass()).booleanValue())
         {
             throw new LionEngineException(ERROR_FEATURE_NOT_ANNOTATED + feature.getClass());
         }
+        final int length = LENGTH.get(feature.getClass()).intValue();
+        if (length > typeToFeature.length)
+        {
+            typeToFeature = Arrays.copyOf(typeToFeature, length);
+        }
         final Feature old;
         // CHECKSTYLE IGNORE LINE: InnerAssignment
-        if ((old = typeToFeature.put(feature.getClass(), feature)) != null)
+        if ((old = put(feature.getClass(), feature)) != null)
         {
             throw new LionEngineException(ERROR_FEATURE_EXISTS + feature.getClass() + WITH + old.getClass());
         }
-        checkTypeDepth(feature, feature.getClass(), overwrite);
+        for (final Class<?> type : PARENTS.get(feature.getClass()))
+        {
+            checkAnnotation(feature, type, overwrite);
+        }
         features.add(feature);
     }
 
@@ -118,7 +213,7 @@ public class Features
      */
     public <C extends Feature> C get(Class<C> feature)
     {
-        final Feature found = typeToFeature.get(feature);
+        final Feature found = find(feature);
         if (found != null)
         {
             return feature.cast(found);
@@ -135,7 +230,7 @@ public class Features
      */
     public <C extends Feature> boolean contains(Class<C> feature)
     {
-        return typeToFeature.containsKey(feature);
+        return find(feature) != null;
     }
 
     /**
@@ -155,35 +250,59 @@ public class Features
      */
     public Iterable<Class<? extends Feature>> getFeaturesType()
     {
-        return typeToFeature.keySet();
+        return types;
     }
 
     /**
-     * Check annotated features parent recursively.
+     * Find feature by type, at its slot if annotated, else by feature class.
      * 
-     * @param feature The main feature.
-     * @param current The current parent.
-     * @param overwrite <code>true</code> to overwrite existing feature, <code>false</code> else.
+     * @param type The feature type.
+     * @return The feature found, <code>null</code> if none.
      */
-    private void checkTypeDepth(Feature feature, Class<?> current, boolean overwrite)
+    private Feature find(Class<?> type)
     {
-        for (final Class<?> type : current.getInterfaces())
+        final int slot = getSlot(type);
+        if (slot > NO_SLOT)
         {
-            if (type.isAnnotationPresent(FeatureInterface.class))
+            return slot < typeToFeature.length ? typeToFeature[slot] : null;
+        }
+        for (int i = 0; i < features.size(); i++)
+        {
+            final Feature feature = features.get(i);
+            if (feature.getClass() == type)
             {
-                checkAnnotation(feature, type, overwrite);
-                checkTypeDepth(feature, type, overwrite);
+                return feature;
             }
         }
-        final Class<?> parent = current.getSuperclass();
-        if (parent != null)
+        return null;
+    }
+
+    /**
+     * Store feature at its type slot if annotated (slots length must be ensured).
+     * 
+     * @param type The feature type.
+     * @param feature The feature reference.
+     * @return The previous feature of this type, <code>null</code> if none.
+     */
+    private Feature put(Class<? extends Feature> type, Feature feature)
+    {
+        final int slot = getSlot(type);
+        if (slot == NO_SLOT)
         {
-            if (parent.isAnnotationPresent(FeatureInterface.class))
+            final Feature old = find(type);
+            if (old == null)
             {
-                checkAnnotation(feature, parent, overwrite);
+                types.add(type);
             }
-            checkTypeDepth(feature, parent, overwrite);
+            return old;
+        }
+        final Feature old = typeToFeature[slot];
+        typeToFeature[slot] = feature;
+        if (old == null)
+        {
+            types.add(type);
         }
+        return old;
     }
 
     /**
@@ -197,7 +316,7 @@ public class Features
     {
         final Feature old;
         // CHECKSTYLE IGNORE LINE: InnerAssignment
-        if ((old = typeToFeature.put(type.asSubclass(Feature.class), feature)) != null && !overwrite)
+        if ((old = put(type.asSubclass(Feature.class), feature)) != null && !overwrite)
         {
             throw new LionEngineException(ERROR_FEATURE_EXISTS
                                           + feature.getClass()
@@ -16,25 +16,63 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.NoSuchElementException;
 
 import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.game.Feature;
 
 /**
  * Handlables implementation.
+ * <p>
+ * Types of featurables and features are resolved once per class, and items of each type are stored densely.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
+    /** Initial type items capacity. */
+    private static final int INIT_ITEMS = 8;
+    /** Featurable types cache (interfaces, class, and all parent classes interfaces). */
+    private static final ClassValue<Class<?>[]> FEATURABLE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Collection<Class<?>> types = new LinkedHashSet<>();
+            types.addAll(Arrays.asList(type.getInterfaces()));
+            types.add(type);
+            Class<?> current = type;
+            while (current != null)
+            {
+                types.addAll(Arrays.asList(current.getInterfaces()));
+                current = current.getSuperclass();
+            }
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
+    /** Feature types cache (feature type and its feature interfaces). */
+    private static final ClassValue<Class<?>[]> FEATURE_TYPES = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            final Collection<Class<?>> types = new LinkedHashSet<>();
+            types.add(type);
+            types.addAll(UtilReflection.getInterfaces(type, Feature.class));
+            return types.toArray(new Class<?>[types.size()]);
+        }
+    };
+
     /** List of featurables (key is the featurable ID). */
     private final Map<Integer, Featurable> featurables = new HashMap<>();
     /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items = new HashMap<>();
+    private final Map<Class<?>, Items> items = new HashMap<>();
 
     /**
      * Create the handlables.
@@ -53,22 +91,18 @@ final class HandlablesImpl implements Handlables
     {
         featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
 
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        for (final Class<?> type : FEATURABLE_TYPES.get(featurable.getClass()))
         {
             addType(type, featurable);
         }
-
         for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
             final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (final Class<?> type : FEATURE_TYPES.get(feature))
             {
-                addType(other, object);
+                addType(type, object);
             }
         }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
     }
 
     /**
@@ -79,23 +113,18 @@ final class HandlablesImpl implements Handlables
      */
     public void remove(Featurable featurable, Integer id)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        for (final Class<?> type : FEATURABLE_TYPES.get(featurable.getClass()))
         {
             remove(type, featurable);
         }
-
         for (final Class<? extends Feature> feature : featurable.getFeaturesType())
         {
             final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (final Class<?> type : FEATURE_TYPES.get(feature))
             {
-                remove(other, object);
+                remove(type, object);
             }
-
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
 
         featurables.remove(id);
     }
@@ -118,49 +147,13 @@ final class HandlablesImpl implements Handlables
      */
     private void addType(Class<?> type, Object object)
     {
-        if (!items.containsKey(type))
+        Items current = items.get(type);
+        if (current == null)
         {
-            items.put(type, new HashSet<>());
-        }
-        items.get(type).add(object);
-    }
-
-    /**
-     * Add object parent super type.
-     * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
-     */
-    private void addSuperClass(Object object, Class<?> type)
-    {
-        for (final Class<?> types : type.getInterfaces())
-        {
-            addType(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            addSuperClass(object, parent);
-        }
-    }
-
-    /**
-     * Remove object parent super type.
-     * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
-     */
-    private void removeSuperClass(Object object, Class<?> type)
-    {
-        for (final Class<?> types : type.getInterfaces())
-        {
-            remove(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            removeSuperClass(object, parent);
+            current = new Items();
+            items.put(type, current);
         }
+        current.add(object);
     }
 
     /**
@@ -171,10 +164,10 @@ final class HandlablesImpl implements Handlables
      */
     private void remove(Class<?> type, Object object)
     {
-        final Set<?> set = items.get(type);
-        if (set != null)
+        final Items current = items.get(type);
+        if (current != null)
         {
-            set.remove(object);
+            current.remove(object);
         }
     }
 
@@ -192,7 +185,7 @@ final class HandlablesImpl implements Handlables
     @SuppressWarnings("unchecked")
     public <I> Iterable<I> get(Class<I> type)
     {
-        final Set<?> typeFeaturables = items.get(type);
+        final Items typeFeaturables = items.get(type);
         if (typeFeaturables != null)
         {
             return (Iterable<I>) typeFeaturables;
@@ -205,4 +198,93 @@ final class HandlablesImpl implements Handlables
     {
         return featurables.values();
     }
+
+    /**
+     * Items of a type, stored in a dense array. Removal swaps the last item in place of the removed one.
+     */
+    private static final class Items implements Iterable<Object>
+    {
+        /** Items index in array. */
+        private final Map<Object, Integer> indexes = new HashMap<>();
+        /** Items array. */
+        private Object[] values = new Object[INIT_ITEMS];
+        /** Items count. */
+        private int size;
+
+        /**
+         * Create items.
+         */
+        private Items()
+        {
+            super();
+        }
+
+        /**
+         * Add item if not already added.
+         * 
+         * @param object The item to add.
+         */
+        private void add(Object object)
+        {
+            if (indexes.putIfAbsent(object, Integer.valueOf(size)) == null)
+            {
+                if (size == values.length)
+                {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = object;
+            }
+        }
+
+        /**
+         * Remove item if added.
+         * 
+         * @param object The item to remove.
+         */
+        private void remove(Object object)
+        {
+            final Integer index = indexes.remove(object);
+            if (index != null)
+            {
+                final int i = index.intValue();
+                final int last = --size;
+                if (i != last)
+                {
+                    values[i] = values[last];
+                    indexes.put(values[i], index);
+                }
+                values[last] = null;
+            }
+        }
+
+        /*
+         * Iterable
+         */
+
+        @Override
+        public Iterator<Object> iterator()
+        {
+            return new Iterator<Object>()
+            {
+                /** Current index. */
+                private int index;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return index < size;
+                }
+
+                @Override
+                public Object next()
+                {
+                    if (index >= size)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return values[index++];
+                }
+            };
+        }
+    }
 }
@@ -53,7 +53,7 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     private final HandlablesImpl featurables = new HandlablesImpl();
     /** To add list. */
     private final Map<Integer, Featurable> toAdd = new HashMap<>();
-    /** To remove list. */
+    /** To remove list, guarded as destroy may be notified by parallel refreshables. */
     private final Collection<Integer> toRemove = new HashSet<>();
     /** Services reference. */
     private final Services services;
@@ -133,8 +133,11 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void remove(FeatureProvider featurable)
     {
-        toRemove.add(featurable.getFeature(Identifiable.class).getId());
-        willRemove = true;
+        synchronized (toRemove)
+        {
+            toRemove.add(featurable.getFeature(Identifiable.class).getId());
+            willRemove = true;
+        }
     }
 
     /**
@@ -144,8 +147,11 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void removeAll()
     {
-        toRemove.addAll(featurables.getIds());
-        willRemove = true;
+        synchronized (toRemove)
+        {
+            toRemove.addAll(featurables.getIds());
+            willRemove = true;
+        }
     }
 
     /**
@@ -292,7 +298,10 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     @Override
     public final void notifyDestroyed(Integer id)
     {
-        toRemove.add(id);
-        willRemove = true;
+        synchronized (toRemove)
+        {
+            toRemove.add(id);
+            willRemove = true;
+        }
     }
 }
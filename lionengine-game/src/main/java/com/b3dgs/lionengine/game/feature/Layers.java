@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Layered elements storage, with sorted layers and dense elements arrays per layer. Elements are stored with an index
+ * handle allowing constant time removal by swapping with the last element of its layer. Layer moves are queued and
+ * applied by {@link #apply()}, so they can be requested while iterating. Iteration order only depends on the sequence
+ * of operations, making it deterministic. Layers are dropped once empty, so only layers with elements are iterated.
+ * 
+ * @param <T> The element type.
+ */
+final class Layers<T>
+{
+    /** Default capacity. */
+    private static final int CAPACITY = 8;
+
+    /**
+     * Get the grown capacity.
+     * 
+     * @param length The current length.
+     * @return The new length.
+     */
+    private static int grow(int length)
+    {
+        return Math.max(CAPACITY, length * 2);
+    }
+
+    /** Elements handle. */
+    private final Map<T, Handle> handles = new IdentityHashMap<>();
+    /** Sorted layers value. */
+    private int[] values = new int[CAPACITY];
+    /** Layers bucket, following values order. */
+    private Bucket[] buckets = new Bucket[CAPACITY];
+    /** Layers count. */
+    private int count;
+    /** Pending moves. */
+    private Handle[] pending = new Handle[CAPACITY];
+    /** Pending moves count. */
+    private int pendingCount;
+
+    /**
+     * Create storage.
+     */
+    Layers()
+    {
+        super();
+    }
+
+    /**
+     * Add element to layer. Does nothing if already added.
+     * 
+     * @param element The element to add.
+     * @param layer The layer value.
+     */
+    void add(T element, int layer)
+    {
+        if (!handles.containsKey(element))
+        {
+            final Handle handle = new Handle(element);
+            handles.put(element, handle);
+            attach(handle, layer);
+        }
+    }
+
+    /**
+     * Remove element from its layer. Pending move of this element is discarded.
+     * 
+     * @param element The element to remove.
+     * @return <code>true</code> if removed, <code>false</code> if was not added.
+     */
+    boolean remove(T element)
+    {
+        final Handle handle = handles.remove(element);
+        if (handle == null)
+        {
+            return false;
+        }
+        if (handle.bucket != null)
+        {
+            detach(handle);
+        }
+        handle.removed = true;
+        return true;
+    }
+
+    /**
+     * Queue element move to another layer, applied on next {@link #apply()}. Element is added if not already there.
+     * 
+     * @param element The element to move.
+     * @param layer The new layer value.
+     */
+    void move(T element, int layer)
+    {
+        Handle handle = handles.get(element);
+        if (handle == null)
+        {
+            handle = new Handle(element);
+            handles.put(element, handle);
+        }
+        handle.target = layer;
+        if (!handle.pending)
+        {
+            handle.pending = true;
+            if (pendingCount == pending.length)
+            {
+                pending = Arrays.copyOf(pending, grow(pending.length));
+            }
+            pending[pendingCount] = handle;
+            pendingCount++;
+        }
+    }
+
+    /**
+     * Apply queued moves, in request order.
+     */
+    void apply()
+    {
+        for (int i = 0; i < pendingCount; i++)
+        {
+            final Handle handle = pending[i];
+            pending[i] = null;
+            handle.pending = false;
+
+            if (!handle.removed && (handle.bucket == null || handle.layer != handle.target))
+            {
+                if (handle.bucket != null)
+                {
+                    detach(handle);
+                }
+                attach(handle, handle.target);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Get the number of layers, empty layers being dropped.
+     * 
+     * @return The layers count.
+     */
+    int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Get the layer value.
+     * 
+     * @param index The layer index, from lowest to highest value.
+     * @return The layer value.
+     */
+    int getLayer(int index)
+    {
+        return values[index];
+    }
+
+    /**
+     * Get the number of elements in layer.
+     * 
+     * @param index The layer index, from lowest to highest value.
+     * @return The elements count.
+     */
+    int getSize(int index)
+    {
+        return buckets[index].size;
+    }
+
+    /**
+     * Get the element.
+     * 
+     * @param index The layer index, from lowest to highest value.
+     * @param i The element index in layer.
+     * @return The element.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index, int i)
+    {
+        return (T) buckets[index].elements[i];
+    }
+
+    /**
+     * Sort layer elements. Insertion sort is used as order is expected to be mostly kept between calls, and equal
+     * elements keep their relative order.
+     * 
+     * @param index The layer index, from lowest to highest value.
+     * @param comparator The elements comparator.
+     */
+    @SuppressWarnings("unchecked")
+    void sort(int index, Comparator<? super T> comparator)
+    {
+        final Bucket bucket = buckets[index];
+        for (int i = 1; i < bucket.size; i++)
+        {
+            final Object element = bucket.elements[i];
+            final Handle handle = bucket.handles[i];
+            int j = i - 1;
+            while (j > -1 && comparator.compare((T) bucket.elements[j], (T) element) > 0)
+            {
+                bucket.elements[j + 1] = bucket.elements[j];
+                bucket.handles[j + 1] = bucket.handles[j];
+                bucket.handles[j + 1].index = j + 1;
+                j--;
+            }
+            bucket.elements[j + 1] = element;
+            bucket.handles[j + 1] = handle;
+            handle.index = j + 1;
+        }
+    }
+
+    /**
+     * Get the total number of elements.
+     * 
+     * @return The elements count.
+     */
+    int size()
+    {
+        int size = 0;
+        for (int i = 0; i < count; i++)
+        {
+            size += buckets[i].size;
+        }
+        return size;
+    }
+
+    /**
+     * Add handle at the end of layer.
+     * 
+     * @param handle The handle to add.
+     * @param layer The layer value.
+     */
+    private void attach(Handle handle, int layer)
+    {
+        final Bucket bucket = getBucket(layer);
+        if (bucket.size == bucket.elements.length)
+        {
+            final int length = grow(bucket.size);
+            bucket.elements = Arrays.copyOf(bucket.elements, length);
+            bucket.handles = Arrays.copyOf(bucket.handles, length);
+        }
+        bucket.elements[bucket.size] = handle.element;
+        bucket.handles[bucket.size] = handle;
+        handle.bucket = bucket;
+        handle.layer = layer;
+        handle.index = bucket.size;
+        bucket.size++;
+    }
+
+    /**
+     * Remove handle from its layer by swapping with last element. Layer is dropped if empty.
+     * 
+     * @param handle The handle to remove.
+     */
+    private void detach(Handle handle)
+    {
+        final Bucket bucket = handle.bucket;
+        final int last = bucket.size - 1;
+        if (handle.index < last)
+        {
+            final Handle moved = bucket.handles[last];
+            bucket.elements[handle.index] = moved.element;
+            bucket.handles[handle.index] = moved;
+            moved.index = handle.index;
+        }
+        bucket.elements[last] = null;
+        bucket.handles[last] = null;
+        bucket.size = last;
+        handle.bucket = null;
+        handle.index = -1;
+
+        if (last == 0)
+        {
+            final int index = Arrays.binarySearch(values, 0, count, handle.layer);
+            System.arraycopy(values, index + 1, values, index, count - index - 1);
+            System.arraycopy(buckets, index + 1, buckets, index, count - index - 1);
+            count--;
+            buckets[count] = null;
+        }
+    }
+
+    /**
+     * Get the layer bucket. Creates it at sorted position if not existing.
+     * 
+     * @param layer The layer value.
+     * @return The layer bucket.
+     */
+    private Bucket getBucket(int layer)
+    {
+        final int found = Arrays.binarySearch(values, 0, count, layer);
+        if (found > -1)
+        {
+            return buckets[found];
+        }
+        final int index = -(found + 1);
+        if (count == values.length)
+        {
+            values = Arrays.copyOf(values, grow(count));
+            buckets = Arrays.copyOf(buckets, values.length);
+        }
+        System.arraycopy(values, index, values, index + 1, count - index);
+        System.arraycopy(buckets, index, buckets, index + 1, count - index);
+        final Bucket bucket = new Bucket();
+        values[index] = layer;
+        buckets[index] = bucket;
+        count++;
+        return bucket;
+    }
+
+    /**
+     * Layer elements.
+     */
+    private static final class Bucket
+    {
+        /** Elements. */
+        private Object[] elements = new Object[CAPACITY];
+        /** Elements handle. */
+        private Handle[] handles = new Handle[CAPACITY];
+        /** Elements count. */
+        private int size;
+
+        /**
+         * Create bucket.
+         */
+        Bucket()
+        {
+            super();
+        }
+    }
+
+    /**
+     * Element position handle.
+     */
+    private static final class Handle
+    {
+        /** Element reference. */
+        private final Object element;
+        /** Current bucket, <code>null</code> if not placed. */
+        private Bucket bucket;
+        /** Current layer value. */
+        private int layer;
+        /** Index in bucket. */
+        private int index = -1;
+        /** Target layer value. */
+        private int target;
+        /** Pending move flag. */
+        private boolean pending;
+        /** Removed flag. */
+        private boolean removed;
+
+        /**
+         * Create handle.
+         * 
+         * @param element The element reference.
+         */
+        Handle(Object element)
+        {
+            super();
+
+            this.element = element;
+        }
+    }
+}
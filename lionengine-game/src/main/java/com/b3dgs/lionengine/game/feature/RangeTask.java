@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Parallel task applying an action on a range of indexes, split in halves until {@link #SPLIT} length.
+ * <p>
+ * Used by parallel components to share the work between the threads of a {@link java.util.concurrent.ForkJoinPool}.
+ * </p>
+ */
+public final class RangeTask extends RecursiveAction
+{
+    /** Maximum range length applied without split. */
+    public static final int SPLIT = 32;
+    /** Serial UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** First index. */
+    private final int start;
+    /** Last index excluded. */
+    private final int end;
+    /** Action applied on each index. */
+    private final transient IntConsumer action;
+
+    /**
+     * Create task.
+     * 
+     * @param start The first index.
+     * @param end The last index excluded.
+     * @param action The action to apply (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public RangeTask(int start, int end, IntConsumer action)
+    {
+        super();
+
+        Check.notNull(action);
+
+        this.start = start;
+        this.end = end;
+        this.action = action;
+    }
+
+    /*
+     * RecursiveAction
+     */
+
+    @Override
+    protected void compute()
+    {
+        if (end - start <= SPLIT)
+        {
+            for (int i = start; i < end; i++)
+            {
+                action.accept(i);
+            }
+        }
+        else
+        {
+            final int middle = start + end >>> 1;
+            invokeAll(new RangeTask(start, middle, action), new RangeTask(middle, end, action));
+        }
+    }
+}
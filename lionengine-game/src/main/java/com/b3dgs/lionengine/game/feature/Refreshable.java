@@ -25,5 +25,25 @@ import com.b3dgs.lionengine.game.Feature;
 @FeatureInterface
 public interface Refreshable extends Feature, Updatable
 {
-    // Wrapper
+    /**
+     * Check if update is local, reading and writing only its own featurable state. Local refreshables may be updated
+     * in parallel with other local refreshables of the same layer (see {@link ComponentRefreshable}).
+     * <p>
+     * A local refreshable may move its own {@link Transformable} and change its layer: listeners writing shared state,
+     * such as {@link ComponentDisplayable} and {@link com.b3dgs.lionengine.game.feature.collidable.ComponentCollision},
+     * defer their work with {@link ComponentRefreshable#defer(Runnable)}, run on the calling thread after the parallel
+     * update.
+     * </p>
+     * <p>
+     * A local refreshable may destroy its own featurable with {@link Identifiable#destroy()}: {@link Handler} only
+     * queues the removal, applied on its next update. Other {@link IdentifiableListener} of the featurable are then
+     * notified on the updating thread, so they must not access shared state either.
+     * </p>
+     * 
+     * @return <code>true</code> if local, <code>false</code> if may access other featurables or shared state.
+     */
+    default boolean isLocal()
+    {
+        return false;
+    }
 }
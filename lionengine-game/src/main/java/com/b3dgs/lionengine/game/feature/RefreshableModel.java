@@ -27,20 +27,35 @@ public class RefreshableModel extends FeatureAbstract implements Refreshable
 {
     /** Updatable reference. */
     private final Updatable updatable;
+    /** Local flag. */
+    private final boolean local;
 
     /**
-     * Create feature.
+     * Create feature, not local.
      * 
      * @param updatable The updatable reference (must not be <code>null</code>).
      * @throws LionEngineException If invalid argument.
      */
     public RefreshableModel(Updatable updatable)
+    {
+        this(updatable, false);
+    }
+
+    /**
+     * Create feature.
+     * 
+     * @param updatable The updatable reference (must not be <code>null</code>).
+     * @param local <code>true</code> if local (see {@link Refreshable#isLocal()}), <code>false</code> else.
+     * @throws LionEngineException If invalid argument.
+     */
+    public RefreshableModel(Updatable updatable, boolean local)
     {
         super();
 
         Check.notNull(updatable);
 
         this.updatable = updatable;
+        this.local = local;
     }
 
     /*
@@ -52,4 +67,10 @@ public class RefreshableModel extends FeatureAbstract implements Refreshable
     {
         updatable.update(extrp);
     }
+
+    @Override
+    public boolean isLocal()
+    {
+        return local;
+    }
 }
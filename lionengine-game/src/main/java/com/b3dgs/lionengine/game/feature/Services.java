@@ -17,11 +17,16 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.game.Feature;
@@ -52,18 +57,35 @@ import com.b3dgs.lionengine.game.Feature;
  * final Camera camera = services.create(Camera.class);
  * final MapTile map = services.create(MapTileGame.class);
  * </pre>
+ * <p>
+ * A service added with the exact requested type is returned first. Else, the single service which fits the requested
+ * type is returned. When several services fit a type, whatever the adding order, {@link #get(Class)} and
+ * {@link #getOptional(Class)} fail. Resolved types are cached until a new service may fit them.
+ * </p>
  */
 public class Services
 {
     /** Service get error. */
     static final String ERROR_SERVICE_GET = "Service not found: ";
+    /** Ambiguous service error. */
+    static final String ERROR_SERVICE_AMBIGUOUS = "Ambiguous service: ";
     /** Service create error. */
     private static final String ERROR_SERVICE_CREATE = "Unable to create service: ";
     /** Service create error. */
     private static final String ERROR_SERVICE_NO_CONSTRUCTOR = "No recognized constructor found for: ";
+    /** Resolved as not found. */
+    private static final Object NONE = new Object();
+    /** Resolved as ambiguous. */
+    private static final Object AMBIGUOUS = new Object();
 
-    /** Services list. */
+    /** Services set. */
     private final Collection<Object> servicesSet = new HashSet<>();
+    /** Services list, in adding order. */
+    private final List<Object> servicesList = new ArrayList<>();
+    /** Services by exact type, in adding order. */
+    private final Map<Class<?>, List<Object>> exact = new HashMap<>();
+    /** Resolved services by type ({@link #NONE} if not found, {@link #AMBIGUOUS} if several fit). */
+    private final Map<Class<?>, Object> resolved = new HashMap<>();
 
     /**
      * Create a services container.
@@ -168,15 +190,20 @@ public class Services
     public <S> S add(S service)
     {
         Check.notNull(service);
-        servicesSet.add(service);
+        if (servicesSet.add(service))
+        {
+            servicesList.add(service);
+            exact.computeIfAbsent(service.getClass(), type -> new ArrayList<>(1)).add(service);
+            resolved.entrySet().removeIf(entry -> entry.getKey().isInstance(service));
+        }
         return service;
     }
 
     /**
      * Get a service from its class.
      * <p>
-     * The first instance (previously added with {@link #add(Object)} or {@link #create(Class)}) which fit the required
-     * type is returned.
+     * The instance (previously added with {@link #add(Object)} or {@link #create(Class)}) of the exact required type
+     * is returned, else the single instance which fit the required type.
      * </p>
      * 
      * <pre>
@@ -189,72 +216,132 @@ public class Services
      * @param <S> The service type.
      * @param service The service type.
      * @return The service implementation found.
-     * @throws LionEngineException If service not found or <code>null</code>.
+     * @throws LionEngineException If service not found, ambiguous or <code>null</code>.
      */
     public <S> S get(Class<S> service)
     {
-        final S instance = getService(service);
-        if (instance == null)
+        final Object instance = getService(service);
+        if (instance == NONE)
         {
             throw new LionEngineException(ERROR_SERVICE_GET + service.getName());
         }
-        return instance;
+        if (instance == AMBIGUOUS)
+        {
+            throw createAmbiguous(service);
+        }
+        return service.cast(instance);
     }
 
     /**
      * Get a service from its class.
      * <p>
-     * The first instance (previously added with {@link #add(Object)} or {@link #create(Class)}) which fit the required
-     * type is returned.
+     * The instance (previously added with {@link #add(Object)} or {@link #create(Class)}) of the exact required type
+     * is returned, else the single instance which fit the required type.
      * </p>
      * 
      * @param <S> The service type.
      * @param service The service type.
-     * @return The service implementation found.
-     * @throws LionEngineException If <code>null</code> argument.
+     * @return The service implementation found, empty if not found.
+     * @throws LionEngineException If <code>null</code> argument or several services fit the type.
      */
     public <S> Optional<S> getOptional(Class<S> service)
     {
-        return Optional.ofNullable(getService(service));
+        final Object instance = getService(service);
+        if (instance == NONE)
+        {
+            return Optional.empty();
+        }
+        if (instance == AMBIGUOUS)
+        {
+            throw createAmbiguous(service);
+        }
+        return Optional.of(service.cast(instance));
     }
 
     /**
-     * Get a service from its class.
-     * <p>
-     * The first instance (previously added with {@link #add(Object)} or {@link #create(Class)}) which fit the required
-     * type is returned.
-     * </p>
+     * Create the ambiguous service exception, listing the services which fit the type.
      * 
-     * <pre>
-     * final Services services = new Services();
-     * services.add(new Camera());
-     * ...
-     * final Viewer viewer = services.get(Viewer.class) // Get the camera as viewer
-     * </pre>
+     * @param service The service type.
+     * @return The exception.
+     */
+    private LionEngineException createAmbiguous(Class<?> service)
+    {
+        final StringBuilder message = new StringBuilder(ERROR_SERVICE_AMBIGUOUS).append(service.getName());
+        final int n = servicesList.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Object object = servicesList.get(i);
+            if (service.isInstance(object))
+            {
+                message.append(Constant.SPACE).append(object.getClass().getName());
+            }
+        }
+        return new LionEngineException(message.toString());
+    }
+
+    /**
+     * Get the service resolved for the type.
      * 
-     * @param <S> The service type.
      * @param service The service type.
-     * @return The service implementation found.
+     * @return The service found, {@link #NONE} if not found, {@link #AMBIGUOUS} if several fit.
+     * @throws LionEngineException If <code>null</code> argument.
      */
-    private <S> S getService(Class<S> service)
+    private Object getService(Class<?> service)
     {
         Check.notNull(service);
-        S instance = null;
         if (service == getClass())
         {
-            instance = service.cast(this);
+            return this;
+        }
+        Object instance = resolved.get(service);
+        if (instance == null)
+        {
+            instance = resolve(service);
+            resolved.put(service, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Resolve the service fitting type, by exact type first, else by assignable types.
+     * 
+     * @param service The service type.
+     * @return The service found, {@link #NONE} if not found, {@link #AMBIGUOUS} if several fit.
+     */
+    private Object resolve(Class<?> service)
+    {
+        final List<Object> same = exact.get(service);
+        if (same != null)
+        {
+            return single(same);
         }
-        else
+        Object instance = NONE;
+        for (final Map.Entry<Class<?>, List<Object>> entry : exact.entrySet())
         {
-            for (final Object object : servicesSet)
+            if (service.isAssignableFrom(entry.getKey()))
             {
-                if (service.isAssignableFrom(object.getClass()))
+                if (instance != NONE)
                 {
-                    instance = service.cast(object);
-                    break;
+                    return AMBIGUOUS;
                 }
+                instance = single(entry.getValue());
             }
         }
         return instance;
     }
+
+    /**
+     * Get the single service of list.
+     * 
+     * @param services The services of the same type.
+     * @return The single service, {@link #AMBIGUOUS} if several.
+     */
+    private static Object single(List<Object> services)
+    {
+        if (services.size() == 1)
+        {
+            return services.get(0);
+        }
+        return AMBIGUOUS;
+    }
 }
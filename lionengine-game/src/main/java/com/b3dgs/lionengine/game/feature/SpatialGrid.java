@@ -0,0 +1,641 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Uniform grid indexing elements by the cells covered by their bounds, used by {@link ComponentDisplayable} to find
+ * elements around the view, and by collision component as broadphase.
+ * <p>
+ * Cells are stored in an open addressed table keyed by their packed coordinates (16 bits per axis, cell indexes being
+ * clamped to this range), and their members are kept in dense primitive arrays. Empty cells are released and removed
+ * from the table with a backward shift, so the table only holds occupied cells. Each element remembers the cell range
+ * it covers, so it is only re-bucketed when this range changes.
+ * </p>
+ * <p>
+ * Elements covering several cells are found once by {@link #query(double, double, double, double)}, and a pair of
+ * elements sharing several cells is owned by a single one of them (see {@link #isOwner(int, int, int)}).
+ * </p>
+ * 
+ * @param <T> The element type.
+ */
+public final class SpatialGrid<T>
+{
+    /** No cell or element. */
+    public static final int NONE = -1;
+    /** Initial table capacity (power of two). */
+    private static final int INIT_TABLE = 64;
+    /** Initial elements capacity. */
+    private static final int INIT_ELEMENTS = 16;
+    /** Initial cell members capacity. */
+    private static final int INIT_MEMBERS = 4;
+    /** Hash mixing constant. */
+    private static final int MIX = 0x9E3779B9;
+    /** Coordinate mask. */
+    private static final int MASK = 0xFFFF;
+    /** Coordinate bits. */
+    private static final int BITS = 16;
+    /** Cell index limit, keeping packed coordinates unique. */
+    private static final double LIMIT = Short.MAX_VALUE;
+
+    /**
+     * Pack cell coordinates.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static int key(int cx, int cy)
+    {
+        return cx << BITS | cy & MASK;
+    }
+
+    /**
+     * Get the table home slot of key.
+     * 
+     * @param key The cell key.
+     * @param mask The table mask.
+     * @return The home slot.
+     */
+    private static int hash(int key, int mask)
+    {
+        return key * MIX >>> Integer.numberOfLeadingZeros(mask) & mask;
+    }
+
+    /** Cell size in real units. */
+    private final double size;
+    /** Elements identifier. */
+    private final Map<T, Integer> ids = new IdentityHashMap<>();
+    /** Table keys. */
+    private int[] keys = new int[INIT_TABLE];
+    /** Table cells ({@link #NONE} if empty slot). */
+    private int[] slots = new int[INIT_TABLE];
+    /** Table used slots. */
+    private int used;
+    /** Cell keys. */
+    private int[] cellKeys = new int[INIT_ELEMENTS];
+    /** Cell members. */
+    private int[][] members = new int[INIT_ELEMENTS][];
+    /** Cell members count. */
+    private int[] sizes = new int[INIT_ELEMENTS];
+    /** Allocated cells. */
+    private int cells;
+    /** Released cells. */
+    private int[] freeCells = new int[INIT_ELEMENTS];
+    /** Released cells count. */
+    private int freeCellsCount;
+    /** Elements reference. */
+    private Object[] elements = new Object[INIT_ELEMENTS];
+    /** Elements cell range (min x, min y, max x, max y). */
+    private int[] ranges = new int[INIT_ELEMENTS * 4];
+    /** Elements last query stamp. */
+    private int[] stamps = new int[INIT_ELEMENTS];
+    /** Allocated elements. */
+    private int count;
+    /** Released elements. */
+    private int[] freeElements = new int[INIT_ELEMENTS];
+    /** Released elements count. */
+    private int freeElementsCount;
+    /** Last query found elements. */
+    private int[] found = new int[INIT_ELEMENTS];
+    /** Current query stamp. */
+    private int stamp;
+
+    /**
+     * Create grid.
+     * 
+     * @param size The cell size in real units (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public SpatialGrid(double size)
+    {
+        super();
+
+        Check.superiorStrict(size, 0.0);
+
+        this.size = size;
+        Arrays.fill(slots, NONE);
+    }
+
+    /**
+     * Convert real location value to cell index, clamped to the packed coordinates range.
+     * 
+     * @param value The real location value.
+     * @return The cell index.
+     */
+    public int getIndex(double value)
+    {
+        return (int) Math.max(-LIMIT, Math.min(LIMIT, Math.floor(value / size)));
+    }
+
+    /**
+     * Update element bounds. Element is added if not known, and only re-bucketed if its cell range changed.
+     * 
+     * @param element The element reference.
+     * @param minX The minimum horizontal location.
+     * @param minY The minimum vertical location.
+     * @param maxX The maximum horizontal location.
+     * @param maxY The maximum vertical location.
+     * @return The element identifier.
+     */
+    public int move(T element, double minX, double minY, double maxX, double maxY)
+    {
+        final int minCx = getIndex(minX);
+        final int minCy = getIndex(minY);
+        final int maxCx = getIndex(maxX);
+        final int maxCy = getIndex(maxY);
+
+        final Integer id = ids.get(element);
+        if (id == null)
+        {
+            final int index = allocate(element);
+            ids.put(element, Integer.valueOf(index));
+            setRange(index, minCx, minCy, maxCx, maxCy);
+            for (int cx = minCx; cx <= maxCx; cx++)
+            {
+                for (int cy = minCy; cy <= maxCy; cy++)
+                {
+                    add(cx, cy, index);
+                }
+            }
+            return index;
+        }
+
+        final int index = id.intValue();
+        final int i = index * 4;
+        final int oldMinCx = ranges[i];
+        final int oldMinCy = ranges[i + 1];
+        final int oldMaxCx = ranges[i + 2];
+        final int oldMaxCy = ranges[i + 3];
+        if (oldMinCx != minCx || oldMinCy != minCy || oldMaxCx != maxCx || oldMaxCy != maxCy)
+        {
+            for (int cx = oldMinCx; cx <= oldMaxCx; cx++)
+            {
+                for (int cy = oldMinCy; cy <= oldMaxCy; cy++)
+                {
+                    if (cx < minCx || cx > maxCx || cy < minCy || cy > maxCy)
+                    {
+                        remove(cx, cy, index);
+                    }
+                }
+            }
+            for (int cx = minCx; cx <= maxCx; cx++)
+            {
+                for (int cy = minCy; cy <= maxCy; cy++)
+                {
+                    if (cx < oldMinCx || cx > oldMaxCx || cy < oldMinCy || cy > oldMaxCy)
+                    {
+                        add(cx, cy, index);
+                    }
+                }
+            }
+            setRange(index, minCx, minCy, maxCx, maxCy);
+        }
+        return index;
+    }
+
+    /**
+     * Remove element from all its cells. Does nothing if not known.
+     * 
+     * @param element The element reference.
+     * @return The removed element identifier, {@link #NONE} if not known.
+     */
+    public int remove(T element)
+    {
+        final Integer id = ids.remove(element);
+        if (id == null)
+        {
+            return NONE;
+        }
+        final int index = id.intValue();
+        final int i = index * 4;
+        for (int cx = ranges[i]; cx <= ranges[i + 2]; cx++)
+        {
+            for (int cy = ranges[i + 1]; cy <= ranges[i + 3]; cy++)
+            {
+                remove(cx, cy, index);
+            }
+        }
+        elements[index] = null;
+        freeElements[freeElementsCount++] = index;
+        return index;
+    }
+
+    /**
+     * Find elements covering cells in area, each element being found once. Elements are then accessed with
+     * {@link #get(int)}.
+     * 
+     * @param minX The minimum horizontal location.
+     * @param minY The minimum vertical location.
+     * @param maxX The maximum horizontal location.
+     * @param maxY The maximum vertical location.
+     * @return The number of found elements.
+     */
+    public int query(double minX, double minY, double maxX, double maxY)
+    {
+        stamp++;
+        final int maxCx = getIndex(maxX);
+        final int maxCy = getIndex(maxY);
+        int found = 0;
+        for (int cy = getIndex(minY); cy <= maxCy; cy++)
+        {
+            for (int cx = getIndex(minX); cx <= maxCx; cx++)
+            {
+                final int cell = find(cx, cy);
+                if (cell != NONE)
+                {
+                    found = collect(cell, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get an element found by last query.
+     * 
+     * @param index The found index.
+     * @return The element reference.
+     */
+    public T get(int index)
+    {
+        return getElement(found[index]);
+    }
+
+    /**
+     * Find cell at specified location.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell index, {@link #NONE} if none.
+     */
+    public int find(int cx, int cy)
+    {
+        final int key = key(cx, cy);
+        final int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (slots[slot] != NONE)
+        {
+            if (keys[slot] == key)
+            {
+                return slots[slot];
+            }
+            slot = slot + 1 & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * Get the allocated cells count. Released cells are empty.
+     * 
+     * @return The cells count.
+     */
+    public int getCells()
+    {
+        return cells;
+    }
+
+    /**
+     * Get the occupied cells count.
+     * 
+     * @return The occupied cells count.
+     */
+    public int getUsedCells()
+    {
+        return used;
+    }
+
+    /**
+     * Get the number of elements in cell.
+     * 
+     * @param cell The cell index.
+     * @return The cell elements count.
+     */
+    public int getSize(int cell)
+    {
+        return sizes[cell];
+    }
+
+    /**
+     * Get the element in cell.
+     * 
+     * @param cell The cell index.
+     * @param index The member index.
+     * @return The element identifier.
+     */
+    public int getMember(int cell, int index)
+    {
+        return members[cell][index];
+    }
+
+    /**
+     * Get the allocated elements count. Some of them may be released.
+     * 
+     * @return The elements count.
+     */
+    public int getCapacity()
+    {
+        return count;
+    }
+
+    /**
+     * Get the element reference.
+     * 
+     * @param element The element identifier.
+     * @return The element reference, <code>null</code> if released.
+     */
+    @SuppressWarnings("unchecked")
+    public T getElement(int element)
+    {
+        return (T) elements[element];
+    }
+
+    /**
+     * Get the number of indexed elements.
+     * 
+     * @return The elements count.
+     */
+    public int size()
+    {
+        return ids.size();
+    }
+
+    /**
+     * Check if cell is the one owning the pair. The owner is the cell containing the minimum corner of the two
+     * elements ranges intersection, so a pair is checked by one cell only.
+     * 
+     * @param cell The cell index.
+     * @param a The first element.
+     * @param b The second element.
+     * @return <code>true</code> if ranges intersect and cell owns the pair, <code>false</code> else.
+     */
+    public boolean isOwner(int cell, int a, int b)
+    {
+        final int i = a * 4;
+        final int j = b * 4;
+        if (ranges[i] > ranges[j + 2]
+            || ranges[j] > ranges[i + 2]
+            || ranges[i + 1] > ranges[j + 3]
+            || ranges[j + 1] > ranges[i + 3])
+        {
+            return false;
+        }
+        return cellKeys[cell] == key(Math.max(ranges[i], ranges[j]), Math.max(ranges[i + 1], ranges[j + 1]));
+    }
+
+    /**
+     * Add cell members not yet found by current query.
+     * 
+     * @param cell The cell index.
+     * @param current The current found count.
+     * @return The new found count.
+     */
+    private int collect(int cell, int current)
+    {
+        int next = current;
+        final int length = sizes[cell];
+        for (int i = 0; i < length; i++)
+        {
+            final int element = members[cell][i];
+            if (stamps[element] != stamp)
+            {
+                stamps[element] = stamp;
+                if (next == found.length)
+                {
+                    found = Arrays.copyOf(found, next * 2);
+                }
+                found[next] = element;
+                next++;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Allocate element.
+     * 
+     * @param element The element reference.
+     * @return The element identifier.
+     */
+    private int allocate(T element)
+    {
+        final int index;
+        if (freeElementsCount > 0)
+        {
+            index = freeElements[--freeElementsCount];
+        }
+        else
+        {
+            if (count == elements.length)
+            {
+                elements = Arrays.copyOf(elements, count * 2);
+                ranges = Arrays.copyOf(ranges, count * 2 * 4);
+                stamps = Arrays.copyOf(stamps, count * 2);
+                freeElements = Arrays.copyOf(freeElements, count * 2);
+            }
+            index = count++;
+        }
+        elements[index] = element;
+        stamps[index] = stamp;
+        return index;
+    }
+
+    /**
+     * Store element range.
+     * 
+     * @param element The element identifier.
+     * @param minCx The minimum horizontal cell.
+     * @param minCy The minimum vertical cell.
+     * @param maxCx The maximum horizontal cell.
+     * @param maxCy The maximum vertical cell.
+     */
+    private void setRange(int element, int minCx, int minCy, int maxCx, int maxCy)
+    {
+        final int i = element * 4;
+        ranges[i] = minCx;
+        ranges[i + 1] = minCy;
+        ranges[i + 2] = maxCx;
+        ranges[i + 3] = maxCy;
+    }
+
+    /**
+     * Add element to cell, created if needed.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @param element The element identifier.
+     */
+    private void add(int cx, int cy, int element)
+    {
+        int cell = find(cx, cy);
+        if (cell == NONE)
+        {
+            cell = createCell(key(cx, cy));
+        }
+        final int length = sizes[cell];
+        if (length == members[cell].length)
+        {
+            members[cell] = Arrays.copyOf(members[cell], length * 2);
+        }
+        members[cell][length] = element;
+        sizes[cell] = length + 1;
+    }
+
+    /**
+     * Remove element from cell, released if empty.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @param element The element identifier.
+     */
+    private void remove(int cx, int cy, int element)
+    {
+        final int cell = find(cx, cy);
+        if (cell != NONE)
+        {
+            final int[] current = members[cell];
+            final int length = sizes[cell];
+            for (int i = 0; i < length; i++)
+            {
+                if (current[i] == element)
+                {
+                    current[i] = current[length - 1];
+                    sizes[cell] = length - 1;
+                    break;
+                }
+            }
+            if (sizes[cell] == 0)
+            {
+                releaseCell(cell);
+            }
+        }
+    }
+
+    /**
+     * Create a new cell and index it.
+     * 
+     * @param key The cell key.
+     * @return The cell index.
+     */
+    private int createCell(int key)
+    {
+        final int cell;
+        if (freeCellsCount > 0)
+        {
+            cell = freeCells[--freeCellsCount];
+        }
+        else
+        {
+            if (cells == cellKeys.length)
+            {
+                cellKeys = Arrays.copyOf(cellKeys, cells * 2);
+                members = Arrays.copyOf(members, cells * 2);
+                sizes = Arrays.copyOf(sizes, cells * 2);
+                freeCells = Arrays.copyOf(freeCells, cells * 2);
+            }
+            cell = cells++;
+            members[cell] = new int[INIT_MEMBERS];
+        }
+        cellKeys[cell] = key;
+        if ((used + 1) * 2 > keys.length)
+        {
+            rehash(keys.length * 2);
+        }
+        insert(key, cell);
+        return cell;
+    }
+
+    /**
+     * Release an empty cell and remove it from table.
+     * 
+     * @param cell The cell index.
+     */
+    private void releaseCell(int cell)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(cellKeys[cell], mask);
+        while (slots[slot] != cell)
+        {
+            slot = slot + 1 & mask;
+        }
+        slots[slot] = NONE;
+        used--;
+
+        // Backward shift to keep probe sequences contiguous
+        int next = slot + 1 & mask;
+        while (slots[next] != NONE)
+        {
+            final int home = hash(keys[next], mask);
+            if ((next - home & mask) >= (next - slot & mask))
+            {
+                keys[slot] = keys[next];
+                slots[slot] = slots[next];
+                slots[next] = NONE;
+                slot = next;
+            }
+            next = next + 1 & mask;
+        }
+        freeCells[freeCellsCount++] = cell;
+    }
+
+    /**
+     * Insert key in table.
+     * 
+     * @param key The cell key.
+     * @param cell The cell index.
+     */
+    private void insert(int key, int cell)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (slots[slot] != NONE)
+        {
+            slot = slot + 1 & mask;
+        }
+        keys[slot] = key;
+        slots[slot] = cell;
+        used++;
+    }
+
+    /**
+     * Resize table.
+     * 
+     * @param capacity The new capacity (power of two).
+     */
+    private void rehash(int capacity)
+    {
+        final int[] oldKeys = keys;
+        final int[] oldSlots = slots;
+        keys = new int[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, NONE);
+        used = 0;
+        for (int i = 0; i < oldSlots.length; i++)
+        {
+            if (oldSlots[i] != NONE)
+            {
+                insert(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+}
@@ -41,7 +41,8 @@ import com.b3dgs.lionengine.geom.Rectangle;
 final class CollidableUpdater implements IdentifiableListener, CollisionChecker
 {
     /**
-     * Check if other collides with collision and its rectangle area.
+     * Check if other collides with collision and its rectangle area, swept along the transformable movement. All other
+     * areas reached at the first time of impact are collided, and the rectangle is kept at this location.
      * 
      * @param origin The origin used.
      * @param provider The provider owner.
@@ -68,64 +69,139 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
         final double dh = origin.getX(transformable.getX() + offsetX, rectangle.getWidthReal()) - sh;
         final double dv = origin.getY(transformable.getY() + offsetY, rectangle.getHeightReal()) - sv;
 
-        final double nh = Math.abs(dh);
-        final double nv = Math.abs(dv);
-
-        final int max = (int) Math.ceil(Math.max(nh, nv));
-        final double sx;
-        final double sy;
+        final List<Rectangle> others = other.getCollisionBounds();
+        final List<Collision> othersColl = other.getCollisions();
+        final int size = others.size();
 
-        if (Double.compare(nh, 1.0) >= 0 || Double.compare(nv, 1.0) >= 0)
+        double first = Double.POSITIVE_INFINITY;
+        int firstIndex = -1;
+        for (int i = 0; i < size; i++)
         {
-            sx = dh / max;
-            sy = dv / max;
+            if (other.isEnabled(othersColl.get(i)))
+            {
+                final double time = getImpact(rectangle, dh, dv, others.get(i), false);
+                if (time < first)
+                {
+                    first = time;
+                    firstIndex = i;
+                }
+            }
         }
-        else
+        if (firstIndex > -1)
         {
-            sx = dh;
-            sy = dv;
+            for (int i = 0; i < size; i++)
+            {
+                final Collision by = othersColl.get(i);
+                if (other.isEnabled(by) && getImpact(rectangle, dh, dv, others.get(i), false) <= first)
+                {
+                    collisions.add(new CollisionCouple(with, by));
+                }
+            }
+            // Keep area on impact, so other collidable checking this one also detects it
+            final double inside = getImpact(rectangle, dh, dv, others.get(firstIndex), true);
+            rectangle.translate(dh * inside, dv * inside);
         }
+    }
 
-        final double oldX = rectangle.getX();
-        final double oldY = rectangle.getY();
-        for (int count = 0; count < max + 1; count++)
+    /**
+     * Get the time of impact of a moving area with another one (swept axis aligned bounding boxes). Areas collide when
+     * they intersect or when the other one is contained.
+     * 
+     * @param area The moving area at start.
+     * @param dx The horizontal movement.
+     * @param dy The vertical movement.
+     * @param other The other area.
+     * @param inside <code>true</code> to get a time where areas are colliding, <code>false</code> to get the first
+     *            collision time (areas may only touch at this time).
+     * @return The time in <code>[0, 1]</code>, {@link Double#POSITIVE_INFINITY} if no collision during movement.
+     */
+    static double getImpact(Area area, double dx, double dy, Area other, boolean inside)
+    {
+        final double x = area.getX();
+        final double y = area.getY();
+        final double w = area.getWidthReal();
+        final double h = area.getHeightReal();
+        final double ox = other.getX();
+        final double oy = other.getY();
+        final double ow = other.getWidthReal();
+        final double oh = other.getHeightReal();
+
+        // Intersection (strict), open interval
+        final double enter = Math.max(getBound(ox - x - w, ox + ow - x, dx, true, true),
+                                      getBound(oy - y - h, oy + oh - y, dy, true, true));
+        final double exit = Math.min(getBound(ox - x - w, ox + ow - x, dx, false, true),
+                                     getBound(oy - y - h, oy + oh - y, dy, false, true));
+        double time = Double.POSITIVE_INFINITY;
+        if (enter < exit && enter < 1.0 && exit > 0.0)
         {
-            if (checkCollide(with, rectangle, other, collisions))
+            if (enter < 0.0)
+            {
+                time = 0.0;
+            }
+            else if (inside)
             {
-                return;
+                time = (enter + Math.min(exit, 1.0)) / 2.0;
             }
-            rectangle.translate(sx, sy);
+            else
+            {
+                time = enter;
+            }
+        }
+
+        // Containment of other, closed interval
+        final double start = Math.max(getBound(ox + ow - x - w, ox - x, dx, true, false),
+                                      getBound(oy + oh - y - h, oy - y, dy, true, false));
+        final double end = Math.min(getBound(ox + ow - x - w, ox - x, dx, false, false),
+                                    getBound(oy + oh - y - h, oy - y, dy, false, false));
+        if (start <= end && start <= 1.0 && end >= 0.0)
+        {
+            time = Math.min(time, Math.max(start, 0.0));
         }
-        rectangle.set(oldX, oldY, rectangle.getWidth(), rectangle.getHeight());
+        return time;
     }
 
     /**
-     * Check if current area collides other collidable area.
+     * Get the time bound of a movement on one axis, where <code>low &lt; d * t &lt; high</code> (or with
+     * <code>&lt;=</code> if not strict).
      * 
-     * @param with The collision to check with.
-     * @param area The current area.
-     * @param other The other collidable.
-     * @param collisions The collisions couple.
-     * @return <code>true</code> if collided, <code>false</code> else.
+     * @param low The low distance bound.
+     * @param high The high distance bound.
+     * @param d The movement on axis.
+     * @param min <code>true</code> for the lower time bound, <code>false</code> for the upper time bound.
+     * @param strict <code>true</code> for strict bounds, <code>false</code> for inclusive bounds.
+     * @return The time bound, infinite if always or never satisfied.
      */
-    private static boolean checkCollide(Collision with, Area area, Collidable other, List<CollisionCouple> collisions)
+    private static double getBound(double low, double high, double d, boolean min, boolean strict)
     {
-        final List<Rectangle> others = other.getCollisionBounds();
-        final List<Collision> othersColl = other.getCollisions();
-        final int size = others.size();
-        boolean collided = false;
-        for (int i = 0; i < size; i++)
+        final boolean empty = strict && low >= high || low > high;
+        if (empty || Double.compare(d, 0.0) == 0)
         {
-            final Area current = others.get(i);
-            final Collision by = othersColl.get(i);
-
-            if (other.isEnabled(by) && (area.intersects(current) || area.contains(current)))
+            final boolean always;
+            if (empty)
+            {
+                always = false;
+            }
+            else if (strict)
             {
-                collisions.add(new CollisionCouple(with, by));
-                collided = true;
+                always = low < 0.0 && 0.0 < high;
             }
+            else
+            {
+                always = low <= 0.0 && 0.0 <= high;
+            }
+            if (always == min)
+            {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+        final double a = low / d;
+        final double b = high / d;
+        if (min)
+        {
+            return Math.min(a, b);
         }
-        return collided;
+        return Math.max(a, b);
     }
 
     /**
@@ -17,89 +17,103 @@
 package com.b3dgs.lionengine.game.feature.collidable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.ComponentRefreshable;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handlables;
 import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.SpatialGrid;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableListener;
 import com.b3dgs.lionengine.geom.Area;
-import com.b3dgs.lionengine.geom.Point;
 import com.b3dgs.lionengine.geom.Rectangle;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
  * Collision events are notified to {@link CollidableListener}.
+ * <p>
+ * Collidables are bucketed in a uniform grid, so only collidables sharing a cell are checked together. Movements
+ * raised by local refreshables updated in parallel are applied on the calling thread (see
+ * {@link ComponentRefreshable#defer(Runnable)}).
+ * </p>
+ * <p>
+ * Pairs are first filtered by their swept bounds (collision bounds extended along the current movement), so
+ * {@link Collidable#collide(Collidable)} is only called for collidables which may meet. As it keeps the collided area
+ * on impact, pairs including a collidable moved on impact are always collided.
+ * </p>
  * 
  * @see Collidable
  * @see CollidableListener
  */
 public class ComponentCollision implements ComponentUpdater, HandlerListener, TransformableListener
 {
-    /** Location reduce factor (the higher it is, the lower is the map division per location). */
+    /** Default cell size in real units (the higher it is, the lower is the map division per location). */
     static final double REDUCE_FACTOR = 256.0;
-    /** Maximum horizontal cache. */
-    private static final int MAX_CACHE_X = 127;
-    /** Maximum vertical cache. */
-    private static final int MAX_CACHE_Y = 63;
+    /** Swept bounds margin, absorbing rounding of the collided movement. */
+    private static final double SWEEP_MARGIN = 1.0;
 
     /**
-     * Check elements inside area.
+     * Check element inside area.
      * 
-     * @param elements The elements to check.
+     * @param current The element to check.
      * @param area The area to check.
      * @param inside The elements inside the area found.
      */
-    private static void checkInside(List<Collidable> elements, Area area, Collection<Collidable> inside)
+    private static void checkInside(Collidable current, Area area, Collection<Collidable> inside)
     {
-        for (int i = 0; i < elements.size(); i++)
+        final List<Rectangle> bounds = current.getCollisionBounds();
+        for (int j = 0; j < bounds.size(); j++)
         {
-            final Collidable current = elements.get(i);
-            final List<Rectangle> bounds = current.getCollisionBounds();
-            for (int j = 0; j < bounds.size(); j++)
+            final Rectangle bound = bounds.get(j);
+            if (area.intersects(bound) || area.contains(bound))
             {
-                final Rectangle bound = bounds.get(j);
-                if (area.intersects(bound) || area.contains(bound))
-                {
-                    inside.add(current);
-                }
+                inside.add(current);
             }
         }
     }
 
+    /** Broadphase grid. */
+    private final SpatialGrid<Collidable> grid;
+    /** To be notified. */
+    private final List<Collided> toNotify = new ArrayList<>();
+    /** Elements transformable. */
+    private Transformable[] transformables = new Transformable[0];
+    /** Elements swept bounds (min x, min y, max x, max y). */
+    private double[] sweeps = new double[0];
+    /** Elements moved by a collision during current update. */
+    private boolean[] dirty = new boolean[0];
+
     /**
-     * Convert real position value to index.
-     * 
-     * @param value The real position value.
-     * @return The index value.
+     * Create component with default cell size.
      */
-    private static int getIndex(double value)
+    public ComponentCollision()
     {
-        return (int) Math.floor(value / REDUCE_FACTOR);
+        this(REDUCE_FACTOR);
     }
 
-    /** Cached points. */
-    private final Point[][] cache = new Point[MAX_CACHE_X + 1][MAX_CACHE_Y + 1];
-    /** Mapping reduced. */
-    private final Map<Integer, Map<Point, List<Collidable>>> collidables = new HashMap<>();
-    /** Already collided mapping. */
-    private final Map<Collidable, Collidable> done = new HashMap<>(1);
-    /** To be notified. */
-    private final List<Collided> toNotify = new ArrayList<>();
-
     /**
      * Create component.
+     * <p>
+     * Cell size should be around the size of the common collidable, so each cell holds a few of them only.
+     * </p>
+     * 
+     * @param cellSize The broadphase cell size in real units (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
      */
-    public ComponentCollision()
+    public ComponentCollision(double cellSize)
     {
         super();
+
+        Check.superiorStrict(cellSize, 0.0);
+
+        grid = new SpatialGrid<>(cellSize);
     }
 
     /**
@@ -111,279 +125,178 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     public Collection<Collidable> getInside(Area area)
     {
         final Collection<Collidable> inside = new HashSet<>();
-        final Collection<Point> points = getPoints(area);
+        final int minX = grid.getIndex(area.getX() - area.getWidth());
+        final int minY = grid.getIndex(area.getY() - area.getHeight());
+        final int maxX = grid.getIndex(area.getX() + area.getWidth());
+        final int maxY = grid.getIndex(area.getY() + area.getHeight());
 
-        for (final Map<Point, List<Collidable>> groups : collidables.values())
+        for (int x = minX; x <= maxX; x++)
         {
-            for (final Point point : points)
+            for (int y = minY; y <= maxY; y++)
             {
-                final List<Collidable> elements = groups.get(point);
-                if (elements != null)
+                final int cell = grid.find(x, y);
+                if (cell != SpatialGrid.NONE)
                 {
-                    checkInside(elements, area, inside);
+                    final int count = grid.getSize(cell);
+                    for (int i = 0; i < count; i++)
+                    {
+                        checkInside(grid.getElement(grid.getMember(cell, i)), area, inside);
+                    }
                 }
             }
         }
-
         return inside;
     }
 
     /**
-     * Get point representing the area.
-     * 
-     * @param area The area reference.
-     * @return The area divided in point depending of reduce factor.
-     */
-    private Collection<Point> getPoints(Area area)
-    {
-        final Collection<Point> points = new HashSet<>(4);
-        final int oldMinX = getIndex(area.getX() - area.getWidth());
-        final int oldMinY = getIndex(area.getY() - area.getHeight());
-        final int oldMaxX = getIndex(area.getX() + area.getWidth());
-        final int oldMaxY = getIndex(area.getY() + area.getHeight());
-
-        for (int x = oldMinX; x <= oldMaxX; x++)
-        {
-            for (int y = oldMinY; y <= oldMaxY; y++)
-            {
-                points.add(cache(x, y));
-            }
-        }
-        return points;
-    }
-
-    /**
-     * Get cached point if possible.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @return The cached point.
-     */
-    private Point cache(int x, int y)
-    {
-        if (x < 0 || y < 0 || x > MAX_CACHE_X || y > MAX_CACHE_Y)
-        {
-            return new Point(x, y);
-        }
-        if (cache[x][y] == null)
-        {
-            cache[x][y] = new Point(x, y);
-        }
-        return cache[x][y];
-    }
-
-    /**
-     * Remove point and adjacent points depending of the collidable max collision size.
+     * Check elements in cell.
      * 
-     * @param transformable The transformable reference.
-     * @param collidable The collidable reference.
+     * @param cell The cell index.
      */
-    private void removePoints(Transformable transformable, Collidable collidable)
+    private void checkCell(int cell)
     {
-        final int oldMinX = getIndex(transformable.getOldX() - collidable.getMaxWidth());
-        final int oldMinY = getIndex(transformable.getOldY() - collidable.getMaxHeight());
-        final int oldMaxX = getIndex(transformable.getOldX() + collidable.getMaxWidth());
-        final int oldMaxY = getIndex(transformable.getOldY() + collidable.getMaxHeight());
-
-        for (int x = oldMinX; x <= oldMaxX; x++)
+        final int count = grid.getSize(cell);
+        for (int i = 0; i < count; i++)
         {
-            for (int y = oldMinY; y <= oldMaxY; y++)
+            final int a = grid.getMember(cell, i);
+            final Collidable objectA = grid.getElement(a);
+            if (objectA.isEnabled())
             {
-                removePoint(cache(x, y), collidable);
+                checkOthers(cell, a, objectA, count);
             }
         }
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Check others element in cell.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param cell The cell index.
+     * @param a The collidable element.
+     * @param objectA The collidable reference.
+     * @param count The cell elements count.
      */
-    private void removePoint(Point point, Collidable collidable)
+    private void checkOthers(int cell, int a, Collidable objectA, int count)
     {
-        final Integer group = collidable.getGroup();
-        if (collidables.containsKey(group))
+        final List<Integer> accepted = objectA.getAccepted();
+        for (int o = 0; o < count; o++)
         {
-            final Map<Point, List<Collidable>> elements = collidables.get(group);
-            if (elements.containsKey(point))
+            final int b = grid.getMember(cell, o);
+            final Collidable objectB = grid.getElement(b);
+
+            // Ensures not already collided with object with other cell (because of subdivision mapping)
+            if (a != b
+                && objectB.isEnabled()
+                && accepted.contains(objectB.getGroup())
+                && grid.isOwner(cell, a, b)
+                && (dirty[a] || dirty[b] || isNear(a, b)))
             {
-                removePoint(point, collidable, elements, group);
+                collide(a, objectA, objectB);
             }
         }
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Collide elements and store collisions to notify.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     * @param elements The current group elements.
-     * @param group The current group.
+     * @param a The collidable element.
+     * @param objectA The collidable reference.
+     * @param objectB The other collidable reference.
      */
-    private void removePoint(Point point, Collidable collidable, Map<Point, List<Collidable>> elements, Integer group)
+    private void collide(int a, Collidable objectA, Collidable objectB)
     {
-        final List<Collidable> points = elements.get(point);
-        points.remove(collidable);
-        if (points.isEmpty())
+        final List<CollisionCouple> collisions = objectA.collide(objectB);
+        final int n = collisions.size();
+        for (int i = 0; i < n; i++)
         {
-            elements.remove(point);
+            toNotify.add(new Collided(objectA, objectB, collisions.get(i)));
         }
-        if (elements.isEmpty())
+        if (n > 0)
         {
-            collidables.remove(group);
+            // Collision area is kept on impact, swept bounds are no more reliable
+            dirty[a] = true;
         }
     }
 
     /**
-     * Add point and adjacent points depending of the collidable max collision size.
+     * Compute element swept bounds, including all its areas from their current location and along its movement.
      * 
-     * @param transformable The transformable reference.
-     * @param collidable The collidable reference.
+     * @param element The element identifier.
      */
-    private void addPoints(Transformable transformable, Collidable collidable)
+    private void computeSweep(int element)
     {
-        final int minX = getIndex(transformable.getX() - collidable.getMaxWidth());
-        final int minY = getIndex(transformable.getY() - collidable.getMaxHeight());
-        final int maxX = getIndex(transformable.getX() + collidable.getMaxWidth());
-        final int maxY = getIndex(transformable.getY() + collidable.getMaxHeight());
-
-        for (int x = minX; x <= maxX; x++)
+        dirty[element] = false;
+        final Collidable collidable = grid.getElement(element);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        if (collidable != null)
         {
-            for (int y = minY; y <= maxY; y++)
+            final Transformable transformable = transformables[element];
+            final double dx = transformable.getX() - transformable.getOldX();
+            final double dy = transformable.getY() - transformable.getOldY();
+            final List<Rectangle> bounds = collidable.getCollisionBounds();
+            final int n = bounds.size();
+            for (int i = 0; i < n; i++)
             {
-                addPoint(cache(x, y), collidable);
+                final Rectangle bound = bounds.get(i);
+                minX = Math.min(minX, bound.getX() + Math.min(0.0, dx));
+                minY = Math.min(minY, bound.getY() + Math.min(0.0, dy));
+                maxX = Math.max(maxX, bound.getX() + bound.getWidthReal() + Math.max(0.0, dx));
+                maxY = Math.max(maxY, bound.getY() + bound.getHeightReal() + Math.max(0.0, dy));
             }
         }
+        final int i = element * 4;
+        sweeps[i] = minX - SWEEP_MARGIN;
+        sweeps[i + 1] = minY - SWEEP_MARGIN;
+        sweeps[i + 2] = maxX + SWEEP_MARGIN;
+        sweeps[i + 3] = maxY + SWEEP_MARGIN;
     }
 
     /**
-     * Add point. Create empty list of not existing.
+     * Check if elements swept bounds overlap.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param a The first element.
+     * @param b The second element.
+     * @return <code>true</code> if may collide, <code>false</code> else.
      */
-    private void addPoint(Point point, Collidable collidable)
+    private boolean isNear(int a, int b)
     {
-        final Integer group = collidable.getGroup();
-        if (!collidables.containsKey(group))
-        {
-            collidables.put(group, new HashMap<>());
-        }
-        final Map<Point, List<Collidable>> elements = collidables.get(group);
-        if (!elements.containsKey(point))
-        {
-            elements.put(point, new ArrayList<>());
-        }
-        if (!elements.get(point).contains(collidable))
-        {
-            elements.get(point).add(collidable);
-        }
+        final int i = a * 4;
+        final int j = b * 4;
+        return sweeps[i] <= sweeps[j + 2]
+               && sweeps[j] <= sweeps[i + 2]
+               && sweeps[i + 1] <= sweeps[j + 3]
+               && sweeps[j + 1] <= sweeps[i + 3];
     }
 
-    /**
-     * Check elements in group.
-     * 
-     * @param current The elements in group.
-     */
-    private void checkGroup(Entry<Point, List<Collidable>> current)
-    {
-        final List<Collidable> elements = current.getValue();
-        final int count = elements.size();
-        for (int i = 0; i < count; i++)
-        {
-            final Collidable collidable = elements.get(i);
-            if (collidable.isEnabled())
-            {
-                checkOthers(elements.get(i), current);
-            }
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
+    /*
+     * ComponentUpdater
      */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current)
-    {
-        final List<Integer> accepted = objectA.getAccepted();
-        final int count = accepted.size();
-        for (int i = 0; i < count; i++)
-        {
-            final Integer acceptedGroup = accepted.get(i);
 
-            // Others to compare only in accepted group
-            if (collidables.containsKey(acceptedGroup))
-            {
-                checkOthers(objectA, current, acceptedGroup);
-            }
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     * @param acceptedGroup The accepted group.
-     */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current, Integer acceptedGroup)
+    @Override
+    public void update(double extrp, Handlables objects)
     {
-        final Map<Point, List<Collidable>> acceptedElements = collidables.get(acceptedGroup);
-        final Point point = current.getKey();
-        if (acceptedElements.containsKey(point))
+        final int elements = grid.getCapacity();
+        if (dirty.length < elements)
         {
-            checkPoint(objectA, acceptedElements, point);
+            sweeps = new double[elements * 2 * 4];
+            dirty = new boolean[elements * 2];
         }
-    }
-
-    /**
-     * Check others element at specified point.
-     * 
-     * @param objectA The collidable reference.
-     * @param acceptedElements The current elements to check.
-     * @param point The point to check.
-     */
-    private void checkPoint(Collidable objectA, Map<Point, List<Collidable>> acceptedElements, Point point)
-    {
-        final List<Collidable> others = acceptedElements.get(point);
-        for (int o = 0; o < others.size(); o++)
+        for (int element = 0; element < elements; element++)
         {
-            final Collidable objectB = others.get(o);
-
-            // Ensures not already collided with object with other point (because of subdivision mapping)
-            if (objectB.isEnabled() && objectA != objectB && done.get(objectA) != objectB)
-            {
-                final List<CollisionCouple> collisions = objectA.collide(objectB);
-                final int count = collisions.size();
-                for (int i = 0; i < count; i++)
-                {
-                    toNotify.add(new Collided(objectA, objectB, collisions.get(i)));
-                    done.put(objectA, objectB);
-                }
-            }
+            computeSweep(element);
         }
-    }
 
-    /*
-     * ComponentUpdater
-     */
-
-    @Override
-    public void update(double extrp, Handlables objects)
-    {
-        done.clear();
-        for (final Map<Point, List<Collidable>> groups : collidables.values())
+        final int cells = grid.getCells();
+        for (int cell = 0; cell < cells; cell++)
         {
-            for (final Entry<Point, List<Collidable>> current : groups.entrySet())
-            {
-                checkGroup(current);
-            }
+            checkCell(cell);
         }
-        for (final Collided collided : toNotify)
+        final int count = toNotify.size();
+        for (int i = 0; i < count; i++)
         {
+            final Collided collided = toNotify.get(i);
             collided.collidableA.notifyCollided(collided.collidableB, collided.with, collided.by);
         }
         toNotify.clear();
@@ -409,10 +322,11 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
         if (featurable.hasFeature(Collidable.class))
         {
             final Transformable transformable = featurable.getFeature(Transformable.class);
-            final Collidable collidable = transformable.getFeature(Collidable.class);
-
-            removePoints(transformable, collidable);
-
+            final int element = grid.remove(transformable.getFeature(Collidable.class));
+            if (element != SpatialGrid.NONE && element < transformables.length)
+            {
+                transformables[element] = null;
+            }
             transformable.removeListener(this);
         }
     }
@@ -424,10 +338,22 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     @Override
     public void notifyTransformed(Transformable transformable)
     {
+        if (ComponentRefreshable.isDeferred())
+        {
+            ComponentRefreshable.defer(() -> notifyTransformed(transformable));
+            return;
+        }
         final Collidable collidable = transformable.getFeature(Collidable.class);
-
-        removePoints(transformable, collidable);
-        addPoints(transformable, collidable);
+        final double x = transformable.getX();
+        final double y = transformable.getY();
+        final int width = collidable.getMaxWidth();
+        final int height = collidable.getMaxHeight();
+        final int element = grid.move(collidable, x - width, y - height, x + width, y + height);
+        if (element >= transformables.length)
+        {
+            transformables = Arrays.copyOf(transformables, Math.max(element + 1, transformables.length * 2));
+        }
+        transformables[element] = transformable;
     }
 
     /**
@@ -212,7 +212,8 @@ public class StateHandler extends FeatureModel implements Updatable, Recyclable,
         {
             if (setup.hasNode(AnimationConfig.NODE_ANIMATIONS))
             {
-                final AnimationConfig configAnimations = AnimationConfig.imports(setup);
+                final AnimationConfig configAnimations = setup.getImport(AnimationConfig.class,
+                                                                         AnimationConfig::imports);
                 final String name = converter.apply(state);
                 final Animation animation = configAnimations.getAnimation(name);
                 final Class<? extends Feature> feature;
@@ -97,6 +97,32 @@ public interface MapTile extends FeatureProvider, SurfaceTile
      */
     void setTile(int tx, int ty, int number);
 
+    /**
+     * Begin a tile edit session. Tiles set during session are notified once per location with a single
+     * {@link TileSetListener#onTilesSet(Collection)} on {@link #commitEdit()}, instead of one
+     * {@link TileSetListener#onTileSet(Tile)} per call. Sessions can be nested, notification is performed on
+     * outermost commit.
+     * <p>
+     * Map must not be created, resized or cleared during a session. Does nothing by default, tiles being notified on
+     * each set.
+     * </p>
+     */
+    default void beginEdit()
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Commit the current tile edit session. Notify tiles set during session if it is the outermost one. Does nothing by
+     * default.
+     * 
+     * @throws LionEngineException If no session has begun.
+     */
+    default void commitEdit()
+    {
+        // Nothing by default
+    }
+
     /**
      * Get tile from specified map location (in tile index). If the returned tile is equal to <code>null</code>, this
      * means that there is not tile at this location. It is not an error, just a way to avoid useless tile storage.
@@ -107,6 +133,23 @@ public interface MapTile extends FeatureProvider, SurfaceTile
      */
     Tile getTile(int tx, int ty);
 
+    /**
+     * Get tile number from specified map location (in tile index), without requiring a tile instance.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The tile number found at this location, <code>-1</code> if none.
+     */
+    default int getTileNumber(int tx, int ty)
+    {
+        final Tile tile = getTile(tx, ty);
+        if (tile == null)
+        {
+            return -1;
+        }
+        return tile.getNumber();
+    }
+
     /**
      * Get the tile at the localizable.
      * 
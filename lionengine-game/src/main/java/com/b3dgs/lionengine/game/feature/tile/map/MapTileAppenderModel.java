@@ -61,19 +61,27 @@ public class MapTileAppenderModel extends FeatureAbstract implements MapTileAppe
      */
     private void appendMap(MapTile other, int offsetX, int offsetY)
     {
-        for (int v = 0; v < other.getInTileHeight(); v++)
+        map.beginEdit();
+        try
         {
-            final int ty = offsetY + v;
-            for (int h = 0; h < other.getInTileWidth(); h++)
+            for (int v = 0; v < other.getInTileHeight(); v++)
             {
-                final int tx = offsetX + h;
-                final Tile tile = other.getTile(h, v);
-                if (tile != null)
+                final int ty = offsetY + v;
+                for (int h = 0; h < other.getInTileWidth(); h++)
                 {
-                    map.setTile(tx, ty, tile.getNumber());
+                    final int tx = offsetX + h;
+                    final Tile tile = other.getTile(h, v);
+                    if (tile != null)
+                    {
+                        map.setTile(tx, ty, tile.getNumber());
+                    }
                 }
             }
         }
+        finally
+        {
+            map.commitEdit();
+        }
     }
 
     /*
@@ -157,12 +165,20 @@ public class MapTileAppenderModel extends FeatureAbstract implements MapTileAppe
         int ox = 0;
         int oy = 0;
         i = 0;
-        for (final MapTile current : maps)
+        map.beginEdit();
+        try
         {
-            appendMap(current, ox, oy);
-            ox += current.getInTileWidth() * offsetX + randsX[i];
-            oy += current.getInTileHeight() * offsetY + randsY[i];
-            i++;
+            for (final MapTile current : maps)
+            {
+                appendMap(current, ox, oy);
+                ox += current.getInTileWidth() * offsetX + randsX[i];
+                oy += current.getInTileHeight() * offsetY + randsY[i];
+                i++;
+            }
+        }
+        finally
+        {
+            map.commitEdit();
         }
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+/**
+ * Map tile chunk listener, notify when a chunk of tiles is paged in or out (see {@link MapTileChunks}).
+ */
+public interface MapTileChunkListener
+{
+    /**
+     * Called once chunk has been loaded, its tiles are readable.
+     * 
+     * @param tx The horizontal tile index of the chunk first tile.
+     * @param ty The vertical tile index of the chunk first tile.
+     * @param width The chunk width in tile.
+     * @param height The chunk height in tile.
+     */
+    void notifyChunkLoaded(int tx, int ty, int width, int height);
+
+    /**
+     * Called once chunk has been unloaded, its tiles are no more in memory.
+     * 
+     * @param tx The horizontal tile index of the chunk first tile.
+     * @param ty The vertical tile index of the chunk first tile.
+     * @param width The chunk width in tile.
+     * @param height The chunk height in tile.
+     */
+    void notifyChunkUnloaded(int tx, int ty, int width, int height);
+}
@@ -0,0 +1,616 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Listenable;
+import com.b3dgs.lionengine.ListenableModel;
+import com.b3dgs.lionengine.Localizable;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Chunked map tiles storage, paging fixed size square chunks from a chunk file.
+ * <p>
+ * Each chunk is stored at a fixed place in file, and is memory mapped when loaded: tiles are read and written
+ * directly in the mapping. A limited number of chunks are kept loaded, the least recently used one is unloaded when
+ * another is needed, writing it back if modified. Chunks are loaded on tile access, or ahead of it around a
+ * {@link Viewer} or a {@link Localizable} with the <code>load</code> functions, typically once per frame.
+ * </p>
+ * <p>
+ * Use it with {@link MapTileSurfaceModel#MapTileSurfaceModel(MapTileChunks)}. On map creation, an existing chunk file
+ * with the same map and chunk size is kept, else it is initialized empty. Clearing the map writes back modified
+ * chunks and closes the file, keeping its content. The map cannot be resized.
+ * </p>
+ * 
+ * @see MapTileChunkListener
+ */
+public final class MapTileChunks implements Listenable<MapTileChunkListener>
+{
+    /** Chunk file magic. */
+    private static final int MAGIC = 0x4C4D4348;
+    /** Chunk file version. */
+    private static final int VERSION = 1;
+    /** Header size in bytes (magic, version, width, height, chunk size). */
+    private static final int HEADER = Integer.BYTES * 5;
+    /** Integers per tile (number plus one, sheet). */
+    private static final int TILE_INTS = 2;
+    /** Resize error. */
+    private static final String ERROR_RESIZE = "Chunked map cannot be resized !";
+    /** File error. */
+    private static final String ERROR_FILE = "Chunk file error: ";
+
+    /** Chunk listeners. */
+    private final ListenableModel<MapTileChunkListener> listenable = new ListenableModel<>();
+    /** Loaded chunks by index. */
+    private final Map<Integer, Chunk> loaded = new HashMap<>();
+    /** Storage adapter. */
+    private final MapTileStorage storage = new Storage();
+    /** Chunk file. */
+    private final Media media;
+    /** Chunk size in tile. */
+    private final int chunkSize;
+    /** Maximum loaded chunks. */
+    private final int capacity;
+    /** Chunk file channel (<code>null</code> if not created). */
+    private FileChannel channel;
+    /** Map width in tile. */
+    private int widthInTile;
+    /** Map height in tile. */
+    private int heightInTile;
+    /** Horizontal chunks number. */
+    private int chunksHorizontal;
+    /** Access stamp. */
+    private long stamp;
+    /** Last accessed chunk. */
+    private Chunk last;
+
+    /**
+     * Create chunked storage.
+     * 
+     * @param media The chunk file (must not be <code>null</code>).
+     * @param chunkSize The chunk size in tile (must be strictly positive).
+     * @param capacity The maximum number of loaded chunks (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public MapTileChunks(Media media, int chunkSize, int capacity)
+    {
+        super();
+
+        Check.notNull(media);
+        Check.superiorStrict(chunkSize, 0);
+        Check.superiorStrict(capacity, 0);
+
+        this.media = media;
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Load chunks covering tiles area around tile location.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param radius The radius in tile around location (must be positive or equal to 0).
+     * @throws LionEngineException If invalid argument or file error.
+     */
+    public void load(int tx, int ty, int radius)
+    {
+        Check.superiorOrEqual(radius, 0);
+
+        load(tx - radius, ty - radius, tx + radius, ty + radius);
+    }
+
+    /**
+     * Load chunks around localizable.
+     * 
+     * @param map The map reference.
+     * @param localizable The localizable reference.
+     * @param radius The radius in tile around localizable (must be positive or equal to 0).
+     * @throws LionEngineException If invalid argument or file error.
+     */
+    public void load(MapTile map, Localizable localizable, int radius)
+    {
+        load(map.getInTileX(localizable), map.getInTileY(localizable), radius);
+    }
+
+    /**
+     * Load chunks in viewer area.
+     * 
+     * @param map The map reference.
+     * @param viewer The viewer reference.
+     * @param margin The margin in tile around view (must be positive or equal to 0).
+     * @throws LionEngineException If invalid argument or file error.
+     */
+    public void load(MapTile map, Viewer viewer, int margin)
+    {
+        Check.superiorOrEqual(margin, 0);
+
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / map.getTileWidth());
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
+        final int ex = sx + (int) Math.ceil(viewer.getWidth() / (double) map.getTileWidth());
+        final int ey = sy + (int) Math.ceil(viewer.getHeight() / (double) map.getTileHeight());
+        load(sx - margin, sy - margin, ex + margin, ey + margin);
+    }
+
+    /**
+     * Write back modified loaded chunks.
+     */
+    public void flush()
+    {
+        for (final Chunk chunk : loaded.values())
+        {
+            chunk.flush();
+        }
+    }
+
+    /**
+     * Check if tile chunk is loaded.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     */
+    public boolean isLoaded(int tx, int ty)
+    {
+        return isInside(tx, ty) && loaded.containsKey(getKey(tx / chunkSize, ty / chunkSize));
+    }
+
+    /**
+     * Get the number of loaded chunks.
+     * 
+     * @return The loaded chunks number.
+     */
+    public int getLoaded()
+    {
+        return loaded.size();
+    }
+
+    /**
+     * Get the chunk size.
+     * 
+     * @return The chunk size in tile.
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Get the storage adapter.
+     * 
+     * @return The storage adapter.
+     */
+    MapTileStorage getStorage()
+    {
+        return storage;
+    }
+
+    /**
+     * Load chunks covering tiles area.
+     * 
+     * @param minTx The minimum horizontal tile index.
+     * @param minTy The minimum vertical tile index.
+     * @param maxTx The maximum horizontal tile index.
+     * @param maxTy The maximum vertical tile index.
+     */
+    private void load(int minTx, int minTy, int maxTx, int maxTy)
+    {
+        if (channel != null)
+        {
+            final int minCx = Math.max(0, minTx) / chunkSize;
+            final int minCy = Math.max(0, minTy) / chunkSize;
+            final int maxCx = Math.min(widthInTile - 1, maxTx) / chunkSize;
+            final int maxCy = Math.min(heightInTile - 1, maxTy) / chunkSize;
+            for (int cy = minCy; cy <= maxCy; cy++)
+            {
+                for (int cx = minCx; cx <= maxCx; cx++)
+                {
+                    getChunk(cx * chunkSize, cy * chunkSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if tile is inside map.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx > -1 && ty > -1 && tx < widthInTile && ty < heightInTile;
+    }
+
+    /**
+     * Get the chunk key.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The chunk key.
+     */
+    private Integer getKey(int cx, int cy)
+    {
+        return Integer.valueOf(cx + cy * chunksHorizontal);
+    }
+
+    /**
+     * Get chunk containing tile, load it if needed.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The chunk.
+     */
+    private Chunk getChunk(int tx, int ty)
+    {
+        final int cx = tx / chunkSize;
+        final int cy = ty / chunkSize;
+        Chunk chunk = last;
+        if (chunk == null || chunk.cx != cx || chunk.cy != cy)
+        {
+            chunk = loaded.get(getKey(cx, cy));
+            if (chunk == null)
+            {
+                chunk = page(cx, cy);
+            }
+            last = chunk;
+        }
+        stamp++;
+        chunk.stamp = stamp;
+        return chunk;
+    }
+
+    /**
+     * Load chunk, unloading least recently used one if capacity reached.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The loaded chunk.
+     */
+    private Chunk page(int cx, int cy)
+    {
+        if (loaded.size() >= capacity)
+        {
+            Chunk oldest = null;
+            for (final Chunk current : loaded.values())
+            {
+                if (oldest == null || current.stamp < oldest.stamp)
+                {
+                    oldest = current;
+                }
+            }
+            unload(oldest);
+        }
+
+        final Integer key = getKey(cx, cy);
+        final long length = (long) chunkSize * chunkSize * TILE_INTS * Integer.BYTES;
+        try
+        {
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, HEADER + key.intValue() * length, length);
+            final Chunk chunk = new Chunk(cx, cy, buffer);
+            loaded.put(key, chunk);
+
+            final int tx = cx * chunkSize;
+            final int ty = cy * chunkSize;
+            final int width = Math.min(chunkSize, widthInTile - tx);
+            final int height = Math.min(chunkSize, heightInTile - ty);
+            for (int i = 0; i < listenable.size(); i++)
+            {
+                listenable.get(i).notifyChunkLoaded(tx, ty, width, height);
+            }
+            return chunk;
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, ERROR_FILE + media.getPath());
+        }
+    }
+
+    /**
+     * Unload chunk, writing it back if modified.
+     * 
+     * @param chunk The chunk to unload.
+     */
+    private void unload(Chunk chunk)
+    {
+        chunk.flush();
+        loaded.remove(getKey(chunk.cx, chunk.cy));
+        if (last == chunk)
+        {
+            last = null;
+        }
+
+        final int tx = chunk.cx * chunkSize;
+        final int ty = chunk.cy * chunkSize;
+        final int width = Math.min(chunkSize, widthInTile - tx);
+        final int height = Math.min(chunkSize, heightInTile - ty);
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).notifyChunkUnloaded(tx, ty, width, height);
+        }
+    }
+
+    /**
+     * Open chunk file, keeping its content if it matches map and chunk size.
+     * 
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     */
+    private void open(int widthInTile, int heightInTile)
+    {
+        close();
+
+        try
+        {
+            channel = FileChannel.open(media.getFile().toPath(),
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putInt(widthInTile).putInt(heightInTile).putInt(chunkSize).flip();
+
+            final ByteBuffer existing = ByteBuffer.allocate(HEADER);
+            if (channel.read(existing, 0L) < HEADER || !existing.flip().equals(header))
+            {
+                channel.truncate(0L);
+                channel.write(header, 0L);
+            }
+        }
+        catch (final IOException exception)
+        {
+            close();
+            throw new LionEngineException(exception, ERROR_FILE + media.getPath());
+        }
+
+        this.widthInTile = widthInTile;
+        this.heightInTile = heightInTile;
+        chunksHorizontal = (int) Math.ceil(widthInTile / (double) chunkSize);
+    }
+
+    /**
+     * Unload all chunks and close chunk file.
+     */
+    private void close()
+    {
+        for (final Chunk chunk : new ArrayList<>(loaded.values()))
+        {
+            unload(chunk);
+        }
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, ERROR_FILE + media.getPath());
+            }
+            finally
+            {
+                channel = null;
+            }
+        }
+        widthInTile = 0;
+        heightInTile = 0;
+    }
+
+    /**
+     * Get tile view.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param tileWidth The tile width.
+     * @param tileHeight The tile height.
+     * @return The tile, <code>null</code> if none.
+     */
+    private Tile get(int tx, int ty, int tileWidth, int tileHeight)
+    {
+        final Chunk chunk = getChunk(tx, ty);
+        final int index = chunk.getIndex(tx, ty, chunkSize);
+        final int number = chunk.tiles.get(index) - 1;
+        if (number < 0)
+        {
+            return null;
+        }
+        final TileGame tile = new TileGame(number, tx, ty, tileWidth, tileHeight);
+        tile.setSheet(chunk.tiles.get(index + 1));
+        return tile;
+    }
+
+    /*
+     * Listenable
+     */
+
+    @Override
+    public void addListener(MapTileChunkListener listener)
+    {
+        listenable.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(MapTileChunkListener listener)
+    {
+        listenable.removeListener(listener);
+    }
+
+    /**
+     * Storage adapter for {@link MapTileSurfaceModel}.
+     */
+    private final class Storage implements MapTileStorage
+    {
+        /**
+         * Create adapter.
+         */
+        Storage()
+        {
+            super();
+        }
+
+        /*
+         * MapTileStorage
+         */
+
+        @Override
+        public void create(int widthInTile, int heightInTile)
+        {
+            open(widthInTile, heightInTile);
+        }
+
+        @Override
+        public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+        {
+            throw new LionEngineException(ERROR_RESIZE);
+        }
+
+        @Override
+        public void clear()
+        {
+            close();
+        }
+
+        @Override
+        public void remove(int tx, int ty)
+        {
+            final Chunk chunk = getChunk(tx, ty);
+            chunk.tiles.put(chunk.getIndex(tx, ty, chunkSize), 0);
+            chunk.dirty = true;
+        }
+
+        @Override
+        public Tile set(int tx, int ty, int number, int sheet, int tileWidth, int tileHeight)
+        {
+            Check.superiorOrEqual(number, 0);
+
+            final Chunk chunk = getChunk(tx, ty);
+            final int index = chunk.getIndex(tx, ty, chunkSize);
+            final int old = chunk.tiles.get(index);
+            if (old == number + 1)
+            {
+                return null;
+            }
+            if (old == 0)
+            {
+                chunk.tiles.put(index + 1, 0);
+            }
+            chunk.tiles.put(index, number + 1);
+            if (sheet > -1)
+            {
+                chunk.tiles.put(index + 1, sheet);
+            }
+            chunk.dirty = true;
+            return MapTileChunks.this.get(tx, ty, tileWidth, tileHeight);
+        }
+
+        @Override
+        public Tile get(int tx, int ty, int tileWidth, int tileHeight)
+        {
+            return MapTileChunks.this.get(tx, ty, tileWidth, tileHeight);
+        }
+
+        @Override
+        public int getNumber(int tx, int ty)
+        {
+            final Chunk chunk = getChunk(tx, ty);
+            return chunk.tiles.get(chunk.getIndex(tx, ty, chunkSize)) - 1;
+        }
+
+        @Override
+        public boolean isCreated()
+        {
+            return channel != null;
+        }
+    }
+
+    /**
+     * Loaded chunk.
+     */
+    private static final class Chunk
+    {
+        /** Horizontal chunk index. */
+        private final int cx;
+        /** Vertical chunk index. */
+        private final int cy;
+        /** Mapped buffer. */
+        private final MappedByteBuffer buffer;
+        /** Tiles data, {@link #TILE_INTS} per tile. */
+        private final IntBuffer tiles;
+        /** Last access stamp. */
+        private long stamp;
+        /** Modified flag. */
+        private boolean dirty;
+
+        /**
+         * Create chunk.
+         * 
+         * @param cx The horizontal chunk index.
+         * @param cy The vertical chunk index.
+         * @param buffer The mapped buffer.
+         */
+        Chunk(int cx, int cy, MappedByteBuffer buffer)
+        {
+            super();
+
+            this.cx = cx;
+            this.cy = cy;
+            this.buffer = buffer;
+            tiles = buffer.asIntBuffer();
+        }
+
+        /**
+         * Get tile data index.
+         * 
+         * @param tx The horizontal tile index location.
+         * @param ty The vertical tile index location.
+         * @param size The chunk size.
+         * @return The tile number index, sheet is next one.
+         */
+        int getIndex(int tx, int ty, int size)
+        {
+            return (tx - cx * size + (ty - cy * size) * size) * TILE_INTS;
+        }
+
+        /**
+         * Write back if modified.
+         */
+        void flush()
+        {
+            if (dirty)
+            {
+                buffer.force();
+                dirty = false;
+            }
+        }
+    }
+}
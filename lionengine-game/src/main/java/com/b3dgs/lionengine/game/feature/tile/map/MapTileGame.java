@@ -58,10 +58,34 @@ public class MapTileGame extends FeaturableAbstract implements MapTile, Listenab
      * Create model.
      */
     public MapTileGame()
+    {
+        this(false);
+    }
+
+    /**
+     * Create model.
+     * 
+     * @param compact <code>true</code> to store tiles in flat primitive arrays, <code>false</code> to store one tile
+     *            instance per location (see {@link MapTileSurfaceModel}).
+     */
+    public MapTileGame(boolean compact)
     {
         super();
 
-        mapSurface = addFeatureAndGet(new MapTileSurfaceModel());
+        mapSurface = addFeatureAndGet(new MapTileSurfaceModel(compact));
+    }
+
+    /**
+     * Create model, with tiles paged by chunks from a chunk file.
+     * 
+     * @param chunks The chunks storage (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileGame(MapTileChunks chunks)
+    {
+        super();
+
+        mapSurface = addFeatureAndGet(new MapTileSurfaceModel(chunks));
     }
 
     /**
@@ -187,12 +211,30 @@ public class MapTileGame extends FeaturableAbstract implements MapTile, Listenab
         mapSurface.setTile(tx, ty, number);
     }
 
+    @Override
+    public void beginEdit()
+    {
+        mapSurface.beginEdit();
+    }
+
+    @Override
+    public void commitEdit()
+    {
+        mapSurface.commitEdit();
+    }
+
     @Override
     public Tile getTile(int tx, int ty)
     {
         return mapSurface.getTile(tx, ty);
     }
 
+    @Override
+    public int getTileNumber(int tx, int ty)
+    {
+        return mapSurface.getTileNumber(tx, ty);
+    }
+
     @Override
     public Tile getTile(Localizable localizable, int offsetX, int offsetY)
     {
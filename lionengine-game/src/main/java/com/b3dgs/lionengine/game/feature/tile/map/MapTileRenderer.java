@@ -33,4 +33,17 @@ public interface MapTileRenderer
      * @param y The location y.
      */
     void renderTile(Graphic g, Tile tile, int x, int y);
+
+    /**
+     * Check if tile rendering may be cached by
+     * {@link com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer}. A cacheable renderer output of a tile
+     * must only change when the tile is set on map, or the renderer must then call
+     * {@link com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer#invalidate(int, int)}.
+     * 
+     * @return <code>true</code> if cacheable, <code>false</code> if must be rendered on each frame.
+     */
+    default boolean isCacheable()
+    {
+        return false;
+    }
 }
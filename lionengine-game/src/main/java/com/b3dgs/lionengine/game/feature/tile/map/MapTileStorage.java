@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Tiles storage used by {@link MapTileSurfaceModel}. Locations are always inside map, checked by caller.
+ */
+interface MapTileStorage
+{
+    /**
+     * Create storage.
+     * 
+     * @param widthInTile The horizontal tiles number.
+     * @param heightInTile The vertical tiles number.
+     */
+    void create(int widthInTile, int heightInTile);
+
+    /**
+     * Resize storage, keeping existing tiles.
+     * 
+     * @param oldWidth The old horizontal tiles number.
+     * @param oldHeight The old vertical tiles number.
+     * @param newWidth The new horizontal tiles number.
+     * @param newHeight The new vertical tiles number.
+     */
+    void resize(int oldWidth, int oldHeight, int newWidth, int newHeight);
+
+    /**
+     * Remove all tiles.
+     */
+    void clear();
+
+    /**
+     * Remove tile.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     */
+    void remove(int tx, int ty);
+
+    /**
+     * Set tile number.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param number The tile number.
+     * @param sheet The tile sheet, <code>-1</code> to keep current one.
+     * @param tileWidth The tile width.
+     * @param tileHeight The tile height.
+     * @return The modified tile, <code>null</code> if number was already set.
+     */
+    Tile set(int tx, int ty, int number, int sheet, int tileWidth, int tileHeight);
+
+    /**
+     * Get tile.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param tileWidth The tile width.
+     * @param tileHeight The tile height.
+     * @return The tile, <code>null</code> if none.
+     */
+    Tile get(int tx, int ty, int tileWidth, int tileHeight);
+
+    /**
+     * Get tile number.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The tile number, <code>-1</code> if none.
+     */
+    int getNumber(int tx, int ty);
+
+    /**
+     * Check if storage has been created.
+     * 
+     * @return <code>true</code> if created, <code>false</code> else.
+     */
+    boolean isCreated();
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Tiles storage using row-major primitive arrays for tile number and sheet. {@link Tile} instances are created on
+ * demand as snapshot views, so they are not updated by a later set.
+ */
+final class MapTileStorageFlat implements MapTileStorage
+{
+    /** No tile value. */
+    private static final int NONE = 0;
+
+    /** Horizontal tiles number. */
+    private int width;
+    /** Tiles number plus one, {@link #NONE} if no tile. */
+    private int[] numbers;
+    /** Tiles sheet. */
+    private int[] sheets;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageFlat()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        numbers = new int[widthInTile * heightInTile];
+        sheets = new int[numbers.length];
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        final int[] oldNumbers = numbers;
+        final int[] oldSheets = sheets;
+        create(newWidth, newHeight);
+
+        final int rows = Math.min(oldHeight, newHeight);
+        final int length = Math.min(oldWidth, newWidth);
+        for (int v = 0; v < rows; v++)
+        {
+            System.arraycopy(oldNumbers, v * oldWidth, numbers, v * newWidth, length);
+            System.arraycopy(oldSheets, v * oldWidth, sheets, v * newWidth, length);
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        if (numbers != null)
+        {
+            create(0, 0);
+        }
+    }
+
+    @Override
+    public void remove(int tx, int ty)
+    {
+        numbers[tx + ty * width] = NONE;
+    }
+
+    @Override
+    public Tile set(int tx, int ty, int number, int sheet, int tileWidth, int tileHeight)
+    {
+        Check.superiorOrEqual(number, 0);
+
+        final int index = tx + ty * width;
+        if (numbers[index] == number + 1)
+        {
+            return null;
+        }
+        if (numbers[index] == NONE)
+        {
+            sheets[index] = 0;
+        }
+        numbers[index] = number + 1;
+        if (sheet > -1)
+        {
+            sheets[index] = sheet;
+        }
+        return get(tx, ty, tileWidth, tileHeight);
+    }
+
+    @Override
+    public Tile get(int tx, int ty, int tileWidth, int tileHeight)
+    {
+        final int index = tx + ty * width;
+        final int number = numbers[index] - 1;
+        if (number < 0)
+        {
+            return null;
+        }
+        final TileGame tile = new TileGame(number, tx, ty, tileWidth, tileHeight);
+        tile.setSheet(sheets[index]);
+        return tile;
+    }
+
+    @Override
+    public int getNumber(int tx, int ty)
+    {
+        return numbers[tx + ty * width] - 1;
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return numbers != null;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Tiles storage using a List of List, with one {@link TileGame} instance per tile, updated on set.
+ */
+final class MapTileStorageList implements MapTileStorage
+{
+    /** Tiles map. */
+    private List<List<TileGame>> tiles;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageList()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        tiles = new ArrayList<>(heightInTile);
+
+        for (int v = 0; v < heightInTile; v++)
+        {
+            tiles.add(v, new ArrayList<>(widthInTile));
+            for (int h = 0; h < widthInTile; h++)
+            {
+                tiles.get(v).add(h, null);
+            }
+        }
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        // Adjust height
+        for (int v = 0; v < newHeight - oldHeight; v++)
+        {
+            tiles.add(new ArrayList<>(newWidth));
+        }
+        // Adjust width
+        for (int v = 0; v < newHeight; v++)
+        {
+            final int width;
+            if (v < oldHeight)
+            {
+                width = newWidth - oldWidth;
+            }
+            else
+            {
+                width = newWidth;
+            }
+            for (int h = 0; h < width; h++)
+            {
+                tiles.get(v).add(null);
+            }
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        if (tiles != null)
+        {
+            for (final List<TileGame> list : tiles)
+            {
+                list.clear();
+            }
+            tiles.clear();
+        }
+    }
+
+    @Override
+    public void remove(int tx, int ty)
+    {
+        tiles.get(ty).set(tx, null);
+    }
+
+    @Override
+    public Tile set(int tx, int ty, int number, int sheet, int tileWidth, int tileHeight)
+    {
+        TileGame tile = tiles.get(ty).get(tx);
+        final int oldNum;
+        if (tile == null)
+        {
+            tile = new TileGame(number, tx, ty, tileWidth, tileHeight);
+            tiles.get(ty).set(tx, tile);
+            oldNum = -1;
+        }
+        else
+        {
+            oldNum = tile.getNumber();
+        }
+        if (number == oldNum)
+        {
+            return null;
+        }
+        tile.set(number);
+        if (sheet > -1)
+        {
+            tile.setSheet(sheet);
+        }
+        return tile;
+    }
+
+    @Override
+    public Tile get(int tx, int ty, int tileWidth, int tileHeight)
+    {
+        return tiles.get(ty).get(tx);
+    }
+
+    @Override
+    public int getNumber(int tx, int ty)
+    {
+        final Tile tile = tiles.get(ty).get(tx);
+        if (tile == null)
+        {
+            return -1;
+        }
+        return tile.getNumber();
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return tiles != null;
+    }
+}
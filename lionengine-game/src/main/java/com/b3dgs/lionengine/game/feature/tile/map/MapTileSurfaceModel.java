@@ -17,6 +17,7 @@
 package com.b3dgs.lionengine.game.feature.tile.map;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -32,12 +33,20 @@ import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.Force;
 import com.b3dgs.lionengine.game.feature.FeatureAbstract;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
-import com.b3dgs.lionengine.game.feature.tile.TileGame;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
- * Abstract representation of a standard tile based map. This class uses a List of List to store tiles.
+ * Abstract representation of a standard tile based map. This class uses a List of List to store tiles by default, or
+ * a compact storage keeping tile number and sheet in flat primitive arrays.
+ * <p>
+ * With compact storage, tiles are created on demand as snapshot views: they are equal to the stored tile, but are not
+ * updated by a later {@link #setTile(int, int, int)}. Use {@link #getTileNumber(int, int)} for scans without tile
+ * creation.
+ * </p>
+ * <p>
+ * With chunked storage, tiles are also snapshot views, paged from a file by {@link MapTileChunks}.
+ * </p>
  */
 public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurface
 {
@@ -45,6 +54,8 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     private static final String ERROR_TILE_SIZE = "Tile size is inconsistent between sheets !";
     /** Inconsistent tile count. */
     private static final String ERROR_TILE_COUNT = "Tile count is inconsistent between sheets !";
+    /** No edit session. */
+    private static final String ERROR_EDIT = "No edit session to commit !";
 
     /** Tile set listeners. */
     private final ListenableModel<TileSetListener> listenable = new ListenableModel<>();
@@ -60,19 +71,58 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     private int heightInTile;
     /** Map radius. */
     private int radius;
-    /** Tiles map. */
-    private List<List<TileGame>> tiles;
+    /** Tiles storage. */
+    private final MapTileStorage tiles;
     /** Sheets defined. */
     private SpriteTiled[] sheets;
     /** Tiles number per sheet. */
     private int tilesPerSheet = -1;
+    /** Edit sessions depth. */
+    private int editDepth;
+    /** Tiles set during edit session, by location index. */
+    private final BitSet edited = new BitSet();
 
     /**
-     * Create feature.
+     * Create feature, with one tile instance per location.
      */
     public MapTileSurfaceModel()
+    {
+        this(false);
+    }
+
+    /**
+     * Create feature.
+     * 
+     * @param compact <code>true</code> to store tiles in flat primitive arrays, <code>false</code> to store one tile
+     *            instance per location.
+     */
+    public MapTileSurfaceModel(boolean compact)
+    {
+        super();
+
+        if (compact)
+        {
+            tiles = new MapTileStorageFlat();
+        }
+        else
+        {
+            tiles = new MapTileStorageList();
+        }
+    }
+
+    /**
+     * Create feature, with tiles paged by chunks from a chunk file (see {@link MapTileChunks}).
+     * 
+     * @param chunks The chunks storage (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTileSurfaceModel(MapTileChunks chunks)
     {
         super();
+
+        Check.notNull(chunks);
+
+        tiles = chunks.getStorage();
     }
 
     /**
@@ -138,16 +188,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        tiles = new ArrayList<>(heightInTile);
-
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        tiles.create(widthInTile, heightInTile);
     }
 
     @Override
@@ -204,31 +245,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     @Override
     public void resize(int newWidth, int newHeight)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
-
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
-        {
-            tiles.add(new ArrayList<>(newWidth));
-        }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
-        {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
-        }
+        tiles.resize(widthInTile, heightInTile, newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
@@ -238,16 +255,13 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     @Override
     public void clear()
     {
-        if (tiles != null)
+        if (tiles.isCreated())
         {
-            for (final List<TileGame> list : tiles)
-            {
-                list.clear();
-            }
             tiles.clear();
             widthInTile = 0;
             heightInTile = 0;
         }
+        edited.clear();
     }
 
     @Override
@@ -258,7 +272,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        tiles.get(ty).set(tx, null);
+        tiles.remove(tx, ty);
     }
 
     @Override
@@ -269,29 +283,60 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        TileGame tile = tiles.get(ty).get(tx);
-        final int oldNum;
-        if (tile == null)
+        final int sheet;
+        if (tilesPerSheet > 0)
         {
-            tile = new TileGame(number, tx, ty, tileWidth, tileHeight);
-            tiles.get(ty).set(tx, tile);
-            oldNum = -1;
+            sheet = (int) Math.floor(number / (double) tilesPerSheet);
         }
         else
         {
-            oldNum = tile.getNumber();
+            sheet = -1;
         }
-        if (number != oldNum)
+        final Tile tile = tiles.set(tx, ty, number, sheet, tileWidth, tileHeight);
+        if (tile != null && editDepth > 0)
         {
-            tile.set(number);
+            edited.set(tx + ty * widthInTile);
+        }
+        else if (tile != null)
+        {
+            for (int i = 0; i < listenable.size(); i++)
+            {
+                listenable.get(i).onTileSet(tile);
+            }
+        }
+    }
 
-            if (tilesPerSheet > 0)
+    @Override
+    public void beginEdit()
+    {
+        editDepth++;
+    }
+
+    @Override
+    public void commitEdit()
+    {
+        if (editDepth == 0)
+        {
+            throw new LionEngineException(ERROR_EDIT);
+        }
+        editDepth--;
+
+        if (editDepth == 0 && !edited.isEmpty())
+        {
+            final List<Tile> set = new ArrayList<>(edited.cardinality());
+            for (int i = edited.nextSetBit(0); i > -1; i = edited.nextSetBit(i + 1))
             {
-                tile.setSheet((int) Math.floor(number / (double) tilesPerSheet));
+                final Tile tile = tiles.get(i % widthInTile, i / widthInTile, tileWidth, tileHeight);
+                if (tile != null)
+                {
+                    set.add(tile);
+                }
             }
+            edited.clear();
+
             for (int i = 0; i < listenable.size(); i++)
             {
-                listenable.get(i).onTileSet(tile);
+                listenable.get(i).onTilesSet(set);
             }
         }
     }
@@ -303,7 +348,17 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         {
             return null;
         }
-        return tiles.get(ty).get(tx);
+        return tiles.get(tx, ty, tileWidth, tileHeight);
+    }
+
+    @Override
+    public int getTileNumber(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= widthInTile || ty >= heightInTile)
+        {
+            return -1;
+        }
+        return tiles.getNumber(tx, ty);
     }
 
     @Override
@@ -424,8 +479,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
         {
             for (int tx = 0; tx < widthInTile; tx++)
             {
-                final Tile tile = getTile(tx, ty);
-                if (tile != null)
+                if (tiles.getNumber(tx, ty) > -1)
                 {
                     tilesNumber++;
                 }
@@ -467,7 +521,7 @@ public class MapTileSurfaceModel extends FeatureAbstract implements MapTileSurfa
     @Override
     public boolean isCreated()
     {
-        return tiles != null;
+        return tiles.isCreated();
     }
 
     @Override
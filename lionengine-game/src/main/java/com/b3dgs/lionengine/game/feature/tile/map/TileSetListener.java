@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import java.util.Collection;
+
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 
 /**
@@ -29,4 +31,21 @@ public interface TileSetListener
      * @param tile The tile set.
      */
     void onTileSet(Tile tile);
+
+    /**
+     * Called on tile edit session commit, with tiles set during session.
+     * <p>
+     * Default implementation calls {@link #onTileSet(Tile)} for each tile.
+     * </p>
+     * 
+     * @param tiles The tiles set, one per location.
+     * @see MapTile#beginEdit()
+     */
+    default void onTilesSet(Collection<Tile> tiles)
+    {
+        for (final Tile tile : tiles)
+        {
+            onTileSet(tile);
+        }
+    }
 }
@@ -38,6 +38,97 @@ public final class Astar
         return new PathFinderImpl(map, maxSearchDistance, heuristic);
     }
 
+    /**
+     * Create a hierarchical path finder (HPA*), with default cluster size. Map is split in clusters whose entrances and
+     * internal paths are cached, and updated when a tile is set. Faster than {@link #createPathFinder} on large maps,
+     * with near optimal paths. Disposed when map is destroyed.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinderHierarchical(MapTile map, Heuristic heuristic)
+    {
+        return createPathFinderHierarchical(map, PathFinderHierarchical.DEFAULT_CLUSTER_SIZE, heuristic);
+    }
+
+    /**
+     * Create a hierarchical path finder (HPA*).
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param clusterSize The cluster size in tile (strictly positive).
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     * @throws LionEngineException If invalid cluster size.
+     */
+    public static PathFinder createPathFinderHierarchical(MapTile map, int clusterSize, Heuristic heuristic)
+    {
+        return attach(map, new PathFinderHierarchical(map, clusterSize, heuristic));
+    }
+
+    /**
+     * Create a Jump Point Search path finder. Faster than {@link #createPathFinder} for movers having the same cost on
+     * all passable categories with all movements allowed, others fall back to a standard A* search.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinderJps(MapTile map, Heuristic heuristic)
+    {
+        return new PathFinderJps(map, heuristic);
+    }
+
+    /**
+     * Create a Jump Point Search path finder with a maximum search distance. Faster than {@link #createPathFinder} for
+     * movers having the same cost on all passable categories with all movements allowed, others fall back to a
+     * standard A* search.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinderJps(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        return new PathFinderJps(map, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Create a flow field path finder, with default fields capacity. One field is computed per destination and mover
+     * profile, and shared by all movers ordered to the same destination. To be used by
+     * {@link PathfindableModel}, it must be added to the services before them, in place of the map default finder.
+     * Disposed when map is destroyed.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param heuristic The heuristic used to determine the search order of the map on fallback searches.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinderFlowField(MapTile map, Heuristic heuristic)
+    {
+        return createPathFinderFlowField(map, PathFinderFlowField.DEFAULT_CAPACITY, heuristic);
+    }
+
+    /**
+     * Create a flow field path finder.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param capacity The maximum number of cached fields, least recently used are evicted (strictly positive).
+     * @param heuristic The heuristic used to determine the search order of the map on fallback searches.
+     * @return The path finder instance.
+     * @throws LionEngineException If invalid capacity.
+     */
+    public static PathFinder createPathFinderFlowField(MapTile map, int capacity, Heuristic heuristic)
+    {
+        return attach(map, new PathFinderFlowField(map, capacity, heuristic));
+    }
+
     /**
      * Create the closest heuristic.
      * 
@@ -69,6 +160,19 @@ public final class Astar
         return new HeuristicManhattan(minimumCost);
     }
 
+    /**
+     * Add finder to the map, to be disposed with it.
+     * 
+     * @param map The map searched.
+     * @param finder The finder reference.
+     * @return The finder reference.
+     */
+    private static PathFinder attach(MapTile map, PathFinder finder)
+    {
+        map.getFeature(MapTilePath.class).addPathFinder(finder);
+        return finder;
+    }
+
     /**
      * Private constructor.
      */
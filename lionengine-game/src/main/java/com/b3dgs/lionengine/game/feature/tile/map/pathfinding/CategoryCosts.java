@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Mover costs by category index, allowing to resolve cost, blocking and allowed movements by array indexing during
+ * search, instead of a category name lookup for each tile.
+ * <p>
+ * Costs are compiled once per mover categories configuration ({@link Pathfindable#getCategoriesKey()}) into a
+ * {@link CategoryProfile}, reused by all searches of movers sharing it until map categories change.
+ * </p>
+ * 
+ * @see MapTilePath#getCategoryIndex(int, int)
+ */
+final class CategoryCosts
+{
+    /** Profiles by mover categories key. */
+    private final Map<Object, CategoryProfile> profiles = new WeakHashMap<>();
+    /** Category names by index, used by profiles. */
+    private String[] names = new String[0];
+    /** Current mover profile. */
+    private CategoryProfile profile;
+
+    /**
+     * Create costs.
+     */
+    CategoryCosts()
+    {
+        super();
+    }
+
+    /**
+     * Load mover costs for each category, compiled on first load of its categories configuration only.
+     * 
+     * @param categories The map categories, in index order.
+     * @param mover The mover reference.
+     */
+    void load(Collection<String> categories, Pathfindable mover)
+    {
+        if (!isSameCategories(categories))
+        {
+            profiles.clear();
+            names = categories.toArray(new String[categories.size()]);
+        }
+        final Object key = mover.getCategoriesKey();
+        profile = profiles.get(key);
+        if (profile == null)
+        {
+            profile = createProfile(mover);
+            profiles.put(key, profile);
+        }
+    }
+
+    /**
+     * Check if categories are the same as the ones used by profiles.
+     * 
+     * @param categories The current categories.
+     * @return <code>true</code> if same, <code>false</code> else.
+     */
+    private boolean isSameCategories(Collection<String> categories)
+    {
+        if (categories.size() != names.length)
+        {
+            return false;
+        }
+        final Iterator<String> iterator = categories.iterator();
+        for (final String name : names)
+        {
+            if (!name.equals(iterator.next()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the immutable profile of the mover. Costs of categories that can be left (at least one allowed movement)
+     * are resolved, as cost is only applied when leaving a tile, and mover may not define all map categories.
+     * 
+     * @param mover The mover reference.
+     * @return The mover profile.
+     */
+    private CategoryProfile createProfile(Pathfindable mover)
+    {
+        final int count = names.length;
+        final double[] costs = new double[count];
+        final boolean[] blocking = new boolean[count];
+        final int[] movements = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            final String category = names[i];
+            blocking[i] = mover.isBlocking(category);
+
+            int mask = 0;
+            for (final MovementTile movement : MovementTile.values())
+            {
+                if (mover.isMovementAllowed(category, movement))
+                {
+                    mask |= 1 << movement.ordinal();
+                }
+            }
+            movements[i] = mask;
+            if (mask != 0)
+            {
+                costs[i] = mover.getCost(category);
+            }
+        }
+        return new CategoryProfile(costs, blocking, movements);
+    }
+
+    /**
+     * Get the profile of the loaded mover.
+     * 
+     * @return The mover profile.
+     */
+    CategoryProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+     * Get the mover cost on category.
+     * 
+     * @param index The category index.
+     * @return The cost.
+     */
+    double getCost(int index)
+    {
+        return profile.getCost(index);
+    }
+
+    /**
+     * Check if category is blocking for mover.
+     * 
+     * @param index The category index.
+     * @return <code>true</code> if blocking, <code>false</code> else.
+     */
+    boolean isBlocking(int index)
+    {
+        return !profile.isPassable(index);
+    }
+
+    /**
+     * Check if movement is allowed from category for mover.
+     * 
+     * @param index The category index.
+     * @param movement The movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isMovementAllowed(int index, MovementTile movement)
+    {
+        return profile.isMovementAllowed(index, movement);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Immutable mover profile by category index: cost, blocking and allowed movements. Movers sharing the same profile
+ * find the same paths on terrain, so it can be used as a key to share precomputed search data.
+ */
+final class CategoryProfile
+{
+    /** Cost by category index. */
+    private final double[] costs;
+    /** Blocking flag by category index. */
+    private final boolean[] blocking;
+    /** Allowed movements by category index, as {@link MovementTile} ordinal bit mask. */
+    private final int[] movements;
+    /** Uniform cost, {@link Double#NaN} if not uniform. */
+    private final double uniform;
+    /** Cached hash code. */
+    private final int hash;
+
+    /**
+     * Create profile.
+     * 
+     * @param costs The costs by category index.
+     * @param blocking The blocking flags by category index.
+     * @param movements The allowed movements mask by category index.
+     */
+    CategoryProfile(double[] costs, boolean[] blocking, int[] movements)
+    {
+        super();
+
+        this.costs = costs;
+        this.blocking = blocking;
+        this.movements = movements;
+        uniform = computeUniform(costs, blocking, movements);
+
+        int value = Arrays.hashCode(costs);
+        value = value * 31 + Arrays.hashCode(blocking);
+        value = value * 31 + Arrays.hashCode(movements);
+        hash = value;
+    }
+
+    /**
+     * Compute the uniform cost: same cost and all movements allowed on every passable category.
+     * 
+     * @param costs The costs by category index.
+     * @param blocking The blocking flags by category index.
+     * @param movements The allowed movements mask by category index.
+     * @return The uniform cost, {@link Double#NaN} if not uniform.
+     */
+    private static double computeUniform(double[] costs, boolean[] blocking, int[] movements)
+    {
+        // All movements, NONE being the last one
+        final int all = (1 << MovementTile.NONE.ordinal()) - 1;
+        double cost = Double.NaN;
+        for (int i = 0; i < costs.length; i++)
+        {
+            if (!blocking[i])
+            {
+                if ((movements[i] & all) != all || !Double.isNaN(cost) && Double.compare(cost, costs[i]) != 0)
+                {
+                    return Double.NaN;
+                }
+                cost = costs[i];
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Check if all passable categories have the same cost and allow all movements.
+     * 
+     * @return <code>true</code> if uniform, <code>false</code> else.
+     */
+    boolean isUniform()
+    {
+        return !Double.isNaN(uniform);
+    }
+
+    /**
+     * Get the uniform cost.
+     * 
+     * @return The uniform cost, {@link Double#NaN} if not uniform.
+     * @see #isUniform()
+     */
+    double getUniformCost()
+    {
+        return uniform;
+    }
+
+    /**
+     * Get the cost on category.
+     * 
+     * @param index The category index.
+     * @return The cost.
+     */
+    double getCost(int index)
+    {
+        return costs[index];
+    }
+
+    /**
+     * Check if category can be crossed.
+     * 
+     * @param index The category index (<code>-1</code> if none).
+     * @return <code>true</code> if passable, <code>false</code> if blocking or no category.
+     */
+    boolean isPassable(int index)
+    {
+        return index > -1 && !blocking[index];
+    }
+
+    /**
+     * Check if movement is allowed from category.
+     * 
+     * @param index The category index.
+     * @param movement The movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isMovementAllowed(int index, MovementTile movement)
+    {
+        return (movements[index] & 1 << movement.ordinal()) != 0;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final CategoryProfile other = (CategoryProfile) object;
+        return Arrays.equals(costs, other.costs)
+               && Arrays.equals(blocking, other.blocking)
+               && Arrays.equals(movements, other.movements);
+    }
+}
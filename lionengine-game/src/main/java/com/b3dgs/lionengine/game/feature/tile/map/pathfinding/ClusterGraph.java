@@ -0,0 +1,742 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Abstract graph of a map split in square clusters, for a mover profile.
+ * <p>
+ * Each border between two adjacent clusters is scanned for runs of passable tiles on both sides (entrances). Each
+ * entrance gives one transition (two for long entrances), whose tiles are the graph nodes. Nodes are linked by inter
+ * edges (one step across the border) and intra edges (shortest path inside a cluster, stored for refinement).
+ * </p>
+ * <p>
+ * Graph is built lazily. When a tile changes, only its cluster is marked as dirty, and {@link #update()} recomputes
+ * the borders of dirty clusters and the edges of dirty clusters and their direct neighbours.
+ * </p>
+ */
+final class ClusterGraph
+{
+    /** Unreachable cost. */
+    static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+    /** Entrance length from which two transitions are created instead of one. */
+    private static final int LONG_ENTRANCE = 6;
+    /** No parent. */
+    private static final int NONE = -1;
+    /** Empty transitions. */
+    private static final int[] NO_TRANSITION = new int[0];
+    /** Neighbour movements, indexed by <code>(y + 1) * 3 + x + 1</code>. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[9];
+
+    static
+    {
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                MOVEMENTS[(y + 1) * 3 + x + 1] = MovementTile.from(x, y);
+            }
+        }
+    }
+
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Mover profile. */
+    private final CategoryProfile profile;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Horizontal clusters number. */
+    private final int clustersX;
+    /** Vertical clusters number. */
+    private final int clustersY;
+    /** Transitions (inside tile, outside tile) on right border of each cluster. */
+    private final int[][] borderRight;
+    /** Transitions (inside tile, outside tile) on bottom border of each cluster. */
+    private final int[][] borderBottom;
+    /** Nodes tile index of each cluster. */
+    private final int[][] nodes;
+    /** Intra edges cost of each cluster (<code>from * nodes + to</code>). */
+    private final double[][] intraCost;
+    /** Intra edges path of each cluster (<code>from * nodes + to</code>), excluding first tile. */
+    private final int[][][] intraPath;
+    /** Inter edges source tile of each cluster. */
+    private final int[][] interFrom;
+    /** Inter edges destination tile of each cluster. */
+    private final int[][] interTo;
+    /** Inter edges cost of each cluster. */
+    private final double[][] interCost;
+    /** Dirty clusters. */
+    private final boolean[] dirty;
+    /** Local search open list. */
+    private final OpenList open;
+    /** Local search cost. */
+    private final double[] localCost;
+    /** Local search parent. */
+    private final int[] localParent;
+    /** Local search visited stamp. */
+    private final int[] localVisited;
+    /** Local search closed stamp. */
+    private final int[] localClosed;
+    /** Local search stamp. */
+    private int stamp;
+    /** Last local search cluster horizontal origin. */
+    private int originX;
+    /** Last local search cluster vertical origin. */
+    private int originY;
+    /** Last local search cluster width. */
+    private int localWidth;
+    /** Last local search cluster height. */
+    private int localHeight;
+    /** Has dirty cluster flag. */
+    private boolean changed = true;
+
+    /**
+     * Create graph. All clusters are dirty until first {@link #update()}.
+     * 
+     * @param mapPath The map path reference.
+     * @param profile The mover profile.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @param size The cluster size in tile.
+     */
+    ClusterGraph(MapTilePath mapPath, CategoryProfile profile, int width, int height, int size)
+    {
+        super();
+
+        this.mapPath = mapPath;
+        this.profile = profile;
+        this.width = width;
+        this.height = height;
+        this.size = size;
+
+        clustersX = (width + size - 1) / size;
+        clustersY = (height + size - 1) / size;
+
+        final int count = clustersX * clustersY;
+        borderRight = new int[count][];
+        borderBottom = new int[count][];
+        nodes = new int[count][];
+        intraCost = new double[count][];
+        intraPath = new int[count][][];
+        interFrom = new int[count][];
+        interTo = new int[count][];
+        interCost = new double[count][];
+        dirty = new boolean[count];
+        Arrays.fill(dirty, true);
+
+        open = new OpenList(size * size);
+        localCost = new double[size * size];
+        localParent = new int[size * size];
+        localVisited = new int[size * size];
+        localClosed = new int[size * size];
+    }
+
+    /**
+     * Mark the cluster containing the tile as dirty.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    void markDirty(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            dirty[getCluster(tx, ty)] = true;
+            changed = true;
+        }
+    }
+
+    /**
+     * Recompute dirty parts of the graph.
+     */
+    void update()
+    {
+        if (!changed)
+        {
+            return;
+        }
+        final int count = dirty.length;
+        for (int c = 0; c < count; c++)
+        {
+            if (dirty[c])
+            {
+                computeBorders(c);
+            }
+        }
+        for (int c = 0; c < count; c++)
+        {
+            if (dirty[c] || isNeighbourDirty(c))
+            {
+                computeEdges(c);
+            }
+        }
+        Arrays.fill(dirty, false);
+        changed = false;
+    }
+
+    /**
+     * Get cluster index containing tile.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The cluster index.
+     */
+    int getCluster(int tx, int ty)
+    {
+        return ty / size * clustersX + tx / size;
+    }
+
+    /**
+     * Get cluster nodes.
+     * 
+     * @param cluster The cluster index.
+     * @return The nodes tile index.
+     */
+    int[] getNodes(int cluster)
+    {
+        return nodes[cluster];
+    }
+
+    /**
+     * Get intra edge cost.
+     * 
+     * @param cluster The cluster index.
+     * @param from The source node index in cluster.
+     * @param to The destination node index in cluster.
+     * @return The edge cost, {@link #UNREACHABLE} if none.
+     */
+    double getIntraCost(int cluster, int from, int to)
+    {
+        return intraCost[cluster][from * nodes[cluster].length + to];
+    }
+
+    /**
+     * Get intra edge path.
+     * 
+     * @param cluster The cluster index.
+     * @param from The source node index in cluster.
+     * @param to The destination node index in cluster.
+     * @return The tiles index, excluding source, <code>null</code> if none.
+     */
+    int[] getIntraPath(int cluster, int from, int to)
+    {
+        return intraPath[cluster][from * nodes[cluster].length + to];
+    }
+
+    /**
+     * Get inter edges number.
+     * 
+     * @param cluster The cluster index.
+     * @return The inter edges number.
+     */
+    int getInterCount(int cluster)
+    {
+        return interFrom[cluster].length;
+    }
+
+    /**
+     * Get inter edge source tile.
+     * 
+     * @param cluster The cluster index.
+     * @param edge The edge index.
+     * @return The source tile index.
+     */
+    int getInterFrom(int cluster, int edge)
+    {
+        return interFrom[cluster][edge];
+    }
+
+    /**
+     * Get inter edge destination tile.
+     * 
+     * @param cluster The cluster index.
+     * @param edge The edge index.
+     * @return The destination tile index.
+     */
+    int getInterTo(int cluster, int edge)
+    {
+        return interTo[cluster][edge];
+    }
+
+    /**
+     * Get inter edge cost.
+     * 
+     * @param cluster The cluster index.
+     * @param edge The edge index.
+     * @return The edge cost.
+     */
+    double getInterCost(int cluster, int edge)
+    {
+        return interCost[cluster][edge];
+    }
+
+    /**
+     * Search shortest paths from source inside its cluster. Results are available with {@link #getLocalCost(int)}
+     * and {@link #getLocalPath(int)} until next search.
+     * 
+     * @param cluster The cluster index.
+     * @param source The source tile index.
+     * @param target The target tile index to stop on, <code>-1</code> to search the whole cluster.
+     */
+    void search(int cluster, int source, int target)
+    {
+        originX = cluster % clustersX * size;
+        originY = cluster / clustersX * size;
+        localWidth = Math.min(size, width - originX);
+        localHeight = Math.min(size, height - originY);
+
+        stamp++;
+        if (stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(localVisited, 0);
+            Arrays.fill(localClosed, 0);
+            stamp = 1;
+        }
+        open.clear();
+
+        final int start = toLocal(source);
+        localVisited[start] = stamp;
+        localCost[start] = 0.0;
+        localParent[start] = NONE;
+        open.push(start, 0.0, 0.0);
+
+        final int end = target > NONE ? toLocal(target) : NONE;
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            if (current == end)
+            {
+                break;
+            }
+            localClosed[current] = stamp;
+            expand(current, start);
+        }
+    }
+
+    /**
+     * Get the cost from last search source.
+     * 
+     * @param tile The tile index (must be inside last searched cluster).
+     * @return The cost, {@link #UNREACHABLE} if not reached.
+     */
+    double getLocalCost(int tile)
+    {
+        final int local = toLocal(tile);
+        if (localVisited[local] != stamp)
+        {
+            return UNREACHABLE;
+        }
+        return localCost[local];
+    }
+
+    /**
+     * Get the path from last search source.
+     * 
+     * @param tile The tile index (must be inside last searched cluster).
+     * @return The tiles index, excluding source, <code>null</code> if not reached.
+     */
+    int[] getLocalPath(int tile)
+    {
+        int local = toLocal(tile);
+        if (localVisited[local] != stamp)
+        {
+            return null;
+        }
+        int length = 0;
+        for (int i = local; localParent[i] != NONE; i = localParent[i])
+        {
+            length++;
+        }
+        final int[] path = new int[length];
+        for (int i = length - 1; i >= 0; i--)
+        {
+            path[i] = toTile(local);
+            local = localParent[local];
+        }
+        return path;
+    }
+
+    /**
+     * Expand local search node.
+     * 
+     * @param current The current local index.
+     * @param start The start local index.
+     */
+    private void expand(int current, int start)
+    {
+        final int lx = current % localWidth;
+        final int ly = current / localWidth;
+        final int category = mapPath.getCategoryIndex(originX + lx, originY + ly);
+        if (category < 0)
+        {
+            return;
+        }
+        final double nextCost = localCost[current] + profile.getCost(category);
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                final int nx = lx + x;
+                final int ny = ly + y;
+                if (!(x == 0 && y == 0)
+                    && nx >= 0
+                    && ny >= 0
+                    && nx < localWidth
+                    && ny < localHeight
+                    && profile.isMovementAllowed(category, MOVEMENTS[(y + 1) * 3 + x + 1]))
+                {
+                    final int neighbour = ny * localWidth + nx;
+                    if (neighbour != start
+                        && profile.isPassable(mapPath.getCategoryIndex(originX + nx, originY + ny)))
+                    {
+                        relax(neighbour, current, nextCost);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Update local node if reached with a lower cost.
+     * 
+     * @param node The local node index.
+     * @param from The local parent index.
+     * @param nodeCost The cost from parent.
+     */
+    private void relax(int node, int from, double nodeCost)
+    {
+        if (localVisited[node] != stamp || localClosed[node] != stamp && nodeCost < localCost[node])
+        {
+            localVisited[node] = stamp;
+            localCost[node] = nodeCost;
+            localParent[node] = from;
+            open.push(node, nodeCost, 0.0);
+        }
+    }
+
+    /**
+     * Convert tile index to local index of last searched cluster.
+     * 
+     * @param tile The tile index.
+     * @return The local index.
+     */
+    private int toLocal(int tile)
+    {
+        return (tile / width - originY) * localWidth + tile % width - originX;
+    }
+
+    /**
+     * Convert local index of last searched cluster to tile index.
+     * 
+     * @param local The local index.
+     * @return The tile index.
+     */
+    private int toTile(int local)
+    {
+        return (originY + local / localWidth) * width + originX + local % localWidth;
+    }
+
+    /**
+     * Check if a direct neighbour cluster is dirty.
+     * 
+     * @param cluster The cluster index.
+     * @return <code>true</code> if a neighbour is dirty, <code>false</code> else.
+     */
+    private boolean isNeighbourDirty(int cluster)
+    {
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        return cx > 0 && dirty[cluster - 1]
+               || cx < clustersX - 1 && dirty[cluster + 1]
+               || cy > 0 && dirty[cluster - clustersX]
+               || cy < clustersY - 1 && dirty[cluster + clustersX];
+    }
+
+    /**
+     * Check if tile can be crossed.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if passable, <code>false</code> else.
+     */
+    private boolean isPassable(int tx, int ty)
+    {
+        return profile.isPassable(mapPath.getCategoryIndex(tx, ty));
+    }
+
+    /**
+     * Compute transitions of cluster borders (including left and top ones, stored by neighbours).
+     * 
+     * @param cluster The cluster index.
+     */
+    private void computeBorders(int cluster)
+    {
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        if (cx < clustersX - 1)
+        {
+            borderRight[cluster] = computeBorder(cx, cy, true);
+        }
+        else
+        {
+            borderRight[cluster] = NO_TRANSITION;
+        }
+        if (cy < clustersY - 1)
+        {
+            borderBottom[cluster] = computeBorder(cx, cy, false);
+        }
+        else
+        {
+            borderBottom[cluster] = NO_TRANSITION;
+        }
+        if (cx > 0)
+        {
+            borderRight[cluster - 1] = computeBorder(cx - 1, cy, true);
+        }
+        if (cy > 0)
+        {
+            borderBottom[cluster - clustersX] = computeBorder(cx, cy - 1, false);
+        }
+    }
+
+    /**
+     * Compute transitions of a cluster border.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     * @param right <code>true</code> for right border, <code>false</code> for bottom border.
+     * @return The transitions (inside tile, outside tile).
+     */
+    private int[] computeBorder(int cx, int cy, boolean right)
+    {
+        final int length;
+        final int x;
+        final int y;
+        if (right)
+        {
+            x = Math.min((cx + 1) * size, width) - 1;
+            y = cy * size;
+            length = Math.min(size, height - y);
+        }
+        else
+        {
+            x = cx * size;
+            y = Math.min((cy + 1) * size, height) - 1;
+            length = Math.min(size, width - x);
+        }
+        final int dx = right ? 0 : 1;
+        final int dy = right ? 1 : 0;
+        final int ox = right ? 1 : 0;
+        final int oy = right ? 0 : 1;
+
+        final int[] transitions = new int[length * 2 * 2];
+        int count = 0;
+        int run = -1;
+        for (int i = 0; i <= length; i++)
+        {
+            final int tx = x + i * dx;
+            final int ty = y + i * dy;
+            final boolean passable = i < length && isPassable(tx, ty) && isPassable(tx + ox, ty + oy);
+            if (passable && run < 0)
+            {
+                run = i;
+            }
+            else if (!passable && run > -1)
+            {
+                final int last = i - 1;
+                if (last - run + 1 >= LONG_ENTRANCE)
+                {
+                    count = addTransition(transitions, count, x + run * dx, y + run * dy, ox, oy);
+                    count = addTransition(transitions, count, x + last * dx, y + last * dy, ox, oy);
+                }
+                else
+                {
+                    final int middle = (run + last) / 2;
+                    count = addTransition(transitions, count, x + middle * dx, y + middle * dy, ox, oy);
+                }
+                run = -1;
+            }
+        }
+        return Arrays.copyOf(transitions, count);
+    }
+
+    /**
+     * Add transition.
+     * 
+     * @param transitions The transitions.
+     * @param count The current transitions values count.
+     * @param tx The inside horizontal tile.
+     * @param ty The inside vertical tile.
+     * @param ox The outside horizontal offset.
+     * @param oy The outside vertical offset.
+     * @return The new transitions values count.
+     */
+    private int addTransition(int[] transitions, int count, int tx, int ty, int ox, int oy)
+    {
+        transitions[count] = ty * width + tx;
+        transitions[count + 1] = (ty + oy) * width + tx + ox;
+        return count + 2;
+    }
+
+    /**
+     * Compute cluster nodes, inter and intra edges.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void computeEdges(int cluster)
+    {
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        final int[] right = borderRight[cluster];
+        final int[] bottom = borderBottom[cluster];
+        final int[] left = cx > 0 ? borderRight[cluster - 1] : NO_TRANSITION;
+        final int[] top = cy > 0 ? borderBottom[cluster - clustersX] : NO_TRANSITION;
+
+        final int max = (right.length + bottom.length + left.length + top.length) / 2;
+        final int[] inside = new int[max];
+        final int[] outside = new int[max];
+        int count = 0;
+        count = collect(right, true, inside, outside, count);
+        count = collect(bottom, true, inside, outside, count);
+        count = collect(left, false, inside, outside, count);
+        count = collect(top, false, inside, outside, count);
+
+        computeInter(cluster, inside, outside, count);
+        computeIntra(cluster, inside, count);
+    }
+
+    /**
+     * Collect transitions as inside and outside tiles.
+     * 
+     * @param transitions The transitions.
+     * @param owned <code>true</code> if first tile of each transition is inside cluster, <code>false</code> else.
+     * @param inside The inside tiles.
+     * @param outside The outside tiles.
+     * @param count The current count.
+     * @return The new count.
+     */
+    private static int collect(int[] transitions, boolean owned, int[] inside, int[] outside, int count)
+    {
+        int n = count;
+        for (int i = 0; i < transitions.length; i += 2)
+        {
+            inside[n] = transitions[owned ? i : i + 1];
+            outside[n] = transitions[owned ? i + 1 : i];
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Compute inter edges of cluster.
+     * 
+     * @param cluster The cluster index.
+     * @param inside The inside tiles.
+     * @param outside The outside tiles.
+     * @param count The transitions count.
+     */
+    private void computeInter(int cluster, int[] inside, int[] outside, int count)
+    {
+        final int[] from = new int[count];
+        final int[] to = new int[count];
+        final double[] cost = new double[count];
+        int edges = 0;
+        for (int i = 0; i < count; i++)
+        {
+            final int tx = inside[i] % width;
+            final int ty = inside[i] / width;
+            final int category = mapPath.getCategoryIndex(tx, ty);
+            final MovementTile movement = MovementTile.from(outside[i] % width - tx, outside[i] / width - ty);
+            if (profile.isMovementAllowed(category, movement))
+            {
+                from[edges] = inside[i];
+                to[edges] = outside[i];
+                cost[edges] = profile.getCost(category);
+                edges++;
+            }
+        }
+        interFrom[cluster] = Arrays.copyOf(from, edges);
+        interTo[cluster] = Arrays.copyOf(to, edges);
+        interCost[cluster] = Arrays.copyOf(cost, edges);
+    }
+
+    /**
+     * Compute nodes and intra edges of cluster.
+     * 
+     * @param cluster The cluster index.
+     * @param inside The inside tiles (may contain duplicates).
+     * @param count The transitions count.
+     */
+    private void computeIntra(int cluster, int[] inside, int count)
+    {
+        final int[] unique = new int[count];
+        int n = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (indexOf(unique, n, inside[i]) < 0)
+            {
+                unique[n] = inside[i];
+                n++;
+            }
+        }
+        final int[] clusterNodes = Arrays.copyOf(unique, n);
+        final double[] costs = new double[n * n];
+        final int[][] paths = new int[n * n][];
+        Arrays.fill(costs, UNREACHABLE);
+
+        for (int from = 0; from < n; from++)
+        {
+            search(cluster, clusterNodes[from], NONE);
+            for (int to = 0; to < n; to++)
+            {
+                if (from != to)
+                {
+                    costs[from * n + to] = getLocalCost(clusterNodes[to]);
+                    paths[from * n + to] = getLocalPath(clusterNodes[to]);
+                }
+            }
+        }
+        nodes[cluster] = clusterNodes;
+        intraCost[cluster] = costs;
+        intraPath[cluster] = paths;
+    }
+
+    /**
+     * Get value index.
+     * 
+     * @param values The values.
+     * @param length The values length to check.
+     * @param value The value to find.
+     * @return The value index, <code>-1</code> if not found.
+     */
+    static int indexOf(int[] values, int length, int value)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (values[i] == value)
+            {
+                return i;
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Integration field toward a destination, for a mover profile. Computed once by a reverse Dijkstra search from the
+ * destination over the whole map, it stores for each tile the next tile to reach the destination with the lowest cost.
+ * Any mover sharing the profile can then follow it in constant time per step.
+ */
+final class FlowField
+{
+    /** No next tile. */
+    static final int NONE = -1;
+    /** Neighbour movements, indexed by <code>(y + 1) * 3 + x + 1</code>. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[9];
+
+    static
+    {
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                MOVEMENTS[(y + 1) * 3 + x + 1] = MovementTile.from(x, y);
+            }
+        }
+    }
+
+    /** Next tile index toward destination, by tile index. */
+    private final int[] next;
+    /** Destination tile index. */
+    private final int target;
+    /** Map revision used to compute field. */
+    private final int revision;
+
+    /**
+     * Compute field.
+     * 
+     * @param mapPath The map path reference.
+     * @param profile The mover profile.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @param target The destination tile index.
+     * @param revision The map revision.
+     * @param open The open list to use (capacity of map size).
+     * @param distance The distance buffer to use (length of map size).
+     */
+    FlowField(MapTilePath mapPath,
+              CategoryProfile profile,
+              int width,
+              int height,
+              int target,
+              int revision,
+              OpenList open,
+              double[] distance)
+    {
+        super();
+
+        this.target = target;
+        this.revision = revision;
+
+        next = new int[width * height];
+        Arrays.fill(next, NONE);
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+
+        open.clear();
+        distance[target] = 0.0;
+        open.push(target, 0.0, 0.0);
+
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            final int cx = current % width;
+            final int cy = current / width;
+            for (int y = -1; y < 2; y++)
+            {
+                for (int x = -1; x < 2; x++)
+                {
+                    final int px = cx - x;
+                    final int py = cy - y;
+                    if ((x != 0 || y != 0) && px >= 0 && py >= 0 && px < width && py < height)
+                    {
+                        final int category = mapPath.getCategoryIndex(px, py);
+                        if (profile.isPassable(category)
+                            && profile.isMovementAllowed(category, MOVEMENTS[(y + 1) * 3 + x + 1]))
+                        {
+                            final int previous = py * width + px;
+                            final double cost = distance[current] + profile.getCost(category);
+                            if (cost < distance[previous])
+                            {
+                                distance[previous] = cost;
+                                next[previous] = current;
+                                open.push(previous, cost, 0.0);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the tiles to follow from start to destination. Walks the field once to size the result and once to fill it,
+     * in <code>O(path length)</code>.
+     * 
+     * @param start The start tile index.
+     * @return The tiles index from start to destination, <code>null</code> if destination not reachable.
+     */
+    int[] getTiles(int start)
+    {
+        if (start == target || next[start] == NONE)
+        {
+            return null;
+        }
+        int length = 1;
+        for (int tile = start; tile != target; tile = next[tile])
+        {
+            length++;
+        }
+        final int[] tiles = new int[length];
+        int tile = start;
+        for (int i = 0; i < length; i++)
+        {
+            tiles[i] = tile;
+            tile = next[tile];
+        }
+        return tiles;
+    }
+
+    /**
+     * Get the next tile toward destination.
+     * 
+     * @param tile The current tile index.
+     * @return The next tile index, {@link #NONE} if destination reached or not reachable.
+     */
+    int getNext(int tile)
+    {
+        return next[tile];
+    }
+
+    /**
+     * Get the map revision used to compute field.
+     * 
+     * @return The map revision.
+     */
+    int getRevision()
+    {
+        return revision;
+    }
+}
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import java.util.Collection;
 import java.util.Set;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Tiled;
@@ -83,6 +84,19 @@ public interface MapTilePath extends Feature
      */
     String getCategory(Tile tile);
 
+    /**
+     * Get the category index of the tile at location.
+     * <p>
+     * Categories are compiled to an index grid on first access, kept up to date when a tile is set, and rebuilt when
+     * the map size changes. Index follows the {@link #getCategories()} order.
+     * </p>
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index, <code>-1</code> if no tile, no category or outside map.
+     */
+    int getCategoryIndex(int tx, int ty);
+
     /**
      * Get the closest unused location around the area. The returned tile is not blocking, nor used by an object.
      * 
@@ -148,6 +162,22 @@ public interface MapTilePath extends Feature
      */
     double getCost(Pathfindable mover, int tx, int ty);
 
+    /**
+     * Get the path finder shared by all {@link Pathfindable} on this map.
+     * 
+     * @return The shared path finder.
+     */
+    PathFinder getPathFinder();
+
+    /**
+     * Add a path finder working on this map, disposed with it ({@link PathFinder#dispose()} called when map is
+     * destroyed). Finders created by {@link Astar} caching map data are added on creation.
+     * 
+     * @param finder The finder reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    void addPathFinder(PathFinder finder);
+
     /**
      * Return the categories.
      * 
@@ -21,10 +21,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -32,20 +35,44 @@ import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeatureAbstract;
 import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.IdentifiableListener;
+import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 import com.b3dgs.lionengine.geom.Area;
 
 /**
  * Map tile path model implementation.
  */
-public class MapTilePathModel extends FeatureAbstract implements MapTilePath
+public class MapTilePathModel extends FeatureAbstract implements MapTilePath, IdentifiableListener
 {
-    /** Categories list. */
-    private final Map<String, PathCategory> categories = new HashMap<>();
+    /** No category index. */
+    private static final short NO_CATEGORY = -1;
+
+    /** Categories list (iteration order defines category index). */
+    private final Map<String, PathCategory> categories = new LinkedHashMap<>();
+    /** Category index by group name. */
+    private final Map<String, Integer> groupCategory = new HashMap<>();
+    /** Category names by index. */
+    private String[] categoryNames = new String[0];
+    /** Keep category grid up to date. */
+    private final TileSetListener listener = this::updateCategory;
+    /** Services reference (<code>null</code> if shared path finder is not registered). */
+    private final Services services;
     /** Path id mapping. */
     private List<List<Set<Integer>>> tiles;
+    /** Shared path finder. */
+    private PathFinder pathFinder;
+    /** Added path finders, disposed with map. */
+    private final List<PathFinder> finders = new ArrayList<>();
+    /** Category index of each tile (row major), <code>null</code> if not compiled. */
+    private short[] categoryGrid;
+    /** Compiled category grid width. */
+    private int gridWidth;
+    /** Compiled category grid height. */
+    private int gridHeight;
 
     /** Map tile surface. */
     private MapTileSurface map;
@@ -65,6 +92,32 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
     public MapTilePathModel()
     {
         super();
+
+        services = null;
+    }
+
+    /**
+     * Create feature, and register the shared {@link PathFinder} as a service once prepared. Use
+     * {@link #MapTilePathModel()} when another {@link PathFinder} is added to the services (flow field, hierarchical),
+     * else the {@link PathFinder} service would be ambiguous.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link MapTileSurface}</li>
+     * <li>{@link MapTileGroup}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public MapTilePathModel(Services services)
+    {
+        super();
+
+        Check.notNull(services);
+
+        this.services = services;
     }
 
     /**
@@ -246,14 +299,64 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
      */
     private String getCategory(String groupName)
     {
-        for (final PathCategory category : categories.values())
+        final Integer index = groupCategory.get(groupName);
+        if (index != null)
         {
-            if (category.getGroups().contains(groupName))
+            return categoryNames[index.intValue()];
+        }
+        return null;
+    }
+
+    /**
+     * Get the category index of a tile.
+     * 
+     * @param tile The tile reference (can be <code>null</code>).
+     * @return The category index, {@link #NO_CATEGORY} if none.
+     */
+    private short getCategoryIndex(Tile tile)
+    {
+        if (tile != null)
+        {
+            final Integer index = groupCategory.get(group.getGroup(tile));
+            if (index != null)
             {
-                return category.getName();
+                return index.shortValue();
+            }
+        }
+        return NO_CATEGORY;
+    }
+
+    /**
+     * Compile the category index of each map tile.
+     */
+    private void compileCategories()
+    {
+        gridWidth = map.getInTileWidth();
+        gridHeight = map.getInTileHeight();
+        categoryGrid = new short[gridWidth * gridHeight];
+
+        for (int ty = 0; ty < gridHeight; ty++)
+        {
+            for (int tx = 0; tx < gridWidth; tx++)
+            {
+                categoryGrid[ty * gridWidth + tx] = getCategoryIndex(map.getTile(tx, ty));
             }
         }
-        return null;
+    }
+
+    /**
+     * Update compiled category of the tile.
+     * 
+     * @param tile The updated tile.
+     */
+    private void updateCategory(Tile tile)
+    {
+        final int tx = tile.getInTileX();
+        final int ty = tile.getInTileY();
+        if (categoryGrid != null && tx < gridWidth && ty < gridHeight)
+        {
+            categoryGrid[ty * gridWidth + tx] = getCategoryIndex(tile);
+        }
     }
 
     /*
@@ -267,6 +370,16 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
 
         map = provider.getFeature(MapTileSurface.class);
         group = provider.getFeature(MapTileGroup.class);
+
+        if (pathFinder == null)
+        {
+            map.addListener(listener);
+            pathFinder = new PathFinderImpl(map, this, Astar.createHeuristicClosest());
+            if (services != null)
+            {
+                services.add(pathFinder);
+            }
+        }
     }
 
     @Override
@@ -274,10 +387,20 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
     {
         final Collection<PathCategory> config = PathfindingConfig.imports(pathfindingConfig);
         categories.clear();
+        groupCategory.clear();
         for (final PathCategory category : config)
         {
             categories.put(category.getName(), category);
         }
+        categoryNames = categories.keySet().toArray(new String[categories.size()]);
+        for (int i = 0; i < categoryNames.length; i++)
+        {
+            for (final String groupName : categories.get(categoryNames[i]).getGroups())
+            {
+                groupCategory.putIfAbsent(groupName, Integer.valueOf(i));
+            }
+        }
+        categoryGrid = null;
 
         final int widthInTile;
         final int heightInTile;
@@ -350,6 +473,20 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
         return getCategory(groupName);
     }
 
+    @Override
+    public int getCategoryIndex(int tx, int ty)
+    {
+        if (categoryGrid == null || gridWidth != map.getInTileWidth() || gridHeight != map.getInTileHeight())
+        {
+            compileCategories();
+        }
+        if (tx < 0 || ty < 0 || tx >= gridWidth || ty >= gridHeight)
+        {
+            return NO_CATEGORY;
+        }
+        return categoryGrid[ty * gridWidth + tx];
+    }
+
     @Override
     public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
     {
@@ -369,6 +506,20 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
         return 0.0;
     }
 
+    @Override
+    public PathFinder getPathFinder()
+    {
+        return pathFinder;
+    }
+
+    @Override
+    public void addPathFinder(PathFinder finder)
+    {
+        Check.notNull(finder);
+
+        finders.add(finder);
+    }
+
     @Override
     public Collection<String> getCategories()
     {
@@ -472,4 +623,19 @@ public class MapTilePathModel extends FeatureAbstract implements MapTilePath
         }
         return true;
     }
+
+    /*
+     * IdentifiableListener
+     */
+
+    @Override
+    public void notifyDestroyed(Integer id)
+    {
+        for (final PathFinder finder : finders)
+        {
+            finder.dispose();
+        }
+        finders.clear();
+        map.removeListener(listener);
+    }
 }
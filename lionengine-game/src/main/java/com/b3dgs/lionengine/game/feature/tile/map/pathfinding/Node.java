@@ -161,10 +161,16 @@ public final class Node implements Comparable<Node>
      * Comparable
      */
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nodes are ordered by total estimated cost (cost + heuristic), then by heuristic.
+     * </p>
+     */
     @Override
     public int compareTo(Node other)
     {
-        int res = Double.compare(getCost(), other.getCost());
+        int res = Double.compare(getCost() + getHeuristic(), other.getCost() + other.getHeuristic());
 
         if (res == 0)
         {
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Open list of the path finder, implemented as a binary min heap of node indexes.
+ * <p>
+ * Each node heap position is tracked, allowing to check presence and decrease its score in <code>O(log n)</code>.
+ * Nodes are ordered by score, then by tie value (lowest first).
+ * </p>
+ */
+final class OpenList
+{
+    /** Not in heap position. */
+    private static final int NONE = -1;
+
+    /** Heap of node indexes. */
+    private int[] heap;
+    /** Heap position of each node. */
+    private int[] position;
+    /** Score of each node. */
+    private double[] score;
+    /** Tie breaker of each node. */
+    private double[] tie;
+    /** Current heap size. */
+    private int size;
+
+    /**
+     * Create open list.
+     * 
+     * @param capacity The number of nodes that can be indexed.
+     */
+    OpenList(int capacity)
+    {
+        super();
+
+        heap = new int[capacity];
+        position = new int[capacity];
+        score = new double[capacity];
+        tie = new double[capacity];
+        Arrays.fill(position, NONE);
+    }
+
+    /**
+     * Resize list if required. Current content is cleared.
+     * 
+     * @param capacity The number of nodes that can be indexed.
+     */
+    void ensureCapacity(int capacity)
+    {
+        if (capacity > position.length)
+        {
+            heap = new int[capacity];
+            position = new int[capacity];
+            score = new double[capacity];
+            tie = new double[capacity];
+            Arrays.fill(position, NONE);
+            size = 0;
+        }
+        else
+        {
+            clear();
+        }
+    }
+
+    /**
+     * Remove all nodes.
+     */
+    void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            position[heap[i]] = NONE;
+        }
+        size = 0;
+    }
+
+    /**
+     * Add a node, or update its score if already present.
+     * 
+     * @param node The node index.
+     * @param nodeScore The node score.
+     * @param nodeTie The node tie breaker.
+     */
+    void push(int node, double nodeScore, double nodeTie)
+    {
+        score[node] = nodeScore;
+        tie[node] = nodeTie;
+
+        final int index = position[node];
+        if (index == NONE)
+        {
+            heap[size] = node;
+            position[node] = size;
+            size++;
+            siftUp(size - 1);
+        }
+        else
+        {
+            siftUp(index);
+            siftDown(position[node]);
+        }
+    }
+
+    /**
+     * Remove and get the node with the lowest score.
+     * 
+     * @return The node index.
+     */
+    int poll()
+    {
+        final int node = heap[0];
+        position[node] = NONE;
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return node;
+    }
+
+    /**
+     * Check if node is in list.
+     * 
+     * @param node The node index.
+     * @return <code>true</code> if in list, <code>false</code> else.
+     */
+    boolean contains(int node)
+    {
+        return position[node] != NONE;
+    }
+
+    /**
+     * Check if list is empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Get the current number of nodes.
+     * 
+     * @return The nodes number.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Check if first node must be before second node.
+     * 
+     * @param a The first node index.
+     * @param b The second node index.
+     * @return <code>true</code> if first is lower than second, <code>false</code> else.
+     */
+    private boolean isLower(int a, int b)
+    {
+        final int res = Double.compare(score[a], score[b]);
+        return res < 0 || res == 0 && Double.compare(tie[a], tie[b]) < 0;
+    }
+
+    /**
+     * Move heap element up until heap order is respected.
+     * 
+     * @param start The heap index.
+     */
+    private void siftUp(int start)
+    {
+        final int node = heap[start];
+        int index = start;
+        while (index > 0)
+        {
+            final int parent = (index - 1) >>> 1;
+            final int parentNode = heap[parent];
+            if (!isLower(node, parentNode))
+            {
+                break;
+            }
+            heap[index] = parentNode;
+            position[parentNode] = index;
+            index = parent;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    /**
+     * Move heap element down until heap order is respected.
+     * 
+     * @param start The heap index.
+     */
+    private void siftDown(int start)
+    {
+        final int node = heap[start];
+        int index = start;
+        int child = (index << 1) + 1;
+        while (child < size)
+        {
+            final int right = child + 1;
+            if (right < size && isLower(heap[right], heap[child]))
+            {
+                child = right;
+            }
+            final int childNode = heap[child];
+            if (!isLower(childNode, node))
+            {
+                break;
+            }
+            heap[index] = childNode;
+            position[childNode] = index;
+            index = child;
+            child = (index << 1) + 1;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+}
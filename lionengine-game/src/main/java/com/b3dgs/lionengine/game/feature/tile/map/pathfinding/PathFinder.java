@@ -33,4 +33,12 @@ public interface PathFinder
      * @return The path found from start to end, or null if no path can be found.
      */
     Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef);
+
+    /**
+     * Release the map listeners and cached search data kept by the finder. Finder must not be used anymore.
+     */
+    default void dispose()
+    {
+        // Nothing to release by default
+    }
 }
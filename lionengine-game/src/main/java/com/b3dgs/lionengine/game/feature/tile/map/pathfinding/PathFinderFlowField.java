@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Flow field path finder. A {@link FlowField} is computed once per destination and mover profile, and shared by all
+ * movers ordered to the same destination: a group move costs one search instead of one per mover.
+ * <p>
+ * Fields are kept in a least recently used cache, and evicted when the capacity is reached. Any tile change
+ * ({@link TileSetListener}) makes cached fields stale, recomputed on next use. Fields only know terrain (categories):
+ * parts of a path crossing a blocking object are repaired by a local search. Blocked destinations and unreachable
+ * starts are delegated to the standard A* finder.
+ * </p>
+ * <p>
+ * The search is shared, but each mover still gets its own {@link Path}, built by following the field from its
+ * location: {@link #findPath(Pathfindable, int, int, boolean)} costs <code>O(path length)</code> per mover, without
+ * any node expansion.
+ * </p>
+ * <p>
+ * {@link #dispose()} removes the map listener.
+ * </p>
+ */
+final class PathFinderFlowField implements PathFinder
+{
+    /** Default fields capacity. */
+    static final int DEFAULT_CAPACITY = 8;
+    /** Repair search depth added to the blocked part length. */
+    private static final int REPAIR_MARGIN = 16;
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Standard finder, used for repair and fallback. */
+    private final PathFinderImpl finder;
+    /** Mover costs. */
+    private final CategoryCosts costs = new CategoryCosts();
+    /** Field computation open list. */
+    private final OpenList open = new OpenList(0);
+    /** Cached fields, in access order. */
+    private final Map<Key, FlowField> fields;
+    /** Tile changes listener, making cached fields stale. */
+    private final TileSetListener listener;
+    /** Field computation distance buffer. */
+    private double[] distance = new double[0];
+    /** Map revision, incremented on each tile change. */
+    private int revision;
+
+    /**
+     * Create finder.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param capacity The maximum number of cached fields (strictly positive).
+     * @param heuristic The heuristic used by the standard finder.
+     */
+    PathFinderFlowField(MapTile map, int capacity, Heuristic heuristic)
+    {
+        super();
+
+        Check.superiorStrict(capacity, 0);
+
+        this.map = map;
+        mapPath = map.getFeature(MapTilePath.class);
+        finder = new PathFinderImpl(map, mapPath, heuristic);
+        fields = new LinkedHashMap<Key, FlowField>(capacity, 0.75F, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FlowField> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+        listener = tile -> revision++;
+        map.getFeature(MapTileSurface.class).addListener(listener);
+    }
+
+    /**
+     * Get the field toward destination, computed if not cached or stale.
+     * 
+     * @param profile The mover profile.
+     * @param target The destination tile index.
+     * @return The field.
+     */
+    private FlowField getField(CategoryProfile profile, int target)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        if (distance.length != width * height)
+        {
+            distance = new double[width * height];
+            open.ensureCapacity(distance.length);
+            fields.clear();
+        }
+        final Key key = new Key(profile, target);
+        FlowField field = fields.get(key);
+        if (field == null || field.getRevision() != revision)
+        {
+            field = new FlowField(mapPath, profile, width, height, target, revision, open, distance);
+            fields.put(key, field);
+        }
+        return field;
+    }
+
+    /**
+     * Get the field toward destination for mover, computed if not cached or stale.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The horizontal destination in tile.
+     * @param dty The vertical destination in tile.
+     * @return The field.
+     */
+    FlowField getField(Pathfindable mover, int dtx, int dty)
+    {
+        costs.load(mapPath.getCategories(), mover);
+        return getField(costs.getProfile(), dty * map.getInTileWidth() + dtx);
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            return finder.findPath(mover, dtx, dty, ignoreRef);
+        }
+        final FlowField field = getField(mover, dtx, dty);
+        final int[] tiles = field.getTiles(mover.getInTileY() * map.getInTileWidth() + mover.getInTileX());
+
+        final Path path = tiles != null ? finder.createPath(mover, tiles, ignoreRef, REPAIR_MARGIN) : null;
+        if (path == null)
+        {
+            return finder.findPath(mover, dtx, dty, ignoreRef);
+        }
+        return path;
+    }
+
+    @Override
+    public void dispose()
+    {
+        map.getFeature(MapTileSurface.class).removeListener(listener);
+        fields.clear();
+    }
+
+    /**
+     * Field key.
+     */
+    private static final class Key
+    {
+        /** Mover profile. */
+        private final CategoryProfile profile;
+        /** Destination tile index. */
+        private final int target;
+
+        /**
+         * Create key.
+         * 
+         * @param profile The mover profile.
+         * @param target The destination tile index.
+         */
+        Key(CategoryProfile profile, int target)
+        {
+            super();
+
+            this.profile = profile;
+            this.target = target;
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            return profile.hashCode() * 31 + target;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final Key other = (Key) object;
+            return target == other.target && profile.equals(other.profile);
+        }
+    }
+}
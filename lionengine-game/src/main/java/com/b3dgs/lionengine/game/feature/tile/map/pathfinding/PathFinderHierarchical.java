@@ -0,0 +1,511 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Hierarchical path finder (HPA*). Map is split in clusters, whose entrances and internal paths are cached in a
+ * {@link ClusterGraph} per mover profile. A search connects start and destination to the entrances of their cluster,
+ * runs A* on the small abstract graph, then refines it with the cached internal paths.
+ * <p>
+ * Abstract graph only knows terrain (categories). Objects are honored on refinement: each part of the path crossing a
+ * blocking object is repaired by a local search, the path is <code>null</code> if a repair fails. A blocked destination
+ * is replaced by the closest available tile before searching. Short searches (start and destination in adjacent
+ * clusters) are delegated to the standard A* finder. There is no full map search fallback: if the abstract graph has
+ * no path, objects can not make one.
+ * </p>
+ * <p>
+ * Tile changes ({@link TileSetListener}) only invalidate the changed cluster, recomputed on next search. Graphs are
+ * kept for the {@value #MAX_GRAPHS} most recently used profiles. {@link #dispose()} removes the map listener, and is
+ * called when the map is destroyed.
+ * </p>
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** Default cluster size in tile. */
+    static final int DEFAULT_CLUSTER_SIZE = 16;
+    /** Maximum number of cached graphs. */
+    static final int MAX_GRAPHS = 4;
+    /** No parent. */
+    private static final int NONE = -1;
+
+    /** Graphs by mover profile, in access order. */
+    private final Map<CategoryProfile, ClusterGraph> graphs = new LinkedHashMap<CategoryProfile, ClusterGraph>(
+            MAX_GRAPHS,
+            0.75F,
+            true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CategoryProfile, ClusterGraph> eldest)
+        {
+            return size() > MAX_GRAPHS;
+        }
+    };
+    /** Tile changes listener, marking changed cluster as dirty. */
+    private final TileSetListener listener = tile ->
+    {
+        for (final ClusterGraph graph : graphs.values())
+        {
+            graph.markDirty(tile.getInTileX(), tile.getInTileY());
+        }
+    };
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Cluster size in tile. */
+    private final int clusterSize;
+    /** Standard finder, used for short searches and repair. */
+    private final PathFinderImpl finder;
+    /** Mover costs. */
+    private final CategoryCosts costs = new CategoryCosts();
+    /** Abstract search open list. */
+    private final OpenList open = new OpenList(0);
+    /** Categories used by graphs. */
+    private String[] categories = new String[0];
+    /** Map width used by graphs. */
+    private int width;
+    /** Map height used by graphs. */
+    private int height;
+    /** Abstract nodes cost, by tile index. */
+    private double[] cost;
+    /** Abstract nodes parent, by tile index. */
+    private int[] parent;
+    /** Abstract nodes visited generation. */
+    private int[] visited;
+    /** Abstract nodes closed generation. */
+    private int[] closed;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Create finder.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param clusterSize The cluster size in tile (strictly positive).
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHierarchical(MapTile map, int clusterSize, Heuristic heuristic)
+    {
+        super();
+
+        Check.superiorStrict(clusterSize, 0);
+
+        this.map = map;
+        this.clusterSize = clusterSize;
+        this.heuristic = heuristic;
+        mapPath = map.getFeature(MapTilePath.class);
+        finder = new PathFinderImpl(map, mapPath, heuristic);
+        map.getFeature(MapTileSurface.class).addListener(listener);
+    }
+
+    /**
+     * Reset graphs if map size or categories changed.
+     */
+    private void checkMap()
+    {
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        final Collection<String> current = mapPath.getCategories();
+        if (widthInTile != width || heightInTile != height || !isSameCategories(current))
+        {
+            graphs.clear();
+            categories = current.toArray(new String[current.size()]);
+            if (widthInTile != width || heightInTile != height)
+            {
+                width = widthInTile;
+                height = heightInTile;
+
+                final int size = width * height;
+                cost = new double[size];
+                parent = new int[size];
+                visited = new int[size];
+                closed = new int[size];
+                open.ensureCapacity(size);
+                generation = 0;
+            }
+        }
+    }
+
+    /**
+     * Check if categories are the same as the ones used by graphs.
+     * 
+     * @param current The current categories.
+     * @return <code>true</code> if same, <code>false</code> else.
+     */
+    private boolean isSameCategories(Collection<String> current)
+    {
+        if (current.size() != categories.length)
+        {
+            return false;
+        }
+        final Iterator<String> iterator = current.iterator();
+        for (final String category : categories)
+        {
+            if (!category.equals(iterator.next()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if start and destination clusters are the same or adjacent.
+     * 
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @return <code>true</code> if near, <code>false</code> else.
+     */
+    private boolean isNear(int stx, int sty, int dtx, int dty)
+    {
+        return Math.abs(stx / clusterSize - dtx / clusterSize) < 2
+               && Math.abs(sty / clusterSize - dty / clusterSize) < 2;
+    }
+
+    /**
+     * Create graph for profile.
+     * 
+     * @param profile The mover profile.
+     * @return The created graph.
+     */
+    private ClusterGraph createGraph(CategoryProfile profile)
+    {
+        return new ClusterGraph(mapPath, profile, width, height, clusterSize);
+    }
+
+    /**
+     * Start a new abstract search generation.
+     */
+    private void prepareSearch()
+    {
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * Find path on abstract graph and refine it.
+     * 
+     * @param graph The graph to use.
+     * @param start The start tile index.
+     * @param target The destination tile index.
+     * @return The tiles index from start to destination, <code>null</code> if not found.
+     */
+    private int[] findPath(ClusterGraph graph, int start, int target)
+    {
+        final int startCluster = graph.getCluster(start % width, start / width);
+        final int targetCluster = graph.getCluster(target % width, target / width);
+
+        final int[] startNodes = graph.getNodes(startCluster);
+        final double[] startCost = new double[startNodes.length];
+        final int[][] startPath = new int[startNodes.length][];
+        graph.search(startCluster, start, NONE);
+        for (int i = 0; i < startNodes.length; i++)
+        {
+            startCost[i] = graph.getLocalCost(startNodes[i]);
+            startPath[i] = graph.getLocalPath(startNodes[i]);
+        }
+
+        final int[] targetNodes = graph.getNodes(targetCluster);
+        final double[] targetCost = new double[targetNodes.length];
+        final int[][] targetPath = new int[targetNodes.length][];
+        for (int i = 0; i < targetNodes.length; i++)
+        {
+            graph.search(targetCluster, targetNodes[i], target);
+            targetCost[i] = graph.getLocalCost(target);
+            targetPath[i] = graph.getLocalPath(target);
+        }
+
+        prepareSearch();
+        visited[start] = generation;
+        cost[start] = 0.0;
+        parent[start] = NONE;
+        open.push(start, getHeuristicCost(start, target), 0.0);
+
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            if (current == target)
+            {
+                return refine(graph, start, target, startNodes, startPath, targetNodes, targetPath);
+            }
+            closed[current] = generation;
+
+            if (current == start)
+            {
+                for (int i = 0; i < startNodes.length; i++)
+                {
+                    relax(startNodes[i], current, startCost[i], target);
+                }
+            }
+            // Start may be an entrance, so its inter edges must be expanded too
+            expand(graph, current, target);
+            if (graph.getCluster(current % width, current / width) == targetCluster)
+            {
+                final int index = ClusterGraph.indexOf(targetNodes, targetNodes.length, current);
+                if (index > NONE)
+                {
+                    relax(target, current, targetCost[index], target);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Expand abstract node with its intra and inter edges.
+     * 
+     * @param graph The graph to use.
+     * @param current The current node tile index.
+     * @param target The destination tile index.
+     */
+    private void expand(ClusterGraph graph, int current, int target)
+    {
+        final int cluster = graph.getCluster(current % width, current / width);
+        final int[] nodes = graph.getNodes(cluster);
+        final int from = ClusterGraph.indexOf(nodes, nodes.length, current);
+        if (from > NONE)
+        {
+            for (int to = 0; to < nodes.length; to++)
+            {
+                if (to != from)
+                {
+                    relax(nodes[to], current, graph.getIntraCost(cluster, from, to), target);
+                }
+            }
+        }
+        final int count = graph.getInterCount(cluster);
+        for (int i = 0; i < count; i++)
+        {
+            if (graph.getInterFrom(cluster, i) == current)
+            {
+                relax(graph.getInterTo(cluster, i), current, graph.getInterCost(cluster, i), target);
+            }
+        }
+    }
+
+    /**
+     * Update abstract node if reached with a lower cost.
+     * 
+     * @param node The node tile index.
+     * @param from The parent tile index.
+     * @param edgeCost The edge cost.
+     * @param target The destination tile index.
+     */
+    private void relax(int node, int from, double edgeCost, int target)
+    {
+        if (edgeCost == ClusterGraph.UNREACHABLE || closed[node] == generation)
+        {
+            return;
+        }
+        final double nodeCost = cost[from] + edgeCost;
+        if (visited[node] != generation || nodeCost < cost[node])
+        {
+            visited[node] = generation;
+            cost[node] = nodeCost;
+            parent[node] = from;
+            final double estimate = getHeuristicCost(node, target);
+            open.push(node, nodeCost + estimate, estimate);
+        }
+    }
+
+    /**
+     * Get heuristic cost between two tiles.
+     * 
+     * @param from The source tile index.
+     * @param to The destination tile index.
+     * @return The heuristic cost.
+     */
+    private double getHeuristicCost(int from, int to)
+    {
+        return heuristic.getCost(from % width, from / width, to % width, to / width);
+    }
+
+    /**
+     * Convert abstract path to tiles path.
+     * 
+     * @param graph The graph used.
+     * @param start The start tile index.
+     * @param target The destination tile index.
+     * @param startNodes The start cluster nodes.
+     * @param startPath The paths from start to start cluster nodes.
+     * @param targetNodes The destination cluster nodes.
+     * @param targetPath The paths from destination cluster nodes to destination.
+     * @return The tiles index from start to destination.
+     */
+    private int[] refine(ClusterGraph graph,
+                         int start,
+                         int target,
+                         int[] startNodes,
+                         int[][] startPath,
+                         int[] targetNodes,
+                         int[][] targetPath)
+    {
+        int count = 0;
+        for (int node = target; node != NONE; node = parent[node])
+        {
+            count++;
+        }
+        final int[] nodes = new int[count];
+        int index = count;
+        for (int node = target; node != NONE; node = parent[node])
+        {
+            index--;
+            nodes[index] = node;
+        }
+
+        int[] tiles = new int[count * clusterSize];
+        int length = 0;
+        tiles[length++] = start;
+        for (int i = 1; i < count; i++)
+        {
+            final int from = nodes[i - 1];
+            final int to = nodes[i];
+            final int cluster = graph.getCluster(from % width, from / width);
+            final int[] part;
+            if (cluster != graph.getCluster(to % width, to / width))
+            {
+                part = new int[]
+                {
+                    to
+                };
+            }
+            else if (from == start)
+            {
+                part = startPath[ClusterGraph.indexOf(startNodes, startNodes.length, to)];
+            }
+            else if (to == target && ClusterGraph.indexOf(targetNodes, targetNodes.length, from) > NONE)
+            {
+                part = targetPath[ClusterGraph.indexOf(targetNodes, targetNodes.length, from)];
+            }
+            else
+            {
+                final int[] nodesCluster = graph.getNodes(cluster);
+                part = graph.getIntraPath(cluster,
+                                          ClusterGraph.indexOf(nodesCluster, nodesCluster.length, from),
+                                          ClusterGraph.indexOf(nodesCluster, nodesCluster.length, to));
+            }
+            if (length + part.length > tiles.length)
+            {
+                tiles = Arrays.copyOf(tiles, Math.max(tiles.length * 2, length + part.length));
+            }
+            System.arraycopy(part, 0, tiles, length, part.length);
+            length += part.length;
+        }
+        return Arrays.copyOf(tiles, length);
+    }
+
+    /**
+     * Get the closest available tile replacing a blocked destination.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the blocked destination location.
+     * @param dty The y coordinate of the blocked destination location.
+     * @return The closest available tile, <code>null</code> if none or if destination is blocked next to start.
+     */
+    private CoordTile getClosestTile(Pathfindable mover, int stx, int sty, int dtx, int dty)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        return mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+    }
+
+    /**
+     * Find a path to an available destination. Near destinations are delegated to the standard A* finder, others are
+     * searched on the abstract graph.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, <code>null</code> if no path can be found.
+     */
+    private Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        if (isNear(stx, sty, dtx, dty))
+        {
+            return finder.findPath(mover, dtx, dty, ignoreRef);
+        }
+
+        checkMap();
+        costs.load(mapPath.getCategories(), mover);
+        final CategoryProfile profile = costs.getProfile();
+        final ClusterGraph graph = graphs.computeIfAbsent(profile, this::createGraph);
+        graph.update();
+
+        // Objects can only add blocking, so no terrain path means no path at all
+        final int[] tiles = findPath(graph, sty * width + stx, dty * width + dtx);
+        if (tiles == null)
+        {
+            return null;
+        }
+        return finder.createPath(mover, tiles, ignoreRef, 2 * clusterSize);
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = getClosestTile(mover, stx, sty, dtx, dty);
+            return tile != null ? findPath(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef) : null;
+        }
+        return findPath(mover, stx, sty, dtx, dty, ignoreRef);
+    }
+
+    @Override
+    public void dispose()
+    {
+        map.getFeature(MapTileSurface.class).removeListener(listener);
+        graphs.clear();
+    }
+}
@@ -16,10 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
@@ -27,23 +25,72 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 
 /**
  * A path finder implementation that uses the AStar heuristic based algorithm to determine a path.
+ * <p>
+ * Search state is stored in primitive arrays indexed by tile (<code>ty * width + tx</code>), allocated once per map
+ * size and reused by every search. Each search increments a generation counter, and any tile whose stamp does not
+ * match the current generation is considered as unvisited, so no clear is needed between two searches. This allows a
+ * single instance to serve all {@link Pathfindable} of a map.
+ * </p>
+ * <p>
+ * Open nodes are ordered by <code>f = cost + heuristic</code> in an indexed heap (see {@link OpenList}), with the
+ * lowest heuristic first on equal score.
+ * </p>
+ * <p>
+ * Tile categories are read from the compiled map grid ({@link MapTilePath#getCategoryIndex(int, int)}), and mover
+ * costs from a per category table loaded once per search, so expansion only does array indexing. Tiles without
+ * category fall back to the map path queries.
+ * </p>
  */
 final class PathFinderImpl implements PathFinder
 {
-    /** Closed list. */
-    private final Collection<Node> closed = new HashSet<>();
+    /** No parent index. */
+    private static final int NONE = -1;
+    /** Neighbour movements, indexed by <code>(y + 1) * 3 + x + 1</code>. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[9];
+
+    static
+    {
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                MOVEMENTS[(y + 1) * 3 + x + 1] = MovementTile.from(x, y);
+            }
+        }
+    }
+
     /** Open list. */
-    private final Queue<Node> open = new PriorityQueue<>();
+    private final OpenList open = new OpenList(0);
+    /** Current mover costs. */
+    private final CategoryCosts costs = new CategoryCosts();
     /** Map reference. */
     private final MapTile map;
     /** Map path reference. */
     private final MapTilePath mapPath;
-    /** Max distance to search. */
-    private final int maxSearchDistance;
-    /** Nodes array. */
-    private final Node[][] nodes;
     /** Heuristic used. */
     private final Heuristic heuristic;
+    /** Use map diagonal as max search distance. */
+    private final boolean diagonal;
+    /** Max distance to search. */
+    private int maxSearchDistance;
+    /** Allocated width in tile. */
+    private int width;
+    /** Allocated height in tile. */
+    private int height;
+    /** Nodes cost. */
+    private double[] cost = new double[0];
+    /** Nodes heuristic value. */
+    private double[] heuristics = new double[0];
+    /** Nodes parent index. */
+    private int[] parent = new int[0];
+    /** Nodes depth. */
+    private int[] depth = new int[0];
+    /** Nodes visited generation stamp. */
+    private int[] visited = new int[0];
+    /** Nodes closed generation stamp. */
+    private int[] closed = new int[0];
+    /** Current search generation. */
+    private int generation;
 
     /**
      * Internal constructor.
@@ -53,35 +100,44 @@ final class PathFinderImpl implements PathFinder
      * @param heuristic The heuristic used to determine the search order of the map.
      */
     PathFinderImpl(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(map, map.getFeature(MapTilePath.class), maxSearchDistance, heuristic, false);
+    }
+
+    /**
+     * Internal constructor, using the map diagonal as maximum search distance.
+     * 
+     * @param map The map to be searched.
+     * @param mapPath The map path reference.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderImpl(MapTile map, MapTilePath mapPath, Heuristic heuristic)
+    {
+        this(map, mapPath, 0, heuristic, true);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched.
+     * @param mapPath The map path reference.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param diagonal <code>true</code> to use map diagonal as max search distance, <code>false</code> else.
+     */
+    private PathFinderImpl(MapTile map,
+                           MapTilePath mapPath,
+                           int maxSearchDistance,
+                           Heuristic heuristic,
+                           boolean diagonal)
     {
         super();
 
-        this.heuristic = heuristic;
         this.map = map;
+        this.mapPath = mapPath;
         this.maxSearchDistance = maxSearchDistance;
-        mapPath = map.getFeature(MapTilePath.class);
-
-        final int widthInTile;
-        final int heightInTile;
-        if (mapPath.getCategories().isEmpty())
-        {
-            widthInTile = 0;
-            heightInTile = 0;
-        }
-        else
-        {
-            widthInTile = map.getInTileWidth();
-            heightInTile = map.getInTileHeight();
-        }
-        nodes = new Node[heightInTile][widthInTile];
-
-        for (int ty = 0; ty < heightInTile; ty++)
-        {
-            for (int tx = 0; tx < widthInTile; tx++)
-            {
-                nodes[ty][tx] = new Node(tx, ty);
-            }
-        }
+        this.heuristic = heuristic;
+        this.diagonal = diagonal;
     }
 
     /**
@@ -94,7 +150,12 @@ final class PathFinderImpl implements PathFinder
      */
     public double getMovementCost(Pathfindable pathfindable, int tx, int ty)
     {
-        return mapPath.getCost(pathfindable, tx, ty);
+        final int category = mapPath.getCategoryIndex(tx, ty);
+        if (category < 0)
+        {
+            return mapPath.getCost(pathfindable, tx, ty);
+        }
+        return costs.getCost(category);
     }
 
     /**
@@ -111,6 +172,43 @@ final class PathFinderImpl implements PathFinder
         return heuristic.getCost(stx, sty, dtx, dty);
     }
 
+    /**
+     * Ensure search arrays fit the current map size, and start a new search generation.
+     */
+    private void prepareSearch()
+    {
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        if (widthInTile != width || heightInTile != height)
+        {
+            width = widthInTile;
+            height = heightInTile;
+
+            final int size = width * height;
+            cost = new double[size];
+            heuristics = new double[size];
+            parent = new int[size];
+            depth = new int[size];
+            visited = new int[size];
+            closed = new int[size];
+            open.ensureCapacity(size);
+            generation = 0;
+
+            if (diagonal)
+            {
+                maxSearchDistance = (int) Math.sqrt(width * width + height * (double) height);
+            }
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
     /**
      * Check if a given location is valid for the supplied mover.
      * 
@@ -124,16 +222,69 @@ final class PathFinderImpl implements PathFinder
      */
     private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        boolean invalid = dtx < 0 || dty < 0 || dtx >= map.getInTileWidth() || dty >= map.getInTileHeight();
+        boolean invalid = dtx < 0 || dty < 0 || dtx >= width || dty >= height;
 
         if (!invalid && (stx != dtx || sty != dty))
         {
-            invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+            final int category = mapPath.getCategoryIndex(dtx, dty);
+            if (category < 0)
+            {
+                invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+            }
+            else
+            {
+                invalid = costs.isBlocking(category) || !ignoreRef && isObjectBlocking(mapPath, mover, dtx, dty);
+            }
         }
 
         return !invalid;
     }
 
+    /**
+     * Check if an object not ignored by mover is on location.
+     * 
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @param tx The horizontal tile to check.
+     * @param ty The vertical tile to check.
+     * @return <code>true</code> if blocked, <code>false</code> else.
+     */
+    static boolean isObjectBlocking(MapTilePath mapPath, Pathfindable mover, int tx, int ty)
+    {
+        final Collection<Integer> ids = mapPath.getObjectsId(tx, ty);
+        if (!ids.isEmpty())
+        {
+            for (final Integer id : ids)
+            {
+                if (!mover.isIgnoredId(id))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if movement is allowed from location.
+     * 
+     * @param mover The mover reference.
+     * @param category The location category index.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @param movement The movement to check.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    private boolean isMovementAllowed(Pathfindable mover, int category, int tx, int ty, MovementTile movement)
+    {
+        if (category < 0)
+        {
+            final Tile tile = map.getTile(tx, ty);
+            return mover.isMovementAllowed(mapPath.getCategory(tile), movement);
+        }
+        return costs.isMovementAllowed(category, movement);
+    }
+
     /**
      * Update the open and closed list to find the path.
      * 
@@ -143,7 +294,7 @@ final class PathFinderImpl implements PathFinder
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param current The current node index.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
@@ -153,106 +304,144 @@ final class PathFinderImpl implements PathFinder
                            int dtx,
                            int dty,
                            boolean ignoreRef,
-                           Node current,
+                           int current,
                            int maxDepth)
     {
-        int depth = maxDepth;
-        final Tile tile = map.getTile(current.getX(), current.getY());
-        final String category = mapPath.getCategory(tile);
+        int nextDepth = maxDepth;
+        final int cx = current % width;
+        final int cy = current / width;
+        final int category = mapPath.getCategoryIndex(cx, cy);
         for (int y = -1; y < 2; y++)
         {
             for (int x = -1; x < 2; x++)
             {
-                if (!(x == 0 && y == 0))
+                if (!(x == 0 && y == 0)
+                    && isMovementAllowed(mover, category, cx, cy, MOVEMENTS[(y + 1) * 3 + x + 1]))
                 {
-                    depth = check(category, depth, x, y, mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+                    final int xp = x + cx;
+                    final int yp = y + cy;
+
+                    if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
+                    {
+                        nextDepth = updateNeighbour(mover, dtx, dty, current, xp, yp, nextDepth);
+                    }
                 }
             }
         }
-        return depth;
+        return nextDepth;
     }
 
     /**
-     * Update the open and closed list to find the path.
+     * Update the current neighbor on search.
      * 
-     * @param category The current tile category.
-     * @param nextDepth The next depth value.
-     * @param x The current horizontal movement.
-     * @param y The current vertical movement.
      * @param mover The entity that will be moving along the path.
-     * @param stx The x coordinate of the start location.
-     * @param sty The y coordinate of the start location.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
-     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param current The current node index.
+     * @param xp The x coordinate of the neighbour location.
+     * @param yp The y coordinate of the neighbour location.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int check(String category,
-                      int nextDepth,
-                      int x,
-                      int y,
-                      Pathfindable mover,
-                      int stx,
-                      int sty,
-                      int dtx,
-                      int dty,
-                      boolean ignoreRef,
-                      Node current,
-                      int maxDepth)
+    private int updateNeighbour(Pathfindable mover, int dtx, int dty, int current, int xp, int yp, int maxDepth)
     {
-        final MovementTile movement = MovementTile.from(x, y);
-        if (mover.isMovementAllowed(category, movement))
-        {
-            final int xp = x + current.getX();
-            final int yp = y + current.getY();
+        final int neighbour = yp * width + xp;
+        final double nextStepCost = cost[current] + getMovementCost(mover, current % width, current / width);
 
-            if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
-            {
-                return updateNeighbour(mover, dtx, dty, current, xp, yp, maxDepth);
-            }
+        if (visited[neighbour] != generation)
+        {
+            visited[neighbour] = generation;
+            heuristics[neighbour] = getHeuristicCost(xp, yp, dtx, dty);
+            return open(neighbour, current, nextStepCost, maxDepth);
         }
-        return nextDepth;
+        if (nextStepCost < cost[neighbour])
+        {
+            closed[neighbour] = 0;
+            return open(neighbour, current, nextStepCost, maxDepth);
+        }
+        // Open nodes have no child yet, so they can be safely attached to an equivalent parent closer to target
+        if (Double.compare(nextStepCost, cost[neighbour]) == 0
+            && closed[neighbour] != generation
+            && heuristics[current] < heuristics[neighbour])
+        {
+            parent[neighbour] = current;
+            depth[neighbour] = depth[current] + 1;
+        }
+        return maxDepth;
     }
 
     /**
-     * Update the current neighbor on search.
+     * Add node to open list, or decrease its score if already opened.
      * 
-     * @param mover The entity that will be moving along the path.
-     * @param dtx The x coordinate of the destination location.
-     * @param dty The y coordinate of the destination location.
-     * @param current The current node.
-     * @param xp The x coordinate of the destination location.
-     * @param yp The y coordinate of the destination location.
+     * @param node The node index.
+     * @param from The parent node index.
+     * @param nodeCost The node cost.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int updateNeighbour(Pathfindable mover, int dtx, int dty, Node current, int xp, int yp, int maxDepth)
+    private int open(int node, int from, double nodeCost, int maxDepth)
     {
-        int nextDepth = maxDepth;
-        final double nextStepCost = current.getCost() + getMovementCost(mover, current.getX(), current.getY());
-        final Node neighbour = nodes[yp][xp];
+        cost[node] = nodeCost;
+        parent[node] = from;
+        depth[node] = depth[from] + 1;
+        open.push(node, nodeCost + heuristics[node], heuristics[node]);
 
-        if (nextStepCost < neighbour.getCost())
-        {
-            open.remove(neighbour);
-            closed.remove(neighbour);
-        }
-        if (Double.compare(nextStepCost, neighbour.getCost()) == 0
-            && neighbour.getParent() != null
-            && current.getHeuristic() < neighbour.getHeuristic())
-        {
-            neighbour.setParent(current);
-        }
-        if (!open.contains(neighbour) && !closed.contains(neighbour) || neighbour.getParent() == null)
+        return Math.max(maxDepth, depth[node]);
+    }
+
+    /**
+     * Create path, repairing parts blocked by objects.
+     * 
+     * @param mover The mover reference.
+     * @param tiles The tiles index from start to destination.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param margin The repair search depth added to the blocked part length.
+     * @return The path, <code>null</code> if a blocked part cannot be repaired.
+     */
+    Path createPath(Pathfindable mover, int[] tiles, boolean ignoreRef, int margin)
+    {
+        final int width = map.getInTileWidth();
+        final Path path = new Path();
+        path.appendStep(tiles[0] % width, tiles[0] / width);
+
+        int i = 1;
+        while (i < tiles.length)
         {
-            neighbour.setCost(nextStepCost);
-            neighbour.setHeuristic(getHeuristicCost(xp, yp, dtx, dty));
-            nextDepth = Math.max(maxDepth, neighbour.setParent(current));
-            open.add(neighbour);
+            final int tx = tiles[i] % width;
+            final int ty = tiles[i] / width;
+            if (ignoreRef || !isObjectBlocking(mapPath, mover, tx, ty))
+            {
+                path.appendStep(tx, ty);
+                i++;
+            }
+            else
+            {
+                int j = i + 1;
+                while (j < tiles.length - 1 && isObjectBlocking(mapPath, mover, tiles[j] % width, tiles[j] / width))
+                {
+                    j++;
+                }
+                final int from = tiles[i - 1];
+                final int to = tiles[j];
+                final Path repair = findPath(mover,
+                                             from % width,
+                                             from / width,
+                                             to % width,
+                                             to / width,
+                                             false,
+                                             j - i + margin);
+                if (repair == null)
+                {
+                    return null;
+                }
+                for (int k = 1; k < repair.getLength(); k++)
+                {
+                    path.appendStep(repair.getX(k), repair.getY(k));
+                }
+                i = j + 1;
+            }
         }
-        return nextDepth;
+        return path;
     }
 
     /*
@@ -296,35 +485,60 @@ final class PathFinderImpl implements PathFinder
             return findPathRecursive(mover, tile.getX(), tile.getY(), ignoreRef, tile);
         }
 
-        nodes[sty][stx].setCost(0);
-        nodes[sty][stx].setDepth(0);
-        closed.clear();
-        open.clear();
-        open.add(nodes[sty][stx]);
-        nodes[dty][dtx].setParent(null);
+        return findPath(mover, stx, sty, dtx, dty, ignoreRef, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find a path from the starting location provided to the destination location avoiding blockages and attempting to
+     * honor costs provided by the tile map. Destination is expected to be reachable (no closest tile search).
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param depthLimit The maximum depth to search, bounded by the finder max search distance.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef, int depthLimit)
+    {
+        prepareSearch();
+        costs.load(mapPath.getCategories(), mover);
+
+        final int start = sty * width + stx;
+        final int target = dty * width + dtx;
+
+        visited[start] = generation;
+        cost[start] = 0.0;
+        heuristics[start] = getHeuristicCost(stx, sty, dtx, dty);
+        depth[start] = 0;
+        parent[start] = NONE;
+        open.push(start, heuristics[start], heuristics[start]);
 
+        final int limit = Math.min(depthLimit, maxSearchDistance);
         int maxDepth = 0;
-        while (maxDepth < maxSearchDistance && !open.isEmpty())
+        while (maxDepth < limit && !open.isEmpty())
         {
-            final Node current = open.poll();
-            if (current == nodes[dty][dtx])
+            final int current = open.poll();
+            if (current == target)
             {
                 break;
             }
-            closed.add(current);
+            closed[current] = generation;
             maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
         }
-        if (nodes[dty][dtx].getParent() == null)
+        if (visited[target] != generation || parent[target] == NONE)
         {
             return null;
         }
         final Path path = new Path();
-        Node target = nodes[dty][dtx];
+        int node = target;
 
-        while (target != nodes[sty][stx])
+        while (node != start)
         {
-            path.prependStep(target.getX(), target.getY());
-            target = target.getParent();
+            path.prependStep(node % width, node / width);
+            node = parent[node];
         }
         path.prependStep(stx, sty);
 
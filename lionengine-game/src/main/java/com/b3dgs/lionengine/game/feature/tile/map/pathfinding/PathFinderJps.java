@@ -0,0 +1,422 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Jump Point Search path finder. On maps where the mover has the same cost on every passable category, with all
+ * movements allowed (see {@link CategoryProfile#isUniform()}), symmetric paths are pruned by jumping along straight
+ * and diagonal lines, only opening nodes with forced neighbours. Resulting paths have the same cost as A* ones, with
+ * far less open nodes.
+ * <p>
+ * Objects not ignored by the mover are obstacles as blocking tiles. As with the standard A* finder, a diagonal move
+ * may cut the corner between two blocking tiles. Searches for non uniform movers, or toward a blocked destination, are
+ * delegated to the standard A* finder.
+ * </p>
+ * <p>
+ * Jump points farther than the maximum search distance (in steps from start) are not opened.
+ * </p>
+ */
+final class PathFinderJps implements PathFinder
+{
+    /** No parent. */
+    private static final int NONE = -1;
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Standard finder, used on fallback. */
+    private final PathFinderImpl finder;
+    /** Mover costs. */
+    private final CategoryCosts costs = new CategoryCosts();
+    /** Open list. */
+    private final OpenList open = new OpenList(0);
+    /** Nodes cost from start. */
+    private double[] cost;
+    /** Nodes parent jump point. */
+    private int[] parent;
+    /** Nodes depth in steps from start. */
+    private int[] depth;
+    /** Nodes visited generation. */
+    private int[] visited;
+    /** Nodes closed generation. */
+    private int[] closed;
+    /** Current search generation. */
+    private int generation;
+    /** Map width in tile. */
+    private int width;
+    /** Map height in tile. */
+    private int height;
+    /** Maximum search distance in steps. */
+    private int maxSearchDistance;
+    /** Use map diagonal as maximum search distance. */
+    private final boolean diagonal;
+    /** Current mover profile. */
+    private CategoryProfile profile;
+    /** Current mover. */
+    private Pathfindable mover;
+    /** Current ignore reference flag. */
+    private boolean ignoreRef;
+    /** Current destination horizontal tile. */
+    private int dtx;
+    /** Current destination vertical tile. */
+    private int dty;
+
+    /**
+     * Create finder, using the map diagonal as maximum search distance.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderJps(MapTile map, Heuristic heuristic)
+    {
+        super();
+
+        this.map = map;
+        this.heuristic = heuristic;
+        mapPath = map.getFeature(MapTilePath.class);
+        finder = new PathFinderImpl(map, mapPath, heuristic);
+        diagonal = true;
+    }
+
+    /**
+     * Create finder.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderJps(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.map = map;
+        this.maxSearchDistance = maxSearchDistance;
+        this.heuristic = heuristic;
+        mapPath = map.getFeature(MapTilePath.class);
+        finder = new PathFinderImpl(map, maxSearchDistance, heuristic);
+        diagonal = false;
+    }
+
+    /**
+     * Ensure search arrays fit the current map size, and start a new search generation.
+     */
+    private void prepareSearch()
+    {
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        if (widthInTile != width || heightInTile != height)
+        {
+            width = widthInTile;
+            height = heightInTile;
+
+            final int size = width * height;
+            cost = new double[size];
+            parent = new int[size];
+            depth = new int[size];
+            visited = new int[size];
+            closed = new int[size];
+            open.ensureCapacity(size);
+            generation = 0;
+
+            if (diagonal)
+            {
+                maxSearchDistance = (int) Math.sqrt(width * width + height * (double) height);
+            }
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * Check if tile can be crossed by current mover.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if walkable, <code>false</code> else.
+     */
+    private boolean isWalkable(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return false;
+        }
+        final int category = mapPath.getCategoryIndex(tx, ty);
+        if (category < 0)
+        {
+            return !mapPath.isBlocked(mover, tx, ty, ignoreRef);
+        }
+        return profile.isPassable(category)
+               && (ignoreRef || !PathFinderImpl.isObjectBlocking(mapPath, mover, tx, ty));
+    }
+
+    /**
+     * Search jump point from tile in direction.
+     * 
+     * @param x The first horizontal tile.
+     * @param y The first vertical tile.
+     * @param dx The horizontal direction.
+     * @param dy The vertical direction.
+     * @return The jump point tile index, {@link #NONE} if none.
+     */
+    private int jump(int x, int y, int dx, int dy)
+    {
+        int cx = x;
+        int cy = y;
+        while (isWalkable(cx, cy))
+        {
+            if (cx == dtx && cy == dty || hasForcedNeighbour(cx, cy, dx, dy))
+            {
+                return cy * width + cx;
+            }
+            // Diagonal move is a jump point if a straight move from it finds one
+            if (dx != 0 && dy != 0 && (jump(cx + dx, cy, dx, 0) != NONE || jump(cx, cy + dy, 0, dy) != NONE))
+            {
+                return cy * width + cx;
+            }
+            cx += dx;
+            cy += dy;
+        }
+        return NONE;
+    }
+
+    /**
+     * Check if tile reached in direction has a forced neighbour (neighbour only reachable optimally through it).
+     * 
+     * @param x The horizontal tile.
+     * @param y The vertical tile.
+     * @param dx The horizontal direction.
+     * @param dy The vertical direction.
+     * @return <code>true</code> if has forced neighbour, <code>false</code> else.
+     */
+    private boolean hasForcedNeighbour(int x, int y, int dx, int dy)
+    {
+        if (dx != 0 && dy != 0)
+        {
+            return isWalkable(x - dx, y + dy) && !isWalkable(x - dx, y)
+                   || isWalkable(x + dx, y - dy) && !isWalkable(x, y - dy);
+        }
+        if (dx != 0)
+        {
+            return isWalkable(x + dx, y + 1) && !isWalkable(x, y + 1)
+                   || isWalkable(x + dx, y - 1) && !isWalkable(x, y - 1);
+        }
+        return isWalkable(x + 1, y + dy) && !isWalkable(x + 1, y) || isWalkable(x - 1, y + dy) && !isWalkable(x - 1, y);
+    }
+
+    /**
+     * Expand node by jumping in each pruned direction.
+     * 
+     * @param current The current tile index.
+     * @param stepCost The cost of one step.
+     */
+    private void expand(int current, double stepCost)
+    {
+        final int x = current % width;
+        final int y = current / width;
+        final int from = parent[current];
+        if (from == NONE)
+        {
+            for (int dy = -1; dy < 2; dy++)
+            {
+                for (int dx = -1; dx < 2; dx++)
+                {
+                    if (dx != 0 || dy != 0)
+                    {
+                        open(current, jump(x + dx, y + dy, dx, dy), stepCost);
+                    }
+                }
+            }
+            return;
+        }
+        final int dx = Integer.signum(x - from % width);
+        final int dy = Integer.signum(y - from / width);
+        if (dx != 0 && dy != 0)
+        {
+            open(current, jump(x, y + dy, 0, dy), stepCost);
+            open(current, jump(x + dx, y, dx, 0), stepCost);
+            open(current, jump(x + dx, y + dy, dx, dy), stepCost);
+            if (!isWalkable(x - dx, y))
+            {
+                open(current, jump(x - dx, y + dy, -dx, dy), stepCost);
+            }
+            if (!isWalkable(x, y - dy))
+            {
+                open(current, jump(x + dx, y - dy, dx, -dy), stepCost);
+            }
+        }
+        else if (dx != 0)
+        {
+            open(current, jump(x + dx, y, dx, 0), stepCost);
+            if (!isWalkable(x, y + 1))
+            {
+                open(current, jump(x + dx, y + 1, dx, 1), stepCost);
+            }
+            if (!isWalkable(x, y - 1))
+            {
+                open(current, jump(x + dx, y - 1, dx, -1), stepCost);
+            }
+        }
+        else
+        {
+            open(current, jump(x, y + dy, 0, dy), stepCost);
+            if (!isWalkable(x + 1, y))
+            {
+                open(current, jump(x + 1, y + dy, 1, dy), stepCost);
+            }
+            if (!isWalkable(x - 1, y))
+            {
+                open(current, jump(x - 1, y + dy, -1, dy), stepCost);
+            }
+        }
+    }
+
+    /**
+     * Open jump point if reached with a lower cost.
+     * 
+     * @param from The parent tile index.
+     * @param node The jump point tile index, {@link #NONE} if none.
+     * @param stepCost The cost of one step.
+     */
+    private void open(int from, int node, double stepCost)
+    {
+        if (node == NONE || closed[node] == generation)
+        {
+            return;
+        }
+        final int x = node % width;
+        final int y = node / width;
+        final int steps = depth[from] + Math.max(Math.abs(x - from % width), Math.abs(y - from / width));
+        if (steps > maxSearchDistance)
+        {
+            return;
+        }
+        final double nodeCost = steps * stepCost;
+        if (visited[node] != generation || nodeCost < cost[node])
+        {
+            visited[node] = generation;
+            cost[node] = nodeCost;
+            parent[node] = from;
+            depth[node] = steps;
+            final double estimate = heuristic.getCost(x, y, dtx, dty);
+            open.push(node, nodeCost + estimate, estimate);
+        }
+    }
+
+    /**
+     * Create path by joining jump points.
+     * 
+     * @param target The destination tile index.
+     * @return The created path.
+     */
+    private Path createPath(int target)
+    {
+        int count = 0;
+        for (int node = target; node != NONE; node = parent[node])
+        {
+            count++;
+        }
+        final int[] points = new int[count];
+        int index = count;
+        for (int node = target; node != NONE; node = parent[node])
+        {
+            index--;
+            points[index] = node;
+        }
+
+        final Path path = new Path();
+        int x = points[0] % width;
+        int y = points[0] / width;
+        path.appendStep(x, y);
+        for (int i = 1; i < count; i++)
+        {
+            final int nx = points[i] % width;
+            final int ny = points[i] / width;
+            final int dx = Integer.signum(nx - x);
+            final int dy = Integer.signum(ny - y);
+            while (x != nx || y != ny)
+            {
+                x += dx;
+                y += dy;
+                path.appendStep(x, y);
+            }
+        }
+        return path;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            return finder.findPath(mover, dtx, dty, ignoreRef);
+        }
+        costs.load(mapPath.getCategories(), mover);
+        final CategoryProfile current = costs.getProfile();
+        if (!current.isUniform())
+        {
+            return finder.findPath(mover, dtx, dty, ignoreRef);
+        }
+
+        prepareSearch();
+        profile = current;
+        this.mover = mover;
+        this.ignoreRef = ignoreRef;
+        this.dtx = dtx;
+        this.dty = dty;
+
+        final int start = mover.getInTileY() * width + mover.getInTileX();
+        final int target = dty * width + dtx;
+        visited[start] = generation;
+        cost[start] = 0.0;
+        parent[start] = NONE;
+        depth[start] = 0;
+        open.push(start, 0.0, 0.0);
+
+        final double stepCost = profile.getUniformCost();
+        Path path = null;
+        while (!open.isEmpty())
+        {
+            final int node = open.poll();
+            if (node == target)
+            {
+                path = node != start ? createPath(target) : null;
+                break;
+            }
+            closed[node] = generation;
+            expand(node, stepCost);
+        }
+        this.mover = null;
+        return path;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+
+/**
+ * Path requests scheduler, spreading searches over frames to keep frame time flat under mass orders.
+ * <p>
+ * When added to the {@link com.b3dgs.lionengine.game.feature.Services} before the {@link PathfindableModel}, their
+ * path searches are queued instead of being performed synchronously: first path (order given while not moving), and
+ * new path of a moving mover, requested on its next step point where it waits until found. Each
+ * {@link #update(double)} performs queued searches in order until the time budget is consumed (at least one search per
+ * update), and delivers results to the movers ({@link Pathfindable#isPathPending()}).
+ * </p>
+ * <p>
+ * Only one request is kept per mover: a new order while the previous one is still queued replaces its destination
+ * (keeping its queue position), and {@link Pathfindable#stopMoves()} cancels it.
+ * </p>
+ * <p>
+ * The budget is checked between searches only: a search is never suspended, as finders share their search buffers
+ * with synchronous searches ({@link Pathfindable#isPathAvailable(int, int)}). An update may then exceed the budget by
+ * one search. Long requests must be bounded by the finder itself, with a maximum search distance
+ * ({@link Astar#createPathFinder}), or cheapened by a finder caching search work
+ * ({@link Astar#createPathFinderHierarchical}, {@link Astar#createPathFinderFlowField}).
+ * </p>
+ */
+public final class PathScheduler implements Updatable
+{
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1_000_000.0;
+
+    /** Pending requests by mover, in request order. */
+    private final Map<PathfindableModel, Request> requests = new LinkedHashMap<>();
+    /** Time budget per update in nano seconds. */
+    private final long budget;
+
+    /**
+     * Create scheduler.
+     * 
+     * @param budget The time budget per update in milli seconds (strictly positive), checked after each search.
+     * @throws LionEngineException If invalid budget.
+     */
+    public PathScheduler(double budget)
+    {
+        super();
+
+        Check.superiorStrict(budget, 0.0);
+
+        this.budget = (long) (budget * NANO_TO_MILLI);
+    }
+
+    /**
+     * Cancel pending request of mover if has.
+     * 
+     * @param mover The mover reference.
+     */
+    public void cancel(Pathfindable mover)
+    {
+        requests.remove(mover);
+    }
+
+    /**
+     * Cancel all pending requests.
+     */
+    public void clear()
+    {
+        requests.clear();
+    }
+
+    /**
+     * Check if mover has a pending request.
+     * 
+     * @param mover The mover reference.
+     * @return <code>true</code> if pending, <code>false</code> else.
+     */
+    public boolean isPending(Pathfindable mover)
+    {
+        return requests.containsKey(mover);
+    }
+
+    /**
+     * Get the pending requests number.
+     * 
+     * @return The pending requests number.
+     */
+    public int getPending()
+    {
+        return requests.size();
+    }
+
+    /**
+     * Queue path request, replacing the pending one of mover if has.
+     * 
+     * @param mover The mover reference.
+     * @param finder The finder to use.
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     */
+    void request(PathfindableModel mover, PathFinder finder, int dtx, int dty)
+    {
+        final Request request = requests.get(mover);
+        if (request == null)
+        {
+            requests.put(mover, new Request(finder, dtx, dty));
+        }
+        else
+        {
+            request.set(finder, dtx, dty);
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        final long start = System.nanoTime();
+        while (!requests.isEmpty())
+        {
+            // Polled one by one, as delivery may queue a new request
+            final Iterator<Map.Entry<PathfindableModel, Request>> iterator = requests.entrySet().iterator();
+            final Map.Entry<PathfindableModel, Request> entry = iterator.next();
+            iterator.remove();
+
+            final PathfindableModel mover = entry.getKey();
+            final Request request = entry.getValue();
+            final Path path = request.finder.findPath(mover, request.dtx, request.dty, false);
+            mover.onPathFound(request.dtx, request.dty, path);
+
+            if (System.nanoTime() - start >= budget)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Path request.
+     */
+    private static final class Request
+    {
+        /** Finder to use. */
+        private PathFinder finder;
+        /** Horizontal destination tile. */
+        private int dtx;
+        /** Vertical destination tile. */
+        private int dty;
+
+        /**
+         * Create request.
+         * 
+         * @param finder The finder to use.
+         * @param dtx The horizontal destination tile.
+         * @param dty The vertical destination tile.
+         */
+        Request(PathFinder finder, int dtx, int dty)
+        {
+            super();
+
+            set(finder, dtx, dty);
+        }
+
+        /**
+         * Set request data.
+         * 
+         * @param finder The finder to use.
+         * @param dtx The horizontal destination tile.
+         * @param dty The vertical destination tile.
+         */
+        void set(PathFinder finder, int dtx, int dty)
+        {
+            this.finder = finder;
+            this.dtx = dtx;
+            this.dty = dty;
+        }
+    }
+}
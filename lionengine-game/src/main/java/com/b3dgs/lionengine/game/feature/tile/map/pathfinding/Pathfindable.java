@@ -89,7 +89,8 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      * Assign a specified location. Will move automatically until reach it after this call.
      * 
      * @param localizable The destination location.
-     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     * @return <code>true</code> if path found and started, <code>false</code> if not reachable or if search is pending
+     *         ({@link #isPathPending()}).
      */
     boolean setDestination(Localizable localizable);
 
@@ -97,7 +98,8 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      * Assign a specified location. Will move automatically until reach it after this call.
      * 
      * @param tiled The destination location in tile.
-     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     * @return <code>true</code> if path found and started, <code>false</code> if not reachable or if search is pending
+     *         ({@link #isPathPending()}).
      */
     boolean setDestination(Tiled tiled);
 
@@ -106,7 +108,8 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      * 
      * @param tx The horizontal location in tile.
      * @param ty The vertical location in tile.
-     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     * @return <code>true</code> if path found and started, <code>false</code> if not reachable or if search is pending
+     *         ({@link #isPathPending()}).
      */
     boolean setDestination(int tx, int ty);
 
@@ -195,6 +198,17 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      */
     boolean isBlocking(String category);
 
+    /**
+     * Get the key of the categories configuration (costs, blocking and allowed movements). Movers sharing the same key
+     * must have the same configuration, allowing path finders to compile it once for all of them.
+     * 
+     * @return The categories configuration key, the mover itself by default.
+     */
+    default Object getCategoriesKey()
+    {
+        return this;
+    }
+
     /**
      * Check if has reached destination.
      * 
@@ -216,4 +230,14 @@ public interface Pathfindable extends Tiled, Orientable, Updatable, Renderable,
      * @return <code>true</code> if moving, <code>false</code> else.
      */
     boolean isMoving();
+
+    /**
+     * Check if a path search has been requested but not performed yet: queued to {@link PathScheduler}, or new path
+     * of a moving mover, searched on next step point. A found first path is notified with
+     * {@link PathfindableListener#notifyStartMove(Pathfindable)}, a moving mover without new path stops with
+     * {@link PathfindableListener#notifyArrived(Pathfindable)}.
+     * 
+     * @return <code>true</code> if pending, <code>false</code> else.
+     */
+    boolean isPathPending();
 }
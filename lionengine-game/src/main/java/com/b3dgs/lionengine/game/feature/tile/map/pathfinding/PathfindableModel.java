@@ -85,6 +85,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Path scheduler reference (<code>null</code> if none). */
+    private final PathScheduler scheduler;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Orientable model. */
@@ -148,13 +150,22 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      * <li>{@link Viewer}</li>
      * </ul>
      * <p>
+     * If the {@link Services} provide a {@link PathFinder}, it will be used, else the one shared by
+     * {@link MapTilePath#getPathFinder()}. Several {@link PathFinder} services are ambiguous and fail.
+     * </p>
+     * <p>
+     * If the {@link Services} provide a {@link PathScheduler}, path searches are queued to it instead of being
+     * performed by {@link #setDestination(int, int)} (first path) or on next step point (new path while moving, the
+     * mover waiting on the step point until found).
+     * </p>
+     * <p>
      * If the {@link Featurable} is a {@link PathfindableListener}, it will automatically
      * {@link #addListener(PathfindableListener)} on it.
      * </p>
      * 
      * @param services The services reference (must not be <code>null</code>).
      * @param setup The setup reference (must not be <code>null</code>).
-     * @throws LionEngineException If invalid arguments.
+     * @throws LionEngineException If invalid arguments or ambiguous {@link PathFinder} service.
      */
     public PathfindableModel(Services services, Setup setup)
     {
@@ -162,10 +173,51 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
 
         categories = PathfindableConfig.imports(setup);
         orientable = new OrientableModel(services, setup);
+        pathfinder = services.getOptional(PathFinder.class).orElseGet(mapPath::getPathFinder);
+        scheduler = services.getOptional(PathScheduler.class).orElse(null);
+    }
+
+    /**
+     * Called by the {@link PathScheduler} when a queued path search has been performed.
+     * 
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     * @param found The path found, <code>null</code> if none.
+     */
+    void onPathFound(int tx, int ty, Path found)
+    {
+        if (path == null)
+        {
+            if (found != null)
+            {
+                path = found;
+                startPath(tx, ty);
+            }
+        }
+        else
+        {
+            prepareDestination(tx, ty);
+            setPath(found);
+            checkPathStopped();
+        }
+    }
+
+    /**
+     * Start first path.
+     * 
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     */
+    private void startPath(int tx, int ty)
+    {
+        currentStep = 0;
+        pathFoundChanged = false;
+        prepareDestination(tx, ty);
 
-        final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
-                                          + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).notifyStartMove(this);
+        }
     }
 
     /**
@@ -402,31 +454,56 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     }
 
     /**
-     * Check if pathfinder changed.
+     * Check if pathfinder changed. New path search is queued if has scheduler, else performed.
      */
     private void checkPathfinderChanges()
     {
         if (pathFoundChanged)
         {
-            if (path != null)
-            {
-                path.clear();
-            }
-            path = pathfinder.findPath(this, destX, destY, false);
             pathFoundChanged = false;
-            currentStep = 0;
-            skip = false;
-            reCheckRef = false;
-
-            if (path == null)
+            if (scheduler != null)
             {
-                pathStoppedRequested = true;
+                scheduler.request(this, pathfinder, destX, destY);
             }
-            else if (currentStep < getMaxStep())
+            else
             {
-                removeObjectId(path.getX(currentStep), path.getY(currentStep));
+                setPath(pathfinder.findPath(this, destX, destY, false));
             }
         }
+        checkPathStopped();
+    }
+
+    /**
+     * Replace current path by the new one, starting from current step point.
+     * 
+     * @param found The new path, <code>null</code> to stop.
+     */
+    private void setPath(Path found)
+    {
+        if (path != null)
+        {
+            path.clear();
+        }
+        path = found;
+        currentStep = 0;
+        skip = false;
+        reCheckRef = false;
+
+        if (path == null)
+        {
+            pathStoppedRequested = true;
+        }
+        else if (currentStep < getMaxStep())
+        {
+            removeObjectId(path.getX(currentStep), path.getY(currentStep));
+        }
+    }
+
+    /**
+     * Stop if requested.
+     */
+    private void checkPathStopped()
+    {
         if (pathStoppedRequested)
         {
             pathStopped = true;
@@ -541,6 +618,16 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return 0;
     }
 
+    /**
+     * Check if a path search is queued to scheduler.
+     * 
+     * @return <code>true</code> if queued, <code>false</code> else.
+     */
+    private boolean isQueued()
+    {
+        return scheduler != null && scheduler.isPending(this);
+    }
+
     /*
      * Pathfindable
      */
@@ -596,6 +683,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     @Override
     public void stopMoves()
     {
+        if (scheduler != null)
+        {
+            scheduler.cancel(this);
+        }
         pathStoppedRequested = true;
     }
 
@@ -613,7 +704,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             reCheckRef = true;
             return;
         }
-        if (path != null)
+        // Wait on step point until queued path is found
+        if (path != null && !isQueued())
         {
             // Continue until max step
             if (currentStep < getMaxStep())
@@ -710,24 +802,34 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     {
         if (getInTileX() != tx || getInTileY() != ty)
         {
+            // New first path queued, result notified on start move
+            if (path == null && scheduler != null)
+            {
+                scheduler.request(this, pathfinder, tx, ty);
+                return false;
+            }
             // New first path, when object is not moving
             // CHECKSTYLE IGNORE LINE: InnerAssignment
             if (path == null && (path = pathfinder.findPath(this, tx, ty, false)) != null)
             {
-                currentStep = 0;
-                pathFoundChanged = false;
-                prepareDestination(tx, ty);
-
-                for (int i = 0; i < listenable.size(); i++)
-                {
-                    listenable.get(i).notifyStartMove(this);
-                }
+                startPath(tx, ty);
                 return true;
             }
 
             // Next path, while object is moving, change takes effect when the object reached a step point
             prepareDestination(tx, ty);
-            pathFoundChanged = true;
+            if (isQueued())
+            {
+                scheduler.request(this, pathfinder, tx, ty);
+            }
+            else
+            {
+                pathFoundChanged = true;
+            }
+        }
+        else if (scheduler != null)
+        {
+            scheduler.cancel(this);
         }
         return false;
     }
@@ -861,6 +963,19 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Categories are imported from the setup, so movers created from the same setup share the same key. Sub classes
+     * changing the categories configuration must override it.
+     * </p>
+     */
+    @Override
+    public Object getCategoriesKey()
+    {
+        return setup;
+    }
+
     @Override
     public boolean isDestinationReached()
     {
@@ -879,6 +994,12 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return moving;
     }
 
+    @Override
+    public boolean isPathPending()
+    {
+        return path != null && pathFoundChanged || isQueued();
+    }
+
     /*
      * Recyclable
      */
@@ -897,6 +1018,10 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         pathFoundChanged = false;
         currentStep = 0;
         path = null;
+        if (scheduler != null)
+        {
+            scheduler.cancel(this);
+        }
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
@@ -16,10 +16,14 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.persister;
 
+import java.io.IOException;
+
 import com.b3dgs.lionengine.Listenable;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Persistable;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.io.FileReading;
 
 /**
  * Handle the map persistence by providing saving and loading functions.
@@ -27,5 +31,17 @@ import com.b3dgs.lionengine.game.feature.FeatureInterface;
 @FeatureInterface
 public interface MapTilePersister extends Feature, Persistable, Listenable<MapTilePersisterListener>
 {
-    // Marker
+    /**
+     * Load map from media. Read with {@link #load(FileReading)} by default.
+     * 
+     * @param media The map media (must not be <code>null</code>).
+     * @throws IOException If error on reading.
+     */
+    default void load(Media media) throws IOException
+    {
+        try (FileReading input = new FileReading(media))
+        {
+            load(input);
+        }
+    }
 }
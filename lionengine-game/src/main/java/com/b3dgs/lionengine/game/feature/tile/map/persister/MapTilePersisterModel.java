@@ -16,11 +16,25 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.persister;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.ListenableModel;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.Featurable;
@@ -32,14 +46,46 @@ import com.b3dgs.lionengine.io.FileWriting;
 
 /**
  * Handle the map persistence by providing saving and loading functions.
+ * <p>
+ * Map is saved in legacy format by default (see {@link #save(FileWriting)}), or in blocks format (see
+ * {@link #MapTilePersisterModel(boolean)}). Both formats are loaded.
+ * </p>
+ * <p>
+ * Blocks format stores tile numbers only, without calling {@link #saveTile(FileWriting, Tile)} and
+ * {@link #loadTile(FileReading, int)}. It is so rejected when one of them is overridden.
+ * </p>
  */
 public class MapTilePersisterModel extends FeatureAbstract implements MapTilePersister
 {
     /** Number of horizontal tiles to make a bloc. Used to reduce saved map file size. */
     protected static final int BLOC_SIZE = Constant.UNSIGNED_BYTE;
+    /** Blocks format marker (legacy format starts with a boolean). */
+    static final byte FORMAT_BLOCKS = 2;
+    /** Tiles number per block target. */
+    private static final int BLOCK_TILES = 16_384;
+    /** Deflate buffer size. */
+    private static final int BUFFER_SIZE = 8_192;
+    /** No sheets configuration length. */
+    private static final int NO_CONFIG = -1;
+    /** Header integers (configuration length, tile size, map size, block lines, blocks count). */
+    private static final int HEADER_INTEGERS = 7;
+    /** Variable length integer value bits. */
+    private static final int VARINT_BITS = 7;
+    /** Variable length integer value mask. */
+    private static final int VARINT_MASK = 0x7F;
+    /** Variable length integer continuation flag. */
+    private static final int VARINT_MORE = 0x80;
+    /** Invalid block error. */
+    private static final String ERROR_BLOCK = "Invalid map block: ";
+    /** Blocks format with overridden tile hooks error. */
+    private static final String ERROR_HOOKS = "Blocks format does not support overridden saveTile or loadTile: ";
 
     /** Listeners. */
     private final ListenableModel<MapTilePersisterListener> listenable = new ListenableModel<>();
+    /** Save in blocks format. */
+    private final boolean blocks;
+    /** Tile hooks overridden. */
+    private final boolean hooked;
 
     /** Map surface reference. */
     private MapTileSurface map;
@@ -54,12 +100,383 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
      * </ul>
      */
     public MapTilePersisterModel()
+    {
+        this(false);
+    }
+
+    /**
+     * Create feature.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link MapTileSurface}</li>
+     * </ul>
+     * 
+     * @param blocks <code>true</code> to save in compressed blocks format, <code>false</code> to save in legacy
+     *            format (see {@link #save(FileWriting)}).
+     * @throws LionEngineException If blocks format with overridden tile hooks.
+     */
+    public MapTilePersisterModel(boolean blocks)
     {
         super();
+
+        hooked = isHooked(getClass());
+        if (blocks && hooked)
+        {
+            throw new LionEngineException(ERROR_HOOKS + getClass().getName());
+        }
+        this.blocks = blocks;
+    }
+
+    /**
+     * Check if {@link #saveTile(FileWriting, Tile)} or {@link #loadTile(FileReading, int)} is overridden.
+     * 
+     * @param type The persister type.
+     * @return <code>true</code> if a tile hook is overridden, <code>false</code> else.
+     */
+    private static boolean isHooked(Class<?> type)
+    {
+        Class<?> current = type;
+        while (current != MapTilePersisterModel.class)
+        {
+            if (isDeclared(current, "saveTile", FileWriting.class, Tile.class)
+                || isDeclared(current, "loadTile", FileReading.class, int.class))
+            {
+                return true;
+            }
+            current = current.getSuperclass();
+        }
+        return false;
+    }
+
+    /**
+     * Check if method is declared by type.
+     * 
+     * @param type The type to check.
+     * @param name The method name.
+     * @param params The method parameters types.
+     * @return <code>true</code> if declared, <code>false</code> else.
+     */
+    private static boolean isDeclared(Class<?> type, String name, Class<?>... params)
+    {
+        try
+        {
+            type.getDeclaredMethod(name, params);
+            return true;
+        }
+        catch (final NoSuchMethodException exception)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Write a variable length unsigned integer, 7 bits per byte, least significant first.
+     * 
+     * @param out The output buffer.
+     * @param value The value to write (must be positive or equal to 0).
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value)
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0)
+        {
+            out.write(remaining & VARINT_MASK | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.write(remaining);
+    }
+
+    /**
+     * Read a variable length unsigned integer.
+     * 
+     * @param raw The raw data.
+     * @param cursor The read cursor, updated after value.
+     * @return The value read.
+     * @throws LionEngineException If truncated data.
+     */
+    private static int readVarint(byte[] raw, int[] cursor)
+    {
+        int value = 0;
+        int shift = 0;
+        int current;
+        do
+        {
+            if (cursor[0] >= raw.length)
+            {
+                throw new LionEngineException(ERROR_BLOCK + "truncated");
+            }
+            current = raw[cursor[0]];
+            cursor[0]++;
+            value |= (current & VARINT_MASK) << shift;
+            shift += VARINT_BITS;
+        }
+        while ((current & VARINT_MORE) != 0);
+
+        return value;
+    }
+
+    /**
+     * Decode a block.
+     * 
+     * @param block The deflated block data.
+     * @param rawLength The inflated block length.
+     * @param tiles The block tiles number.
+     * @return The block tiles number plus one (0 if no tile), row by row.
+     * @throws LionEngineException If invalid block.
+     */
+    private static int[] decode(ByteBuffer block, int rawLength, int tiles)
+    {
+        final byte[] raw = new byte[rawLength];
+        final Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(block);
+            int read = 0;
+            while (read < rawLength)
+            {
+                final int count = inflater.inflate(raw, read, rawLength - read);
+                if (count == 0 && (inflater.finished() || inflater.needsInput()))
+                {
+                    throw new LionEngineException(ERROR_BLOCK + "truncated");
+                }
+                read += count;
+            }
+        }
+        catch (final DataFormatException exception)
+        {
+            throw new LionEngineException(exception, ERROR_BLOCK + exception.getMessage());
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        final int[] numbers = new int[tiles];
+        final int[] cursor = new int[1];
+        int index = 0;
+        while (cursor[0] < rawLength)
+        {
+            final int run = readVarint(raw, cursor);
+            final int value = readVarint(raw, cursor);
+            if (run > tiles - index)
+            {
+                throw new LionEngineException(ERROR_BLOCK + "too many tiles");
+            }
+            Arrays.fill(numbers, index, index + run, value);
+            index += run;
+        }
+        return numbers;
+    }
+
+    /**
+     * Encode tiles lines as runs of same number (run length, number plus one).
+     * 
+     * @param out The output buffer.
+     * @param startY The first line.
+     * @param endY The last line excluded.
+     * @param widthInTile The map width in tile.
+     */
+    private void encode(ByteArrayOutputStream out, int startY, int endY, int widthInTile)
+    {
+        int previous = 0;
+        int run = 0;
+        for (int ty = startY; ty < endY; ty++)
+        {
+            for (int tx = 0; tx < widthInTile; tx++)
+            {
+                final int value = map.getTileNumber(tx, ty) + 1;
+                if (run > 0 && value != previous)
+                {
+                    writeVarint(out, run);
+                    writeVarint(out, previous);
+                    run = 0;
+                }
+                previous = value;
+                run++;
+            }
+        }
+        if (run > 0)
+        {
+            writeVarint(out, run);
+            writeVarint(out, previous);
+        }
+    }
+
+    /**
+     * Save map in blocks format.
+     * 
+     * @param output The output level file.
+     * @throws IOException If error on writing.
+     */
+    private void saveBlocks(FileWriting output) throws IOException
+    {
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        final int lines = Math.max(1, BLOCK_TILES / Math.max(1, widthInTile));
+        final int count = (int) Math.ceil(heightInTile / (double) lines);
+
+        final int[] raws = new int[count];
+        final byte[][] data = new byte[count][];
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final Deflater deflater = new Deflater();
+        try
+        {
+            for (int i = 0; i < count; i++)
+            {
+                raw.reset();
+                encode(raw, i * lines, Math.min(heightInTile, (i + 1) * lines), widthInTile);
+                raws[i] = raw.size();
+
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                deflated.reset();
+                while (!deflater.finished())
+                {
+                    deflated.write(buffer, 0, deflater.deflate(buffer));
+                }
+                data[i] = deflated.toByteArray();
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        final byte[] config;
+        if (map.getMedia() != null)
+        {
+            config = map.getMedia().getPath().getBytes(StandardCharsets.UTF_8);
+        }
+        else
+        {
+            config = new byte[0];
+        }
+        int length = Integer.BYTES * (HEADER_INTEGERS + count * 2) + config.length;
+        for (final byte[] block : data)
+        {
+            length += block.length;
+        }
+
+        output.writeByte(FORMAT_BLOCKS);
+        output.writeInteger(length);
+        if (map.getMedia() != null)
+        {
+            output.writeInteger(config.length);
+            output.writeBytes(config, 0, config.length);
+        }
+        else
+        {
+            output.writeInteger(NO_CONFIG);
+        }
+        output.writeInteger(map.getTileWidth());
+        output.writeInteger(map.getTileHeight());
+        output.writeInteger(widthInTile);
+        output.writeInteger(heightInTile);
+        output.writeInteger(lines);
+        output.writeInteger(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            output.writeInteger(raws[i]);
+            output.writeInteger(data[i].length);
+        }
+        for (final byte[] block : data)
+        {
+            output.writeBytes(block, 0, block.length);
+        }
     }
 
     /**
-     * Save tile. Data are saved this way:
+     * Load map in blocks format. Blocks are decoded in parallel.
+     * 
+     * @param buffer The map data, after format marker and length.
+     * @throws LionEngineException If invalid data or overridden tile hooks.
+     */
+    private void loadBlocks(ByteBuffer buffer)
+    {
+        if (hooked)
+        {
+            throw new LionEngineException(ERROR_HOOKS + getClass().getName());
+        }
+        final int configLength = buffer.getInt();
+        if (configLength != NO_CONFIG)
+        {
+            final byte[] config = new byte[configLength];
+            buffer.get(config);
+            map.loadSheets(Medias.create(new String(config, StandardCharsets.UTF_8)));
+        }
+        map.create(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+
+        final int count = listenable.size();
+        for (int i = 0; i < count; i++)
+        {
+            listenable.get(i).notifyMapLoadStart();
+        }
+
+        final int widthInTile = map.getInTileWidth();
+        final int heightInTile = map.getInTileHeight();
+        final int lines = buffer.getInt();
+        final int blocksCount = buffer.getInt();
+        final int[] raws = new int[blocksCount];
+        final int[] lengths = new int[blocksCount];
+        final int[] tiles = new int[blocksCount];
+        final ByteBuffer[] data = new ByteBuffer[blocksCount];
+        for (int i = 0; i < blocksCount; i++)
+        {
+            raws[i] = buffer.getInt();
+            lengths[i] = buffer.getInt();
+            tiles[i] = widthInTile * (Math.min(heightInTile, (i + 1) * lines) - i * lines);
+        }
+        int offset = buffer.position();
+        for (int i = 0; i < blocksCount; i++)
+        {
+            if (lengths[i] < 0 || lengths[i] > buffer.limit() - offset)
+            {
+                throw new LionEngineException(ERROR_BLOCK + "truncated");
+            }
+            final ByteBuffer block = buffer.duplicate();
+            block.position(offset);
+            block.limit(offset + lengths[i]);
+            data[i] = block.slice();
+            offset += lengths[i];
+        }
+
+        final int[][] numbers = new int[blocksCount][];
+        IntStream.range(0, blocksCount).parallel().forEach(i -> numbers[i] = decode(data[i], raws[i], tiles[i]));
+
+        map.beginEdit();
+        try
+        {
+            for (int i = 0; i < blocksCount; i++)
+            {
+                for (int index = 0; index < numbers[i].length; index++)
+                {
+                    final int value = numbers[i][index];
+                    if (value > 0)
+                    {
+                        map.setTile(index % widthInTile, i * lines + index / widthInTile, value - 1);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            map.commitEdit();
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            listenable.get(i).notifyMapLoaded();
+        }
+    }
+
+    /**
+     * Save tile, in legacy format only. Data are saved this way:
      * 
      * <pre>
      * (integer) index number
@@ -79,7 +496,7 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
     }
 
     /**
-     * Load tile. Data are loaded this way:
+     * Load tile, in legacy format only. Data are loaded this way:
      * 
      * <pre>
      * (integer) index number
@@ -160,6 +577,37 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
         map = provider.getFeature(MapTileSurface.class);
     }
 
+    /**
+     * Load map from media, memory mapped if it is a file in blocks format.
+     * 
+     * @param media The map media (must not be <code>null</code>).
+     * @throws IOException If error on reading.
+     */
+    @Override
+    public void load(Media media) throws IOException
+    {
+        Check.notNull(media);
+
+        final File file = media.getFile();
+        if (file.isFile())
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0L, channel.size());
+                if (buffer.limit() > Byte.BYTES + Integer.BYTES && buffer.get() == FORMAT_BLOCKS)
+                {
+                    buffer.getInt();
+                    loadBlocks(buffer);
+                    return;
+                }
+            }
+        }
+        try (FileReading input = new FileReading(media))
+        {
+            load(input);
+        }
+    }
+
     @Override
     public void addListener(MapTilePersisterListener listener)
     {
@@ -187,6 +635,27 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
      *   for each tile in this bloc
      *     call tile.save(file)
      * </pre>
+     * <p>
+     * In blocks format, map is saved by blocks of lines, each block being deflated separately:
+     * </p>
+     * 
+     * <pre>
+     * <code>(byte)</code> {@value #FORMAT_BLOCKS}
+     * <code>(int)</code> following data length in bytes
+     * <code>(int)</code> sheets configuration file length in bytes, -1 if none
+     * <code>(bytes)</code> sheets configuration file (UTF-8)
+     * <code>(int)</code> tile width
+     * <code>(int)</code> tile height
+     * <code>(int)</code> width in tiles
+     * <code>(int)</code> height in tiles
+     * <code>(int)</code> lines per block
+     * <code>(int)</code> number of blocks
+     * for each block
+     *   <code>(int)</code> inflated length
+     *   <code>(int)</code> deflated length
+     * for each block
+     *   <code>(bytes)</code> deflated runs of (varint) count, (varint) tile number + 1 (0 if none), line by line
+     * </pre>
      * 
      * @param output The output level file.
      * @throws IOException If error on writing.
@@ -196,6 +665,12 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
     {
         Check.notNull(output);
 
+        if (blocks)
+        {
+            saveBlocks(output);
+            return;
+        }
+
         final int widthInTile = map.getInTileWidth();
 
         // Header
@@ -244,6 +719,9 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
      *     call load(file)
      *     call setTile(...) to update map with this new tile
      * </pre>
+     * <p>
+     * Blocks format is also supported (see {@link #save(FileWriting)}).
+     * </p>
      * 
      * @param input The input level file.
      * @throws IOException If error on reading.
@@ -253,7 +731,15 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
     {
         Check.notNull(input);
 
-        if (input.readBoolean())
+        final byte format = input.readByte();
+        if (format == FORMAT_BLOCKS)
+        {
+            final byte[] data = new byte[input.readInteger()];
+            input.readBytes(data);
+            loadBlocks(ByteBuffer.wrap(data));
+            return;
+        }
+        if (format != 0)
         {
             map.loadSheets(Medias.create(input.readString()));
         }
@@ -266,14 +752,22 @@ public class MapTilePersisterModel extends FeatureAbstract implements MapTilePer
         }
 
         final int t = input.readShort();
-        for (int v = 0; v < t; v++)
+        map.beginEdit();
+        try
         {
-            final int n = input.readShort();
-            for (int h = 0; h < n; h++)
+            for (int v = 0; v < t; v++)
             {
-                loadTile(input, v);
+                final int n = input.readShort();
+                for (int h = 0; h < n; h++)
+                {
+                    loadTile(input, v);
+                }
             }
         }
+        finally
+        {
+            map.commitEdit();
+        }
 
         for (int i = 0; i < count; i++)
         {
@@ -29,6 +29,7 @@ import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeatureAbstract;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
@@ -37,6 +38,9 @@ import com.b3dgs.lionengine.graphic.raster.RasterImage;
 
 /**
  * Rastered map tile implementation.
+ * <p>
+ * Rendering is {@link #isCacheable()}: loading or changing rasters invalidates the map {@link MapTileViewer} if has.
+ * </p>
  */
 public class MapTileRasteredModel extends FeatureAbstract implements MapTileRastered
 {
@@ -84,6 +88,17 @@ public class MapTileRasteredModel extends FeatureAbstract implements MapTileRast
         });
     }
 
+    /**
+     * Invalidate all map viewer rendering if has, as rasters changed.
+     */
+    private void invalidate()
+    {
+        if (map != null && hasFeature(MapTileViewer.class))
+        {
+            getFeature(MapTileViewer.class).invalidate();
+        }
+    }
+
     /*
      * MapTileRastered
      */
@@ -121,6 +136,7 @@ public class MapTileRasteredModel extends FeatureAbstract implements MapTileRast
                 count++;
             }
         }
+        invalidate();
         return true;
     }
 
@@ -133,6 +149,12 @@ public class MapTileRasteredModel extends FeatureAbstract implements MapTileRast
         tileRaster.render(g);
     }
 
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
+
     @Override
     public int getRasterIndex(int ty)
     {
@@ -153,5 +175,6 @@ public class MapTileRasteredModel extends FeatureAbstract implements MapTileRast
         this.raster = raster;
         this.linesPerRaster = linesPerRaster;
         this.rasterLineOffset = rasterLineOffset;
+        invalidate();
     }
 }
@@ -50,12 +50,20 @@ public class PrefMapFill extends PrefAbstract
     @Override
     public void apply(MapTile map)
     {
-        for (int tx = 0; tx < map.getInTileWidth(); tx++)
+        map.beginEdit();
+        try
         {
-            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
             {
-                map.setTile(tx, ty, number);
+                for (int ty = 0; ty < map.getInTileHeight(); ty++)
+                {
+                    map.setTile(tx, ty, number);
+                }
             }
         }
+        finally
+        {
+            map.commitEdit();
+        }
     }
 }
@@ -78,28 +78,36 @@ public class PrefMapRegion extends PrefAbstract
         final int ey = UtilMath.clamp(area.getInTileHeight(), 0, map.getInTileHeight() - 1);
 
         int remaining = count;
-        while (remaining > 0)
+        map.beginEdit();
+        try
         {
-            final int tx = UtilRandom.getRandomInteger(sx, ex);
-            final int ty = UtilRandom.getRandomInteger(sy, ey);
+            while (remaining > 0)
+            {
+                final int tx = UtilRandom.getRandomInteger(sx, ex);
+                final int ty = UtilRandom.getRandomInteger(sy, ey);
 
-            final int size = UtilRandom.getRandomInteger(maxSize);
-            final int halfBottom = (int) Math.floor(size / 2.0);
-            final int halfTop = (int) Math.ceil(size / 2.0);
+                final int size = UtilRandom.getRandomInteger(maxSize);
+                final int halfBottom = (int) Math.floor(size / 2.0);
+                final int halfTop = (int) Math.ceil(size / 2.0);
 
-            for (int ox = -halfBottom; ox < halfTop; ox++)
-            {
-                for (int oy = -halfBottom; oy < halfTop; oy++)
+                for (int ox = -halfBottom; ox < halfTop; ox++)
                 {
-                    final int ntx = UtilMath.clamp(tx + ox, sx, ex);
-                    final int nty = UtilMath.clamp(ty + oy, sy, ey);
-                    final Tile tile = new TileGame(number, ntx, nty, map.getTileWidth(), map.getTileHeight());
-                    map.setTile(tile.getInTileX(), tile.getInTileY(), number);
-                    mapTransition.resolve(tile);
+                    for (int oy = -halfBottom; oy < halfTop; oy++)
+                    {
+                        final int ntx = UtilMath.clamp(tx + ox, sx, ex);
+                        final int nty = UtilMath.clamp(ty + oy, sy, ey);
+                        final Tile tile = new TileGame(number, ntx, nty, map.getTileWidth(), map.getTileHeight());
+                        map.setTile(tile.getInTileX(), tile.getInTileY(), number);
+                        mapTransition.resolve(tile);
+                    }
                 }
-            }
 
-            remaining--;
+                remaining--;
+            }
+        }
+        finally
+        {
+            map.commitEdit();
         }
     }
 }
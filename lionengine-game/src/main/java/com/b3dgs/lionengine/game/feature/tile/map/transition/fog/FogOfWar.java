@@ -25,6 +25,7 @@ import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer;
 import com.b3dgs.lionengine.geom.Area;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
@@ -39,6 +40,9 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * <li>{@link #setEnabled(boolean, boolean)}</li>
  * <li>{@link #create(Media)}</li>
  * </ul>
+ * <p>
+ * Fog rendering is {@link #isCacheable()}: fog tile changes invalidate the map {@link MapTileViewer} if has.
+ * </p>
  */
 @FeatureInterface
 public class FogOfWar extends FeatureAbstract implements MapTileRenderer, Listenable<RevealedListener>
@@ -69,6 +73,34 @@ public class FogOfWar extends FeatureAbstract implements MapTileRenderer, Listen
     public FogOfWar()
     {
         super();
+
+        mapHidden.addTileListener(tile -> invalidate(tile.getInTileX(), tile.getInTileY()));
+        mapFogged.addTileListener(tile -> invalidate(tile.getInTileX(), tile.getInTileY()));
+    }
+
+    /**
+     * Invalidate map viewer tile rendering if has.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     */
+    private void invalidate(int tx, int ty)
+    {
+        if (map != null && hasFeature(MapTileViewer.class))
+        {
+            getFeature(MapTileViewer.class).invalidate(tx, ty);
+        }
+    }
+
+    /**
+     * Invalidate all map viewer rendering if has.
+     */
+    private void invalidate()
+    {
+        if (map != null && hasFeature(MapTileViewer.class))
+        {
+            getFeature(MapTileViewer.class).invalidate();
+        }
     }
 
     /**
@@ -109,6 +141,7 @@ public class FogOfWar extends FeatureAbstract implements MapTileRenderer, Listen
     {
         hideTiles = hide;
         fogTiles = fog;
+        invalidate();
     }
 
     /**
@@ -121,6 +154,7 @@ public class FogOfWar extends FeatureAbstract implements MapTileRenderer, Listen
     {
         hideMap = hide;
         fogMap = fog;
+        invalidate();
     }
 
     /**
@@ -265,4 +299,10 @@ public class FogOfWar extends FeatureAbstract implements MapTileRenderer, Listen
             hideTiles.render(g);
         }
     }
+
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
 }
@@ -29,6 +29,7 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.MapTileTransition;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.MapTileTransitionModel;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
@@ -110,13 +111,21 @@ public class MapTileFog implements Listenable<RevealedListener>
                              MapTileGroupModel.NO_GROUP_NAME);
         transition.loadTransitions(config);
 
-        for (int tx = 0; tx < map.getInTileWidth(); tx++)
+        this.map.beginEdit();
+        try
         {
-            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
             {
-                this.map.setTile(tx, ty, FOG);
+                for (int ty = 0; ty < map.getInTileHeight(); ty++)
+                {
+                    this.map.setTile(tx, ty, FOG);
+                }
             }
         }
+        finally
+        {
+            this.map.commitEdit();
+        }
     }
 
     /**
@@ -137,17 +146,25 @@ public class MapTileFog implements Listenable<RevealedListener>
         final int sy = UtilMath.clamp(ty - ray - th, 0, map.getInTileHeight() - 1);
         final int ey = UtilMath.clamp(ty + ray + th, 0, map.getInTileHeight() - 1);
 
-        for (int x = sx; x < ex + 1; x++)
+        map.beginEdit();
+        try
         {
-            for (int y = sy; y < ey + 1; y++)
+            for (int x = sx; x < ex + 1; x++)
             {
-                if (map.getTile(x, y).getNumber() != NO_FOG)
+                for (int y = sy; y < ey + 1; y++)
                 {
-                    map.setTile(x, y, NO_FOG);
-                    transition.resolve(map.getTile(x, y));
+                    if (map.getTile(x, y).getNumber() != NO_FOG)
+                    {
+                        map.setTile(x, y, NO_FOG);
+                        transition.resolve(map.getTile(x, y));
+                    }
                 }
             }
         }
+        finally
+        {
+            map.commitEdit();
+        }
     }
 
     /**
@@ -169,17 +186,35 @@ public class MapTileFog implements Listenable<RevealedListener>
         final int sy = UtilMath.clamp(ty - ray - th, 0, map.getInTileHeight() - 1);
         final int ey = UtilMath.clamp(ty + ray + th, 0, map.getInTileHeight() - 1);
 
-        for (int x = sx; x < ex + 1; x++)
+        map.beginEdit();
+        try
         {
-            for (int y = sy; y < ey + 1; y++)
+            for (int x = sx; x < ex + 1; x++)
             {
-                if (map.getTile(x, y).getNumber() != FOG)
+                for (int y = sy; y < ey + 1; y++)
                 {
-                    map.setTile(x, y, FOG);
-                    transition.resolve(map.getTile(x, y));
+                    if (map.getTile(x, y).getNumber() != FOG)
+                    {
+                        map.setTile(x, y, FOG);
+                        transition.resolve(map.getTile(x, y));
+                    }
                 }
             }
         }
+        finally
+        {
+            map.commitEdit();
+        }
+    }
+
+    /**
+     * Add a listener notified when a fog tile is set.
+     * 
+     * @param listener The listener reference.
+     */
+    void addTileListener(TileSetListener listener)
+    {
+        map.addListener(listener);
     }
 
     /**
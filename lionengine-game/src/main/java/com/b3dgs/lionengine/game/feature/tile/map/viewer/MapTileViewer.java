@@ -44,4 +44,26 @@ public interface MapTileViewer extends Displayable, MapTileRenderer
      * Remove all renderers.
      */
     void clear();
+
+    /**
+     * Mark the cached chunk containing the tile as dirty, to be baked again on next render. Must be called by
+     * {@link MapTileRenderer#isCacheable()} renderers when their rendering of a tile changes. Does nothing by default,
+     * if cache is disabled or tile is outside map.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     */
+    default void invalidate(int tx, int ty)
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Mark all cached chunks as dirty, to be baked again on next render. Does nothing by default or if cache is
+     * disabled.
+     */
+    default void invalidate()
+    {
+        // Nothing by default
+    }
 }
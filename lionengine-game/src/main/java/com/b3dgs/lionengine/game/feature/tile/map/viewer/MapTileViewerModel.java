@@ -17,8 +17,10 @@
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
@@ -28,21 +30,74 @@ import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * Map tile renderer default implementation.
+ * <p>
+ * By default, each visible tile is rendered by all renderers on each frame. With a cache chunk size, tiles are baked
+ * by square chunks in image buffers, and only visible chunks are drawn. A chunk is baked again only after being
+ * invalidated, when a tile is set on map, or with {@link #invalidate(int, int)} when a tile is removed or when a
+ * renderer changes its rendering of a tile. Baked chunks not visible are released when their number exceeds twice the
+ * visible chunks number.
+ * </p>
+ * <p>
+ * An invalidated chunk keeps its image buffer, cleared and baked again. At most {@value #MAX_REBAKES} invalidated
+ * chunks are baked again per frame, oldest invalidated first, others are drawn as they were until their turn. Frequent
+ * invalidations, such as fog of war moving with units, are then spread over frames.
+ * </p>
+ * <p>
+ * Cache is only used while all renderers are {@link MapTileRenderer#isCacheable()}, else it is released and tiles are
+ * rendered on each frame.
+ * </p>
  */
 public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
 {
+    /** Maximum invalidated chunks baked again per frame. */
+    static final int MAX_REBAKES = 4;
+
     /** Map tiles renderers. */
     private final List<MapTileRenderer> renderers = new ArrayList<>();
     /** Viewer reference. */
     private final Viewer viewer;
+    /** Cache chunk size in tile (0 if cache disabled). */
+    private final int chunkSize;
+    /** Tile set listener, invalidating its chunk while cache is allocated. */
+    private final TileSetListener listener = tile -> invalidate(tile.getInTileX(), tile.getInTileY());
 
     /** Map tile surface. */
     private MapTileSurface map;
+    /** Baked chunks (<code>null</code> if not baked). */
+    private ImageBuffer[] chunks = new ImageBuffer[0];
+    /** Dirty chunks flags. */
+    private boolean[] dirty = new boolean[0];
+    /** Chunks last rendered frame. */
+    private int[] rendered = new int[0];
+    /** Chunks invalidation frame. */
+    private int[] invalidated = new int[0];
+    /** Visible invalidated chunks of current frame. */
+    private int[] stale = new int[0];
+    /** Transparent pixels row, clearing chunks before baking them again. */
+    private int[] transparent = new int[0];
+    /** Horizontal chunks number. */
+    private int chunksHorizontal;
+    /** Cached map width in tile. */
+    private int cacheWidth;
+    /** Cached map height in tile. */
+    private int cacheHeight;
+    /** Cached tile width. */
+    private int cacheTileWidth;
+    /** Cached tile height. */
+    private int cacheTileHeight;
+    /** Baked chunks number. */
+    private int baked;
+    /** Current frame. */
+    private int frame;
 
     /**
      * Create feature.
@@ -63,10 +118,37 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
      * @throws LionEngineException If invalid argument.
      */
     public MapTileViewerModel(Services services)
+    {
+        this(services, 0);
+    }
+
+    /**
+     * Create feature.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link MapTileSurface}</li>
+     * </ul>
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param chunkSize The cache chunk size in tile, 0 to disable cache (must be positive or equal to 0).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public MapTileViewerModel(Services services, int chunkSize)
     {
         super();
 
+        Check.superiorOrEqual(chunkSize, 0);
+
         viewer = services.get(Viewer.class);
+        this.chunkSize = chunkSize;
     }
 
     /**
@@ -116,6 +198,262 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
         }
     }
 
+    /**
+     * Render visible chunks, baking them if needed.
+     * 
+     * @param g The graphic output.
+     */
+    private void renderCached(Graphic g)
+    {
+        updateCache();
+
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / tw);
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / th);
+        final int ex = Math.min(cacheWidth - 1, sx + (int) Math.ceil(viewer.getWidth() / (double) tw));
+        final int ey = Math.min(cacheHeight - 1, sy + (int) Math.ceil(viewer.getHeight() / (double) th));
+        if (ex < 0 || ey < 0)
+        {
+            return;
+        }
+        final double viewX = viewer.getX();
+        final double viewY = viewer.getY() + viewer.getScreenHeight();
+        frame++;
+
+        final int minCy = Math.max(0, sy) / chunkSize;
+        final int minCx = Math.max(0, sx) / chunkSize;
+        int count = 0;
+        for (int cy = minCy; cy <= ey / chunkSize; cy++)
+        {
+            for (int cx = minCx; cx <= ex / chunkSize; cx++)
+            {
+                final int index = cx + cy * chunksHorizontal;
+                if (chunks[index] == null)
+                {
+                    bake(cx, cy, index);
+                }
+                rendered[index] = frame;
+                if (dirty[index])
+                {
+                    stale[count] = index;
+                    count++;
+                }
+                else
+                {
+                    drawChunk(g, index, viewX, viewY);
+                }
+            }
+        }
+
+        rebake(count);
+        for (int i = 0; i < count; i++)
+        {
+            drawChunk(g, stale[i], viewX, viewY);
+        }
+
+        final int visible = (ex / chunkSize - minCx + 1) * (ey / chunkSize - minCy + 1);
+        if (baked > visible * 2)
+        {
+            release(false);
+        }
+    }
+
+    /**
+     * Draw baked chunk.
+     * 
+     * @param g The graphic output.
+     * @param index The chunk index.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    private void drawChunk(Graphic g, int index, double viewX, double viewY)
+    {
+        final int cx = index % chunksHorizontal;
+        final int cy = index / chunksHorizontal;
+        final int height = Math.min(chunkSize, cacheHeight - cy * chunkSize);
+        final int x = (int) Math.round(cx * chunkSize * (double) cacheTileWidth - viewX);
+        final int y = (int) Math.round(viewY - (cy * chunkSize + height) * (double) cacheTileHeight);
+        g.drawImage(chunks[index], x, y);
+    }
+
+    /**
+     * Bake again the oldest invalidated visible chunks, up to {@value #MAX_REBAKES}.
+     * 
+     * @param count The visible invalidated chunks number.
+     */
+    private void rebake(int count)
+    {
+        final int n = Math.min(count, MAX_REBAKES);
+        for (int i = 0; i < n; i++)
+        {
+            int oldest = i;
+            for (int j = i + 1; j < count; j++)
+            {
+                if (invalidated[stale[j]] < invalidated[stale[oldest]])
+                {
+                    oldest = j;
+                }
+            }
+            final int index = stale[oldest];
+            stale[oldest] = stale[i];
+            stale[i] = index;
+            bake(index % chunksHorizontal, index / chunksHorizontal, index);
+        }
+    }
+
+    /**
+     * Bake chunk tiles with all renderers.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @param index The chunk index.
+     */
+    private void bake(int cx, int cy, int index)
+    {
+        final int stx = cx * chunkSize;
+        final int sty = cy * chunkSize;
+        final int width = Math.min(chunkSize, cacheWidth - stx);
+        final int height = Math.min(chunkSize, cacheHeight - sty);
+        final int pixelsWidth = width * cacheTileWidth;
+        final int pixelsHeight = height * cacheTileHeight;
+
+        ImageBuffer buffer = chunks[index];
+        if (buffer == null)
+        {
+            buffer = Graphics.createImageBuffer(pixelsWidth, pixelsHeight, ColorRgba.TRANSPARENT);
+            chunks[index] = buffer;
+            baked++;
+        }
+        else
+        {
+            for (int y = 0; y < pixelsHeight; y++)
+            {
+                buffer.setRgb(0, y, pixelsWidth, 1, transparent, 0, pixelsWidth);
+            }
+        }
+        final Graphic g = buffer.createGraphic();
+
+        for (int ty = sty; ty < sty + height; ty++)
+        {
+            final int y = (sty + height - 1 - ty) * cacheTileHeight;
+            for (int tx = stx; tx < stx + width; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    final int x = (tx - stx) * cacheTileWidth;
+                    for (int i = 0; i < renderers.size(); i++)
+                    {
+                        renderers.get(i).renderTile(g, tile, x, y);
+                    }
+                }
+            }
+        }
+        g.dispose();
+
+        dirty[index] = false;
+    }
+
+    /**
+     * Check if all renderers are cacheable.
+     * 
+     * @return <code>true</code> if cacheable, <code>false</code> else.
+     */
+    private boolean isCached()
+    {
+        for (int i = 0; i < renderers.size(); i++)
+        {
+            if (!renderers.get(i).isCacheable())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Allocate cache again if map size changed. Start listening map tiles on first allocation.
+     */
+    private void updateCache()
+    {
+        if (cacheWidth == 0)
+        {
+            map.addListener(listener);
+        }
+        if (cacheWidth != map.getInTileWidth()
+            || cacheHeight != map.getInTileHeight()
+            || cacheTileWidth != map.getTileWidth()
+            || cacheTileHeight != map.getTileHeight())
+        {
+            release(true);
+
+            cacheWidth = map.getInTileWidth();
+            cacheHeight = map.getInTileHeight();
+            cacheTileWidth = map.getTileWidth();
+            cacheTileHeight = map.getTileHeight();
+            chunksHorizontal = (int) Math.ceil(cacheWidth / (double) chunkSize);
+
+            final int count = chunksHorizontal * (int) Math.ceil(cacheHeight / (double) chunkSize);
+            chunks = new ImageBuffer[count];
+            dirty = new boolean[count];
+            rendered = new int[count];
+            invalidated = new int[count];
+            stale = new int[count];
+            transparent = new int[chunkSize * cacheTileWidth];
+            Arrays.fill(transparent, ColorRgba.TRANSPARENT.getRgba());
+        }
+    }
+
+    /**
+     * Release cache and stop listening map tiles.
+     */
+    private void releaseCache()
+    {
+        release(true);
+        map.removeListener(listener);
+        cacheWidth = 0;
+        cacheHeight = 0;
+        chunks = new ImageBuffer[0];
+        dirty = new boolean[0];
+        rendered = new int[0];
+        invalidated = new int[0];
+        stale = new int[0];
+        transparent = new int[0];
+    }
+
+    /**
+     * Release baked chunks.
+     * 
+     * @param all <code>true</code> to release all chunks, <code>false</code> to keep chunks rendered on current frame.
+     */
+    private void release(boolean all)
+    {
+        for (int i = 0; i < chunks.length; i++)
+        {
+            if (chunks[i] != null && (all || rendered[i] != frame))
+            {
+                chunks[i].dispose();
+                chunks[i] = null;
+                baked--;
+            }
+        }
+    }
+
+    /**
+     * Invalidate chunk, keeping its first invalidation frame.
+     * 
+     * @param index The chunk index.
+     */
+    private void invalidate(int index)
+    {
+        if (!dirty[index])
+        {
+            dirty[index] = true;
+            invalidated[index] = frame;
+        }
+    }
+
     /*
      * MapTileViewer
      */
@@ -133,23 +471,53 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
     public void addRenderer(MapTileRenderer renderer)
     {
         renderers.add(renderer);
+        invalidate();
     }
 
     @Override
     public void removeRenderer(MapTileRenderer renderer)
     {
         renderers.remove(renderer);
+        invalidate();
     }
 
     @Override
     public void clear()
     {
         renderers.clear();
+        invalidate();
+    }
+
+    @Override
+    public void invalidate(int tx, int ty)
+    {
+        if (tx > -1 && ty > -1 && tx < cacheWidth && ty < cacheHeight)
+        {
+            invalidate(tx / chunkSize + ty / chunkSize * chunksHorizontal);
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        for (int i = 0; i < dirty.length; i++)
+        {
+            invalidate(i);
+        }
     }
 
     @Override
     public void render(Graphic g)
     {
+        if (map.isCreated() && chunkSize > 0 && isCached())
+        {
+            renderCached(g);
+            return;
+        }
+        if (cacheWidth > 0)
+        {
+            releaseCache();
+        }
         if (map.isCreated())
         {
             final int inTileHeight = (int) Math.ceil(viewer.getHeight() / (double) map.getTileHeight());
@@ -179,4 +547,10 @@ public class MapTileViewerModel extends FeatureAbstract implements MapTileViewer
         sprite.setTile(tile.getNumber());
         sprite.render(g);
     }
+
+    @Override
+    public boolean isCacheable()
+    {
+        return true;
+    }
 }
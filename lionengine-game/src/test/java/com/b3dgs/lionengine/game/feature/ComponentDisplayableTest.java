@@ -18,8 +18,11 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -142,7 +145,8 @@ final class ComponentDisplayableTest
         component.notifyLayerChanged(featurable, null, null, null, null);
         component.notifyLayerChanged(featurable2, null, null, null, null);
 
-        assertTrue(((List<?>) UtilReflection.getField(component, "indexs")).isEmpty());
+        final Layers<?> layers = UtilReflection.getField(component, "layers");
+        assertEquals(0, layers.getCount());
 
         component.notifyHandlableRemoved(featurable);
 
@@ -157,15 +161,15 @@ final class ComponentDisplayableTest
         component.notifyHandlableAdded(featurable);
         component.notifyHandlableAdded(featurable2);
 
-        assertFalse(((List<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(2, layers.size());
 
         component.notifyHandlableRemoved(featurable);
 
-        assertFalse(((List<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(1, layers.size());
 
         component.notifyHandlableRemoved(featurable2);
 
-        assertTrue(((List<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(0, layers.size());
     }
 
     /**
@@ -224,6 +228,141 @@ final class ComponentDisplayableTest
         assertEquals(0, layerable.getLayerDisplay().intValue());
     }
 
+    /**
+     * Test the component with culling.
+     */
+    @Test
+    void testCulled()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+        final ComponentDisplayable component = new ComponentDisplayable(camera, 0, 32);
+        final List<Integer> rendered = new ArrayList<>();
+
+        final Featurable inside = createTransformable(component, rendered, 1, 50.0, 50.0);
+        final Featurable outside = createTransformable(component, rendered, 2, 500.0, 500.0);
+        final Featurable hud = new FeaturableModel(services, setup);
+        hud.addFeature(new DisplayableModel(g -> rendered.add(Integer.valueOf(3))));
+        component.notifyHandlableAdded(hud);
+
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(3)), rendered);
+
+        rendered.clear();
+        outside.getFeature(Transformable.class).teleport(60.0, 60.0);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), rendered);
+
+        rendered.clear();
+        inside.getFeature(Transformable.class).teleport(-200.0, 50.0);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(2), Integer.valueOf(3)), rendered);
+
+        rendered.clear();
+        component.notifyHandlableRemoved(outside);
+        component.notifyHandlableRemoved(hud);
+        component.render(null, null);
+
+        assertTrue(rendered.isEmpty());
+
+        final SpatialGrid<?> grid = UtilReflection.getField(component, "grid");
+        assertEquals(1, grid.size());
+    }
+
+    /**
+     * Test the component with vertical sorting.
+     */
+    @Test
+    void testSorted()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+
+        testSorted(new ComponentDisplayable());
+        testSorted(new ComponentDisplayable(camera, 16));
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testInvalidArguments()
+    {
+        assertThrows(() -> new ComponentDisplayable(null, 0), "Unexpected null argument !");
+        assertThrows(() -> new ComponentDisplayable(new Camera(), -1),
+                     "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> new ComponentDisplayable(new Camera(), 0, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test vertical sorting.
+     * 
+     * @param component The component to test.
+     */
+    private void testSorted(ComponentDisplayable component)
+    {
+        final List<Integer> rendered = new ArrayList<>();
+        final Featurable first = createTransformable(component, rendered, 1, 10.0, 10.0);
+        createTransformable(component, rendered, 2, 20.0, 30.0);
+        createTransformable(component, rendered, 3, 30.0, 20.0);
+
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), rendered);
+
+        component.setSorted(0, true);
+        component.setSorted(0, true);
+        component.setSorted(1, true);
+        rendered.clear();
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(2), Integer.valueOf(3), Integer.valueOf(1)), rendered);
+
+        first.getFeature(Transformable.class).teleport(10.0, 40.0);
+        rendered.clear();
+        component.render(null, null);
+
+        assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)), rendered);
+
+        component.setSorted(1, false);
+        component.setSorted(0, false);
+        component.setSorted(0, false);
+        first.getFeature(Transformable.class).teleport(10.0, 0.0);
+        rendered.clear();
+        component.render(null, null);
+
+        assertEquals(3, rendered.size());
+        assertEquals(Integer.valueOf(1), rendered.get(0));
+    }
+
+    /**
+     * Create a transformable test object.
+     * 
+     * @param component The component reference.
+     * @param rendered The rendered elements.
+     * @param id The rendered element id.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The created object.
+     */
+    private Featurable createTransformable(ComponentDisplayable component,
+                                           List<Integer> rendered,
+                                           int id,
+                                           double x,
+                                           double y)
+    {
+        final Featurable featurable = new FeaturableModel(services, setup);
+        final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel(services, setup));
+        featurable.addFeature(new DisplayableModel(g -> rendered.add(Integer.valueOf(id))));
+        transformable.teleport(x, y);
+        component.notifyHandlableAdded(featurable);
+        return featurable;
+    }
+
     /**
      * Create a test object.
      * 
@@ -18,10 +18,12 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
-import java.util.HashSet;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -143,7 +145,8 @@ final class ComponentRefreshableTest
         component.notifyLayerChanged(featurable, null, null, null, null);
         component.notifyLayerChanged(featurable2, null, null, null, null);
 
-        assertTrue(((TreeSet<?>) UtilReflection.getField(component, "indexs")).isEmpty());
+        final Layers<?> layers = UtilReflection.getField(component, "layers");
+        assertEquals(0, layers.getCount());
 
         component.notifyHandlableRemoved(featurable);
 
@@ -159,15 +162,15 @@ final class ComponentRefreshableTest
         component.notifyHandlableAdded(featurable);
         component.notifyHandlableAdded(featurable2);
 
-        assertFalse(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(2, layers.size());
 
         component.notifyHandlableRemoved(featurable);
 
-        assertFalse(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(1, layers.size());
 
         component.notifyHandlableRemoved(featurable2);
 
-        assertTrue(((HashSet<?>) UtilReflection.getMethod(component, "getLayer", Integer.valueOf(0))).isEmpty());
+        assertEquals(0, layers.size());
     }
 
     /**
@@ -226,6 +229,149 @@ final class ComponentRefreshableTest
         assertEquals(0, layerable.getLayerRefresh().intValue());
     }
 
+    /**
+     * Test parallel update of local refreshables, keeping layers order.
+     */
+    @Test
+    void testParallel()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final ComponentRefreshable component = new ComponentRefreshable(pool);
+        final Thread thread = Thread.currentThread();
+        final AtomicInteger locals = new AtomicInteger();
+        final AtomicInteger serials = new AtomicInteger();
+        final AtomicBoolean ordered = new AtomicBoolean(true);
+        final int count = 100;
+
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            featurable.addFeature(new RefreshableModel(extrp -> locals.incrementAndGet(), true));
+            component.notifyHandlableAdded(featurable);
+        }
+        final Featurable serial = new FeaturableModel(services, setup);
+        serial.addFeature(new RefreshableModel(extrp ->
+        {
+            ordered.compareAndSet(true, thread == Thread.currentThread() && locals.get() == count);
+            serials.incrementAndGet();
+        }));
+        component.notifyHandlableAdded(serial);
+
+        final Featurable last = new FeaturableModel(services, setup);
+        last.addFeature(new RefreshableModel(extrp -> ordered.compareAndSet(true, serials.get() == 1), true));
+        final Layerable layerable = last.addFeatureAndGet(new LayerableModel(services, setup));
+        component.notifyHandlableAdded(last);
+        layerable.setLayer(Integer.valueOf(1), Integer.valueOf(1));
+
+        component.update(1.0, null);
+
+        assertEquals(count, locals.get());
+        assertEquals(1, serials.get());
+
+        locals.set(0);
+        serials.set(0);
+        ordered.set(true);
+        component.update(1.0, null);
+
+        assertEquals(count, locals.get());
+        assertEquals(1, serials.get());
+        assertTrue(ordered.get());
+
+        component.notifyHandlableRemoved(last);
+        locals.set(0);
+        component.update(1.0, null);
+
+        assertEquals(count, locals.get());
+
+        pool.shutdown();
+
+        assertThrows(() -> new ComponentRefreshable(null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test local refreshables destroying their featurable in parallel, removed on next handler update.
+     */
+    @Test
+    void testParallelDestroy()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final Handler handler = new Handler(services);
+        handler.addComponent(new ComponentRefreshable(pool));
+        final AtomicInteger updated = new AtomicInteger();
+        final int count = 200;
+
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            featurable.addFeature(new RefreshableModel(extrp ->
+            {
+                updated.incrementAndGet();
+                featurable.getFeature(Identifiable.class).destroy();
+            }, true));
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+
+        assertEquals(count, updated.get());
+        assertEquals(count, handler.size());
+
+        handler.update(1.0);
+
+        assertEquals(count, updated.get());
+        assertEquals(0, handler.size());
+
+        pool.shutdown();
+    }
+
+    /**
+     * Test actions on shared state deferred by local refreshables are run on calling thread, in refreshables order.
+     */
+    @Test
+    void testParallelDefer()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final Handler handler = new Handler(services);
+        handler.addComponent(new ComponentRefreshable(pool));
+        final Thread thread = Thread.currentThread();
+        final List<Integer> deferred = new ArrayList<>();
+        final AtomicBoolean serial = new AtomicBoolean();
+        final int count = 200;
+
+        for (int i = 0; i < count; i++)
+        {
+            final Integer index = Integer.valueOf(i);
+            final Featurable featurable = new FeaturableModel(services, setup);
+            featurable.addFeature(new RefreshableModel(extrp ->
+            {
+                if (!ComponentRefreshable.isDeferred())
+                {
+                    serial.set(true);
+                }
+                ComponentRefreshable.defer(() ->
+                {
+                    assertEquals(thread, Thread.currentThread());
+                    deferred.add(index);
+                });
+            }, true));
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+        pool.shutdown();
+
+        assertFalse(serial.get());
+        assertEquals(count, deferred.size());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(Integer.valueOf(i), deferred.get(i));
+        }
+        assertFalse(ComponentRefreshable.isDeferred());
+
+        final AtomicBoolean run = new AtomicBoolean();
+        ComponentRefreshable.defer(() -> run.set(true));
+
+        assertTrue(run.get());
+    }
+
     /**
      * Create a test object.
      * 
@@ -18,12 +18,19 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -33,6 +40,7 @@ import org.junit.jupiter.api.Test;
 import com.b3dgs.lionengine.Engine;
 import com.b3dgs.lionengine.EngineMock;
 import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.MediaMock;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Version;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
@@ -107,8 +115,150 @@ final class FactoryTest
     {
         factory.createCache((media, x, y) -> factory.create(media), Medias.create("state"), 2);
 
+        assertEquals(0L, factory.getCacheHits());
+        assertEquals(0L, factory.getCacheMisses());
+
         final Featurable featurable = factory.create(Medias.create("ObjectFeatures.xml"));
         assertNotEquals(featurable, factory.create(Medias.create("ObjectFeatures.xml")));
+        assertEquals(2L, factory.getCacheMisses());
+
+        factory.create(getCached(Medias.create("state")));
+
+        assertEquals(1L, factory.getCacheHits());
+    }
+
+    /**
+     * Test the asynchronous cache creation, with cache metrics and target following peak usage.
+     */
+    @Test
+    void testCacheAsync()
+    {
+        final Media folder = Medias.create("state");
+        final Media media = getCached(folder);
+        factory.createCache(folder, 2, Runnable::run);
+
+        assertEquals(2, factory.getCacheTarget(media));
+        assertTrue(factory.updateCache(1));
+        assertFalse(factory.updateCache(1));
+
+        final Featurable featurable1 = factory.create(media);
+        final Featurable featurable2 = factory.create(media);
+        final Featurable featurable3 = factory.create(media);
+
+        assertEquals(2L, factory.getCacheHits());
+        assertEquals(1L, factory.getCacheMisses());
+        assertEquals(3, factory.getCacheTarget(media));
+
+        factory.notifyHandlableRemoved(featurable3);
+
+        assertFalse(factory.updateCache(1));
+        assertEquals(featurable3, factory.create(media));
+
+        factory.createCache(folder, 5, Runnable::run);
+
+        assertTrue(factory.updateCache(1));
+        assertFalse(factory.updateCache(1));
+
+        final Featurable featurable4 = factory.create(media);
+
+        assertNotEquals(featurable1, featurable4);
+        assertNotEquals(featurable2, featurable4);
+        assertNotEquals(featurable4, factory.create(media));
+        assertEquals(5L, factory.getCacheHits());
+        assertEquals(1L, factory.getCacheMisses());
+        assertEquals(0, factory.getCacheTarget(folder));
+    }
+
+    /**
+     * Test the asynchronous cache creation throws unexpected setup preparation error on update.
+     */
+    @Test
+    void testCacheAsyncError()
+    {
+        final Media media = new MediaMock()
+        {
+            @Override
+            public String getName()
+            {
+                return "error.xml";
+            }
+
+            @Override
+            public String getPath()
+            {
+                return "error.xml";
+            }
+
+            @Override
+            public boolean exists()
+            {
+                return true;
+            }
+
+            @Override
+            public File getFile()
+            {
+                throw new IllegalStateException("error");
+            }
+        };
+        final Media folder = new MediaMock()
+        {
+            @Override
+            public Collection<Media> getMedias()
+            {
+                return Arrays.asList(media);
+            }
+        };
+        factory.createCache(folder, 1, Runnable::run);
+
+        assertThrows(IllegalStateException.class, () -> factory.updateCache(1), "error");
+        assertFalse(factory.updateCache(1));
+    }
+
+    /**
+     * Get the cached media from folder.
+     * 
+     * @param folder The cache folder.
+     * @return The cached media.
+     */
+    private static Media getCached(Media folder)
+    {
+        return folder.getMedias()
+                     .stream()
+                     .filter(media -> media.getName().endsWith(Factory.FILE_DATA_DOT_EXTENSION))
+                     .findFirst()
+                     .get();
+    }
+
+    /**
+     * Test the asynchronous cache creation with executor.
+     */
+    @Test
+    void testCacheAsyncExecutor()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final Media folder = Medias.create("state");
+        final Media media = getCached(folder);
+        factory.createCache(folder, 3, executor);
+
+        assertTimeout(1000L, () ->
+        {
+            while (factory.updateCache(1))
+            {
+                Thread.yield();
+            }
+        });
+        executor.shutdown();
+
+        factory.create(media);
+        factory.create(media);
+        factory.create(media);
+
+        assertEquals(3L, factory.getCacheHits());
+        assertEquals(0L, factory.getCacheMisses());
+
+        assertThrows(() -> factory.updateCache(-1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> factory.createCache(folder, 1, null), "Unexpected null argument !");
     }
 
     /**
@@ -122,6 +272,27 @@ final class FactoryTest
         assertTrue(featurable.hasFeature(Mirrorable.class));
     }
 
+    /**
+     * Test the object creation from compiled recipe, with another type in between.
+     */
+    @Test
+    void testCreateRecipe()
+    {
+        final Media media = Medias.create("ObjectFeatures.xml");
+        final Featurable featurable1 = factory.create(media);
+        final Featurable featurable2 = factory.create(media);
+
+        assertNotEquals(featurable1, featurable2);
+        assertNotEquals(featurable1.getFeature(Mirrorable.class), featurable2.getFeature(Mirrorable.class));
+        assertTrue(featurable2.hasFeature(Transformable.class));
+
+        final Featurable featurable3 = factory.create(media, FeaturableModel.class);
+
+        assertEquals(FeaturableModel.class, featurable3.getClass());
+        assertTrue(featurable3.hasFeature(Mirrorable.class));
+        assertEquals(featurable1.getClass(), factory.create(media).getClass());
+    }
+
     /**
      * Test the object creation with unknown feature.
      */
@@ -21,6 +21,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -181,26 +182,21 @@ final class FeaturableModelTest
     }
 
     /**
-     * Test the set field not accessible.
+     * Test the set field on invalid object.
      * 
      * @throws ReflectiveOperationException If error.
      */
     @Test
-    void testSetFieldNotAccessible() throws ReflectiveOperationException
+    void testSetFieldInvalid() throws ReflectiveOperationException
     {
-        final FeatureItself featurable = new FeatureItself(services, setup);
-        final Method method = FeaturableAbstract.class.getDeclaredMethod("setField",
-                                                                         Field.class,
-                                                                         Object.class,
-                                                                         Class.class);
-        UtilReflection.setAccessible(method, true);
-        assertThrows(InvocationTargetException.class,
-                     () -> method.invoke(featurable,
-                                         featurable.getClass().getDeclaredField("object"),
-                                         featurable,
-                                         Object.class),
-                     null);
+        final Class<?> type = Class.forName(FeaturableAbstract.class.getName() + "$Injection");
+        final Constructor<?> constructor = type.getDeclaredConstructor(Field.class);
+        UtilReflection.setAccessible(constructor, true);
+        final Object injection = constructor.newInstance(FeatureItself.class.getDeclaredField("object"));
 
+        final Method method = type.getDeclaredMethod("set", Object.class, Object.class);
+        UtilReflection.setAccessible(method, true);
+        assertThrows(InvocationTargetException.class, () -> method.invoke(injection, new Object(), null), null);
     }
 
     /**
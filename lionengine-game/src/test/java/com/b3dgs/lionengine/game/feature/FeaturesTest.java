@@ -21,6 +21,9 @@ import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -78,10 +81,14 @@ final class FeaturesTest
     void testFeatures()
     {
         assertFalse(features.contains(Feature.class));
+        assertFalse(features.contains(IdentifiableModel.class));
 
         final Identifiable identifiable = new IdentifiableModel();
         features.add(identifiable);
 
+        assertFalse(features.contains(Transformable.class));
+        assertFalse(features.contains(FeatureModel.class));
+
         assertEquals(identifiable, features.get(Identifiable.class));
         assertEquals(identifiable, features.get(IdentifiableModel.class));
 
@@ -161,6 +168,34 @@ final class FeaturesTest
         assertThrows(() -> features.add(new FeatureLevel1Model(services, setup)), error);
     }
 
+    /**
+     * Test overwrite feature keeps types unique.
+     */
+    @Test
+    void testOverwrite()
+    {
+        final RefreshableModel refreshable = new RefreshableModel(extrp ->
+        {
+            // Nothing to do
+        });
+        features.add(refreshable);
+
+        final FeatureLevel1Model level1 = new FeatureLevel1Model(services, setup);
+        features.add(level1, true);
+
+        assertEquals(level1, features.get(Refreshable.class));
+        assertEquals(refreshable, features.get(RefreshableModel.class));
+
+        final Collection<Class<? extends Feature>> types = new ArrayList<>();
+        for (final Class<? extends Feature> type : features.getFeaturesType())
+        {
+            assertFalse(types.contains(type));
+            types.add(type);
+        }
+        assertEquals(RefreshableModel.class, types.iterator().next());
+        assertTrue(types.contains(FeatureLevel1.class));
+    }
+
     /**
      * Mock feature.
      */
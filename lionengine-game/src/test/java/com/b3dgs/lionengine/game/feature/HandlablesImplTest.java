@@ -20,8 +20,12 @@ import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -160,6 +164,38 @@ final class HandlablesImplTest
         assertEquals(1, i);
     }
 
+    /**
+     * Test removed item is replaced by last one of its type.
+     */
+    @Test
+    void testRemoveSwap()
+    {
+        final FeaturableModel other1 = new FeaturableModel(services, setup);
+        final FeaturableModel other2 = new FeaturableModel(services, setup);
+        featurables.add(object);
+        featurables.add(other1);
+        featurables.add(other2);
+
+        featurables.remove(object, object.getFeature(Identifiable.class).getId());
+        featurables.remove(object, object.getFeature(Identifiable.class).getId());
+
+        final Iterator<Featurable> iterator = featurables.get(Featurable.class).iterator();
+        assertEquals(other2, iterator.next());
+        assertEquals(other1, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next, null);
+
+        featurables.add(other2);
+        featurables.remove(other1, other1.getFeature(Identifiable.class).getId());
+        featurables.remove(other2, other2.getFeature(Identifiable.class).getId());
+
+        assertFalse(featurables.get(Featurable.class).iterator().hasNext());
+        assertFalse(featurables.get(Identifiable.class).iterator().hasNext());
+
+        other1.getFeature(Identifiable.class).notifyDestroyed();
+        other2.getFeature(Identifiable.class).notifyDestroyed();
+    }
+
     /**
      * Complex object with interface.
      */
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link Layers}.
+ */
+final class LayersTest
+{
+    /**
+     * Get elements in iteration order.
+     * 
+     * @param layers The layers reference.
+     * @return The elements.
+     */
+    private static List<String> getElements(Layers<String> layers)
+    {
+        final List<String> elements = new ArrayList<>();
+        for (int l = 0; l < layers.getCount(); l++)
+        {
+            for (int i = 0; i < layers.getSize(l); i++)
+            {
+                elements.add(layers.get(l, i));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Test sorted layers and swap remove.
+     */
+    @Test
+    void testAddRemove()
+    {
+        final Layers<String> layers = new Layers<>();
+        layers.add("a", 2);
+        layers.add("b", -1);
+        layers.add("c", 2);
+        layers.add("d", 2);
+        layers.add("d", 0);
+
+        assertEquals(2, layers.getCount());
+        assertEquals(-1, layers.getLayer(0));
+        assertEquals(2, layers.getLayer(1));
+        assertEquals(Arrays.asList("b", "a", "c", "d"), getElements(layers));
+
+        assertTrue(layers.remove("a"));
+        assertFalse(layers.remove("a"));
+
+        assertEquals(Arrays.asList("b", "d", "c"), getElements(layers));
+        assertEquals(3, layers.size());
+    }
+
+    /**
+     * Test queued moves.
+     */
+    @Test
+    void testMove()
+    {
+        final Layers<String> layers = new Layers<>();
+        layers.add("a", 0);
+        layers.add("b", 0);
+        layers.add("c", 0);
+
+        layers.move("a", 1);
+        layers.move("b", 2);
+        layers.move("b", 1);
+        layers.move("c", 0);
+        layers.move("d", 1);
+
+        assertEquals(Arrays.asList("a", "b", "c"), getElements(layers));
+
+        layers.apply();
+
+        assertEquals(Arrays.asList("c", "a", "b", "d"), getElements(layers));
+        assertEquals(4, layers.size());
+    }
+
+    /**
+     * Test queued move discarded on remove.
+     */
+    @Test
+    void testMoveRemoved()
+    {
+        final Layers<String> layers = new Layers<>();
+        layers.add("a", 0);
+        layers.move("a", 1);
+        layers.remove("a");
+        layers.apply();
+
+        assertEquals(0, layers.size());
+
+        layers.add("a", 2);
+        layers.apply();
+
+        assertEquals(1, layers.getCount());
+        assertEquals(2, layers.getLayer(0));
+        assertEquals(Arrays.asList("a"), getElements(layers));
+    }
+
+    /**
+     * Test empty layers are dropped.
+     */
+    @Test
+    void testDropEmpty()
+    {
+        final Layers<String> layers = new Layers<>();
+        layers.add("a", 0);
+        layers.add("b", 1);
+        layers.add("c", 2);
+
+        assertTrue(layers.remove("b"));
+
+        assertEquals(2, layers.getCount());
+        assertEquals(0, layers.getLayer(0));
+        assertEquals(2, layers.getLayer(1));
+
+        layers.move("a", 2);
+        layers.apply();
+
+        assertEquals(1, layers.getCount());
+        assertEquals(2, layers.getLayer(0));
+        assertEquals(Arrays.asList("c", "a"), getElements(layers));
+
+        layers.move("a", 2);
+        layers.apply();
+
+        assertEquals(1, layers.getCount());
+        assertEquals(Arrays.asList("c", "a"), getElements(layers));
+    }
+}
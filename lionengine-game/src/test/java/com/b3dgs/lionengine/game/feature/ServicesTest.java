@@ -111,6 +111,45 @@ final class ServicesTest
         assertFalse(services.getOptional(String.class).isPresent());
     }
 
+    /**
+     * Test the exact type is returned when several fit, ambiguous type fails even as optional, and cached type is
+     * resolved again after add.
+     */
+    @Test
+    void testAmbiguous()
+    {
+        final Services services = new Services();
+
+        assertFalse(services.getOptional(CharSequence.class).isPresent());
+
+        final String first = services.add("first");
+
+        assertEquals(first, services.get(CharSequence.class));
+
+        services.add(new StringBuilder("second"));
+        services.add(first);
+
+        final String ambiguous = Services.ERROR_SERVICE_AMBIGUOUS
+                                 + CharSequence.class.getName()
+                                 + " "
+                                 + String.class.getName()
+                                 + " "
+                                 + StringBuilder.class.getName();
+        assertThrows(() -> services.get(CharSequence.class), ambiguous);
+        assertThrows(() -> services.getOptional(CharSequence.class), ambiguous);
+        assertEquals(first, services.get(String.class));
+        assertEquals("second", services.get(StringBuilder.class).toString());
+
+        services.add("other");
+
+        final String name = String.class.getName();
+        assertThrows(() -> services.get(String.class),
+                     Services.ERROR_SERVICE_AMBIGUOUS + name + " " + name + " " + name);
+        assertThrows(() -> services.getOptional(String.class),
+                     Services.ERROR_SERVICE_AMBIGUOUS + name + " " + name + " " + name);
+        assertEquals("second", services.get(StringBuilder.class).toString());
+    }
+
     /**
      * Service without constructor.
      */
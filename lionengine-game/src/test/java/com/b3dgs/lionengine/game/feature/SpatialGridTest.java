@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link SpatialGrid}.
+ */
+final class SpatialGridTest
+{
+    /**
+     * Get elements found in area.
+     * 
+     * @param grid The grid reference.
+     * @param minX The minimum horizontal location.
+     * @param minY The minimum vertical location.
+     * @param maxX The maximum horizontal location.
+     * @param maxY The maximum vertical location.
+     * @return The found elements.
+     */
+    private static Set<String> query(SpatialGrid<String> grid, double minX, double minY, double maxX, double maxY)
+    {
+        final Set<String> elements = new HashSet<>();
+        final int found = grid.query(minX, minY, maxX, maxY);
+        for (int i = 0; i < found; i++)
+        {
+            assertTrue(elements.add(grid.get(i)));
+        }
+        return elements;
+    }
+
+    /**
+     * Test move, query and remove.
+     */
+    @Test
+    void testQuery()
+    {
+        final SpatialGrid<String> grid = new SpatialGrid<>(10.0);
+        final int a = grid.move("a", 0.0, 0.0, 25.0, 5.0);
+        final int b = grid.move("b", -15.0, -15.0, -11.0, -11.0);
+
+        assertEquals(2, grid.size());
+        assertEquals(4, grid.getUsedCells());
+        assertEquals(Set.of("a"), query(grid, 0.0, 0.0, 30.0, 30.0));
+        assertEquals(Set.of("a", "b"), query(grid, -20.0, -20.0, 0.0, 0.0));
+        assertTrue(query(grid, 40.0, 40.0, 50.0, 50.0).isEmpty());
+
+        assertEquals(a, grid.move("a", 1.0, 1.0, 26.0, 6.0));
+        assertEquals(a, grid.move("a", 40.0, 40.0, 45.0, 45.0));
+        assertEquals(Set.of("a"), query(grid, 40.0, 40.0, 50.0, 50.0));
+        assertEquals(2, grid.getUsedCells());
+
+        assertEquals(b, grid.remove("b"));
+        assertEquals(SpatialGrid.NONE, grid.remove("b"));
+        assertNull(grid.getElement(b));
+        assertEquals(1, grid.size());
+        assertTrue(query(grid, -20.0, -20.0, 0.0, 0.0).isEmpty());
+    }
+
+    /**
+     * Test empty cells are removed from table, keeping colliding cells reachable. Elements are matched by identity.
+     */
+    @Test
+    void testReleaseCells()
+    {
+        final SpatialGrid<String> grid = new SpatialGrid<>(1.0);
+        final int count = 500;
+        final String[] elements = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            elements[i] = String.valueOf(i);
+            grid.move(elements[i], i, -i, i, -i);
+        }
+
+        assertEquals(count, grid.getUsedCells());
+
+        for (int i = 0; i < count; i += 2)
+        {
+            grid.remove(elements[i]);
+        }
+
+        assertEquals(count / 2, grid.getUsedCells());
+        for (int i = 0; i < count; i++)
+        {
+            final int cell = grid.find(i, -i);
+            if (i % 2 == 0)
+            {
+                assertEquals(SpatialGrid.NONE, cell);
+            }
+            else
+            {
+                assertEquals(elements[i], grid.getElement(grid.getMember(cell, 0)));
+            }
+        }
+
+        final int cells = grid.getCells();
+        grid.move("new", 0.0, 0.0, 0.0, 0.0);
+
+        assertEquals(cells, grid.getCells());
+    }
+
+    /**
+     * Test pair owner.
+     */
+    @Test
+    void testOwner()
+    {
+        final SpatialGrid<String> grid = new SpatialGrid<>(10.0);
+        final int a = grid.move("a", 0.0, 0.0, 15.0, 15.0);
+        final int b = grid.move("b", 5.0, 5.0, 25.0, 25.0);
+        final int c = grid.move("c", 30.0, 30.0, 35.0, 35.0);
+
+        assertTrue(grid.isOwner(grid.find(0, 0), a, b));
+        assertFalse(grid.isOwner(grid.find(1, 1), a, b));
+        assertFalse(grid.isOwner(grid.find(0, 0), a, c));
+    }
+
+    /**
+     * Test invalid cell size.
+     */
+    @Test
+    void testInvalidSize()
+    {
+        assertThrows(() -> new SpatialGrid<>(0.0), "Invalid argument: 0.0 is not strictly superior to 0.0");
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Test {@link CollidableUpdater}.
+ */
+final class CollidableUpdaterTest
+{
+    /**
+     * Test impact without movement.
+     */
+    @Test
+    void testImpactStatic()
+    {
+        final Rectangle area = new Rectangle(0.0, 0.0, 2.0, 2.0);
+
+        assertEquals(0.0, CollidableUpdater.getImpact(area, 0.0, 0.0, new Rectangle(1.0, 1.0, 2.0, 2.0), false));
+        assertEquals(Double.POSITIVE_INFINITY,
+                     CollidableUpdater.getImpact(area, 0.0, 0.0, new Rectangle(2.0, 0.0, 2.0, 2.0), false));
+        assertEquals(0.0, CollidableUpdater.getImpact(area, 0.0, 0.0, new Rectangle(1.0, 1.0, 0.0, 0.0), false));
+    }
+
+    /**
+     * Test impact of a fast movement through a thin area.
+     */
+    @Test
+    void testImpactTunneling()
+    {
+        final Rectangle area = new Rectangle(0.0, 0.0, 2.0, 2.0);
+        final Rectangle wall = new Rectangle(50.0, -10.0, 1.0, 20.0);
+
+        assertEquals(0.48, CollidableUpdater.getImpact(area, 100.0, 0.0, wall, false));
+        assertEquals(0.495, CollidableUpdater.getImpact(area, 100.0, 0.0, wall, true));
+        assertEquals(Double.POSITIVE_INFINITY, CollidableUpdater.getImpact(area, 40.0, 0.0, wall, false));
+        assertEquals(Double.POSITIVE_INFINITY, CollidableUpdater.getImpact(area, 100.0, 100.0, wall, false));
+        assertEquals(Double.POSITIVE_INFINITY, CollidableUpdater.getImpact(area, -100.0, 0.0, wall, false));
+    }
+
+    /**
+     * Test impact on diagonal movement.
+     */
+    @Test
+    void testImpactDiagonal()
+    {
+        final Rectangle area = new Rectangle(0.0, 0.0, 2.0, 2.0);
+        final Rectangle other = new Rectangle(10.0, 10.0, 2.0, 2.0);
+
+        assertEquals(0.4, CollidableUpdater.getImpact(area, 20.0, 20.0, other, false));
+        assertEquals(0.5, CollidableUpdater.getImpact(area, 20.0, 20.0, other, true));
+        assertEquals(Double.POSITIVE_INFINITY, CollidableUpdater.getImpact(area, 20.0, -20.0, other, false));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Locale;
+import java.util.Random;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Benchmark {@link ComponentCollision} update, with collidables bouncing in a square world. Not run with tests.
+ * <p>
+ * Arguments: collidables count, world size, cell size and areas per collidable (default
+ * <code>5000 2048 32 1</code>).
+ * </p>
+ */
+final class ComponentCollisionBenchmark
+{
+    /** Warm up updates. */
+    private static final int WARMUP = 300;
+    /** Measured updates. */
+    private static final int UPDATES = 600;
+    /** Maximum speed. */
+    private static final double SPEED = 2.0;
+    /** Area size. */
+    private static final int AREA = 4;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args The arguments.
+     */
+    public static void main(String[] args)
+    {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        final int world = args.length > 1 ? Integer.parseInt(args[1]) : 2048;
+        final double cell = args.length > 2 ? Double.parseDouble(args[2]) : 32.0;
+        final int areas = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        final Media config = UtilSetup.createConfig(ComponentCollisionBenchmark.class);
+        try
+        {
+            run(config, count, world, cell, areas);
+        }
+        finally
+        {
+            config.getFile().delete();
+            Medias.setResourcesDirectory(null);
+            Graphics.setFactoryGraphic(null);
+        }
+    }
+
+    /**
+     * Run benchmark.
+     * 
+     * @param config The collidable configuration.
+     * @param count The collidables count.
+     * @param world The world size.
+     * @param cell The cell size.
+     * @param areas The areas per collidable.
+     */
+    private static void run(Media config, int count, int world, double cell, int areas)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Setup setup = new Setup(config);
+        final Handler handler = new Handler(services);
+        final ComponentCollision component = new ComponentCollision(cell);
+        handler.addComponent(component);
+
+        final Random random = new Random(0L);
+        final Transformable[] transformables = new Transformable[count];
+        final double[] speeds = new double[count * 2];
+        final long[] collisions = new long[1];
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel(services, setup));
+            final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+            collidable.setGroup(Integer.valueOf(0));
+            collidable.addAccept(Integer.valueOf(0));
+            for (int a = 0; a < areas; a++)
+            {
+                collidable.addCollision(new Collision("area" + a, a * AREA / 2, 0, AREA, AREA, false));
+            }
+            collidable.addListener((c, with, by) -> collisions[0]++);
+            transformable.teleport(random.nextDouble() * world, random.nextDouble() * world);
+            speeds[i * 2] = (random.nextDouble() * 2.0 - 1.0) * SPEED;
+            speeds[i * 2 + 1] = (random.nextDouble() * 2.0 - 1.0) * SPEED;
+            transformables[i] = transformable;
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+
+        long elapsed = 0L;
+        for (int update = 0; update < WARMUP + UPDATES; update++)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                move(transformables[i], speeds, i, world);
+            }
+            final long start = System.nanoTime();
+            component.update(1.0, null);
+            if (update >= WARMUP)
+            {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        System.out.println(String.format(Locale.ENGLISH,
+                                         "%d collidables, world %d, cell %.0f, %d areas: %.3f ms per update (%d)",
+                                         Integer.valueOf(count),
+                                         Integer.valueOf(world),
+                                         Double.valueOf(cell),
+                                         Integer.valueOf(areas),
+                                         Double.valueOf(elapsed / 1_000_000.0 / UPDATES),
+                                         Long.valueOf(collisions[0])));
+    }
+
+    /**
+     * Move transformable, bouncing on world borders.
+     * 
+     * @param transformable The transformable to move.
+     * @param speeds The speeds.
+     * @param i The transformable index.
+     * @param world The world size.
+     */
+    private static void move(Transformable transformable, double[] speeds, int i, int world)
+    {
+        final double x = transformable.getX() + speeds[i * 2];
+        final double y = transformable.getY() + speeds[i * 2 + 1];
+        if (x < 0.0 || x > world)
+        {
+            speeds[i * 2] = -speeds[i * 2];
+        }
+        if (y < 0.0 || y > world)
+        {
+            speeds[i * 2 + 1] = -speeds[i * 2 + 1];
+        }
+        transformable.backup();
+        transformable.moveLocation(1.0, speeds[i * 2], speeds[i * 2 + 1]);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private ComponentCollisionBenchmark()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
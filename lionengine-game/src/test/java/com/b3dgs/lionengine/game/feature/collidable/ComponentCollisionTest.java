@@ -16,10 +16,13 @@
  */
 package com.b3dgs.lionengine.game.feature.collidable;
 
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -30,13 +33,19 @@ import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.ComponentDisplayable;
+import com.b3dgs.lionengine.game.feature.ComponentRefreshable;
+import com.b3dgs.lionengine.game.feature.DisplayableModel;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.Handler;
 import com.b3dgs.lionengine.game.feature.MirrorableModel;
+import com.b3dgs.lionengine.game.feature.RefreshableModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.SpatialGrid;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
@@ -281,4 +290,194 @@ final class ComponentCollisionTest
         assertTrue(component.getInside(Geom.createArea(0, 0, 16, 16)).isEmpty());
         assertEquals(2, component.getInside(Geom.createArea(15, 15, 32, 32)).size());
     }
+
+    /**
+     * Test invalid cell size.
+     */
+    @Test
+    void testInvalidCellSize()
+    {
+        assertThrows(() -> new ComponentCollision(0.0), "Invalid argument: 0.0 is not strictly superior to 0.0");
+    }
+
+    /**
+     * Test collidable spanning many small cells is checked once, and cells are released when leaving them.
+     */
+    @Test
+    void testSmallCells()
+    {
+        handler.removeAll();
+        handler.update(1.0);
+
+        final Handler other = new Handler(services);
+        final ComponentCollision small = new ComponentCollision(1.0);
+        other.addComponent(small);
+        other.add(featurable1);
+        other.add(featurable2);
+        other.update(1.0);
+
+        final AtomicInteger count = new AtomicInteger();
+        collidable2.addListener((c, w, b) -> count.incrementAndGet());
+
+        transformable1.teleport(1.0, 2.0);
+        transformable2.teleport(2.0, 3.0);
+        other.update(1.0);
+
+        assertEquals(1, count.get());
+
+        count.set(0);
+        transformable1.teleport(100.0, 100.0);
+        other.update(1.0);
+
+        assertEquals(0, count.get());
+        assertTrue(small.getInside(Geom.createArea(0, 0, 8, 8)).contains(collidable2));
+
+        transformable2.teleport(101.0, 99.0);
+        other.update(1.0);
+
+        assertEquals(1, count.get());
+        assertEquals(2, small.getInside(Geom.createArea(96, 96, 8, 8)).size());
+        assertTrue(small.getInside(Geom.createArea(0, 0, 8, 8)).isEmpty());
+    }
+
+    /**
+     * Test swept bounds prefilter keeps collisions along movement, and collides elements moved on impact.
+     */
+    @Test
+    void testSwept()
+    {
+        handler.removeAll();
+        handler.update(1.0);
+
+        final Handler other = new Handler(services);
+        other.addComponent(new ComponentCollision(1.0));
+        other.add(featurable1);
+        other.add(featurable2);
+        other.update(1.0);
+
+        final AtomicInteger count = new AtomicInteger();
+        collidable2.addListener((c, w, b) -> count.incrementAndGet());
+
+        transformable1.teleport(1.0, 2.0);
+        transformable2.teleport(2.0, 3.0);
+        other.update(1.0);
+
+        assertEquals(collidable1, collide.get());
+        assertEquals(collidable2, featurable1.called.get());
+        assertEquals(1, count.get());
+
+        count.set(0);
+        collide.set(null);
+        featurable1.called.set(null);
+        transformable1.teleport(100.0, 100.0);
+        other.update(1.0);
+
+        assertEquals(0, count.get());
+        assertNull(featurable1.called.get());
+
+        transformable1.moveLocation(1.0, -97.0, -97.0);
+        other.update(1.0);
+
+        assertEquals(collidable1, collide.get());
+        assertEquals(collidable2, featurable1.called.get());
+    }
+
+    /**
+     * Test local movers updated in parallel are kept in collision grid, and give the same culled rendering as serial
+     * update.
+     */
+    @Test
+    void testParallelMovers()
+    {
+        handler.removeAll();
+        handler.update(1.0);
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final int[] serial = runMovers(new ComponentRefreshable());
+        final int[] parallel = runMovers(new ComponentRefreshable(pool));
+        pool.shutdown();
+
+        assertArrayEquals(serial, parallel);
+    }
+
+    /**
+     * Check if grid contains collidable at location.
+     * 
+     * @param grid The grid reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param collidable The collidable to find.
+     * @return <code>true</code> if found, <code>false</code> else.
+     */
+    private static boolean contains(SpatialGrid<Collidable> grid, double x, double y, Collidable collidable)
+    {
+        final int found = grid.query(x, y, x, y);
+        for (int i = 0; i < found; i++)
+        {
+            if (grid.get(i) == collidable)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Update local movers with collision and culled rendering. Each mover must be found in collision grid at its
+     * location.
+     * 
+     * @param refreshable The refreshable component.
+     * @return The rendered count of each step.
+     */
+    private int[] runMovers(ComponentRefreshable refreshable)
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 200, 200, 200);
+        final Handler movers = new Handler(services);
+        movers.addComponent(refreshable);
+        final ComponentCollision collision = new ComponentCollision(16.0);
+        movers.addComponent(collision);
+        final SpatialGrid<Collidable> grid = UtilReflection.getField(collision, "grid");
+        movers.addComponent(new ComponentDisplayable(camera, 0, 16));
+
+        final AtomicInteger rendered = new AtomicInteger();
+        final int count = 300;
+        final Transformable[] transformables = new Transformable[count];
+        final Collidable[] collidables = new Collidable[count];
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel(services, setup);
+            final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel(services, setup));
+            final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+            collidable.setGroup(Integer.valueOf(0));
+            collidable.addAccept(Integer.valueOf(0));
+            collidable.addCollision(new Collision("mover", 0, 0, 2, 2, false));
+            featurable.addFeature(new DisplayableModel(g -> rendered.incrementAndGet()));
+
+            final double speed = i % 7 - 3.0;
+            featurable.addFeature(new RefreshableModel(extrp -> transformable.moveLocation(extrp, speed, 1.0), true));
+            transformable.teleport(i % 100 * 4.0, i / 100 * 30.0);
+            movers.add(featurable);
+            transformables[i] = transformable;
+            collidables[i] = collidable;
+        }
+
+        final int steps = 100;
+        final int[] results = new int[steps];
+        for (int step = 0; step < steps; step++)
+        {
+            rendered.set(0);
+            movers.update(1.0);
+            movers.render(null);
+            results[step] = rendered.get();
+
+            assertEquals(count, grid.size());
+            for (int i = 0; i < count; i++)
+            {
+                final Transformable transformable = transformables[i];
+                assertTrue(contains(grid, transformable.getX(), transformable.getY(), collidables[i]));
+            }
+        }
+        return results;
+    }
 }
@@ -36,7 +36,6 @@ import com.b3dgs.lionengine.Localizable;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.Force;
-import com.b3dgs.lionengine.game.feature.Factory;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.Handler;
@@ -477,8 +476,6 @@ final class LauncherModelTest
         final Media launchableMedia = UtilSetup.createMedia(LaunchableObjectException.class);
         final Media launcherMedia = UtilLaunchable.createLauncherMedia(launchableMedia);
         final Setup setup = new Setup(launcherMedia);
-        services.add(new Factory(services));
-        services.add(new Handler(services));
 
         final AtomicBoolean launchableListener = new AtomicBoolean();
         final AtomicBoolean launcherListener = new AtomicBoolean();
@@ -105,8 +105,11 @@ final class UtilLaunchable
      */
     public static Launcher createLauncher(Services services, Setup setup, Featurable featurable)
     {
-        services.add(new Factory(services));
-        services.add(new Handler(services));
+        if (!services.getOptional(Factory.class).isPresent())
+        {
+            services.add(new Factory(services));
+            services.add(new Handler(services));
+        }
         if (!featurable.hasFeature(Transformable.class))
         {
             featurable.addFeature(new TransformableModel(services, setup));
@@ -33,7 +33,6 @@ import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.ViewerMock;
 import com.b3dgs.lionengine.game.Cursor;
 import com.b3dgs.lionengine.game.MouseMock;
-import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.LayerableModel;
@@ -107,7 +106,6 @@ final class SelectorRefresherTest
     {
         cursor.setSync(mouse);
 
-        services.add(new Camera());
         services.add(new ViewerMock());
 
         final Featurable featurable = new FeaturableModel(services, setup);
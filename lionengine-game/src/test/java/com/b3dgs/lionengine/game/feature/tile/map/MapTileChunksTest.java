@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Test {@link MapTileChunks}.
+ */
+final class MapTileChunksTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Media media = Medias.create("chunks.map");
+    private final List<String> events = new ArrayList<>();
+    private final MapTileChunkListener listener = new MapTileChunkListener()
+    {
+        @Override
+        public void notifyChunkLoaded(int tx, int ty, int width, int height)
+        {
+            events.add("load " + tx + " " + ty + " " + width + " " + height);
+        }
+
+        @Override
+        public void notifyChunkUnloaded(int tx, int ty, int width, int height)
+        {
+            events.add("unload " + tx + " " + ty + " " + width + " " + height);
+        }
+    };
+
+    /**
+     * Clean up test.
+     */
+    @AfterEach
+    public void cleanUp()
+    {
+        assertTrue(media.getFile().delete());
+    }
+
+    /**
+     * Test chunks loading around location and on access.
+     */
+    @Test
+    void testLoad()
+    {
+        final MapTileChunks chunks = new MapTileChunks(media, 4, 4);
+        chunks.addListener(listener);
+        final MapTileGame map = new MapTileGame(chunks);
+        map.create(16, 16, 10, 6);
+
+        assertEquals(0, chunks.getLoaded());
+        assertEquals(4, chunks.getChunkSize());
+
+        chunks.load(4, 4, 1);
+
+        assertEquals(4, chunks.getLoaded());
+        assertTrue(chunks.isLoaded(4, 4));
+        assertTrue(chunks.isLoaded(7, 5));
+        assertFalse(chunks.isLoaded(8, 0));
+        assertFalse(chunks.isLoaded(-1, 0));
+        assertEquals("load 4 4 4 2", events.get(3));
+
+        events.clear();
+        map.setTile(9, 1, 3);
+
+        assertEquals(4, chunks.getLoaded());
+        assertEquals("unload 0 0 4 4", events.get(0));
+        assertEquals("load 8 0 2 4", events.get(1));
+        assertEquals(3, map.getTileNumber(9, 1));
+        assertEquals(-1, map.getTileNumber(8, 1));
+
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 32, 32, 32);
+        camera.teleport(64.0, 0.0);
+        chunks.load(map, camera, 0);
+
+        assertTrue(chunks.isLoaded(4, 0));
+
+        events.clear();
+        map.clear();
+
+        assertEquals(0, chunks.getLoaded());
+        assertEquals(4, events.size());
+        assertFalse(map.isCreated());
+    }
+
+    /**
+     * Test tiles are kept when chunks are unloaded and when file is reopened.
+     */
+    @Test
+    void testPersistence()
+    {
+        final MapTileChunks chunks = new MapTileChunks(media, 2, 1);
+        final MapTileGame map = new MapTileGame(chunks);
+        map.create(16, 8, 5, 5);
+
+        map.setTile(0, 0, 1);
+        map.setTile(4, 4, 7);
+        map.setTile(3, 1, 2);
+        map.setTile(3, 1, 2);
+
+        assertEquals(1, chunks.getLoaded());
+        assertEquals(new TileGame(1, 0, 0, 16, 8), map.getTile(0, 0));
+        assertEquals(7, map.getTileNumber(4, 4));
+        assertEquals(2, map.getTileNumber(3, 1));
+        assertEquals(3, map.getTilesNumber());
+
+        final Tile removed = map.getTile(3, 1);
+        map.removeTile(3, 1);
+
+        assertNull(map.getTile(3, 1));
+        assertEquals(2, map.getTilesNumber());
+        assertEquals(removed, new TileGame(2, 3, 1, 16, 8));
+
+        map.clear();
+        map.create(16, 8, 5, 5);
+
+        assertEquals(1, map.getTileNumber(0, 0));
+        assertEquals(7, map.getTileNumber(4, 4));
+        assertEquals(-1, map.getTileNumber(3, 1));
+
+        map.clear();
+        map.create(16, 8, 6, 5);
+
+        assertEquals(-1, map.getTileNumber(0, 0));
+        assertEquals(0, map.getTilesNumber());
+
+        map.clear();
+    }
+
+    /**
+     * Test chunked map cannot be resized.
+     */
+    @Test
+    void testResize()
+    {
+        final MapTileGame map = new MapTileGame(new MapTileChunks(media, 2, 1));
+        map.create(16, 16, 2, 2);
+
+        assertThrows(() -> map.getFeature(MapTileSurface.class).resize(3, 3), "Chunked map cannot be resized !");
+
+        map.clear();
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testInvalidArguments()
+    {
+        assertThrows(() -> new MapTileChunks(null, 1, 1), "Unexpected null argument !");
+        assertThrows(() -> new MapTileChunks(media, 0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTileChunks(media, 1, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTileSurfaceModel((MapTileChunks) null), "Unexpected null argument !");
+
+        final MapTileChunks chunks = new MapTileChunks(media, 1, 1);
+        final MapTileGame map = new MapTileGame(chunks);
+        map.create(1, 1, 1, 1);
+
+        assertThrows(() -> chunks.load(0, 0, -1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> map.setTile(0, 0, -1), "Invalid argument: -1 is not superior or equal to 0");
+
+        map.clear();
+    }
+}
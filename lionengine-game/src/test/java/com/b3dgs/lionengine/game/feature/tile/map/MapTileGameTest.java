@@ -30,6 +30,8 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -268,4 +270,121 @@ final class MapTileGameTest
 
         assertNull(set.get());
     }
+
+    /**
+     * Test compact storage against default storage.
+     */
+    @Test
+    void testCompact()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+
+        assertFalse(compact.isCreated());
+
+        map.create(16, 16, 3, 2);
+        compact.create(16, 16, 3, 2);
+
+        assertTrue(compact.isCreated());
+
+        final AtomicReference<Tile> set = new AtomicReference<>();
+        compact.addListener(set::set);
+        for (final MapTileGame current : Arrays.asList(map, compact))
+        {
+            current.setTile(0, 0, 1);
+            current.setTile(2, 1, 5);
+            current.setTile(1, 0, 3);
+            current.setTile(1, 0, 4);
+        }
+
+        assertEquals(compact.getTile(1, 0), set.get());
+
+        set.set(null);
+        compact.setTile(1, 0, 4);
+
+        assertNull(set.get());
+        assertThrows(() -> compact.setTile(0, 0, -1), "Invalid argument: -1 is not superior or equal to 0");
+
+        map.getFeature(MapTileSurface.class).resize(4, 3);
+        compact.getFeature(MapTileSurface.class).resize(4, 3);
+
+        assertEquals(map.getTilesNumber(), compact.getTilesNumber());
+        for (int ty = -1; ty < 4; ty++)
+        {
+            for (int tx = -1; tx < 5; tx++)
+            {
+                assertEquals(map.getTile(tx, ty), compact.getTile(tx, ty));
+                assertEquals(map.getTileNumber(tx, ty), compact.getTileNumber(tx, ty));
+            }
+        }
+        assertEquals(4, compact.getTileNumber(1, 0));
+        assertEquals(-1, compact.getTileNumber(3, 2));
+
+        compact.removeTile(1, 0);
+
+        assertNull(compact.getTile(1, 0));
+        assertEquals(2, compact.getTilesNumber());
+
+        compact.clear();
+
+        assertNull(compact.getTile(0, 0));
+        assertEquals(0, compact.getTilesNumber());
+    }
+
+    /**
+     * Test edit session notifies once per location on commit.
+     */
+    @Test
+    void testEdit()
+    {
+        map.create(16, 16, 3, 3);
+
+        final List<Tile> single = new ArrayList<>();
+        final List<Collection<Tile>> batches = new ArrayList<>();
+        map.addListener(new TileSetListener()
+        {
+            @Override
+            public void onTileSet(Tile tile)
+            {
+                single.add(tile);
+            }
+
+            @Override
+            public void onTilesSet(Collection<Tile> tiles)
+            {
+                batches.add(tiles);
+            }
+        });
+
+        map.beginEdit();
+        map.setTile(2, 1, 1);
+        map.setTile(0, 0, 1);
+        map.beginEdit();
+        map.setTile(2, 1, 2);
+        map.setTile(1, 2, 0);
+        map.commitEdit();
+        map.setTile(1, 2, 0);
+        map.removeTile(1, 2);
+
+        assertEquals(2, map.getTileNumber(2, 1));
+        assertTrue(batches.isEmpty());
+
+        map.commitEdit();
+
+        assertTrue(single.isEmpty());
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList(map.getTile(0, 0), map.getTile(2, 1)), new ArrayList<>(batches.get(0)));
+
+        map.setTile(1, 1, 0);
+
+        assertEquals(map.getTile(1, 1), single.get(0));
+        assertThrows(() -> map.commitEdit(), "No edit session to commit !");
+
+        final AtomicReference<Tile> set = new AtomicReference<>();
+        map.addListener(set::set);
+        map.beginEdit();
+        map.setTile(2, 2, 3);
+        map.commitEdit();
+
+        assertEquals(map.getTile(2, 2), set.get());
+    }
 }
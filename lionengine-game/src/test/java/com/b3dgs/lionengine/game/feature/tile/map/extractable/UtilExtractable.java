@@ -27,6 +27,7 @@ import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 
 /**
@@ -60,7 +61,10 @@ final class UtilExtractable
      */
     public static Extractable createExtractable(Services services, Setup setup)
     {
-        services.add(new MapTileGame());
+        if (!services.getOptional(MapTile.class).isPresent())
+        {
+            services.add(new MapTileGame());
+        }
 
         final Featurable featurable = new FeaturableModel(services, setup);
         featurable.addFeature(new TransformableModel(services, setup));
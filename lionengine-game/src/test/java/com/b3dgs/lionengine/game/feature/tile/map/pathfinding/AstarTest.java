@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -73,6 +74,54 @@ final class AstarTest
         assertNotNull(Astar.createPathFinder(map, 1, new HeuristicClosest()));
     }
 
+    /**
+     * Test the create hierarchical path finder.
+     */
+    @Test
+    void testCreatePathFinderHierarchical()
+    {
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTileGroupModel());
+        map.addFeature(new MapTilePathModel());
+
+        assertEquals(PathFinderHierarchical.class,
+                     Astar.createPathFinderHierarchical(map, new HeuristicClosest()).getClass());
+        assertNotNull(Astar.createPathFinderHierarchical(map, 8, new HeuristicClosest()));
+        assertThrows(() -> Astar.createPathFinderHierarchical(map, 0, new HeuristicClosest()),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test the create jump point search path finder.
+     */
+    @Test
+    void testCreatePathFinderJps()
+    {
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTileGroupModel());
+        map.addFeature(new MapTilePathModel());
+
+        assertEquals(PathFinderJps.class, Astar.createPathFinderJps(map, new HeuristicClosest()).getClass());
+        assertEquals(PathFinderJps.class, Astar.createPathFinderJps(map, 1, new HeuristicClosest()).getClass());
+    }
+
+    /**
+     * Test the create flow field path finder.
+     */
+    @Test
+    void testCreatePathFinderFlowField()
+    {
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTileGroupModel());
+        map.addFeature(new MapTilePathModel());
+
+        assertEquals(PathFinderFlowField.class,
+                     Astar.createPathFinderFlowField(map, new HeuristicClosest()).getClass());
+        assertNotNull(Astar.createPathFinderFlowField(map, 1, new HeuristicClosest()));
+        assertThrows(() -> Astar.createPathFinderFlowField(map, 0, new HeuristicClosest()),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
     /**
      * Test the create heuristic closest.
      */
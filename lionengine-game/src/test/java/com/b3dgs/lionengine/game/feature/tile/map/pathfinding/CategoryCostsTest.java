@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link CategoryCosts}.
+ */
+final class CategoryCostsTest
+{
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(CategoryCostsTest.class.getSimpleName(), Version.DEFAULT));
+
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        Medias.setResourcesDirectory(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = UtilPathfinding.createMap(services, 4, 4);
+    private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+    /**
+     * Test the costs are compiled once per mover categories configuration.
+     */
+    @Test
+    void testLoad()
+    {
+        final Setup setup = UtilPathfinding.createSetup(2.0);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+        final CategoryCosts costs = new CategoryCosts();
+        costs.load(mapPath.getCategories(), mover);
+        final CategoryProfile profile = costs.getProfile();
+
+        final int ground = mapPath.getCategoryIndex(0, 0);
+        map.setTile(1, 0, UtilMap.TILE_TREE);
+        final int tree = mapPath.getCategoryIndex(1, 0);
+        map.setTile(2, 0, UtilMap.TILE_WATER);
+        final int water = mapPath.getCategoryIndex(2, 0);
+
+        assertEquals(1.0, costs.getCost(ground));
+        assertEquals(2.0, costs.getCost(tree));
+        assertFalse(costs.isBlocking(ground));
+        assertTrue(costs.isBlocking(water));
+        assertTrue(costs.isMovementAllowed(tree, MovementTile.DIAGONAL_UP_LEFT));
+
+        costs.load(mapPath.getCategories(), UtilPathfinding.createMover(services, setup, 1, 1));
+
+        assertTrue(profile == costs.getProfile());
+
+        final Setup other = UtilPathfinding.createSetup(3.0);
+        costs.load(mapPath.getCategories(), UtilPathfinding.createMover(services, other, 0, 0));
+
+        assertNotEquals(profile, costs.getProfile());
+        assertEquals(3.0, costs.getCost(tree));
+
+        costs.load(mapPath.getCategories(), mover);
+
+        assertTrue(profile == costs.getProfile());
+
+        costs.load(Arrays.asList(UtilMap.GROUND), mover);
+
+        assertFalse(profile == costs.getProfile());
+        assertEquals(profile.getCost(ground), costs.getCost(0));
+    }
+}
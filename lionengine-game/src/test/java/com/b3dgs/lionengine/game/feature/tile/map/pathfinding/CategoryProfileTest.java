@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2013-2016 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link CategoryProfile}.
+ */
+final class CategoryProfileTest
+{
+    /** All movements mask. */
+    private static final int ALL = 0xFF;
+
+    /**
+     * Test the uniform check.
+     */
+    @Test
+    void testUniform()
+    {
+        final CategoryProfile uniform = new CategoryProfile(new double[]
+        {
+            2.0, 2.0, 0.0
+        }, new boolean[]
+        {
+            false, false, true
+        }, new int[]
+        {
+            ALL, ALL, 0
+        });
+
+        assertTrue(uniform.isUniform());
+        assertEquals(2.0, uniform.getUniformCost());
+
+        final CategoryProfile cost = new CategoryProfile(new double[]
+        {
+            1.0, 2.0
+        }, new boolean[]
+        {
+            false, false
+        }, new int[]
+        {
+            ALL, ALL
+        });
+
+        assertFalse(cost.isUniform());
+        assertTrue(Double.isNaN(cost.getUniformCost()));
+
+        final CategoryProfile movement = new CategoryProfile(new double[]
+        {
+            1.0, 1.0
+        }, new boolean[]
+        {
+            false, false
+        }, new int[]
+        {
+            ALL, 1 << MovementTile.UP.ordinal()
+        });
+
+        assertFalse(movement.isUniform());
+    }
+
+    /**
+     * Test the passable check.
+     */
+    @Test
+    void testPassable()
+    {
+        final CategoryProfile profile = new CategoryProfile(new double[]
+        {
+            1.0, 1.0
+        }, new boolean[]
+        {
+            false, true
+        }, new int[]
+        {
+            ALL, ALL
+        });
+
+        assertTrue(profile.isPassable(0));
+        assertFalse(profile.isPassable(1));
+        assertFalse(profile.isPassable(-1));
+        assertTrue(profile.isMovementAllowed(0, MovementTile.DIAGONAL_DOWN_LEFT));
+    }
+
+    /**
+     * Test the equals and hash code.
+     */
+    @Test
+    void testEquals()
+    {
+        final CategoryProfile profile = new CategoryProfile(new double[]
+        {
+            1.0
+        }, new boolean[]
+        {
+            false
+        }, new int[]
+        {
+            ALL
+        });
+        final CategoryProfile same = new CategoryProfile(new double[]
+        {
+            1.0
+        }, new boolean[]
+        {
+            false
+        }, new int[]
+        {
+            ALL
+        });
+        final CategoryProfile other = new CategoryProfile(new double[]
+        {
+            2.0
+        }, new boolean[]
+        {
+            false
+        }, new int[]
+        {
+            ALL
+        });
+
+        assertEquals(profile, profile);
+        assertEquals(profile, same);
+        assertEquals(profile.hashCode(), same.hashCode());
+        assertNotEquals(profile, other);
+        assertNotEquals(profile, null);
+        assertNotEquals(profile, new Object());
+    }
+}
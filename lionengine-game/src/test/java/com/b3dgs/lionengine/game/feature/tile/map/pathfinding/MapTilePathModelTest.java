@@ -18,6 +18,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
@@ -31,6 +32,7 @@ import com.b3dgs.lionengine.EngineMock;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.Xml;
 import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -38,6 +40,7 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
 import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
@@ -245,6 +248,63 @@ final class MapTilePathModelTest
         mapPath.removeObjectId(10, 10, Integer.valueOf(10));
     }
 
+    /**
+     * Test the shared path finder.
+     */
+    @Test
+    void testGetPathFinder()
+    {
+        final PathFinder pathFinder = mapPath.getPathFinder();
+
+        assertNotNull(pathFinder);
+        assertFalse(services.getOptional(PathFinder.class).isPresent());
+
+        mapPath.prepare(map);
+
+        assertEquals(pathFinder, mapPath.getPathFinder());
+
+        final Services registered = new Services();
+        final MapTileGame other = new MapTileGame();
+        other.addFeature(new MapTileGroupModel());
+        final MapTilePath otherPath = other.addFeatureAndGet(new MapTilePathModel(registered));
+
+        assertEquals(otherPath.getPathFinder(), registered.get(PathFinder.class));
+    }
+
+    /**
+     * Test the compiled category index.
+     */
+    @Test
+    void testGetCategoryIndex()
+    {
+        assertEquals(-1, mapPath.getCategoryIndex(0, 0));
+
+        final Xml root = new Xml(PathfindingConfig.NODE_PATHFINDING);
+        final Xml node = root.createChild(PathfindingConfig.NODE_TILE_PATH);
+        node.writeString(PathfindingConfig.ATT_CATEGORY, UtilMap.GROUND);
+        node.createChild(TileGroupsConfig.NODE_GROUP).setText(UtilMap.GROUND);
+
+        final Media media = Medias.create("pathfinding_ground.xml");
+        root.save(media);
+        mapPath.loadPathfinding(media);
+
+        assertEquals(0, mapPath.getCategoryIndex(0, 0));
+        assertEquals(UtilMap.GROUND, mapPath.getCategory(map.getTile(0, 0)));
+        assertEquals(-1, mapPath.getCategoryIndex(-1, 0));
+        assertEquals(-1, mapPath.getCategoryIndex(0, 7));
+
+        map.setTile(0, 0, UtilMap.TILE_WATER);
+
+        assertEquals(-1, mapPath.getCategoryIndex(0, 0));
+        assertNull(mapPath.getCategory(map.getTile(0, 0)));
+
+        map.setTile(0, 0, UtilMap.TILE_GROUND);
+
+        assertEquals(0, mapPath.getCategoryIndex(0, 0));
+
+        assertTrue(media.getFile().delete());
+    }
+
     /**
      * Create object test.
      * 
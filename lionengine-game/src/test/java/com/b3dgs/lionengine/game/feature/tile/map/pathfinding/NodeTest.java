@@ -50,6 +50,33 @@ final class NodeTest
         assertEquals(0, new Node(0, 0).setParent(null));
     }
 
+    /**
+     * Test the comparison on total estimated cost.
+     */
+    @Test
+    void testCompareTo()
+    {
+        final Node node = new Node(0, 0);
+        node.setCost(1.0);
+        node.setHeuristic(5.0);
+
+        final Node other = new Node(1, 0);
+        other.setCost(3.0);
+        other.setHeuristic(2.0);
+
+        assertEquals(1, node.compareTo(other));
+        assertEquals(-1, other.compareTo(node));
+
+        other.setHeuristic(3.0);
+
+        assertEquals(1, node.compareTo(other));
+
+        other.setCost(1.0);
+        other.setHeuristic(5.0);
+
+        assertEquals(0, node.compareTo(other));
+    }
+
     /**
      * Test the equality.
      */
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link OpenList}.
+ */
+final class OpenListTest
+{
+    /**
+     * Test the poll order.
+     */
+    @Test
+    void testPoll()
+    {
+        final OpenList open = new OpenList(8);
+
+        assertTrue(open.isEmpty());
+
+        open.push(0, 5.0, 0.0);
+        open.push(1, 2.0, 1.0);
+        open.push(2, 2.0, 0.0);
+        open.push(3, 7.0, 0.0);
+        open.push(4, 1.0, 0.0);
+
+        assertEquals(5, open.size());
+        assertTrue(open.contains(3));
+        assertFalse(open.contains(5));
+
+        assertEquals(4, open.poll());
+        assertEquals(2, open.poll());
+        assertEquals(1, open.poll());
+        assertEquals(0, open.poll());
+        assertEquals(3, open.poll());
+
+        assertTrue(open.isEmpty());
+        assertFalse(open.contains(3));
+    }
+
+    /**
+     * Test the decrease key.
+     */
+    @Test
+    void testDecrease()
+    {
+        final OpenList open = new OpenList(4);
+        open.push(0, 3.0, 0.0);
+        open.push(1, 2.0, 0.0);
+        open.push(2, 4.0, 0.0);
+        open.push(2, 1.0, 0.0);
+
+        assertEquals(3, open.size());
+        assertEquals(2, open.poll());
+        assertEquals(1, open.poll());
+        assertEquals(0, open.poll());
+    }
+
+    /**
+     * Test the clear and capacity.
+     */
+    @Test
+    void testClear()
+    {
+        final OpenList open = new OpenList(2);
+        open.push(0, 1.0, 0.0);
+        open.push(1, 2.0, 0.0);
+        open.clear();
+
+        assertTrue(open.isEmpty());
+        assertFalse(open.contains(0));
+
+        open.ensureCapacity(4);
+        open.push(3, 1.0, 0.0);
+
+        assertTrue(open.contains(3));
+
+        open.ensureCapacity(2);
+
+        assertTrue(open.isEmpty());
+        assertFalse(open.contains(3));
+    }
+}
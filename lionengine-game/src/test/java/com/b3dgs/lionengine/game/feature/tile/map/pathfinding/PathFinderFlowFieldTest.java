@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderFlowField}.
+ */
+final class PathFinderFlowFieldTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 16;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathFinderFlowFieldTest.class.getSimpleName(), Version.DEFAULT));
+
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        Medias.setResourcesDirectory(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = UtilPathfinding.createMap(services, SIZE, SIZE);
+    private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+    private final Setup setup = UtilPathfinding.createSetup(1.0);
+    private final PathFinderFlowField finder = new PathFinderFlowField(map, 2, Astar.createHeuristicClosest());
+
+    /**
+     * Test group move toward the same destination shares one field.
+     */
+    @Test
+    void testGroup()
+    {
+        services.add(finder);
+        UtilPathfinding.fillColumn(map, 8, 0, SIZE - 3, UtilMap.TILE_WATER);
+
+        final Pathfindable mover1 = UtilPathfinding.createMover(services, setup, 1, 1);
+        final Pathfindable mover2 = UtilPathfinding.createMover(services, setup, 2, 5);
+        final Pathfindable mover3 = UtilPathfinding.createMover(services, setup, 0, 10);
+        final FlowField field = finder.getField(mover1, 14, 2);
+
+        assertTrue(mover1.setDestination(14, 2));
+        assertTrue(mover2.setDestination(14, 2));
+        assertTrue(mover3.setDestination(14, 2));
+
+        assertTrue(field == finder.getField(mover2, 14, 2));
+        assertTrue(field == finder.getField(mover3, 14, 2));
+
+        for (final Pathfindable mover : new Pathfindable[]
+        {
+            mover1, mover2, mover3
+        })
+        {
+            UtilPathfinding.assertPath(map, mover, finder.findPath(mover, 14, 2, false), 14, 2);
+        }
+
+        final Pathfindable other = UtilPathfinding.createMover(services, UtilPathfinding.createSetup(2.0), 1, 1);
+
+        assertFalse(field == finder.getField(other, 14, 2));
+    }
+
+    /**
+     * Test least recently used field is evicted.
+     */
+    @Test
+    void testEviction()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+        final FlowField field1 = finder.getField(mover, 10, 10);
+        final FlowField field2 = finder.getField(mover, 11, 11);
+
+        assertTrue(field1 == finder.getField(mover, 10, 10));
+
+        finder.getField(mover, 12, 12);
+
+        assertTrue(field1 == finder.getField(mover, 10, 10));
+        assertFalse(field2 == finder.getField(mover, 11, 11));
+    }
+
+    /**
+     * Test cached field is recomputed after tile change.
+     */
+    @Test
+    void testRevision()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+        final FlowField field = finder.getField(mover, 10, 10);
+
+        assertEquals(10.0, UtilPathfinding.getCost(map, mover, finder.findPath(mover, 10, 10, false)));
+
+        UtilPathfinding.fillColumn(map, 5, 0, SIZE - 3, UtilMap.TILE_WATER);
+        final FlowField updated = finder.getField(mover, 10, 10);
+
+        assertFalse(field == updated);
+        assertTrue(updated == finder.getField(mover, 10, 10));
+
+        final Path path = finder.findPath(mover, 10, 10, false);
+        UtilPathfinding.assertPath(map, mover, path, 10, 10);
+        assertTrue(UtilPathfinding.getCost(map, mover, path) > 10.0);
+
+        finder.dispose();
+        map.setTile(0, SIZE - 1, UtilMap.TILE_TREE);
+
+        assertFalse(updated == finder.getField(mover, 10, 10));
+    }
+
+    /**
+     * Check if path goes through tile.
+     * 
+     * @param path The path reference.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if tile is on path, <code>false</code> else.
+     */
+    private static boolean contains(Path path, int tx, int ty)
+    {
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            if (path.getX(i) == tx && path.getY(i) == ty)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test path crossing a blocking object in a corridor is repaired through the costly side tile, but kept when objects are ignored.
+     */
+    @Test
+    void testRepair()
+    {
+        for (int tx = 2; tx < 9; tx++)
+        {
+            map.setTile(tx, 4, UtilMap.TILE_WATER);
+            map.setTile(tx, 6, UtilMap.TILE_WATER);
+        }
+        map.setTile(5, 6, UtilMap.TILE_TREE);
+        final Pathfindable mover = UtilPathfinding.createMover(services, UtilPathfinding.createSetup(3.0), 0, 5);
+
+        assertTrue(contains(finder.findPath(mover, 10, 5, false), 5, 5));
+
+        mapPath.addObjectId(5, 5, Integer.valueOf(42));
+        final Path repaired = finder.findPath(mover, 10, 5, false);
+
+        assertNotNull(repaired);
+        UtilPathfinding.assertPath(map, mover, repaired, 10, 5);
+        assertFalse(contains(repaired, 5, 5));
+        assertTrue(contains(repaired, 5, 6));
+
+        assertTrue(contains(finder.findPath(mover, 10, 5, true), 5, 5));
+    }
+}
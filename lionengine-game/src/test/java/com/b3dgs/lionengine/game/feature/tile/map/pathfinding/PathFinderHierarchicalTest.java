@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.ListenableModel;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileSurface;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHierarchical}.
+ */
+final class PathFinderHierarchicalTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 24;
+    /** Cluster size in tile. */
+    private static final int CLUSTER = 4;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathFinderHierarchicalTest.class.getSimpleName(), Version.DEFAULT));
+
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        Medias.setResourcesDirectory(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = UtilPathfinding.createMap(services, SIZE, SIZE);
+    private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+    private final Setup setup = UtilPathfinding.createSetup(1.0);
+    private final PathFinder finder = Astar.createPathFinderHierarchical(map, CLUSTER, Astar.createHeuristicClosest());
+    private final PathFinder astar = new PathFinderImpl(map, mapPath, Astar.createHeuristicClosest());
+
+    /**
+     * Check hierarchical path is valid and close to the optimal one.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The horizontal destination in tile.
+     * @param dty The vertical destination in tile.
+     * @return The hierarchical path cost.
+     */
+    private double assertPath(Pathfindable mover, int dtx, int dty)
+    {
+        final Path path = finder.findPath(mover, dtx, dty, false);
+        final Path optimal = astar.findPath(mover, dtx, dty, false);
+
+        assertNotNull(path);
+        assertNotNull(optimal);
+        UtilPathfinding.assertPath(map, mover, path, dtx, dty);
+
+        final double cost = UtilPathfinding.getCost(map, mover, path);
+        final double optimalCost = UtilPathfinding.getCost(map, mover, optimal);
+        assertTrue(cost >= optimalCost);
+        assertTrue(cost <= optimalCost * 1.5);
+
+        return cost;
+    }
+
+    /**
+     * Test path across several clusters around an obstacle.
+     */
+    @Test
+    void testPath()
+    {
+        UtilPathfinding.fillColumn(map, 12, 0, SIZE / 2, UtilMap.TILE_WATER);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+
+        assertPath(mover, 22, 2);
+    }
+
+    /**
+     * Test no path when destination is not reachable.
+     */
+    @Test
+    void testNoPath()
+    {
+        UtilPathfinding.fillColumn(map, 12, 0, SIZE - 1, UtilMap.TILE_WATER);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+
+        assertNull(finder.findPath(mover, 22, 2, false));
+        assertNull(astar.findPath(mover, 22, 2, false));
+    }
+
+    /**
+     * Test blocked destination is replaced by the closest available tile, searched hierarchically.
+     */
+    @Test
+    void testBlockedDestination()
+    {
+        UtilPathfinding.fillColumn(map, 20, 0, SIZE - 1, UtilMap.TILE_WATER);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+
+        final Path path = finder.findPath(mover, 20, 2, false);
+        final Path optimal = astar.findPath(mover, 20, 2, false);
+
+        assertNotNull(path);
+        assertNotNull(optimal);
+        final int tx = optimal.getX(optimal.getLength() - 1);
+        final int ty = optimal.getY(optimal.getLength() - 1);
+        assertEquals(19, tx);
+        UtilPathfinding.assertPath(map, mover, path, tx, ty);
+    }
+
+    /**
+     * Test no path when blocked destination is next to start.
+     */
+    @Test
+    void testBlockedNear()
+    {
+        UtilPathfinding.fillColumn(map, 2, 0, SIZE - 1, UtilMap.TILE_WATER);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+
+        assertNull(finder.findPath(mover, 2, 1, false));
+    }
+
+    /**
+     * Test path with start and destination on cluster entrances, which must use their inter edges.
+     */
+    @Test
+    void testEntrance()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, CLUSTER - 1, 1);
+
+        assertEquals(20.0 - (CLUSTER - 1), assertPath(mover, 20, 1));
+
+        mover.setLocation(1, 1);
+
+        assertEquals(19.0, assertPath(mover, 20, 1));
+    }
+
+    /**
+     * Test path in the same cluster, delegated to the tile finder.
+     */
+    @Test
+    void testSameCluster()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+        final Path path = finder.findPath(mover, CLUSTER - 1, CLUSTER - 1, false);
+
+        assertNotNull(path);
+        UtilPathfinding.assertPath(map, mover, path, CLUSTER - 1, CLUSTER - 1);
+        assertEquals(astar.findPath(mover, CLUSTER - 1, CLUSTER - 1, false).getLength(), path.getLength());
+    }
+
+    /**
+     * Test cached graph is updated on tile change.
+     */
+    @Test
+    void testTileChanged()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+
+        assertEquals(21.0, assertPath(mover, 22, 1));
+
+        UtilPathfinding.fillColumn(map, 12, 0, SIZE / 2, UtilMap.TILE_WATER);
+
+        assertTrue(assertPath(mover, 22, 1) > 21.0);
+
+        UtilPathfinding.fillColumn(map, 12, SIZE / 2 + 1, SIZE - 1, UtilMap.TILE_WATER);
+
+        assertNull(finder.findPath(mover, 22, 1, false));
+    }
+
+    /**
+     * Test finder is disposed when map is destroyed.
+     */
+    @Test
+    void testMapDestroyed()
+    {
+        final MapTileSurface surface = map.getFeature(MapTileSurface.class);
+        final ListenableModel<?> listenable = UtilReflection.getField(surface, "listenable");
+        final int count = listenable.size();
+
+        map.getFeature(Identifiable.class).destroy();
+
+        assertEquals(count - 2, listenable.size());
+        assertTrue(((Map<?, ?>) UtilReflection.getField(finder, "graphs")).isEmpty());
+    }
+
+    /**
+     * Test finder can still search after dispose, without cached graph.
+     */
+    @Test
+    void testDispose()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+        assertPath(mover, 22, 1);
+
+        finder.dispose();
+        UtilPathfinding.fillColumn(map, 12, 0, SIZE / 2, UtilMap.TILE_WATER);
+
+        assertPath(mover, 22, 1);
+    }
+}
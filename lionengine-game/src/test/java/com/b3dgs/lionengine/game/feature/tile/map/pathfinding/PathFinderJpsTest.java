@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderJps}.
+ */
+final class PathFinderJpsTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 24;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathFinderJpsTest.class.getSimpleName(), Version.DEFAULT));
+
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        Medias.setResourcesDirectory(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final MapTileGame map = UtilPathfinding.createMap(services, SIZE, SIZE);
+    private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+    private final Setup setup = UtilPathfinding.createSetup(1.0);
+    private final PathFinder finder = Astar.createPathFinderJps(map, Astar.createHeuristicClosest());
+    private final PathFinder astar = new PathFinderImpl(map, mapPath, Astar.createHeuristicClosest());
+
+    /**
+     * Check jump point path has the same cost as the A* one, or both are not found.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The horizontal destination in tile.
+     * @param dty The vertical destination in tile.
+     * @return The jump point path.
+     */
+    private Path assertSameCost(Pathfindable mover, int dtx, int dty)
+    {
+        final Path path = finder.findPath(mover, dtx, dty, false);
+        final Path optimal = astar.findPath(mover, dtx, dty, false);
+        if (optimal == null)
+        {
+            assertNull(path);
+        }
+        else
+        {
+            assertNotNull(path);
+            UtilPathfinding.assertPath(map, mover, path, dtx, dty);
+            assertEquals(UtilPathfinding.getCost(map, mover, optimal), UtilPathfinding.getCost(map, mover, path));
+        }
+        return path;
+    }
+
+    /**
+     * Test same cost as A* on open map.
+     */
+    @Test
+    void testOpen()
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+
+        assertSameCost(mover, SIZE - 1, SIZE - 1);
+        assertSameCost(mover, SIZE - 1, 3);
+        assertSameCost(mover, 5, SIZE - 1);
+
+        mover.setLocation(12, 12);
+
+        assertSameCost(mover, 0, 0);
+        assertSameCost(mover, 12, 0);
+        assertSameCost(mover, 3, 20);
+    }
+
+    /**
+     * Test same cost as A* on map with obstacles, including unreachable destinations.
+     */
+    @Test
+    void testObstacles()
+    {
+        UtilPathfinding.fillColumn(map, 6, 0, SIZE - 3, UtilMap.TILE_WATER);
+        UtilPathfinding.fillColumn(map, 12, 2, SIZE - 1, UtilMap.TILE_WATER);
+        UtilPathfinding.fillColumn(map, 18, 4, 16, UtilMap.TILE_WATER);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                if ((tx * 7 + ty * 3) % 11 == 0)
+                {
+                    map.setTile(tx, ty, UtilMap.TILE_WATER);
+                }
+            }
+        }
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 1, 1);
+        map.setTile(1, 1, UtilMap.TILE_GROUND);
+
+        int found = 0;
+        for (int ty = 0; ty < SIZE; ty += 3)
+        {
+            for (int tx = 2; tx < SIZE; tx += 5)
+            {
+                if (!mapPath.isBlocked(mover, tx, ty, false) && assertSameCost(mover, tx, ty) != null)
+                {
+                    found++;
+                }
+            }
+        }
+        assertTrue(found > 10);
+
+        map.setTile(21, 20, UtilMap.TILE_WATER);
+        map.setTile(22, 21, UtilMap.TILE_WATER);
+        map.setTile(21, 22, UtilMap.TILE_WATER);
+        map.setTile(20, 21, UtilMap.TILE_WATER);
+        map.setTile(20, 20, UtilMap.TILE_WATER);
+        map.setTile(22, 20, UtilMap.TILE_WATER);
+        map.setTile(20, 22, UtilMap.TILE_WATER);
+        map.setTile(22, 22, UtilMap.TILE_WATER);
+
+        assertNull(finder.findPath(mover, 21, 21, false));
+    }
+
+    /**
+     * Test diagonal move cutting the corner between two blocking tiles, as A* does.
+     */
+    @Test
+    void testCornerCutting()
+    {
+        map.setTile(5, 4, UtilMap.TILE_WATER);
+        map.setTile(4, 5, UtilMap.TILE_WATER);
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+        final Path path = assertSameCost(mover, 9, 9);
+
+        assertEquals(10, path.getLength());
+        assertEquals(4, path.getX(4));
+        assertEquals(4, path.getY(4));
+        assertEquals(5, path.getX(5));
+        assertEquals(5, path.getY(5));
+    }
+
+    /**
+     * Test non uniform mover falls back to A*.
+     */
+    @Test
+    void testNonUniform()
+    {
+        UtilPathfinding.fillColumn(map, 8, 0, SIZE - 1, UtilMap.TILE_TREE);
+        UtilPathfinding.fillColumn(map, 9, 0, SIZE - 1, UtilMap.TILE_TREE);
+        final Pathfindable mover = UtilPathfinding.createMover(services, UtilPathfinding.createSetup(3.0), 0, 0);
+        final Path path = finder.findPath(mover, 20, 20, false);
+        final Path expected = astar.findPath(mover, 20, 20, false);
+
+        assertEquals(expected.getLength(), path.getLength());
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertEquals(expected.getX(i), path.getX(i));
+            assertEquals(expected.getY(i), path.getY(i));
+        }
+    }
+
+    /**
+     * Test maximum search distance.
+     */
+    @Test
+    void testMaxSearchDistance()
+    {
+        final PathFinder limited = Astar.createPathFinderJps(map, 8, Astar.createHeuristicClosest());
+        final Pathfindable mover = UtilPathfinding.createMover(services, setup, 0, 0);
+
+        assertEquals(9, limited.findPath(mover, 8, 5, false).getLength());
+        assertNull(limited.findPath(mover, 9, 5, false));
+
+        UtilPathfinding.fillColumn(map, 4, 0, SIZE - 3, UtilMap.TILE_WATER);
+
+        assertNull(limited.findPath(mover, 8, 5, false));
+    }
+}
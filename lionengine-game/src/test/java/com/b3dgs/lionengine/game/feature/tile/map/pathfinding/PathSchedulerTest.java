@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Engine;
+import com.b3dgs.lionengine.EngineMock;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Version;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathScheduler}.
+ */
+final class PathSchedulerTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Start engine.
+     */
+    @BeforeAll
+    static void beforeAll()
+    {
+        Engine.start(new EngineMock(PathSchedulerTest.class.getSimpleName(), Version.DEFAULT));
+
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig(PathSchedulerTest.class);
+        Medias.setLoadFromJar(PathSchedulerTest.class);
+    }
+
+    /**
+     * Terminate engine.
+     */
+    @AfterAll
+    static void afterAll()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+        Medias.setLoadFromJar(null);
+
+        Engine.terminate();
+    }
+
+    private final Services services = new Services();
+    private final Setup setup = new Setup(config);
+    private final MapTileGame map = services.add(new MapTileGame());
+    private final PathScheduler scheduler = services.add(new PathScheduler(1.0));
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, 7, 7);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel());
+        mapPath.loadPathfinding(Medias.create("pathfinding.xml"));
+    }
+
+    /**
+     * Test with invalid budget.
+     */
+    @Test
+    void testInvalidBudget()
+    {
+        assertThrows(() -> new PathScheduler(0.0), "Invalid argument: 0.0 is not strictly superior to 0.0");
+    }
+
+    /**
+     * Test request is queued and coalesced.
+     */
+    @Test
+    void testRequest()
+    {
+        final Pathfindable mover = createObject();
+
+        assertFalse(mover.setDestination(3, 3));
+        assertTrue(scheduler.isPending(mover));
+        assertEquals(1, scheduler.getPending());
+
+        assertFalse(mover.setDestination(4, 4));
+
+        assertEquals(1, scheduler.getPending());
+
+        scheduler.update(1.0);
+
+        assertFalse(scheduler.isPending(mover));
+        assertEquals(0, scheduler.getPending());
+    }
+
+    /**
+     * Test request cancel.
+     */
+    @Test
+    void testCancel()
+    {
+        final Pathfindable mover = createObject();
+        final Pathfindable other = createObject();
+
+        mover.setDestination(3, 3);
+        other.setDestination(3, 3);
+
+        assertEquals(2, scheduler.getPending());
+
+        mover.stopMoves();
+
+        assertFalse(scheduler.isPending(mover));
+        assertTrue(scheduler.isPending(other));
+
+        other.setDestination(0, 0);
+
+        assertFalse(scheduler.isPending(other));
+
+        mover.setDestination(3, 3);
+        scheduler.clear();
+
+        assertEquals(0, scheduler.getPending());
+    }
+
+    /**
+     * Test new path while moving is queued on step point, mover waiting until found.
+     */
+    @Test
+    void testRepath()
+    {
+        final Services moverServices = new Services();
+        final PathScheduler moverScheduler = moverServices.add(new PathScheduler(1.0));
+        UtilPathfinding.createMap(moverServices, 8, 8);
+        final Pathfindable mover = UtilPathfinding.createMover(moverServices, UtilPathfinding.createSetup(1.0), 0, 1);
+        mover.setSpeed(1.0, 1.0);
+
+        assertFalse(mover.setDestination(3, 3));
+        assertTrue(mover.isPathPending());
+
+        moverScheduler.update(1.0);
+
+        assertFalse(mover.isPathPending());
+
+        mover.update(1.0);
+
+        assertTrue(mover.isMoving());
+        assertFalse(mover.setDestination(5, 1));
+        assertTrue(mover.isPathPending());
+        assertEquals(0, moverScheduler.getPending());
+
+        for (int i = 0; i < 10 && moverScheduler.getPending() == 0; i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(moverScheduler.isPending(mover));
+
+        final int tx = mover.getInTileX();
+        final int ty = mover.getInTileY();
+        mover.update(1.0);
+
+        assertEquals(tx, mover.getInTileX());
+        assertEquals(ty, mover.getInTileY());
+
+        assertFalse(mover.setDestination(6, 1));
+        assertEquals(1, moverScheduler.getPending());
+
+        moverScheduler.update(1.0);
+
+        assertFalse(mover.isPathPending());
+
+        for (int i = 0; i < 20 && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(mover.isDestinationReached());
+        assertEquals(6, mover.getInTileX());
+        assertEquals(1, mover.getInTileY());
+    }
+
+    /**
+     * Create object test.
+     * 
+     * @return The object test.
+     */
+    private Pathfindable createObject()
+    {
+        final FeaturableModel object = new FeaturableModel(services, setup);
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(services, setup));
+        transformable.setSize(1, 1);
+
+        return object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013-2021 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Utilities dedicated to path finders test.
+ */
+final class UtilPathfinding
+{
+    /**
+     * Create a ground map with its path feature. Ground, tree and water groups are mapped to their category.
+     * 
+     * @param services The services reference.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return The created map.
+     */
+    public static MapTileGame createMap(Services services, int width, int height)
+    {
+        services.add(new Camera());
+        final MapTileGame map = services.add(new MapTileGame());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, width, height);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        final Xml root = new Xml(PathfindingConfig.NODE_PATHFINDING);
+        for (final String category : Arrays.asList(UtilMap.GROUND, UtilMap.TREE, UtilMap.WATER))
+        {
+            final Xml node = root.createChild(PathfindingConfig.NODE_TILE_PATH);
+            node.writeString(PathfindingConfig.ATT_CATEGORY, category);
+            node.createChild(TileGroupsConfig.NODE_GROUP).setText(category);
+        }
+        final Media media = Medias.create("pathfinding_util.xml");
+        root.save(media);
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel());
+        mapPath.loadPathfinding(media);
+        assertTrue(media.getFile().delete());
+
+        return map;
+    }
+
+    /**
+     * Create a mover setup, walking on ground with a cost of 1 and blocked by water, all movements allowed.
+     * 
+     * @param treeCost The cost on tree.
+     * @return The mover setup.
+     */
+    public static Setup createSetup(double treeCost)
+    {
+        final Map<String, PathData> categories = new HashMap<>();
+        categories.put(UtilMap.GROUND,
+                       new PathData(UtilMap.GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        categories.put(UtilMap.TREE, new PathData(UtilMap.TREE, treeCost, false, Arrays.asList(MovementTile.values())));
+        categories.put(UtilMap.WATER, new PathData(UtilMap.WATER, 1.0, true, Arrays.asList(MovementTile.values())));
+
+        final Xml root = new Xml(Constant.XML_PREFIX + "featurable");
+        root.add(PathfindableConfig.exports(categories));
+
+        final Media media = Medias.create("pathfindable_util.xml");
+        root.save(media);
+        final Setup setup = new Setup(media);
+        assertTrue(media.getFile().delete());
+
+        return setup;
+    }
+
+    /**
+     * Create a mover located on tile.
+     * 
+     * @param services The services reference.
+     * @param setup The mover setup.
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The created mover.
+     */
+    public static Pathfindable createMover(Services services, Setup setup, int tx, int ty)
+    {
+        final FeaturableModel object = new FeaturableModel(services, setup);
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(services, setup));
+        transformable.setSize(1, 1);
+
+        final Pathfindable mover = object.addFeatureAndGet(new PathfindableModel(services, setup));
+        mover.setLocation(tx, ty);
+
+        return mover;
+    }
+
+    /**
+     * Fill a vertical line of tiles.
+     * 
+     * @param map The map reference.
+     * @param tx The horizontal location in tile.
+     * @param from The first vertical location in tile.
+     * @param to The last vertical location in tile (included).
+     * @param number The tile number.
+     */
+    public static void fillColumn(MapTileGame map, int tx, int from, int to, int number)
+    {
+        for (int ty = from; ty <= to; ty++)
+        {
+            map.setTile(tx, ty, number);
+        }
+    }
+
+    /**
+     * Get the path cost for mover, each step costing its source tile.
+     * 
+     * @param map The map reference.
+     * @param mover The mover reference.
+     * @param path The path reference.
+     * @return The path cost.
+     */
+    public static double getCost(MapTileGame map, Pathfindable mover, Path path)
+    {
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        double cost = 0.0;
+        for (int i = 0; i < path.getLength() - 1; i++)
+        {
+            cost += mapPath.getCost(mover, path.getX(i), path.getY(i));
+        }
+        return cost;
+    }
+
+    /**
+     * Check path goes from start to destination, by adjacent and not blocked steps.
+     * 
+     * @param map The map reference.
+     * @param mover The mover reference.
+     * @param path The path reference.
+     * @param dtx The horizontal destination in tile.
+     * @param dty The vertical destination in tile.
+     */
+    public static void assertPath(MapTileGame map, Pathfindable mover, Path path, int dtx, int dty)
+    {
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final int last = path.getLength() - 1;
+
+        assertEquals(mover.getInTileX(), path.getX(0));
+        assertEquals(mover.getInTileY(), path.getY(0));
+        assertEquals(dtx, path.getX(last));
+        assertEquals(dty, path.getY(last));
+
+        for (int i = 1; i <= last; i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) < 2);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) < 2);
+            assertFalse(path.getX(i) == path.getX(i - 1) && path.getY(i) == path.getY(i - 1));
+            assertFalse(mapPath.isBlocked(mover, path.getX(i), path.getY(i), false));
+        }
+    }
+}
@@ -20,11 +20,14 @@ import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -32,11 +35,13 @@ import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.TileSheetsConfig;
 import com.b3dgs.lionengine.io.FileReading;
+import com.b3dgs.lionengine.io.FileWriting;
 
 /**
  * Test {@link MapTilePersisterModel}.
@@ -194,4 +199,210 @@ final class MapTilePersisterModelTest
 
         mapPersister.prepare(map);
     }
+
+    /**
+     * Test the save and load map in blocks format, from stream and mapped file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testSaveLoadBlocks() throws IOException
+    {
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTilePersisterModel(true));
+        map.create(16, 32, 300, 200);
+        for (int ty = 1; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                map.setTile(tx, ty, tx / 50 + ty % 3);
+            }
+        }
+
+        final Media level = Medias.create("level");
+        UtilMapTilePersister.saveMap(map, level);
+        final long length = level.getFile().length();
+
+        final MapTileGame legacy = new MapTileGame();
+        legacy.addFeature(new MapTilePersisterModel());
+        legacy.create(16, 32, 300, 200);
+        legacy.getFeature(MapTilePersister.class).load(level);
+        UtilMapTilePersister.saveMap(legacy, level);
+
+        assertTrue(length * 100 < level.getFile().length());
+
+        UtilMapTilePersister.saveMap(map, level);
+        final MapTileGame mapLoaded = UtilMapTilePersister.loadMap(level);
+        final MapTileGame mapMapped = new MapTileGame();
+        mapMapped.addFeature(new MapTilePersisterModel());
+        mapMapped.getFeature(MapTilePersister.class).load(level);
+
+        for (final MapTile loaded : new MapTile[]
+        {
+            mapLoaded, mapMapped
+        })
+        {
+            assertEquals(map.getTileWidth(), loaded.getTileWidth());
+            assertEquals(map.getTileHeight(), loaded.getTileHeight());
+            assertEquals(map.getInTileWidth(), loaded.getInTileWidth());
+            assertEquals(map.getInTileHeight(), loaded.getInTileHeight());
+            assertEquals(map.getTilesNumber(), loaded.getTilesNumber());
+            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            {
+                for (int tx = 0; tx < map.getInTileWidth(); tx++)
+                {
+                    assertEquals(map.getTile(tx, ty), loaded.getTile(tx, ty));
+                }
+            }
+        }
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the save and load map in blocks format with sheet config, and legacy load from file.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testSaveLoadBlocksWithConfig() throws IOException
+    {
+        final Media config = Medias.create("config.xml");
+
+        TileSheetsConfig.exports(config, 16, 32, new ArrayList<String>());
+
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTilePersisterModel(true));
+        map.create(16, 32, 3, 3);
+        map.loadSheets(config);
+
+        final Media level = Medias.create("level");
+        UtilMapTilePersister.saveMap(map, level);
+        final MapTileGame mapLoaded = UtilMapTilePersister.loadMap(level);
+
+        assertEquals(config, mapLoaded.getMedia());
+        assertEquals(0, mapLoaded.getTilesNumber());
+
+        final MapTile legacy = UtilMapTilePersister.createMap();
+        UtilMapTilePersister.saveMap(legacy, level);
+        final MapTileGame legacyLoaded = new MapTileGame();
+        legacyLoaded.addFeature(new MapTilePersisterModel(true));
+        legacyLoaded.getFeature(MapTilePersister.class).load(level);
+
+        assertEquals(legacy.getTilesNumber(), legacyLoaded.getTilesNumber());
+        assertEquals(legacy.getTile(2, 2), legacyLoaded.getTile(2, 2));
+
+        assertTrue(config.getFile().delete());
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test load invalid blocks.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testLoadInvalidBlocks() throws IOException
+    {
+        final MapTileGame map = new MapTileGame();
+        map.addFeature(new MapTilePersisterModel(true));
+        map.create(16, 32, 3, 3);
+        map.setTile(1, 1, 1);
+
+        final Media level = Medias.create("level");
+        UtilMapTilePersister.saveMap(map, level);
+        try (RandomAccessFile file = new RandomAccessFile(level.getFile(), "rw"))
+        {
+            file.setLength(file.length() - 1L);
+        }
+
+        final MapTilePersister persister = new MapTileGame().addFeatureAndGet(new MapTilePersisterModel());
+        assertThrows(() -> persister.load(level), "Invalid map block: truncated");
+
+        final Deflater deflater = new Deflater();
+        deflater.setInput(new byte[]
+        {
+            2, 1
+        });
+        deflater.finish();
+        final byte[] block = new byte[64];
+        final int length = deflater.deflate(block);
+        deflater.end();
+
+        try (FileWriting output = new FileWriting(level))
+        {
+            output.writeByte(MapTilePersisterModel.FORMAT_BLOCKS);
+            output.writeInteger(Integer.BYTES * 9 + length);
+            output.writeInteger(-1);
+            output.writeInteger(16);
+            output.writeInteger(32);
+            output.writeInteger(1);
+            output.writeInteger(1);
+            output.writeInteger(1);
+            output.writeInteger(1);
+            output.writeInteger(2);
+            output.writeInteger(length);
+            output.writeBytes(block, 0, length);
+        }
+        assertThrows(() -> persister.load(level), "Invalid map block: too many tiles");
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test blocks format is rejected with overridden tile hooks, legacy format still calling them.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    void testBlocksHooked() throws IOException
+    {
+        final String error = "Blocks format does not support overridden saveTile or loadTile: "
+                             + Hooked.class.getName();
+        assertThrows(() -> new Hooked(true), error);
+
+        final Media level = Medias.create("level");
+        final MapTile legacy = UtilMapTilePersister.createMap();
+        UtilMapTilePersister.saveMap(legacy, level);
+
+        final MapTileGame map = new MapTileGame();
+        final Hooked hooked = map.addFeatureAndGet(new Hooked(false));
+        hooked.load(level);
+
+        assertEquals(legacy.getTilesNumber(), map.getTilesNumber());
+        assertEquals(legacy.getTilesNumber(), hooked.loaded);
+
+        final MapTileGame blocks = new MapTileGame();
+        blocks.addFeature(new MapTilePersisterModel(true));
+        blocks.create(16, 32, 3, 3);
+        UtilMapTilePersister.saveMap(blocks, level);
+
+        assertThrows(() -> hooked.load(level), error);
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Persister counting loaded tiles.
+     */
+    @FeatureInterface
+    private static final class Hooked extends MapTilePersisterModel
+    {
+        /** Loaded tiles count. */
+        private int loaded;
+
+        /**
+         * Create persister.
+         * 
+         * @param blocks The blocks format flag.
+         */
+        Hooked(boolean blocks)
+        {
+            super(blocks);
+        }
+
+        @Override
+        protected void loadTile(FileReading file, int i) throws IOException
+        {
+            super.loadTile(file, i);
+            loaded++;
+        }
+    }
 }
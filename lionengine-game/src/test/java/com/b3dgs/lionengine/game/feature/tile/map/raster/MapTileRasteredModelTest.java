@@ -32,7 +32,6 @@ import com.b3dgs.lionengine.EngineMock;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Version;
 import com.b3dgs.lionengine.ViewerMock;
-import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer;
@@ -89,7 +88,6 @@ final class MapTileRasteredModelTest
     @BeforeEach
     public void prepare()
     {
-        services.add(new Camera());
         viewer = services.add(new ViewerMock());
         viewer.set(-20, -20);
 
@@ -29,7 +29,9 @@ import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.ViewerMock;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
@@ -37,6 +39,7 @@ import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewerModel;
 import com.b3dgs.lionengine.geom.Geom;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
@@ -187,6 +190,40 @@ final class FogOfWarTest
         assertTrue(fog.isVisited(Geom.createArea(3, 3, 1, 1)));
     }
 
+    /**
+     * Test the fog of war invalidates the cached map viewer.
+     */
+    @Test
+    void testInvalidate()
+    {
+        services.add(new ViewerMock());
+        final Invalidated viewer = map.addFeatureAndGet(new Invalidated(services));
+        final AtomicInteger tiles = viewer.tiles;
+        final AtomicInteger all = viewer.all;
+
+        assertTrue(fog.isCacheable());
+
+        fog.setEnabled(true, true);
+
+        assertEquals(1, all.get());
+
+        Medias.setLoadFromJar(MapTileFog.class);
+        fog.create(Medias.create("fog.xml"));
+        Medias.setLoadFromJar(null);
+        tiles.set(0);
+
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel(services, setup);
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(services, setup));
+        final FovableModel fovable = object.addFeatureAndGet(new FovableModel(services, setup));
+        fovable.prepare(object);
+        fovable.setFov(1);
+        transformable.teleport(3, 3);
+        fog.update(fovable);
+
+        assertTrue(tiles.get() > 0);
+    }
+
     /**
      * Test the fog of war render.
      */
@@ -231,4 +268,38 @@ final class FogOfWarTest
 
         assertTrue(fog.hasFogOfWar());
     }
+
+    /**
+     * Map viewer counting invalidations.
+     */
+    @FeatureInterface
+    private static final class Invalidated extends MapTileViewerModel
+    {
+        /** Invalidated tiles count. */
+        private final AtomicInteger tiles = new AtomicInteger();
+        /** Invalidated all count. */
+        private final AtomicInteger all = new AtomicInteger();
+
+        /**
+         * Create viewer.
+         * 
+         * @param services The services reference.
+         */
+        Invalidated(Services services)
+        {
+            super(services, 2);
+        }
+
+        @Override
+        public void invalidate(int tx, int ty)
+        {
+            tiles.incrementAndGet();
+        }
+
+        @Override
+        public void invalidate()
+        {
+            all.incrementAndGet();
+        }
+    }
 }
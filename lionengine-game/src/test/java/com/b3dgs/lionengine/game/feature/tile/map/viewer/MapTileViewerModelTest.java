@@ -16,11 +16,14 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,13 +31,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.ViewerMock;
-import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.ImageBufferMock;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
@@ -49,6 +56,7 @@ final class MapTileViewerModelTest
     @BeforeAll
     public static void beforeTests()
     {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
         Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
     }
 
@@ -59,6 +67,31 @@ final class MapTileViewerModelTest
     public static void afterTests()
     {
         Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a cacheable renderer counting rendered tiles.
+     * 
+     * @param count The rendered tiles count.
+     * @return The renderer.
+     */
+    private static MapTileRenderer createCacheable(AtomicInteger count)
+    {
+        return new MapTileRenderer()
+        {
+            @Override
+            public void renderTile(Graphic g, Tile tile, int x, int y)
+            {
+                count.incrementAndGet();
+            }
+
+            @Override
+            public boolean isCacheable()
+            {
+                return true;
+            }
+        };
     }
 
     private final Services services = new Services();
@@ -73,7 +106,6 @@ final class MapTileViewerModelTest
     @BeforeEach
     public void prepare()
     {
-        services.add(new Camera());
         viewer = services.add(new ViewerMock());
         viewer.set(-20, -20);
 
@@ -129,4 +161,207 @@ final class MapTileViewerModelTest
         map.clear();
         mapViewer.render(g);
     }
+
+    /**
+     * Test the cached viewer bakes chunks only when invalidated.
+     */
+    @Test
+    void testCached()
+    {
+        final MapTileViewer cached = new MapTileViewerModel(services, 2);
+        cached.prepare(map);
+
+        final AtomicInteger count = new AtomicInteger();
+        cached.addRenderer(createCacheable(count));
+        cached.render(g);
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 4, 4);
+        map.setTile(0, 0, 0);
+        map.setTile(1, 1, 1);
+        map.setTile(3, 3, 0);
+        cached.render(g);
+
+        assertEquals(3, count.get());
+
+        cached.render(g);
+
+        assertEquals(3, count.get());
+
+        map.setTile(3, 3, 1);
+        cached.render(g);
+
+        assertEquals(4, count.get());
+
+        cached.invalidate(0, 0);
+        cached.invalidate(-1, 0);
+        cached.invalidate(0, 4);
+        cached.render(g);
+
+        assertEquals(6, count.get());
+
+        map.removeTile(1, 1);
+        cached.invalidate(1, 1);
+        cached.render(g);
+
+        assertEquals(7, count.get());
+
+        cached.invalidate();
+        cached.render(g);
+
+        assertEquals(9, count.get());
+
+        map.clear();
+        cached.render(g);
+        map.create(40, 40, 4, 4);
+        cached.render(g);
+
+        assertEquals(9, count.get());
+    }
+
+    /**
+     * Test the cached viewer releases chunks not visible.
+     */
+    @Test
+    void testCachedRelease()
+    {
+        final Services other = new Services();
+        final ViewerMock view = other.add(new ViewerMock());
+        final MapTileViewer cached = new MapTileViewerModel(other, 2);
+        cached.prepare(map);
+
+        final AtomicInteger count = new AtomicInteger();
+        cached.addRenderer(createCacheable(count));
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 40, 40);
+        for (int ty = 0; ty < 40; ty++)
+        {
+            for (int tx = 0; tx < 40; tx++)
+            {
+                map.setTile(tx, ty, 0);
+            }
+        }
+
+        view.set(0, 0);
+        cached.render(g);
+        final int visible = count.get();
+        view.set(400, 0);
+        cached.render(g);
+        view.set(800, 0);
+        cached.render(g);
+
+        assertEquals(visible * 3, count.get());
+
+        view.set(800, 0);
+        cached.render(g);
+
+        assertEquals(visible * 3, count.get());
+
+        view.set(0, 0);
+        cached.render(g);
+
+        assertEquals(visible * 4, count.get());
+    }
+
+    /**
+     * Test the cached viewer reuses chunk buffers, and bakes again a limited number of invalidated chunks per frame,
+     * oldest invalidated first.
+     */
+    @Test
+    void testCachedRebake()
+    {
+        final MapTileViewer cached = new MapTileViewerModel(services, 2);
+        cached.prepare(map);
+
+        final AtomicInteger count = new AtomicInteger();
+        cached.addRenderer(createCacheable(count));
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 40, 40);
+        for (int ty = 0; ty < 40; ty++)
+        {
+            for (int tx = 0; tx < 40; tx++)
+            {
+                map.setTile(tx, ty, 0);
+            }
+        }
+        viewer.set(0, 0);
+        cached.render(g);
+
+        final int visible = count.get();
+        final ImageBuffer[] chunks = UtilReflection.getField(cached, "chunks");
+        final ImageBuffer first = chunks[0];
+        final boolean[] dirty = UtilReflection.getField(cached, "dirty");
+
+        assertTrue(visible > MapTileViewerModel.MAX_REBAKES * 4);
+
+        cached.invalidate();
+        cached.render(g);
+
+        assertEquals(visible + MapTileViewerModel.MAX_REBAKES * 4, count.get());
+        assertEquals(first, chunks[0]);
+        assertFalse(dirty[0]);
+
+        cached.invalidate(0, 0);
+        cached.render(g);
+
+        assertTrue(dirty[0]);
+
+        for (int i = 0; i < visible; i++)
+        {
+            cached.render(g);
+        }
+
+        assertEquals(visible * 2 + 4, count.get());
+        assertFalse(dirty[0]);
+        assertEquals(first, chunks[0]);
+    }
+
+    /**
+     * Test the cached viewer renders each frame while a renderer is not cacheable.
+     */
+    @Test
+    void testCachedNotCacheable()
+    {
+        final MapTileViewer cached = new MapTileViewerModel(services, 2);
+        cached.prepare(map);
+
+        final AtomicInteger count = new AtomicInteger();
+        cached.addRenderer(createCacheable(count));
+
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(80, 80), 40, 40)));
+        map.create(40, 40, 4, 4);
+        map.setTile(0, 0, 0);
+        cached.render(g);
+        cached.render(g);
+
+        assertEquals(1, count.get());
+
+        final AtomicInteger live = new AtomicInteger();
+        final MapTileRenderer renderer = (g, tile, x, y) -> live.incrementAndGet();
+        cached.addRenderer(renderer);
+        cached.render(g);
+        cached.render(g);
+
+        assertEquals(3, count.get());
+        assertEquals(2, live.get());
+        assertEquals(0, UtilReflection.<ImageBuffer[]> getField(cached, "chunks").length);
+
+        cached.removeRenderer(renderer);
+        cached.render(g);
+        cached.render(g);
+
+        assertEquals(4, count.get());
+        assertEquals(2, live.get());
+    }
+
+    /**
+     * Test invalid cache chunk size.
+     */
+    @Test
+    void testInvalidChunkSize()
+    {
+        assertThrows(() -> new MapTileViewerModel(services, -1), "Invalid argument: -1 is not superior or equal to 0");
+    }
 }
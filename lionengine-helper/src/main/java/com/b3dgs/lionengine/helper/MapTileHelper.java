@@ -150,7 +150,7 @@ public class MapTileHelper extends MapTileGame
 
         mapGroup = addFeatureAndGet(new MapTileGroupModel());
         mapCollision = addFeatureAndGet(new MapTileCollisionModel());
-        mapPath = addFeatureAndGet(new MapTilePathModel());
+        mapPath = addFeatureAndGet(new MapTilePathModel(services));
         mapTransition = addFeatureAndGet(new MapTileTransitionModel());
         mapCircuit = addFeatureAndGet(new MapTileCircuitModel());
         mapRaster = addFeatureAndGet(new MapTileRasteredModel());